@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the structural copy engine used by CopyUtil with the java serialization based deep copy.
+ * Run with the gc profiler (-prof gc) to compare allocation rates as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CopyUtilBenchmark {
+
+    private static final String USER_JSON = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"]," +
+            "\"id\":\"229d3f0d-a07b-4052-bf4d-3071ecafed04\",\"externalId\":\"e-1001\",\"userName\":\"kim\"," +
+            "\"active\":true,\"displayName\":\"Kim Jensen\",\"nickName\":\"kj\",\"title\":\"Engineer\"," +
+            "\"name\":{\"givenName\":\"Kim\",\"familyName\":\"Jensen\",\"formatted\":\"Kim Jensen\"}," +
+            "\"emails\":[{\"value\":\"kim@example.com\",\"type\":\"work\",\"primary\":true}," +
+            "{\"value\":\"kim@home.com\",\"type\":\"home\"}]," +
+            "\"phoneNumbers\":[{\"value\":\"555-555-5555\",\"type\":\"work\"}," +
+            "{\"value\":\"555-555-4444\",\"type\":\"mobile\"}]," +
+            "\"addresses\":[{\"streetAddress\":\"100 Universal City Plaza\",\"locality\":\"Hollywood\"," +
+            "\"region\":\"CA\",\"postalCode\":\"91608\",\"country\":\"USA\",\"type\":\"work\"}]," +
+            "\"meta\":{\"created\":\"2026-01-01T10:00:00Z\",\"lastModified\":\"2026-01-02T10:00:00Z\"," +
+            "\"resourceType\":\"User\"}}";
+
+    private User user;
+    private SCIMResourceTypeSchema schema;
+
+    @Setup
+    public void setup() throws Exception {
+
+        user = new JSONDecoder().decodeResource(USER_JSON, SCIMSchemaDefinitions.SCIM_USER_SCHEMA, new User());
+        schema = SCIMSchemaDefinitions.SCIM_USER_SCHEMA;
+    }
+
+    @Benchmark
+    public Object structuralUserCopy() {
+
+        return StructuralCopier.copy(user);
+    }
+
+    @Benchmark
+    public Object serializationUserCopy() {
+
+        return CopyUtil.serializationCopy(user);
+    }
+
+    @Benchmark
+    public Object structuralSchemaCopy() {
+
+        return StructuralCopier.copy(schema);
+    }
+
+    @Benchmark
+    public Object serializationSchemaCopy() {
+
+        return CopyUtil.serializationCopy(schema);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils.codeutils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single pass filter parser with the StreamTokenizer based parser it replaced, on compound filters of
+ * growing length. Run with the gc profiler (-prof gc) to compare allocation rates as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterTreeManagerBenchmark {
+
+    private static final String[] EXPRESSIONS = {
+            "userName sw \"kim\"",
+            "name.familyName co \"Jensen\"",
+            "meta.lastModified gt 2011-05-13T04:42:34Z",
+            "not (emails pr)",
+            "(title eq \"Engineer\" or nickName ew \"kj\")",
+            "urn:ietf:params:scim:schemas:core:2.0:User:displayName ne \"Kim\""
+    };
+
+    @Param({"1", "8", "32"})
+    private int expressions;
+
+    private String filter;
+    private SCIMResourceTypeSchema schema;
+
+    @Setup
+    public void setup() {
+
+        StringBuilder filterBuilder = new StringBuilder();
+        for (int i = 0; i < expressions; i++) {
+            if (i > 0) {
+                filterBuilder.append(i % 3 == 0 ? " or " : " and ");
+            }
+            filterBuilder.append(EXPRESSIONS[i % EXPRESSIONS.length]);
+        }
+        filter = filterBuilder.toString();
+        schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
+    }
+
+    @Benchmark
+    public Node singlePassParser() throws Exception {
+
+        return new FilterTreeManager(filter, schema).buildTree();
+    }
+
+    @Benchmark
+    public Node streamTokenizerParser() throws Exception {
+
+        return new LegacyFilterTreeManager(filter, schema).buildTree();
+    }
+}
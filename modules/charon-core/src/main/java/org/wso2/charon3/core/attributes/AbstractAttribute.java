@@ -19,17 +19,25 @@ package org.wso2.charon3.core.attributes;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.wso2.charon3.core.schema.AttributeSchema;
 import org.wso2.charon3.core.schema.SCIMDefinitions;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * This class abstracts out the common characteristics of different types of attributes defined in
  * SCIM Core Schema Spec.
+ * <p>
+ * The characteristics of an attribute are read from the attribute schema it was created from, which is shared by all
+ * the attributes created from it. A characteristic is only held by the attribute itself when it is set explicitly.
+ * The containers of custom attribute properties are created when the first property is added.
 */
 public abstract class AbstractAttribute implements Attribute {
 
+    //schema the attribute was created from, which provides the characteristics that are not set explicitly
+    protected AttributeSchema attributeSchema;
     //unique identifier for the attribute
     protected String uri;
     //name of the attribute
@@ -50,13 +58,31 @@ public abstract class AbstractAttribute implements Attribute {
     protected SCIMDefinitions.Returned returned;
     //A SCIM defined value that specifies the uniqueness level of an attribute.
     protected SCIMDefinitions.Uniqueness uniqueness;
-    //A container to hold custom attribute properties.
-    protected Map<String, String> additionalAttributeProperties = new HashMap<>();
-    protected Map<String, JSONObject> additionalAttributeJSONProperties = new HashMap<>();
-    protected Map<String, JSONArray> additionalAttributeJSONArrays = new HashMap<>();
+    //Containers to hold custom attribute properties, created when the first property is added.
+    protected Map<String, String> additionalAttributeProperties;
+    protected Map<String, JSONObject> additionalAttributeJSONProperties;
+    protected Map<String, JSONArray> additionalAttributeJSONArrays;
+
+    public AttributeSchema getAttributeSchema() {
+
+        return attributeSchema;
+    }
+
+    /**
+     * Set the schema the attribute was created from. The schema is referenced rather than copied, and provides the
+     * characteristics of the attribute which are not set explicitly.
+     *
+     * @param attributeSchema Schema of the attribute.
+     */
+    public void setAttributeSchema(AttributeSchema attributeSchema) {
+
+        this.attributeSchema = attributeSchema;
+    }
 
     public String getURI() {
-        return uri; }
+
+        return uri != null || attributeSchema == null ? uri : attributeSchema.getURI();
+    }
 
     public void setURI(String uri) {
         this.uri = uri; }
@@ -78,7 +104,11 @@ public abstract class AbstractAttribute implements Attribute {
     }
 
     public Boolean getMultiValued() {
-        return multiValued;
+
+        if (multiValued != null || attributeSchema == null) {
+            return multiValued;
+        }
+        return attributeSchema.getMultiValued();
     }
 
     public void setMultiValued(Boolean multiValued) {
@@ -86,7 +116,8 @@ public abstract class AbstractAttribute implements Attribute {
     }
 
     public String getDescription() {
-        return description;
+
+        return description != null || attributeSchema == null ? description : attributeSchema.getDescription();
     }
 
     public void setDescription(String description) {
@@ -94,7 +125,11 @@ public abstract class AbstractAttribute implements Attribute {
     }
 
     public Boolean getRequired() {
-        return required;
+
+        if (required != null || attributeSchema == null) {
+            return required;
+        }
+        return attributeSchema.getRequired();
     }
 
     public void setRequired(Boolean required) {
@@ -102,7 +137,11 @@ public abstract class AbstractAttribute implements Attribute {
     }
 
     public Boolean getCaseExact() {
-        return caseExact;
+
+        if (caseExact != null || attributeSchema == null) {
+            return caseExact;
+        }
+        return attributeSchema.getCaseExact();
     }
 
     public void setCaseExact(Boolean caseExact) {
@@ -110,7 +149,8 @@ public abstract class AbstractAttribute implements Attribute {
     }
 
     public SCIMDefinitions.Mutability getMutability() {
-        return mutability;
+
+        return mutability != null || attributeSchema == null ? mutability : attributeSchema.getMutability();
     }
 
     public void setMutability(SCIMDefinitions.Mutability mutability) {
@@ -118,77 +158,130 @@ public abstract class AbstractAttribute implements Attribute {
     }
 
     public SCIMDefinitions.Returned getReturned() {
-        return returned; }
+
+        return returned != null || attributeSchema == null ? returned : attributeSchema.getReturned();
+    }
 
     public void setReturned(SCIMDefinitions.Returned returned) {
         this.returned = returned;
     }
 
     public SCIMDefinitions.Uniqueness getUniqueness() {
-        return uniqueness;
+
+        return uniqueness != null || attributeSchema == null ? uniqueness : attributeSchema.getUniqueness();
     }
 
     public void setUniqueness(SCIMDefinitions.Uniqueness uniqueness) {
         this.uniqueness = uniqueness;
     }
 
+    /**
+     * Copy the schema reference, the explicitly set characteristics and the data type of this attribute to the given
+     * attribute. Custom attribute properties are not copied.
+     *
+     * @param target Attribute to copy the characteristics to.
+     */
+    public void copyCharacteristicsTo(AbstractAttribute target) {
+
+        target.attributeSchema = attributeSchema;
+        target.uri = uri;
+        target.type = type;
+        target.multiValued = multiValued;
+        target.description = description;
+        target.required = required;
+        target.caseExact = caseExact;
+        target.mutability = mutability;
+        target.returned = returned;
+        target.uniqueness = uniqueness;
+    }
+
     public String getAttributeProperty(String propertyName) {
 
-        return additionalAttributeProperties.get(propertyName);
+        return additionalAttributeProperties == null ? null : additionalAttributeProperties.get(propertyName);
     }
 
+    /**
+     * Return the custom attribute properties. Use {@link #addAttributeProperty(String, String)} to add one, as the
+     * returned map is read only while the attribute has no custom properties.
+     *
+     * @return Property name to value.
+     */
     public Map<String, String> getAttributeProperties() {
 
-        return additionalAttributeProperties;
+        return additionalAttributeProperties == null ? Collections.emptyMap() : additionalAttributeProperties;
     }
 
     public void addAttributeProperty(String propertyName, String propertyValue) {
 
+        if (additionalAttributeProperties == null) {
+            additionalAttributeProperties = new HashMap<>();
+        }
         this.additionalAttributeProperties.put(propertyName, propertyValue);
     }
 
     public String removeAttributeProperty(String propertyName) {
 
-        return additionalAttributeProperties.remove(propertyName);
+        return additionalAttributeProperties == null ? null : additionalAttributeProperties.remove(propertyName);
     }
 
+    /**
+     * Return the custom attribute properties with JSON object values. Use
+     * {@link #addAttributeJSONProperty(String, JSONObject)} to add one, as the returned map is read only while the
+     * attribute has no such properties.
+     *
+     * @return Property name to value.
+     */
     public Map<String, JSONObject> getAttributeJSONProperties() {
 
-        return additionalAttributeJSONProperties;
+        return additionalAttributeJSONProperties == null ? Collections.emptyMap() : additionalAttributeJSONProperties;
     }
 
     public JSONObject getAttributeJSONProperty(String propertyName) {
 
-        return additionalAttributeJSONProperties.get(propertyName);
+        return additionalAttributeJSONProperties == null ? null : additionalAttributeJSONProperties.get(propertyName);
     }
 
     public void addAttributeJSONProperty(String propertyName, JSONObject jsonObject) {
 
+        if (additionalAttributeJSONProperties == null) {
+            additionalAttributeJSONProperties = new HashMap<>();
+        }
         this.additionalAttributeJSONProperties.put(propertyName, jsonObject);
     }
 
     public JSONObject removeAttributeJSONProperty(String propertyName) {
 
-        return additionalAttributeJSONProperties.remove(propertyName);
+        return additionalAttributeJSONProperties == null ? null :
+                additionalAttributeJSONProperties.remove(propertyName);
     }
 
+    /**
+     * Return the custom attribute properties with JSON array values. Use
+     * {@link #addAttributeJSONArray(String, JSONArray)} to add one, as the returned map is read only while the
+     * attribute has no such properties.
+     *
+     * @return Property name to value.
+     */
     public Map<String, JSONArray> getAttributeJSONArrays() {
 
-        return additionalAttributeJSONArrays;
+        return additionalAttributeJSONArrays == null ? Collections.emptyMap() : additionalAttributeJSONArrays;
     }
 
     public JSONArray getAttributeJSONArray(String propertyName) {
 
-        return additionalAttributeJSONArrays.get(propertyName);
+        return additionalAttributeJSONArrays == null ? null : additionalAttributeJSONArrays.get(propertyName);
     }
 
     public void addAttributeJSONArray(String propertyName, JSONArray jsonArray) {
 
+        if (additionalAttributeJSONArrays == null) {
+            additionalAttributeJSONArrays = new HashMap<>();
+        }
         this.additionalAttributeJSONArrays.put(propertyName, jsonArray);
     }
 
     public JSONArray removeAttributeJSONArray(String propertyName) {
 
-        return additionalAttributeJSONArrays.remove(propertyName);
+        return additionalAttributeJSONArrays == null ? null : additionalAttributeJSONArrays.remove(propertyName);
     }
 }
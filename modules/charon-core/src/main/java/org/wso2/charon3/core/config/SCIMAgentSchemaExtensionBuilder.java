@@ -22,6 +22,7 @@ import org.wso2.charon3.core.attributes.SCIMCustomAttribute;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 
 import java.util.HashMap;
 import java.util.List;
@@ -79,6 +80,7 @@ public class SCIMAgentSchemaExtensionBuilder extends ExtensionBuilder {
                 buildComplexAttributeSchema(attributeSchemaConfig.getValue(), attributeSchemas, attributeConfigs);
             }
         }
+        SCIMResourceSchemaManager.getInstance().invalidateUserResourceSchemas();
         // Now get the extension schema.
         return attributeSchemas.get(EXTENSION_ROOT_ATTRIBUTE_URI);
     }
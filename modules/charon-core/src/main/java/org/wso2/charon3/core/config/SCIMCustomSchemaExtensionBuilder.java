@@ -20,6 +20,7 @@ import org.wso2.charon3.core.attributes.SCIMCustomAttribute;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 
 import java.util.HashMap;
 import java.util.List;
@@ -86,6 +87,7 @@ public class SCIMCustomSchemaExtensionBuilder extends ExtensionBuilder {
                 buildComplexAttributeSchema(attributeSchemaConfig.getValue(), attributeSchemas, attributeConfigs);
             }
         }
+        SCIMResourceSchemaManager.getInstance().invalidateUserResourceSchemas();
         // Now get the extension schema.
         return  attributeSchemas.get(rootAttributeURI);
     }
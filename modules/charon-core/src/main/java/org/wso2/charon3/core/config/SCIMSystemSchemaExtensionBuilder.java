@@ -26,6 +26,7 @@ import org.wso2.charon3.core.attributes.SCIMCustomAttribute;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -115,6 +116,7 @@ public class SCIMSystemSchemaExtensionBuilder extends ExtensionBuilder {
         }
 
         extensionSchema = attributeSchemas.get(EXTENSION_ROOT_ATTRIBUTE_URI);
+        SCIMResourceSchemaManager.getInstance().invalidateUserResourceSchemas();
     }
 
     public AttributeSchema buildSystemSchemaExtension(List<SCIMCustomAttribute> attributes) throws CharonException,
@@ -135,6 +137,7 @@ public class SCIMSystemSchemaExtensionBuilder extends ExtensionBuilder {
                 buildComplexAttributeSchema(attributeSchemaConfig.getValue(), attributeSchemas, attributeConfigs);
             }
         }
+        SCIMResourceSchemaManager.getInstance().invalidateUserResourceSchemas();
         // Now get the extension schema.
         return  attributeSchemas.get(EXTENSION_ROOT_ATTRIBUTE_URI);
     }
@@ -22,6 +22,7 @@ import org.json.JSONObject;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -93,6 +94,7 @@ public class SCIMUserSchemaExtensionBuilder extends ExtensionBuilder {
         }
 
         extensionSchema = attributeSchemas.get(extensionRootAttributeURI);
+        SCIMResourceSchemaManager.getInstance().invalidateUserResourceSchemas();
     }
 
     public void readConfiguration(InputStream inputStream) throws CharonException {
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.encoder;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.objects.bulk.BulkRequestData;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reads the operations of a bulk request a few at a time, so that a bulk request can be processed without holding
+ * all of its operations in memory. It is obtained from {@link JSONDecoder#openBulkRequest(java.io.Reader)}, which
+ * has read the members preceding the Operations array.
+ */
+public final class JSONBulkRequestReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(JSONBulkRequestReader.class);
+
+    private final JSONDecoder decoder;
+    private final JSONPullParser parser;
+    private final int failOnErrors;
+    private final Set<String> encounteredBulkIds = new HashSet<>();
+    private int operationCount;
+    private boolean done;
+
+    JSONBulkRequestReader(JSONDecoder decoder, JSONPullParser parser, int failOnErrors) {
+
+        this.decoder = decoder;
+        this.parser = parser;
+        this.failOnErrors = failOnErrors;
+    }
+
+    public int getFailOnErrors() {
+
+        return failOnErrors;
+    }
+
+    /**
+     * Return the number of operations read so far, including those on endpoints which are not supported.
+     *
+     * @return Number of operations read.
+     */
+    public int getOperationCount() {
+
+        return operationCount;
+    }
+
+    /**
+     * Read the next operations of the request into the operation lists of the given bulk request data, as
+     * {@link JSONDecoder#decodeBulkData(java.io.Reader)} does. Operations on endpoints which are not supported are
+     * read but not added.
+     *
+     * @param bulkRequestData Bulk request data to add the operations to.
+     * @param maxOperations   Maximum number of operations to read.
+     * @return Number of operations read, which is 0 once all the operations have been read.
+     * @throws BadRequestException If an operation is not valid, or the request is not valid json.
+     */
+    public int readOperations(BulkRequestData bulkRequestData, int maxOperations) throws BadRequestException {
+
+        int readOperations = 0;
+        try {
+            while (!done && readOperations < maxOperations) {
+                if (!parser.nextElement()) {
+                    done = true;
+                    // Members following the operations are skipped.
+                    while (parser.nextKey() != null) {
+                        parser.skipValue();
+                    }
+                    break;
+                }
+                JSONObject member = decoder.readBulkOperation(parser);
+                String requestType = member.optString(SCIMConstants.OperationalConstants.PATH);
+                String requestMethod = member.optString(SCIMConstants.OperationalConstants.METHOD);
+                String requestVersion = member.optString(SCIMConstants.OperationalConstants.VERSION);
+                decoder.checkBulkId(member, requestMethod, encounteredBulkIds);
+                decoder.setRequestData(requestType, requestMethod, requestVersion, member,
+                        bulkRequestData.getUserOperationRequests(), bulkRequestData.getGroupOperationRequests(),
+                        bulkRequestData.getRoleOperationRequests(), bulkRequestData.getRoleV2OperationRequests());
+                operationCount++;
+                readOperations++;
+            }
+        } catch (JSONException | ClassCastException e) {
+            done = true;
+            if (logger.isDebugEnabled()) {
+                logger.debug("JSON string could not be decoded properly.", e);
+            }
+            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+        } catch (BadRequestException e) {
+            done = true;
+            throw e;
+        }
+        return readOperations;
+    }
+}
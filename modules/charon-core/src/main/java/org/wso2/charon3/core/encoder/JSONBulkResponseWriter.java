@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.encoder;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.wso2.charon3.core.objects.bulk.BulkResponseContent;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes a bulk response one operation response at a time, so that the responses of a bulk request need not be
+ * held until all of its operations have been processed. It is obtained from
+ * {@link JSONEncoder#openBulkResponse(java.io.OutputStream)}.
+ */
+public final class JSONBulkResponseWriter implements Closeable {
+
+    private final JSONEncoder encoder;
+    private final Writer writer;
+    private final List<String> schemas;
+    private boolean started;
+    private boolean hasOperations;
+
+    JSONBulkResponseWriter(JSONEncoder encoder, Writer writer, List<String> schemas) {
+
+        this.encoder = encoder;
+        this.writer = writer;
+        this.schemas = schemas;
+    }
+
+    /**
+     * Write the response of an operation.
+     *
+     * @param responseContent Response of the operation.
+     * @throws IOException If the response cannot be encoded or written.
+     */
+    public void write(BulkResponseContent responseContent) throws IOException {
+
+        start();
+        if (hasOperations) {
+            writer.write(',');
+        }
+        try {
+            encoder.encodeResponseContent(responseContent).write(writer);
+        } catch (JSONException e) {
+            throw new IOException("Error in encoding the response", e);
+        }
+        hasOperations = true;
+    }
+
+    /**
+     * Send the responses written so far to the underlying stream.
+     *
+     * @throws IOException If the responses cannot be written.
+     */
+    public void flush() throws IOException {
+
+        writer.flush();
+    }
+
+    /**
+     * Complete the bulk response and flush it. The underlying stream is not closed.
+     *
+     * @throws IOException If the response cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+
+        start();
+        writer.write("]}");
+        writer.flush();
+    }
+
+    private void start() throws IOException {
+
+        if (started) {
+            return;
+        }
+        started = true;
+        writer.write("{\"");
+        writer.write(SCIMConstants.CommonSchemaConstants.SCHEMAS);
+        writer.write("\":");
+        try {
+            new JSONArray(schemas).write(writer);
+        } catch (JSONException e) {
+            throw new IOException("Error in encoding the response", e);
+        }
+        writer.write(",\"");
+        writer.write(SCIMConstants.OperationalConstants.OPERATIONS);
+        writer.write("\":[");
+    }
+}
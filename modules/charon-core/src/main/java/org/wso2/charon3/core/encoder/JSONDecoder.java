@@ -46,13 +46,20 @@ import org.wso2.charon3.core.schema.SCIMDefinitions;
 import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.charon3.core.utils.AttributeUtil;
-import org.wso2.charon3.core.utils.codeutils.FilterTreeManager;
+import org.wso2.charon3.core.utils.codeutils.FilterTreeCache;
 import org.wso2.charon3.core.utils.codeutils.Node;
 import org.wso2.charon3.core.utils.codeutils.PatchOperation;
 import org.wso2.charon3.core.utils.codeutils.SearchRequest;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -78,6 +85,19 @@ public class JSONDecoder {
 
     private static final Logger logger = LoggerFactory.getLogger(JSONDecoder.class);
 
+    // Members of a search request body, any other member is skipped while decoding it.
+    private static final Set<String> SEARCH_REQUEST_MEMBERS = new HashSet<>(Arrays.asList(
+            SCIMConstants.CommonSchemaConstants.SCHEMAS, SCIMConstants.OperationalConstants.ATTRIBUTES,
+            SCIMConstants.OperationalConstants.EXCLUDED_ATTRIBUTES, SCIMConstants.OperationalConstants.FILTER,
+            SCIMConstants.OperationalConstants.COUNT, SCIMConstants.OperationalConstants.START_INDEX,
+            SCIMConstants.OperationalConstants.DOMAIN, SCIMConstants.OperationalConstants.SORT_BY,
+            SCIMConstants.OperationalConstants.SORT_ORDER));
+
+    // Members of a bulk operation besides its data, any other member is skipped while decoding it.
+    private static final Set<String> BULK_OPERATION_MEMBERS = new HashSet<>(Arrays.asList(
+            SCIMConstants.OperationalConstants.PATH, SCIMConstants.OperationalConstants.METHOD,
+            SCIMConstants.OperationalConstants.VERSION, SCIMConstants.OperationalConstants.BULK_ID));
+
 
     public JSONDecoder() {
 
@@ -292,9 +312,116 @@ public class JSONDecoder {
                                                            ResourceTypeSchema resourceSchema,
                                                            T scimObject)
             throws BadRequestException, CharonException, InternalErrorException {
+
+        return decodeResource(new StringReader(scimResourceString), resourceSchema, scimObject);
+    }
+
+    /**
+     * Decode the resource sent in the SCIM request payload, reading it as UTF-8 from the given stream.
+     *
+     * @param inputStream    Stream holding the json encoded resource.
+     * @param resourceSchema SCIM defined resource schema.
+     * @param scimObject     A container holding the attributes and schema list.
+     * @return SCIMObject
+     */
+    public <T extends AbstractSCIMObject> T decodeResource(InputStream inputStream,
+                                                           ResourceTypeSchema resourceSchema,
+                                                           T scimObject)
+            throws BadRequestException, CharonException, InternalErrorException {
+
+        return decodeResource(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)),
+                resourceSchema, scimObject);
+    }
+
+    /**
+     * Decode the resource sent in the SCIM request payload straight from the given reader.
+     * <p>
+     * Attributes are built from the token stream as the payload is read, without parsing the payload into a
+     * json object first. Values of attributes which are not defined in the resource schema are skipped without
+     * being materialised. Type mismatches are reported as soon as the offending value is reached.
+     *
+     * @param reader         Reader holding the json encoded resource.
+     * @param resourceSchema SCIM defined resource schema.
+     * @param scimObject     A container holding the attributes and schema list.
+     * @return SCIMObject
+     */
+    public <T extends AbstractSCIMObject> T decodeResource(Reader reader,
+                                                           ResourceTypeSchema resourceSchema,
+                                                           T scimObject)
+            throws BadRequestException, CharonException, InternalErrorException {
+
+        try {
+            return readResource(new JSONPullParser(reader), resourceSchema, scimObject);
+        } catch (JSONException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("json error in decoding the resource", e);
+            }
+            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+        }
+    }
+
+    private <T extends AbstractSCIMObject> T readResource(JSONPullParser parser, ResourceTypeSchema resourceSchema,
+                                                          T scimObject)
+            throws BadRequestException, CharonException, InternalErrorException, JSONException {
+
+        List<AttributeSchema> attributeSchemas = resourceSchema.getAttributesList();
+        //set the schemas in scimobject
+        for (int i = 0; i < resourceSchema.getSchemasList().size(); i++) {
+            scimObject.setSchema(resourceSchema.getSchemasList().get(i));
+        }
+
+        // Attributes given by their name are decoded on the fly. Those given by their uri or by a name in a
+        // different case are kept aside, as a later member may still give the same attribute by its name.
+        Set<AttributeSchema> namedAttributes = new HashSet<>();
+        Map<AttributeSchema, Object> uriValues = new HashMap<>();
+        Map<AttributeSchema, Object> caseInsensitiveValues = new HashMap<>();
+        parser.beginObject();
+        String key;
+        while ((key = parser.nextKey()) != null) {
+            AttributeSchema attributeSchema = findAttributeSchema(attributeSchemas, key);
+            if (attributeSchema != null) {
+                namedAttributes.add(attributeSchema);
+                readAttribute(parser, attributeSchema, resourceSchema, scimObject);
+                continue;
+            }
+            attributeSchema = findAttributeSchemaByURI(attributeSchemas, key);
+            if (attributeSchema != null) {
+                uriValues.put(attributeSchema, parser.nextValue());
+                continue;
+            }
+            attributeSchema = findAttributeSchemaIgnoreCase(attributeSchemas, key);
+            if (attributeSchema != null) {
+                caseInsensitiveValues.put(attributeSchema, parser.nextValue());
+                continue;
+            }
+            parser.skipValue();
+        }
+        for (AttributeSchema attributeSchema : attributeSchemas) {
+            if (namedAttributes.contains(attributeSchema)) {
+                continue;
+            }
+            Object attributeValObj = uriValues.get(attributeSchema);
+            if (attributeValObj == null) {
+                attributeValObj = caseInsensitiveValues.get(attributeSchema);
+            }
+            decodeAttribute(attributeSchema, attributeValObj, resourceSchema, scimObject);
+        }
+        return scimObject;
+    }
+
+    /**
+     * Decode a resource which has already been parsed into a json object.
+     *
+     * @param decodedJsonObj - json representation of the resource
+     * @param resourceSchema - SCIM defined resource schema
+     * @param scimObject     - a container holding the attributes and schema list
+     * @return SCIMObject
+     */
+    public <T extends AbstractSCIMObject> T decodeResource(JSONObject decodedJsonObj,
+                                                           ResourceTypeSchema resourceSchema,
+                                                           T scimObject)
+            throws BadRequestException, CharonException, InternalErrorException {
         try {
-            //decode the string into json representation
-            JSONObject decodedJsonObj = new JSONObject(new JSONTokener(scimResourceString));
             //get the attribute schemas list from the schema that defines the given resource
             List<AttributeSchema> attributeSchemas = resourceSchema.getAttributesList();
 
@@ -318,76 +445,7 @@ public class JSONDecoder {
                         }
                     }
                 }
-                SCIMDefinitions.DataType attributeSchemaDataType = attributeSchema.getType();
-
-                if (attributeSchemaDataType.equals(STRING) || attributeSchemaDataType.equals(BINARY) ||
-                        attributeSchemaDataType.equals(BOOLEAN) || attributeSchemaDataType.equals(DATE_TIME) ||
-                        attributeSchemaDataType.equals(DECIMAL) || attributeSchemaDataType.equals(INTEGER) ||
-                        attributeSchemaDataType.equals(REFERENCE)) {
-
-                    if (!attributeSchema.getMultiValued()) {
-                        if (attributeValObj instanceof String || attributeValObj instanceof Boolean ||
-                                attributeValObj instanceof Integer ||
-                                JSONObject.NULL.equals(attributeValObj) || attributeValObj == null) {
-                            //If an attribute is passed without a value, no need to save it.
-                            if (attributeValObj == null) {
-                                continue;
-                            }
-                            //if the corresponding schema data type is String/Boolean/Binary/Decimal/Integer/DataTime
-                            // or Reference, it is a SimpleAttribute.
-                            scimObject.setAttribute(buildSimpleAttribute
-                                    (attributeSchema, attributeValObj), resourceSchema);
-
-                        } else {
-                            logger.error("Error decoding the simple attribute");
-                            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
-                        }
-                    } else {
-                        if (attributeValObj instanceof JSONArray || attributeValObj == null) {
-                            //If an attribute is passed without a value, no need to save it.
-                            if (attributeValObj == null) {
-                                continue;
-                            }
-
-                            // Assign permissions of the Role.
-                            if (scimObject instanceof Role) {
-                                ((Role) scimObject).setPermissions(toList((JSONArray) attributeValObj));
-                            }
-
-                            scimObject.setAttribute(buildPrimitiveMultiValuedAttribute(attributeSchema,
-                                    (JSONArray) attributeValObj), resourceSchema);
-                        } else {
-                            logger.error("Error decoding the primitive multivalued attribute");
-                            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
-                        }
-                    }
-                } else if (attributeSchemaDataType.equals(COMPLEX)) {
-                    if (attributeSchema.getMultiValued() == true) {
-                        if (attributeValObj instanceof JSONArray || attributeValObj == null) {
-                            if (attributeValObj == null) {
-                                continue;
-                            }
-                            //if the corresponding json value object is JSONArray, it is a MultiValuedAttribute.
-                            scimObject.setAttribute(buildComplexMultiValuedAttribute(attributeSchema,
-                                    (JSONArray) attributeValObj), resourceSchema);
-                        } else {
-                            logger.error("Error decoding the complex multivalued attribute");
-                            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
-                        }
-                    } else if (attributeSchema.getMultiValued() == false) {
-                        if (attributeValObj instanceof JSONObject || attributeValObj == null) {
-                            if (attributeValObj == null) {
-                                continue;
-                            }
-                            //if the corresponding json value object is JSONObject, it is a ComplexAttribute.
-                            scimObject.setAttribute(buildComplexAttribute(attributeSchema,
-                                    (JSONObject) attributeValObj), resourceSchema);
-                        } else {
-                            logger.error("Error decoding the complex attribute");
-                            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
-                        }
-                    }
-                }
+                decodeAttribute(attributeSchema, attributeValObj, resourceSchema, scimObject);
             }
             return scimObject;
         } catch (JSONException e) {
@@ -398,6 +456,120 @@ public class JSONDecoder {
         }
     }
 
+    /*
+     * Decode the json value given for an attribute of the resource and set it in the scim object.
+     */
+    private <T extends AbstractSCIMObject> void decodeAttribute(AttributeSchema attributeSchema,
+                                                                Object attributeValObj,
+                                                                ResourceTypeSchema resourceSchema, T scimObject)
+            throws BadRequestException, CharonException, InternalErrorException {
+
+        //If an attribute is passed without a value, no need to save it.
+        if (attributeValObj == null) {
+            return;
+        }
+        SCIMDefinitions.DataType attributeSchemaDataType = attributeSchema.getType();
+        if (isSimpleDataType(attributeSchemaDataType)) {
+            if (!attributeSchema.getMultiValued()) {
+                if (isSimpleValue(attributeValObj)) {
+                    //if the corresponding schema data type is String/Boolean/Binary/Decimal/Integer/DataTime
+                    // or Reference, it is a SimpleAttribute.
+                    scimObject.setAttribute(buildSimpleAttribute
+                            (attributeSchema, attributeValObj), resourceSchema);
+                } else {
+                    logger.error("Error decoding the simple attribute");
+                    throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+                }
+            } else {
+                if (attributeValObj instanceof JSONArray) {
+                    // Assign permissions of the Role.
+                    if (scimObject instanceof Role role) {
+                        role.setPermissions(toList((JSONArray) attributeValObj));
+                    }
+
+                    scimObject.setAttribute(buildPrimitiveMultiValuedAttribute(attributeSchema,
+                            (JSONArray) attributeValObj), resourceSchema);
+                } else {
+                    logger.error("Error decoding the primitive multivalued attribute");
+                    throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+                }
+            }
+        } else if (attributeSchemaDataType.equals(COMPLEX)) {
+            if (attributeSchema.getMultiValued()) {
+                if (attributeValObj instanceof JSONArray) {
+                    //if the corresponding json value object is JSONArray, it is a MultiValuedAttribute.
+                    scimObject.setAttribute(buildComplexMultiValuedAttribute(attributeSchema,
+                            (JSONArray) attributeValObj), resourceSchema);
+                } else {
+                    logger.error("Error decoding the complex multivalued attribute");
+                    throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+                }
+            } else {
+                if (attributeValObj instanceof JSONObject) {
+                    //if the corresponding json value object is JSONObject, it is a ComplexAttribute.
+                    scimObject.setAttribute(buildComplexAttribute(attributeSchema,
+                            (JSONObject) attributeValObj), resourceSchema);
+                } else {
+                    logger.error("Error decoding the complex attribute");
+                    throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+                }
+            }
+        }
+    }
+
+    /*
+     * Read the value of an attribute of the resource from the parser and set it in the scim object.
+     */
+    private <T extends AbstractSCIMObject> void readAttribute(JSONPullParser parser, AttributeSchema attributeSchema,
+                                                              ResourceTypeSchema resourceSchema, T scimObject)
+            throws BadRequestException, CharonException, InternalErrorException {
+
+        SCIMDefinitions.DataType attributeSchemaDataType = attributeSchema.getType();
+        if (isSimpleDataType(attributeSchemaDataType)) {
+            if (!attributeSchema.getMultiValued()) {
+                Object attributeValObj = readSimpleValue(parser);
+                if (attributeValObj == null) {
+                    logger.error("Error decoding the simple attribute");
+                    throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+                }
+                scimObject.setAttribute(buildSimpleAttribute(attributeSchema, attributeValObj), resourceSchema);
+            } else {
+                if (parser.peek() != '[') {
+                    logger.error("Error decoding the primitive multivalued attribute");
+                    throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+                }
+                // Permissions of a role must be strings.
+                boolean isRole = scimObject instanceof Role;
+                List<Object> primitiveValues = readPrimitiveValues(parser, attributeSchema, isRole);
+                if (scimObject instanceof Role role) {
+                    List<String> permissions = new ArrayList<>(primitiveValues.size());
+                    for (Object permission : primitiveValues) {
+                        permissions.add((String) permission);
+                    }
+                    role.setPermissions(permissions);
+                }
+                scimObject.setAttribute(createPrimitiveMultiValuedAttribute(attributeSchema, primitiveValues),
+                        resourceSchema);
+            }
+        } else if (attributeSchemaDataType.equals(COMPLEX)) {
+            if (attributeSchema.getMultiValued()) {
+                if (parser.peek() != '[') {
+                    logger.error("Error decoding the complex multivalued attribute");
+                    throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+                }
+                scimObject.setAttribute(readComplexMultiValuedAttribute(parser, attributeSchema), resourceSchema);
+            } else {
+                if (parser.peek() != '{') {
+                    logger.error("Error decoding the complex attribute");
+                    throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+                }
+                scimObject.setAttribute(readComplexAttribute(parser, attributeSchema), resourceSchema);
+            }
+        } else {
+            parser.skipValue();
+        }
+    }
+
     /**
      * Converts a JSONArray to a List<String>.
      *
@@ -452,26 +624,11 @@ public class JSONDecoder {
                 if (attributeValue instanceof JSONObject) {
                     JSONObject complexAttributeValue = (JSONObject) attributeValue;
                     complexAttributeValues.add(buildComplexValue(attributeSchema, complexAttributeValue));
-                } else if (attributeValue instanceof String || attributeValue instanceof Integer || attributeValue
-                        instanceof Double || attributeValue instanceof Boolean || attributeValue == null) {
-                    if (logger.isDebugEnabled()) {
-                        if (attributeValue != null) {
-                            logger.debug(
-                                    "Primitive attribute type detected. Attribute type: " + attributeValue.getClass()
-                                            .getName() + ", attribute value: " + attributeValue);
-                        } else {
-                            logger.debug("Attribute value is null.");
-                        }
-                    }
-                    // If an attribute is passed without a value, no need to save it.
-                    if (attributeValue == null) {
-                        continue;
-                    }
+                } else if (isPrimitiveComplexMultiValuedValue(attributeValue)) {
                     simpleAttributeValues.add(attributeValue);
                 } else {
-                    String error = "Unknown JSON representation for the MultiValued attribute " +
-                            attributeSchema.getName() + " which has data type as " + attributeSchema.getType();
-                    throw new BadRequestException(error, ResponseCodeConstants.INVALID_SYNTAX);
+                    throw new BadRequestException(getUnknownRepresentationError(attributeSchema),
+                            ResponseCodeConstants.INVALID_SYNTAX);
                 }
 
             }
@@ -498,37 +655,35 @@ public class JSONDecoder {
                                                                     JSONArray attributeValues)
             throws CharonException, BadRequestException {
         try {
-            MultiValuedAttribute multiValuedAttribute = new MultiValuedAttribute(attributeSchema.getName());
-
             List<Object> primitiveValues = new ArrayList<Object>();
 
             //iterate through JSONArray and create the list of string values.
             for (int i = 0; i < attributeValues.length(); i++) {
                 Object attributeValue = attributeValues.get(i);
-                if (attributeValue instanceof String || attributeValue instanceof Boolean ||
-                        attributeValue instanceof Integer || attributeValue == null) {
-                    //If an attribute is passed without a value, no need to save it.
-                    if (attributeValue == null) {
-                        continue;
-                    }
+                if (isPrimitiveValue(attributeValue)) {
                     primitiveValues.add(attributeValue);
                 } else {
-                    String error = "Unknown JSON representation for the MultiValued attribute " +
-                            attributeSchema.getName() + " which has data type as " + attributeSchema.getType();
-                    throw new BadRequestException(error, ResponseCodeConstants.INVALID_SYNTAX);
+                    throw new BadRequestException(getUnknownRepresentationError(attributeSchema),
+                            ResponseCodeConstants.INVALID_SYNTAX);
                 }
 
             }
-            multiValuedAttribute.setAttributePrimitiveValues(primitiveValues);
-
-            return (MultiValuedAttribute) DefaultAttributeFactory.createAttribute(attributeSchema,
-                    multiValuedAttribute);
+            return createPrimitiveMultiValuedAttribute(attributeSchema, primitiveValues);
         } catch (JSONException e) {
             String error = "Error in accessing JSON value of multivalued attribute";
             throw new CharonException(error, e);
         }
     }
 
+    private MultiValuedAttribute createPrimitiveMultiValuedAttribute(AttributeSchema attributeSchema,
+                                                                     List<Object> primitiveValues)
+            throws CharonException, BadRequestException {
+
+        MultiValuedAttribute multiValuedAttribute = new MultiValuedAttribute(attributeSchema.getName());
+        multiValuedAttribute.setAttributePrimitiveValues(primitiveValues);
+        return (MultiValuedAttribute) DefaultAttributeFactory.createAttribute(attributeSchema, multiValuedAttribute);
+    }
+
     /*
      * Return a complex attribute with the user defined sub values included and necessary attribute characteristics set
      *
@@ -544,65 +699,22 @@ public class JSONDecoder {
         //list of sub attributes of the complex attribute
         List<AttributeSchema> subAttributeSchemas =
                 ((AttributeSchema) complexAttributeSchema).getSubAttributeSchemas();
-        String userExtensionName = SCIMResourceSchemaManager.getInstance().getExtensionName();
-        String systemExtensionName = SCIMResourceSchemaManager.getInstance().getSystemSchemaExtensionName();
-        String agentExtensionName = SCIMResourceSchemaManager.getInstance().getAgentSchemaExtensionURI();
-        String customExtensionName = SCIMResourceSchemaManager.getInstance().getCustomSchemaExtensionURI();
+        boolean isExtension = isExtensionSchema(complexAttributeSchema);
 
         //iterate through the complex attribute schema and extract the sub attributes.
         for (AttributeSchema subAttributeSchema : subAttributeSchemas) {
             //obtain the user defined value for given key-attribute schema name
             Object attributeValObj = jsonObject.opt(subAttributeSchema.getName());
             SCIMDefinitions.DataType subAttributeSchemaType = subAttributeSchema.getType();
-            if (subAttributeSchemaType.equals(STRING) || subAttributeSchemaType.equals(BINARY) ||
-                    subAttributeSchemaType.equals(BOOLEAN) || subAttributeSchemaType.equals(DATE_TIME) ||
-                    subAttributeSchemaType.equals(DECIMAL) || subAttributeSchemaType.equals(INTEGER) ||
-                    subAttributeSchemaType.equals(REFERENCE)) {
-                if (!subAttributeSchema.getMultiValued()) {
-                    if (attributeValObj instanceof String || attributeValObj instanceof Boolean ||
-                            attributeValObj instanceof Integer ||
-                            JSONObject.NULL.equals(attributeValObj) || attributeValObj == null) {
-                        //If an attribute is passed without a value, no need to save it.
-                        if (attributeValObj == null) {
-                            continue;
-                        }
-                        //if the corresponding schema data type is String/Boolean/Binary/Decimal/Integer/DataTime
-                        // or Reference, it is a SimpleAttribute.
-                        subAttributesMap.put(subAttributeSchema.getName(),
-                                buildSimpleAttribute(subAttributeSchema, attributeValObj));
-                    } else {
-                        logger.error("Error decoding the sub attribute");
-                        throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
-                    }
-                } else {
-                    if (attributeValObj instanceof JSONArray || attributeValObj == null) {
-                        //If an attribute is passed without a value, no need to save it.
-                        if (attributeValObj == null) {
-                            continue;
-                        }
-                        subAttributesMap.put(subAttributeSchema.getName(),
-                                buildPrimitiveMultiValuedAttribute(subAttributeSchema, (JSONArray) attributeValObj));
-                    } else {
-                        logger.error("Error decoding the sub attribute");
-                        throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
-                    }
-                }
+            if (isSimpleDataType(subAttributeSchemaType)) {
+                putSimpleSubAttribute(subAttributeSchema, attributeValObj, subAttributesMap);
                 //this case is only valid for the extension schema
                 //As according to the spec we have complex attribute inside complex attribute only for extension,
                 //we need to treat it separately
-            } else if ((complexAttributeSchema.getName().equals(userExtensionName))
-                    || (complexAttributeSchema.getName().equals(customExtensionName))
-                    || (complexAttributeSchema.getName().equals(systemExtensionName))
-                    || (complexAttributeSchema.getName().equals(agentExtensionName))) {
+            } else if (isExtension) {
                 if (subAttributeSchemaType.equals(COMPLEX)) {
                     //check for user defined extension's schema violation
-                    List<AttributeSchema> subList = subAttributeSchema.getSubAttributeSchemas();
-                    for (AttributeSchema attributeSchema : subList) {
-                        if (attributeSchema.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
-                            String error = "Complex attribute can not have complex sub attributes";
-                            throw new InternalErrorException(error);
-                        }
-                    }
+                    validateExtensionSubAttributeSchema(subAttributeSchema);
                     if (subAttributeSchema.getMultiValued() == true) {
                         if (attributeValObj instanceof JSONArray || attributeValObj == null) {
                             if (attributeValObj == null) {
@@ -627,10 +739,8 @@ public class JSONDecoder {
                                     complexAttributeValues.add(buildComplexValue(subAttributeSchema,
                                             complexAttributeValue));
                                 } else {
-                                    String error = "Unknown JSON representation for the MultiValued attribute " +
-                                            subAttributeSchema.getName() +
-                                            " which has data type as " + subAttributeSchema.getType();
-                                    throw new BadRequestException(error, ResponseCodeConstants.INVALID_SYNTAX);
+                                    throw new BadRequestException(getUnknownRepresentationError(subAttributeSchema),
+                                            ResponseCodeConstants.INVALID_SYNTAX);
                                 }
                                 multiValuedAttribute.setAttributeValues(complexAttributeValues);
 
@@ -669,6 +779,38 @@ public class JSONDecoder {
         return (ComplexAttribute) DefaultAttributeFactory.createAttribute(complexAttributeSchema, complexAttribute);
     }
 
+    /*
+     * Put the simple or primitive multi valued sub attribute given by the json value into the sub attributes map.
+     */
+    private void putSimpleSubAttribute(AttributeSchema subAttributeSchema, Object attributeValObj,
+                                       Map<String, Attribute> subAttributesMap)
+            throws BadRequestException, CharonException {
+
+        //If an attribute is passed without a value, no need to save it.
+        if (attributeValObj == null) {
+            return;
+        }
+        if (!subAttributeSchema.getMultiValued()) {
+            if (isSimpleValue(attributeValObj)) {
+                //if the corresponding schema data type is String/Boolean/Binary/Decimal/Integer/DataTime
+                // or Reference, it is a SimpleAttribute.
+                subAttributesMap.put(subAttributeSchema.getName(),
+                        buildSimpleAttribute(subAttributeSchema, attributeValObj));
+            } else {
+                logger.error("Error decoding the sub attribute");
+                throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+            }
+        } else {
+            if (attributeValObj instanceof JSONArray) {
+                subAttributesMap.put(subAttributeSchema.getName(),
+                        buildPrimitiveMultiValuedAttribute(subAttributeSchema, (JSONArray) attributeValObj));
+            } else {
+                logger.error("Error decoding the sub attribute");
+                throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+            }
+        }
+    }
+
     /*
      * To build a complex type value of a Multi Valued Attribute. (eg. Email with value,type,primary as sub attributes
      *
@@ -688,66 +830,354 @@ public class JSONDecoder {
             Object subAttributeValue = jsonObject.opt(subAttributeSchema.getName());
             //setting up a name for the complex attribute for the reference purpose
             if (subAttributeSchema.getName().equals(SCIMConstants.CommonSchemaConstants.VALUE)) {
-                //(value,type) pair is considered as a primary key for each entry
-                if (subAttributeValue != null) {
-                    Object subAttributeValueForType = jsonObject.opt(SCIMConstants.CommonSchemaConstants.TYPE);
-                    if (subAttributeValueForType != null) {
-                        complexAttribute.setName(attributeSchema.getName() + "_" +
-                                subAttributeValue + "_" + subAttributeValueForType);
-                    } else {
-                        complexAttribute.setName(attributeSchema.getName() + "_" +
-                                subAttributeValue + "_" + SCIMConstants.DEFAULT);
-                    }
-                } else {
-                    Object subAttributeValueFortype = jsonObject.opt(SCIMConstants.CommonSchemaConstants.TYPE);
-                    if (subAttributeValueFortype != null) {
-                        complexAttribute.setName(attributeSchema.getName() + "_" +
-                                SCIMConstants.DEFAULT + "_" + subAttributeValueFortype);
-                    } else {
-                        complexAttribute.setName(attributeSchema.getName() + "_" +
-                                SCIMConstants.DEFAULT + "_" + SCIMConstants.DEFAULT);
-                    }
-                }
+                setComplexValueName(complexAttribute, attributeSchema, subAttributeValue,
+                        jsonObject.opt(SCIMConstants.CommonSchemaConstants.TYPE));
             }
-            if (subAttributeValue != null) {
-                if (subAttributeSchema.getMultiValued()) {
-                    if (subAttributeValue instanceof JSONArray) {
+            putComplexValueSubAttribute(subAttributeSchema, subAttributeValue, subAttributesMap);
+        }
+        complexAttribute.setSubAttributesList(subAttributesMap);
+        return (ComplexAttribute) DefaultAttributeFactory.createAttribute(attributeSchema,
+                complexAttribute);
 
-                        MultiValuedAttribute multiValuedAttribute =
-                                buildPrimitiveMultiValuedAttribute(subAttributeSchema, (JSONArray) subAttributeValue);
-                        //let the attribute factory to set the sub attribute of a complex
-                        // attribute to detect schema violations.
-                        multiValuedAttribute = (MultiValuedAttribute)
-                                DefaultAttributeFactory.createAttribute(subAttributeSchema,
-                                        multiValuedAttribute);
-                        subAttributesMap.put(subAttributeSchema.getName(), multiValuedAttribute);
+    }
 
-                    } else {
-                        throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
-                    }
-                } else {
-                    if (subAttributeValue instanceof String || subAttributeValue instanceof Boolean ||
-                            JSONObject.NULL.equals(subAttributeValue) || subAttributeValue instanceof Integer) {
-
-                        SimpleAttribute simpleAttribute =
-                                buildSimpleAttribute(subAttributeSchema, subAttributeValue);
-                        //let the attribute factory to set the sub attribute of a complex
-                        // attribute to detect schema violations.
-                        simpleAttribute = (SimpleAttribute) DefaultAttributeFactory.createAttribute(subAttributeSchema,
-                                simpleAttribute);
-                        subAttributesMap.put(subAttributeSchema.getName(), simpleAttribute);
-                    } else {
-                        throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+    /*
+     * (value,type) pair is considered as a primary key for each entry, so it is used to name the complex value.
+     */
+    private void setComplexValueName(ComplexAttribute complexAttribute, AttributeSchema attributeSchema,
+                                     Object subAttributeValue, Object subAttributeValueForType) {
+
+        if (subAttributeValue != null) {
+            if (subAttributeValueForType != null) {
+                complexAttribute.setName(attributeSchema.getName() + "_" +
+                        subAttributeValue + "_" + subAttributeValueForType);
+            } else {
+                complexAttribute.setName(attributeSchema.getName() + "_" +
+                        subAttributeValue + "_" + SCIMConstants.DEFAULT);
+            }
+        } else {
+            if (subAttributeValueForType != null) {
+                complexAttribute.setName(attributeSchema.getName() + "_" +
+                        SCIMConstants.DEFAULT + "_" + subAttributeValueForType);
+            } else {
+                complexAttribute.setName(attributeSchema.getName() + "_" +
+                        SCIMConstants.DEFAULT + "_" + SCIMConstants.DEFAULT);
+            }
+        }
+    }
+
+    /*
+     * Put the sub attribute of a complex value given by the json value into the sub attributes map.
+     */
+    private void putComplexValueSubAttribute(AttributeSchema subAttributeSchema, Object subAttributeValue,
+                                             Map<String, Attribute> subAttributesMap)
+            throws CharonException, BadRequestException {
+
+        if (subAttributeValue == null) {
+            return;
+        }
+        if (subAttributeSchema.getMultiValued()) {
+            if (subAttributeValue instanceof JSONArray) {
+
+                MultiValuedAttribute multiValuedAttribute =
+                        buildPrimitiveMultiValuedAttribute(subAttributeSchema, (JSONArray) subAttributeValue);
+                //let the attribute factory to set the sub attribute of a complex
+                // attribute to detect schema violations.
+                multiValuedAttribute = (MultiValuedAttribute)
+                        DefaultAttributeFactory.createAttribute(subAttributeSchema,
+                                multiValuedAttribute);
+                subAttributesMap.put(subAttributeSchema.getName(), multiValuedAttribute);
+
+            } else {
+                throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+            }
+        } else {
+            if (subAttributeValue instanceof String || subAttributeValue instanceof Boolean ||
+                    JSONObject.NULL.equals(subAttributeValue) || subAttributeValue instanceof Integer) {
+
+                SimpleAttribute simpleAttribute =
+                        buildSimpleAttribute(subAttributeSchema, subAttributeValue);
+                //let the attribute factory to set the sub attribute of a complex
+                // attribute to detect schema violations.
+                simpleAttribute = (SimpleAttribute) DefaultAttributeFactory.createAttribute(subAttributeSchema,
+                        simpleAttribute);
+                subAttributesMap.put(subAttributeSchema.getName(), simpleAttribute);
+            } else {
+                throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+            }
+        }
+    }
+
+    /*
+     * Read a complex attribute from the parser, which must be positioned at the opening brace of its value.
+     */
+    private ComplexAttribute readComplexAttribute(JSONPullParser parser, AttributeSchema complexAttributeSchema)
+            throws BadRequestException, CharonException, InternalErrorException {
+
+        ComplexAttribute complexAttribute = new ComplexAttribute(complexAttributeSchema.getName());
+        Map<String, Attribute> subAttributesMap = new HashMap<>();
+        List<AttributeSchema> subAttributeSchemas = complexAttributeSchema.getSubAttributeSchemas();
+        // Only extensions may have complex sub attributes, and those may not nest further.
+        boolean isExtension = isExtensionSchema(complexAttributeSchema);
+        for (AttributeSchema subAttributeSchema : subAttributeSchemas) {
+            if (!isSimpleDataType(subAttributeSchema.getType())) {
+                if (!isExtension) {
+                    throw new InternalErrorException("Complex attribute can not have complex sub attributes");
+                }
+                if (subAttributeSchema.getType().equals(COMPLEX)) {
+                    validateExtensionSubAttributeSchema(subAttributeSchema);
+                }
+            }
+        }
+
+        parser.beginObject();
+        String key;
+        while ((key = parser.nextKey()) != null) {
+            AttributeSchema subAttributeSchema = findAttributeSchema(subAttributeSchemas, key);
+            if (subAttributeSchema == null) {
+                parser.skipValue();
+            } else if (isSimpleDataType(subAttributeSchema.getType())) {
+                putSimpleSubAttribute(subAttributeSchema, parser.nextValue(), subAttributesMap);
+            } else if (!subAttributeSchema.getType().equals(COMPLEX)) {
+                parser.skipValue();
+            } else if (subAttributeSchema.getMultiValued()) {
+                if (parser.peek() != '[') {
+                    logger.error("Error decoding the extension sub attribute");
+                    throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+                }
+                List<Attribute> complexAttributeValues = new ArrayList<>();
+                parser.beginArray();
+                while (parser.nextElement()) {
+                    if (parser.peek() != '{') {
+                        throw new BadRequestException(getUnknownRepresentationError(subAttributeSchema),
+                                ResponseCodeConstants.INVALID_SYNTAX);
                     }
+                    complexAttributeValues.add(readComplexValue(parser, subAttributeSchema));
+                }
+                // An empty array leaves the attribute out.
+                if (!complexAttributeValues.isEmpty()) {
+                    MultiValuedAttribute multiValuedAttribute = new MultiValuedAttribute(subAttributeSchema.getName());
+                    multiValuedAttribute.setAttributeValues(complexAttributeValues);
+                    subAttributesMap.put(subAttributeSchema.getName(), DefaultAttributeFactory.createAttribute(
+                            subAttributeSchema, multiValuedAttribute));
+                }
+            } else {
+                if (parser.peek() != '{') {
+                    logger.error("Error decoding the extension sub attribute");
+                    throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
                 }
+                ComplexAttribute complexSubAttribute = readComplexAttribute(parser, subAttributeSchema);
+                subAttributesMap.put(complexSubAttribute.getName(), complexSubAttribute);
+            }
+        }
+        complexAttribute.setSubAttributesList(subAttributesMap);
+        return (ComplexAttribute) DefaultAttributeFactory.createAttribute(complexAttributeSchema, complexAttribute);
+    }
 
+    /*
+     * Read a complex multi valued attribute from the parser, which must be positioned at the opening bracket of
+     * its value. Values are decoded one at a time, so large arrays such as group members are never held as json.
+     */
+    private MultiValuedAttribute readComplexMultiValuedAttribute(JSONPullParser parser,
+                                                                 AttributeSchema attributeSchema)
+            throws CharonException, BadRequestException {
 
+        List<Attribute> complexAttributeValues = new ArrayList<>();
+        List<Object> simpleAttributeValues = new ArrayList<>();
+        parser.beginArray();
+        while (parser.nextElement()) {
+            char next = parser.peek();
+            if (next == '{') {
+                complexAttributeValues.add(readComplexValue(parser, attributeSchema));
+                continue;
             }
+            Object attributeValue = next == '[' ? null : parser.nextElementValue();
+            if (!isPrimitiveComplexMultiValuedValue(attributeValue)) {
+                throw new BadRequestException(getUnknownRepresentationError(attributeSchema),
+                        ResponseCodeConstants.INVALID_SYNTAX);
+            }
+            simpleAttributeValues.add(attributeValue);
+        }
+        MultiValuedAttribute multiValuedAttribute = new MultiValuedAttribute(attributeSchema.getName());
+        multiValuedAttribute.setAttributeValues(complexAttributeValues);
+        multiValuedAttribute.setAttributePrimitiveValues(simpleAttributeValues);
+        return (MultiValuedAttribute) DefaultAttributeFactory.createAttribute(attributeSchema, multiValuedAttribute);
+    }
+
+    /*
+     * Read a complex value of a multi valued attribute from the parser.
+     */
+    private ComplexAttribute readComplexValue(JSONPullParser parser, AttributeSchema attributeSchema)
+            throws CharonException, BadRequestException {
+
+        ComplexAttribute complexAttribute = new ComplexAttribute(attributeSchema.getName());
+        Map<String, Attribute> subAttributesMap = new HashMap<>();
+        List<AttributeSchema> subAttributeSchemas = attributeSchema.getSubAttributeSchemas();
+        boolean hasValueSubAttribute = findAttributeSchema(subAttributeSchemas,
+                SCIMConstants.CommonSchemaConstants.VALUE) != null;
+        Object value = null;
+        Object type = null;
+
+        parser.beginObject();
+        String key;
+        while ((key = parser.nextKey()) != null) {
+            AttributeSchema subAttributeSchema = findAttributeSchema(subAttributeSchemas, key);
+            if (subAttributeSchema == null && !SCIMConstants.CommonSchemaConstants.TYPE.equals(key)) {
+                parser.skipValue();
+                continue;
+            }
+            Object subAttributeValue = parser.nextValue();
+            if (SCIMConstants.CommonSchemaConstants.VALUE.equals(key)) {
+                value = subAttributeValue;
+            } else if (SCIMConstants.CommonSchemaConstants.TYPE.equals(key)) {
+                type = subAttributeValue;
+            }
+            if (subAttributeSchema != null) {
+                putComplexValueSubAttribute(subAttributeSchema, subAttributeValue, subAttributesMap);
+            }
+        }
+        if (hasValueSubAttribute) {
+            setComplexValueName(complexAttribute, attributeSchema, value, type);
         }
         complexAttribute.setSubAttributesList(subAttributesMap);
-        return (ComplexAttribute) DefaultAttributeFactory.createAttribute(attributeSchema,
-                complexAttribute);
+        return (ComplexAttribute) DefaultAttributeFactory.createAttribute(attributeSchema, complexAttribute);
+    }
 
+    /*
+     * Read the value of a simple attribute from the parser.
+     *
+     * @return the value, or null if the json value can not be the value of a simple attribute.
+     */
+    private Object readSimpleValue(JSONPullParser parser) {
+
+        char next = parser.peek();
+        if (next == '{' || next == '[') {
+            return null;
+        }
+        Object value = parser.nextValue();
+        return isSimpleValue(value) ? value : null;
+    }
+
+    /*
+     * Read the values of a primitive multi valued attribute from the parser, which must be positioned at the
+     * opening bracket of its value.
+     */
+    private List<Object> readPrimitiveValues(JSONPullParser parser, AttributeSchema attributeSchema,
+                                             boolean stringsOnly) throws BadRequestException {
+
+        List<Object> primitiveValues = new ArrayList<>();
+        parser.beginArray();
+        while (parser.nextElement()) {
+            char next = parser.peek();
+            Object attributeValue = next == '{' || next == '[' ? null : parser.nextElementValue();
+            if (stringsOnly && !(attributeValue instanceof String)) {
+                throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+            }
+            if (!isPrimitiveValue(attributeValue)) {
+                throw new BadRequestException(getUnknownRepresentationError(attributeSchema),
+                        ResponseCodeConstants.INVALID_SYNTAX);
+            }
+            primitiveValues.add(attributeValue);
+        }
+        return primitiveValues;
+    }
+
+    private boolean isExtensionSchema(AttributeSchema complexAttributeSchema) {
+
+        SCIMResourceSchemaManager schemaManager = SCIMResourceSchemaManager.getInstance();
+        String name = complexAttributeSchema.getName();
+        return name.equals(schemaManager.getExtensionName())
+                || name.equals(schemaManager.getCustomSchemaExtensionURI())
+                || name.equals(schemaManager.getSystemSchemaExtensionName())
+                || name.equals(schemaManager.getAgentSchemaExtensionURI());
+    }
+
+    private void validateExtensionSubAttributeSchema(AttributeSchema subAttributeSchema)
+            throws InternalErrorException {
+
+        for (AttributeSchema attributeSchema : subAttributeSchema.getSubAttributeSchemas()) {
+            if (attributeSchema.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
+                String error = "Complex attribute can not have complex sub attributes";
+                throw new InternalErrorException(error);
+            }
+        }
+    }
+
+    private static AttributeSchema findAttributeSchema(List<AttributeSchema> attributeSchemas, String name) {
+
+        for (AttributeSchema attributeSchema : attributeSchemas) {
+            if (attributeSchema.getName().equals(name)) {
+                return attributeSchema;
+            }
+        }
+        return null;
+    }
+
+    private static AttributeSchema findAttributeSchemaByURI(List<AttributeSchema> attributeSchemas, String uri) {
+
+        for (AttributeSchema attributeSchema : attributeSchemas) {
+            if (uri.equals(attributeSchema.getURI())) {
+                return attributeSchema;
+            }
+        }
+        return null;
+    }
+
+    private static AttributeSchema findAttributeSchemaIgnoreCase(List<AttributeSchema> attributeSchemas,
+                                                                 String name) {
+
+        for (AttributeSchema attributeSchema : attributeSchemas) {
+            if (name.equalsIgnoreCase(attributeSchema.getName())) {
+                return attributeSchema;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSimpleDataType(SCIMDefinitions.DataType dataType) {
+
+        return dataType.equals(STRING) || dataType.equals(BINARY) || dataType.equals(BOOLEAN) ||
+                dataType.equals(DATE_TIME) || dataType.equals(DECIMAL) || dataType.equals(INTEGER) ||
+                dataType.equals(REFERENCE);
+    }
+
+    /*
+     * Json values accepted for a simple attribute.
+     */
+    private static boolean isSimpleValue(Object value) {
+
+        return value instanceof String || value instanceof Boolean || value instanceof Integer ||
+                JSONObject.NULL.equals(value);
+    }
+
+    /*
+     * Json values accepted for the values of a primitive multi valued attribute.
+     */
+    private static boolean isPrimitiveValue(Object value) {
+
+        return value instanceof String || value instanceof Boolean || value instanceof Integer;
+    }
+
+    /*
+     * Json values accepted as primitive values of a complex multi valued attribute.
+     */
+    private static boolean isPrimitiveComplexMultiValuedValue(Object value) {
+
+        if (value instanceof String || value instanceof Integer || value instanceof Double ||
+                value instanceof Boolean) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Primitive attribute type detected. Attribute type: " + value.getClass().getName() +
+                        ", attribute value: " + value);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static String getUnknownRepresentationError(AttributeSchema attributeSchema) {
+
+        return "Unknown JSON representation for the MultiValued attribute " + attributeSchema.getName() +
+                " which has data type as " + attributeSchema.getType();
     }
 
     /*
@@ -758,44 +1188,34 @@ public class JSONDecoder {
      */
     public ArrayList<PatchOperation> decodeRequest(String scimResourceString) throws BadRequestException {
 
+        return decodeRequest(new StringReader(scimResourceString));
+    }
 
-        ArrayList<PatchOperation> operationList = new ArrayList<PatchOperation>();
-        try {
-            //decode the string into json representation
-            JSONObject decodedJsonObj = new JSONObject(new JSONTokener(scimResourceString));
-            //obtain the Operations values
-            JSONArray operationJsonList = (JSONArray) decodedJsonObj.opt(SCIMConstants.OperationalConstants.OPERATIONS);
-
-            // Check if operationJsonList is null.
-            if (operationJsonList == null) {
-                // Check if operations field present in lowercase.
-                if (decodedJsonObj.has(StringUtils.lowerCase(SCIMConstants.OperationalConstants.OPERATIONS))) {
-                    throw new BadRequestException("Invalid JSON schema.", ResponseCodeConstants.INVALID_SYNTAX);
-                }
-                throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
-            }
+    /**
+     * Extract the operations of a PATCH request body read from the given reader. Operations are decoded one at a
+     * time, so only the value of each operation is held as json.
+     *
+     * @param reader Reader holding the PATCH request body.
+     * @return Operations of the request in their execution order.
+     * @throws BadRequestException If the request body is not a valid PATCH request.
+     */
+    public ArrayList<PatchOperation> decodeRequest(Reader reader) throws BadRequestException {
 
-            //for each operation, create a PatchOperation object and add the relevant values to it
-            for (int count = 0; count < operationJsonList.length(); count++) {
-                JSONObject operation = (JSONObject) operationJsonList.get(count);
-                PatchOperation patchOperation = new PatchOperation();
-                String op = (String) operation.opt(SCIMConstants.OperationalConstants.OP);
-                patchOperation.setExecutionOrder(count + 1);
-                if (op == null) {
-                    throw new BadRequestException("Operation can not be null.", ResponseCodeConstants
-                            .INVALID_SYNTAX);
-                } else if (op.equalsIgnoreCase(SCIMConstants.OperationalConstants.ADD)) {
-                    patchOperation.setOperation(SCIMConstants.OperationalConstants.ADD);
-                } else if (op.equalsIgnoreCase(SCIMConstants.OperationalConstants.REMOVE)) {
-                    patchOperation.setOperation(SCIMConstants.OperationalConstants.REMOVE);
-                } else if (op.equalsIgnoreCase(SCIMConstants.OperationalConstants.REPLACE)) {
-                    patchOperation.setOperation(SCIMConstants.OperationalConstants.REPLACE);
+        ArrayList<PatchOperation> operationList = null;
+        boolean hasLowerCaseOperations = false;
+        try {
+            JSONPullParser parser = new JSONPullParser(reader);
+            parser.beginObject();
+            String key;
+            while ((key = parser.nextKey()) != null) {
+                if (SCIMConstants.OperationalConstants.OPERATIONS.equals(key)) {
+                    operationList = readPatchOperations(parser);
                 } else {
-                    throw new BadRequestException("Unknown operation: " + op, ResponseCodeConstants.INVALID_SYNTAX);
+                    if (StringUtils.lowerCase(SCIMConstants.OperationalConstants.OPERATIONS).equals(key)) {
+                        hasLowerCaseOperations = true;
+                    }
+                    parser.skipValue();
                 }
-                patchOperation.setPath((String) operation.opt(SCIMConstants.OperationalConstants.PATH));
-                patchOperation.setValues(operation.opt(SCIMConstants.OperationalConstants.VALUE));
-                operationList.add(patchOperation);
             }
         } catch (JSONException | ClassCastException e) {
             if (logger.isDebugEnabled()) {
@@ -803,18 +1223,128 @@ public class JSONDecoder {
             }
             throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
         }
-        return  operationList;
+        if (operationList == null) {
+            // Check if operations field present in lowercase.
+            if (hasLowerCaseOperations) {
+                throw new BadRequestException("Invalid JSON schema.", ResponseCodeConstants.INVALID_SYNTAX);
+            }
+            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+        }
+        return operationList;
+    }
+
+    /**
+     * Extract the operations of a PATCH request body which has already been parsed into a json object.
+     *
+     * @param patchRequest Json representation of the PATCH request body.
+     * @return Operations of the request in their execution order.
+     * @throws BadRequestException If the request body is not a valid PATCH request.
+     */
+    public ArrayList<PatchOperation> decodeRequest(JSONObject patchRequest) throws BadRequestException {
+
+        Object operations = patchRequest.opt(SCIMConstants.OperationalConstants.OPERATIONS);
+        if (operations == null) {
+            // Check if operations field present in lowercase.
+            if (patchRequest.has(StringUtils.lowerCase(SCIMConstants.OperationalConstants.OPERATIONS))) {
+                throw new BadRequestException("Invalid JSON schema.", ResponseCodeConstants.INVALID_SYNTAX);
+            }
+            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+        }
+        if (!(operations instanceof JSONArray)) {
+            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+        }
+        JSONArray operationsArray = (JSONArray) operations;
+        ArrayList<PatchOperation> operationList = new ArrayList<PatchOperation>();
+        for (int i = 0; i < operationsArray.length(); i++) {
+            Object operation = operationsArray.opt(i);
+            if (!(operation instanceof JSONObject)) {
+                throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+            }
+            JSONObject operationObject = (JSONObject) operation;
+            operationList.add(buildPatchOperation(
+                    getPatchOperationMember(operationObject, SCIMConstants.OperationalConstants.OP),
+                    getPatchOperationMember(operationObject, SCIMConstants.OperationalConstants.PATH),
+                    operationObject.opt(SCIMConstants.OperationalConstants.VALUE), operationList.size() + 1));
+        }
+        return operationList;
+    }
+
+    private static String getPatchOperationMember(JSONObject operation, String name) throws BadRequestException {
+
+        Object value = operation.opt(name);
+        if (value != null && !(value instanceof String)) {
+            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+        }
+        return (String) value;
+    }
+
+    private ArrayList<PatchOperation> readPatchOperations(JSONPullParser parser) throws BadRequestException {
+
+        if (parser.peek() != '[') {
+            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+        }
+        ArrayList<PatchOperation> operationList = new ArrayList<PatchOperation>();
+        parser.beginArray();
+        while (parser.nextElement()) {
+            if (parser.peek() != '{') {
+                throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+            }
+            String op = null;
+            String path = null;
+            Object value = null;
+            parser.beginObject();
+            String key;
+            while ((key = parser.nextKey()) != null) {
+                if (SCIMConstants.OperationalConstants.OP.equals(key)) {
+                    op = (String) parser.nextValue();
+                } else if (SCIMConstants.OperationalConstants.PATH.equals(key)) {
+                    path = (String) parser.nextValue();
+                } else if (SCIMConstants.OperationalConstants.VALUE.equals(key)) {
+                    value = parser.nextValue();
+                } else {
+                    parser.skipValue();
+                }
+            }
+
+            operationList.add(buildPatchOperation(op, path, value, operationList.size() + 1));
+        }
+        return operationList;
+    }
+
+    /*
+     * Create a PatchOperation object for an operation of a PATCH request and add the relevant values to it.
+     */
+    private static PatchOperation buildPatchOperation(String op, String path, Object value, int executionOrder)
+            throws BadRequestException {
+
+        PatchOperation patchOperation = new PatchOperation();
+        patchOperation.setExecutionOrder(executionOrder);
+        if (op == null) {
+            throw new BadRequestException("Operation can not be null.", ResponseCodeConstants
+                    .INVALID_SYNTAX);
+        } else if (op.equalsIgnoreCase(SCIMConstants.OperationalConstants.ADD)) {
+            patchOperation.setOperation(SCIMConstants.OperationalConstants.ADD);
+        } else if (op.equalsIgnoreCase(SCIMConstants.OperationalConstants.REMOVE)) {
+            patchOperation.setOperation(SCIMConstants.OperationalConstants.REMOVE);
+        } else if (op.equalsIgnoreCase(SCIMConstants.OperationalConstants.REPLACE)) {
+            patchOperation.setOperation(SCIMConstants.OperationalConstants.REPLACE);
+        } else {
+            throw new BadRequestException("Unknown operation: " + op, ResponseCodeConstants.INVALID_SYNTAX);
+        }
+        patchOperation.setPath(path);
+        patchOperation.setValues(value);
+        return patchOperation;
     }
 
     public AbstractSCIMObject decode(String scimResourceString, SCIMResourceTypeSchema schema)
             throws CharonException, BadRequestException {
         try {
-            JSONObject decodedJsonObj = new JSONObject(new JSONTokener(scimResourceString));
+            JSONPullParser parser = new JSONPullParser(new StringReader(scimResourceString));
             AbstractSCIMObject scimObject = null;
             if (schema.getSchemasList().contains(SCIMConstants.GROUP_CORE_SCHEMA_URI)) {
-                scimObject = (AbstractSCIMObject) decodeResource(decodedJsonObj.toString(), schema, new Group());
+                scimObject = readResource(parser, schema, new Group());
             } else  {
-                scimObject = (AbstractSCIMObject) decodeResource(decodedJsonObj.toString(), schema, new User());
+                scimObject = readResource(parser, schema, new User());
             }
             return scimObject;
 
@@ -833,63 +1363,36 @@ public class JSONDecoder {
      */
     public SearchRequest decodeSearchRequestBody(String scimResourceString,
                                                  SCIMResourceTypeSchema schema) throws BadRequestException {
-        FilterTreeManager filterTreeManager = null;
-        Node rootNode = null;
+
+        return decodeSearchRequestBody(new StringReader(scimResourceString), schema);
+    }
+
+    /**
+     * Decode a search request body read from the given reader. Only the members defined for a search request are
+     * materialised, any other member is skipped.
+     *
+     * @param reader Reader holding the search request body.
+     * @param schema Schema of the resources searched for.
+     * @return SearchRequest
+     * @throws BadRequestException If the request body is not a valid search request.
+     */
+    public SearchRequest decodeSearchRequestBody(Reader reader, SCIMResourceTypeSchema schema)
+            throws BadRequestException {
 
         //decode the string and create search object
         try {
-            JSONObject decodedJsonObj = new JSONObject(new JSONTokener(scimResourceString));
-            SearchRequest searchRequest = new SearchRequest();
-            ArrayList<String> attributes = new ArrayList<>();
-            ArrayList<String> excludedAttributes = new ArrayList<>();
-
-            JSONArray attributesValues = (JSONArray)
-                    decodedJsonObj.opt(SCIMConstants.OperationalConstants.ATTRIBUTES);
-            JSONArray excludedAttributesValues = (JSONArray)
-                    decodedJsonObj.opt(SCIMConstants.OperationalConstants.EXCLUDED_ATTRIBUTES);
-            JSONArray schemas = decodedJsonObj.optJSONArray(SCIMConstants.CommonSchemaConstants.SCHEMAS);
-
-            if (schemas == null) {
-                throw new BadRequestException(
-                    "Attribute 'schemas' is missing or is not a valid JSON array.", 
-                    ResponseCodeConstants.INVALID_VALUE
-                );
-            }
-
-            if (schemas.length() != 1) {
-                throw new BadRequestException("Schema is invalid", ResponseCodeConstants.INVALID_VALUE);
-            }
-            if (attributesValues != null) {
-                for (int i = 0; i < attributesValues.length(); i++) {
-                    attributes.add((String) attributesValues.get(i));
-                }
-            }
-            if (excludedAttributesValues != null) {
-                for (int i = 0; i < excludedAttributesValues.length(); i++) {
-                    excludedAttributes.add((String) excludedAttributesValues.get(i));
+            JSONPullParser parser = new JSONPullParser(reader);
+            JSONObject decodedJsonObj = new JSONObject();
+            parser.beginObject();
+            String key;
+            while ((key = parser.nextKey()) != null) {
+                if (SEARCH_REQUEST_MEMBERS.contains(key)) {
+                    decodedJsonObj.put(key, parser.nextValue());
+                } else {
+                    parser.skipValue();
                 }
             }
-
-            if (decodedJsonObj.opt(SCIMConstants.OperationalConstants.FILTER) != null) {
-                filterTreeManager = new FilterTreeManager(
-                        (String) decodedJsonObj.opt(SCIMConstants.OperationalConstants.FILTER), schema);
-                rootNode = filterTreeManager.buildTree();
-            }
-            searchRequest.setAttributes(attributes);
-            searchRequest.setExcludedAttributes(excludedAttributes);
-            searchRequest.setSchema((String) schemas.get(0));
-            searchRequest.setCountStr(decodedJsonObj.optString(SCIMConstants.OperationalConstants.COUNT));
-            searchRequest.setStartIndexStr(decodedJsonObj.optString(SCIMConstants.OperationalConstants.START_INDEX));
-            searchRequest.setDomainName(decodedJsonObj.optString(SCIMConstants.OperationalConstants.DOMAIN));
-            searchRequest.setFilter(rootNode);
-            if (!decodedJsonObj.optString(SCIMConstants.OperationalConstants.SORT_BY).equals("")) {
-                searchRequest.setSortBy(decodedJsonObj.optString(SCIMConstants.OperationalConstants.SORT_BY));
-            }
-            if (!decodedJsonObj.optString(SCIMConstants.OperationalConstants.SORT_ORDER).equals("")) {
-                searchRequest.setSortOder(decodedJsonObj.optString(SCIMConstants.OperationalConstants.SORT_ORDER));
-            }
-            return searchRequest;
-
+            return buildSearchRequest(decodedJsonObj, schema);
         } catch (JSONException | IOException e) {
             if (logger.isDebugEnabled()) {
                 logger.debug("Error while decoding the resource string", e);
@@ -898,6 +1401,61 @@ public class JSONDecoder {
         }
     }
 
+    private SearchRequest buildSearchRequest(JSONObject decodedJsonObj, SCIMResourceTypeSchema schema)
+            throws BadRequestException, IOException {
+
+        Node rootNode = null;
+        SearchRequest searchRequest = new SearchRequest();
+        ArrayList<String> attributes = new ArrayList<>();
+        ArrayList<String> excludedAttributes = new ArrayList<>();
+
+        JSONArray attributesValues = (JSONArray)
+                decodedJsonObj.opt(SCIMConstants.OperationalConstants.ATTRIBUTES);
+        JSONArray excludedAttributesValues = (JSONArray)
+                decodedJsonObj.opt(SCIMConstants.OperationalConstants.EXCLUDED_ATTRIBUTES);
+        JSONArray schemas = decodedJsonObj.optJSONArray(SCIMConstants.CommonSchemaConstants.SCHEMAS);
+
+        if (schemas == null) {
+            throw new BadRequestException(
+                "Attribute 'schemas' is missing or is not a valid JSON array.", 
+                ResponseCodeConstants.INVALID_VALUE
+            );
+        }
+
+        if (schemas.length() != 1) {
+            throw new BadRequestException("Schema is invalid", ResponseCodeConstants.INVALID_VALUE);
+        }
+        if (attributesValues != null) {
+            for (int i = 0; i < attributesValues.length(); i++) {
+                attributes.add((String) attributesValues.get(i));
+            }
+        }
+        if (excludedAttributesValues != null) {
+            for (int i = 0; i < excludedAttributesValues.length(); i++) {
+                excludedAttributes.add((String) excludedAttributesValues.get(i));
+            }
+        }
+
+        if (decodedJsonObj.opt(SCIMConstants.OperationalConstants.FILTER) != null) {
+            rootNode = FilterTreeCache.getInstance().getFilterTree(
+                    (String) decodedJsonObj.opt(SCIMConstants.OperationalConstants.FILTER), schema);
+        }
+        searchRequest.setAttributes(attributes);
+        searchRequest.setExcludedAttributes(excludedAttributes);
+        searchRequest.setSchema((String) schemas.get(0));
+        searchRequest.setCountStr(decodedJsonObj.optString(SCIMConstants.OperationalConstants.COUNT));
+        searchRequest.setStartIndexStr(decodedJsonObj.optString(SCIMConstants.OperationalConstants.START_INDEX));
+        searchRequest.setDomainName(decodedJsonObj.optString(SCIMConstants.OperationalConstants.DOMAIN));
+        searchRequest.setFilter(rootNode);
+        if (!decodedJsonObj.optString(SCIMConstants.OperationalConstants.SORT_BY).equals("")) {
+            searchRequest.setSortBy(decodedJsonObj.optString(SCIMConstants.OperationalConstants.SORT_BY));
+        }
+        if (!decodedJsonObj.optString(SCIMConstants.OperationalConstants.SORT_ORDER).equals("")) {
+            searchRequest.setSortOder(decodedJsonObj.optString(SCIMConstants.OperationalConstants.SORT_ORDER));
+        }
+        return searchRequest;
+    }
+
     /**
      * Decode BulkRequestData Json Sting.
      *
@@ -906,95 +1464,189 @@ public class JSONDecoder {
      */
     public BulkRequestData decodeBulkData(String bulkResourceString) throws BadRequestException {
 
+        return decodeBulkData(new StringReader(bulkResourceString));
+    }
+
+    /**
+     * Decode a bulk request body read from the given reader. The data of each operation is decoded into a json
+     * object along with the operation, and is not parsed again when the operation is processed.
+     *
+     * @param reader Reader holding the bulk request body.
+     * @return BulkRequestData Object
+     * @throws BadRequestException If the request body is not a valid bulk request.
+     */
+    public BulkRequestData decodeBulkData(Reader reader) throws BadRequestException {
+
         BulkRequestData bulkRequestDataObject = new BulkRequestData();
         List<BulkRequestContent> usersEndpointOperationList = new ArrayList<>();
         List<BulkRequestContent> groupsEndpointOperationList = new ArrayList<>();
         List<BulkRequestContent> rolesEndpointOperationList = new ArrayList<>();
         List<BulkRequestContent> rolesV2EndpointOperationList = new ArrayList<>();
-        int failOnErrorsAttribute;
-        List<String> schemas = new ArrayList<>();
+        List<String> schemas = null;
         Set<String> encounteredBulkIds = new HashSet<>();
+        boolean hasOperations = false;
+        // Holds the failOnErrors member, so that it is read with the usual optInt semantics.
+        JSONObject failOnErrors = new JSONObject();
 
-        JSONObject decodedObject;
         try {
-            decodedObject = new JSONObject(new JSONTokener(bulkResourceString));
-
-            //prepare the schema list
-            JSONArray membersAttributeSchemas = (JSONArray) decodedObject.opt(
-                    SCIMConstants.CommonSchemaConstants.SCHEMAS);
-            for (int i = 0; i < membersAttributeSchemas.length(); i++) {
-                schemas.add(membersAttributeSchemas.get(i).toString());
-            }
-            bulkRequestDataObject.setSchemas(schemas);
-
-            //get [operations] from the Json String and prepare the request List
-            JSONArray membersAttributeOperations = (JSONArray) decodedObject.opt(
-                    SCIMConstants.OperationalConstants.OPERATIONS);
-
-            for (int i = 0; i < membersAttributeOperations.length(); i++) {
-                JSONObject member = (JSONObject) membersAttributeOperations.get(i);
-                //Request path - /Users or /Groups
-                String requestType = member.optString(SCIMConstants.OperationalConstants.PATH);
-                if (requestType == null) {
-                    throw new BadRequestException("Missing required attribute : path",
-                            ResponseCodeConstants.INVALID_SYNTAX);
-                }
-                //Request method  - POST,PUT..etc
-                String requestMethod = member.optString(SCIMConstants.OperationalConstants.METHOD);
-                if (requestMethod == null) {
-                    throw new BadRequestException("Missing required attribute : method",
-                            ResponseCodeConstants.INVALID_SYNTAX);
+            JSONPullParser parser = new JSONPullParser(reader);
+            parser.beginObject();
+            String key;
+            while ((key = parser.nextKey()) != null) {
+                if (SCIMConstants.CommonSchemaConstants.SCHEMAS.equals(key)) {
+                    //prepare the schema list
+                    JSONArray membersAttributeSchemas = (JSONArray) parser.nextValue();
+                    schemas = new ArrayList<>();
+                    for (int i = 0; i < membersAttributeSchemas.length(); i++) {
+                        schemas.add(membersAttributeSchemas.get(i).toString());
+                    }
+                } else if (SCIMConstants.OperationalConstants.OPERATIONS.equals(key)) {
+                    //get [operations] from the Json String and prepare the request List
+                    if (parser.peek() != '[') {
+                        throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+                    }
+                    hasOperations = true;
+                    parser.beginArray();
+                    while (parser.nextElement()) {
+                        JSONObject member = readBulkOperation(parser);
+                        //Request path - /Users or /Groups
+                        String requestType = member.optString(SCIMConstants.OperationalConstants.PATH);
+                        //Request method  - POST,PUT..etc
+                        String requestMethod = member.optString(SCIMConstants.OperationalConstants.METHOD);
+                        //Request version
+                        String requestVersion = member.optString(SCIMConstants.OperationalConstants.VERSION);
+
+                        checkBulkId(member, requestMethod, encounteredBulkIds);
+                        setRequestData(requestType, requestMethod, requestVersion, member,
+                                usersEndpointOperationList, groupsEndpointOperationList, rolesEndpointOperationList,
+                                rolesV2EndpointOperationList);
+                    }
+                } else if (SCIMConstants.OperationalConstants.FAIL_ON_ERRORS.equals(key)) {
+                    failOnErrors.put(key, parser.nextValue());
+                } else {
+                    parser.skipValue();
                 }
-                //Request version
-                String requestVersion = member.optString(SCIMConstants.OperationalConstants.VERSION);
+            }
+        } catch (JSONException | ClassCastException e) {
+            if (logger.isDebugEnabled()) {
+                String error = "JSON string could not be decoded properly.";
+                logger.debug(error, e);
+            }
+            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+        }
+        if (schemas == null || !hasOperations) {
+            throw new BadRequestException("JSON string could not be decoded properly. Required attributes " +
+                    "schemas and Operations must be present in the request", ResponseCodeConstants.INVALID_SYNTAX);
+        }
 
-                if (requestMethod.equals(SCIMConstants.OperationalConstants.POST)) {
+        bulkRequestDataObject.setSchemas(schemas);
+        //extract [failOnErrors] attribute from Json string
+        bulkRequestDataObject.setFailOnErrors(failOnErrors.optInt(SCIMConstants.OperationalConstants.FAIL_ON_ERRORS));
+        bulkRequestDataObject.setUserOperationRequests(usersEndpointOperationList);
+        bulkRequestDataObject.setGroupOperationRequests(groupsEndpointOperationList);
+        bulkRequestDataObject.setRoleOperationRequests(rolesEndpointOperationList);
+        bulkRequestDataObject.setRoleV2OperationRequests(rolesV2EndpointOperationList);
+        return bulkRequestDataObject;
+    }
 
-                    String bulkId = member.optString(SCIMConstants.OperationalConstants.BULK_ID);
+    /**
+     * Start reading a bulk request body from the given reader, for the operations to be processed while they are
+     * read. The members preceding the Operations array are read here, the operations are then read with the
+     * returned reader. As no operation is held until the whole request has been read, the schemas and failOnErrors
+     * members must precede the Operations array, and members following it are skipped.
+     *
+     * @param reader Reader holding the bulk request body.
+     * @return Reader of the operations of the request.
+     * @throws BadRequestException If the request body does not start a valid bulk request.
+     */
+    public JSONBulkRequestReader openBulkRequest(Reader reader) throws BadRequestException {
 
-                    if (StringUtils.isNotEmpty(bulkId)) {
-                        if (encounteredBulkIds.contains(bulkId)) {
-                            String error = "Duplicate bulkId found: " + bulkId;
-                            throw new BadRequestException(error, ResponseCodeConstants.INVALID_VALUE);
-                        }
-                        encounteredBulkIds.add(bulkId);
-                        setRequestData(requestType, requestMethod, requestVersion, member, usersEndpointOperationList,
-                                groupsEndpointOperationList, rolesEndpointOperationList, rolesV2EndpointOperationList);
-                    } else {
-                        String error = "JSON string could not be decoded properly.Required " +
-                                "attribute BULK_ID is missing in the request";
-                        logger.error(error);
-                        throw new BadRequestException(error, ResponseCodeConstants.INVALID_VALUE);
+        boolean hasSchemas = false;
+        // Holds the failOnErrors member, so that it is read with the usual optInt semantics.
+        JSONObject failOnErrors = new JSONObject();
+        try {
+            JSONPullParser parser = new JSONPullParser(reader);
+            parser.beginObject();
+            String key;
+            while ((key = parser.nextKey()) != null) {
+                if (SCIMConstants.CommonSchemaConstants.SCHEMAS.equals(key)) {
+                    hasSchemas = parser.nextValue() instanceof JSONArray;
+                } else if (SCIMConstants.OperationalConstants.OPERATIONS.equals(key)) {
+                    if (!hasSchemas) {
+                        throw new BadRequestException("The schemas of a streamed bulk request must precede its " +
+                                "Operations", ResponseCodeConstants.INVALID_SYNTAX);
                     }
+                    if (parser.peek() != '[') {
+                        throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+                    }
+                    parser.beginArray();
+                    return new JSONBulkRequestReader(this, parser,
+                            failOnErrors.optInt(SCIMConstants.OperationalConstants.FAIL_ON_ERRORS));
+                } else if (SCIMConstants.OperationalConstants.FAIL_ON_ERRORS.equals(key)) {
+                    failOnErrors.put(key, parser.nextValue());
                 } else {
-                    setRequestData(requestType, requestMethod, requestVersion, member, usersEndpointOperationList,
-                            groupsEndpointOperationList, rolesEndpointOperationList, rolesV2EndpointOperationList);
+                    parser.skipValue();
                 }
             }
-            //extract [failOnErrors] attribute from Json string
-            failOnErrorsAttribute = decodedObject.optInt(SCIMConstants.OperationalConstants.FAIL_ON_ERRORS);
-
-            bulkRequestDataObject.setFailOnErrors(failOnErrorsAttribute);
-            bulkRequestDataObject.setUserOperationRequests(usersEndpointOperationList);
-            bulkRequestDataObject.setGroupOperationRequests(groupsEndpointOperationList);
-            bulkRequestDataObject.setRoleOperationRequests(rolesEndpointOperationList);
-            bulkRequestDataObject.setRoleV2OperationRequests(rolesV2EndpointOperationList);
-
         } catch (JSONException e) {
             if (logger.isDebugEnabled()) {
-                String error = "JSON string could not be decoded properly.";
-                logger.debug(error, e);
+                logger.debug("JSON string could not be decoded properly.", e);
             }
             throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
         }
-        return bulkRequestDataObject;
+        throw new BadRequestException("JSON string could not be decoded properly. Required attributes " +
+                "schemas and Operations must be present in the request", ResponseCodeConstants.INVALID_SYNTAX);
+    }
+
+    /*
+     * Check that a creation has a bulkId which is not used by an earlier operation of the request.
+     */
+    void checkBulkId(JSONObject member, String requestMethod, Set<String> encounteredBulkIds)
+            throws BadRequestException {
+
+        if (!requestMethod.equals(SCIMConstants.OperationalConstants.POST)) {
+            return;
+        }
+        String bulkId = member.optString(SCIMConstants.OperationalConstants.BULK_ID);
+        if (StringUtils.isNotEmpty(bulkId)) {
+            if (!encounteredBulkIds.add(bulkId)) {
+                String error = "Duplicate bulkId found: " + bulkId;
+                throw new BadRequestException(error, ResponseCodeConstants.INVALID_VALUE);
+            }
+        } else {
+            String error = "JSON string could not be decoded properly.Required " +
+                    "attribute BULK_ID is missing in the request";
+            logger.error(error);
+            throw new BadRequestException(error, ResponseCodeConstants.INVALID_VALUE);
+        }
+    }
+
+    /*
+     * Read a bulk operation, along with its data.
+     */
+    JSONObject readBulkOperation(JSONPullParser parser) {
+
+        if (parser.peek() != '{') {
+            throw new JSONException("A bulk operation must be a JSONObject");
+        }
+        JSONObject member = new JSONObject();
+        parser.beginObject();
+        String key;
+        while ((key = parser.nextKey()) != null) {
+            if (BULK_OPERATION_MEMBERS.contains(key)) {
+                member.put(key, parser.nextValue());
+            } else {
+                parser.skipValue();
+            }
+        }
+        return member;
     }
 
-    private void setRequestData(String requestType, String requestMethod, String requestVersion, JSONObject member,
-                                List<BulkRequestContent> usersEndpointOperationList,
-                                List<BulkRequestContent> groupsEndpointOperationList,
-                                List<BulkRequestContent> rolesEndpointOperationList,
-                                List<BulkRequestContent> rolesV2EndpointOperationList) {
+    void setRequestData(String requestType, String requestMethod, String requestVersion, JSONObject member,
+                        List<BulkRequestContent> usersEndpointOperationList,
+                        List<BulkRequestContent> groupsEndpointOperationList,
+                        List<BulkRequestContent> rolesEndpointOperationList,
+                        List<BulkRequestContent> rolesV2EndpointOperationList) {
 
         // Create user request list.
         if (requestType.contains(SCIMConstants.USER_ENDPOINT)) {
@@ -1029,7 +1681,12 @@ public class JSONDecoder {
                                                      String requestType, String requestVersion) {
         BulkRequestContent newRequestData = new BulkRequestContent();
 
-        newRequestData.setData(member.optString(SCIMConstants.OperationalConstants.DATA));
+        Object data = member.opt(SCIMConstants.OperationalConstants.DATA);
+        if (data instanceof JSONObject) {
+            newRequestData.setDecodedData((JSONObject) data);
+        } else {
+            newRequestData.setData(member.optString(SCIMConstants.OperationalConstants.DATA));
+        }
         newRequestData.setBulkID(member.optString(SCIMConstants.OperationalConstants.BULK_ID));
         newRequestData.setMethod(requestMethod);
         newRequestData.setPath(requestType);
@@ -35,14 +35,24 @@ import org.wso2.charon3.core.objects.Role;
 import org.wso2.charon3.core.objects.SCIMObject;
 import org.wso2.charon3.core.objects.bulk.BulkResponseContent;
 import org.wso2.charon3.core.objects.bulk.BulkResponseData;
+import org.wso2.charon3.core.protocol.ResponseBodyWriter;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.schema.SCIMConstants;
 import org.wso2.charon3.core.schema.SCIMDefinitions;
 import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.utils.AttributeUtil;
-
+import org.wso2.charon3.core.utils.ProjectionPlan;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -89,6 +99,97 @@ public class JSONEncoder {
         return rootObject.toString();
     }
 
+    /**
+     * Encode the given SCIM object straight to the writer, without building an intermediate json object tree.
+     * The written output is identical to that of {@link #encodeSCIMObject(SCIMObject)}. The writer is neither
+     * flushed nor closed.
+     *
+     * @param scimObject SCIM object to be encoded.
+     * @param writer     Writer to which the encoded object is written.
+     * @throws CharonException If the object cannot be encoded or written.
+     */
+    public void encodeSCIMObject(SCIMObject scimObject, Writer writer) throws CharonException {
+
+        encodeSCIMObject(scimObject, null, writer);
+    }
+
+    /**
+     * Encode the given SCIM object, leaving out the attributes which are not returned according to the given
+     * projection plan. The object itself is not modified, so it does not have to be copied before it is encoded.
+     * The output is identical to that of encoding the object after {@link ProjectionPlan#prune} has been applied to
+     * it. For a {@link org.wso2.charon3.core.objects.ListedResource}, the plan applies to each of its resources.
+     *
+     * @param scimObject     SCIM object to be encoded.
+     * @param projectionPlan Projection plan of the request, or null to encode every attribute.
+     * @return The encoded object.
+     * @throws CharonException If the object cannot be encoded.
+     */
+    public String encodeSCIMObject(SCIMObject scimObject, ProjectionPlan projectionPlan) throws CharonException {
+
+        StringWriter writer = new StringWriter();
+        encodeSCIMObject(scimObject, projectionPlan, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Encode the given SCIM object straight to the writer, leaving out the attributes which are not returned
+     * according to the given projection plan. The writer is neither flushed nor closed.
+     *
+     * @param scimObject     SCIM object to be encoded.
+     * @param projectionPlan Projection plan of the request, or null to encode every attribute.
+     * @param writer         Writer to which the encoded object is written.
+     * @throws CharonException If the object cannot be encoded or written.
+     */
+    public void encodeSCIMObject(SCIMObject scimObject, ProjectionPlan projectionPlan, Writer writer)
+            throws CharonException {
+
+        try {
+            new SCIMObjectJSONWriter(writer, projectionPlan).writeSCIMObject(scimObject);
+        } catch (JSONException | IOException e) {
+            throw new CharonException("Error in encoding resource..", e);
+        }
+    }
+
+    /**
+     * Encode the given SCIM object straight to the output stream as UTF-8. The stream is flushed but not closed.
+     *
+     * @param scimObject   SCIM object to be encoded.
+     * @param outputStream Output stream to which the encoded object is written.
+     * @throws CharonException If the object cannot be encoded or written.
+     */
+    public void encodeSCIMObject(SCIMObject scimObject, OutputStream outputStream) throws CharonException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        encodeSCIMObject(scimObject, writer);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new CharonException("Error in encoding resource..", e);
+        }
+    }
+
+    /**
+     * Return a writer which encodes the given SCIM object as UTF-8 when the response body is written, leaving out
+     * the attributes which are not returned according to the given projection plan. The object must not be changed
+     * until the body is written.
+     *
+     * @param scimObject     SCIM object to be encoded.
+     * @param projectionPlan Projection plan of the request, or null to encode every attribute.
+     * @return Writer of the encoded object.
+     */
+    public ResponseBodyWriter getResponseBodyWriter(SCIMObject scimObject, ProjectionPlan projectionPlan) {
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            try {
+                encodeSCIMObject(scimObject, projectionPlan, writer);
+            } catch (CharonException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            writer.flush();
+        };
+    }
+
     /*
      * encode scim exceptions
      * @param exception
@@ -564,49 +665,58 @@ public class JSONEncoder {
      */
     public String encodeBulkResponseData(BulkResponseData bulkResponseData) throws InternalErrorException {
 
-        String encodedString;
-        List<BulkResponseContent> userResponseDataList = bulkResponseData.getUserOperationResponse();
-        List<BulkResponseContent> groupResponseDataList = bulkResponseData.getGroupOperationResponse();
-        List<BulkResponseContent> roleResponseDataList = bulkResponseData.getRoleOperationResponse();
-        JSONObject rootObject = new JSONObject();
-
-        //encode schemas
+        StringWriter writer = new StringWriter();
         try {
-            //set the [schemas]
-            this.encodeArrayOfValues(SCIMConstants.CommonSchemaConstants.SCHEMAS,
-                    bulkResponseData.getSchemas().toArray(), rootObject);
+            encodeBulkResponseData(bulkResponseData, writer);
+        } catch (IOException e) {
+            throw new InternalErrorException("Error in encoding the response");
+        }
+        return writer.toString();
+    }
 
-            //[Operations] - multi value attribute
-            ArrayList<JSONObject> operationResponseList = new ArrayList<>();
+    /**
+     * Return a writer which encodes the given bulkResponseData object as UTF-8 when the response body is written.
+     * Each operation response is encoded and written in turn, so the encoded response is never held in memory.
+     *
+     * @param bulkResponseData Bulk response data.
+     * @return Writer of the encoded bulk response.
+     */
+    public ResponseBodyWriter getResponseBodyWriter(BulkResponseData bulkResponseData) {
 
-            for (BulkResponseContent userOperationResponse : userResponseDataList) {
-                encodeResponseContent(userOperationResponse, operationResponseList);
-            }
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            encodeBulkResponseData(bulkResponseData, writer);
+        };
+    }
 
-            for (BulkResponseContent groupOperationResponse : groupResponseDataList) {
-                encodeResponseContent(groupOperationResponse, operationResponseList);
-            }
+    /**
+     * Start a bulk response written to the given stream as UTF-8, for the responses of the operations to be written
+     * as the operations are processed.
+     *
+     * @param outputStream Stream to which the response is written. It is not closed with the returned writer.
+     * @return Writer of the operation responses.
+     */
+    public JSONBulkResponseWriter openBulkResponse(OutputStream outputStream) {
 
-            for (BulkResponseContent roleOperationResponse : roleResponseDataList) {
-                encodeResponseContent(roleOperationResponse, operationResponseList);
-            }
-            // Set operations.
-            this.encodeArrayOfValues(SCIMConstants.OperationalConstants.OPERATIONS,
-                    operationResponseList.toArray(), rootObject);
+        return new JSONBulkResponseWriter(this,
+                new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)),
+                Collections.singletonList(SCIMConstants.BULK_RESPONSE_URI));
+    }
 
-            encodedString = rootObject.toString();
+    private void encodeBulkResponseData(BulkResponseData bulkResponseData, Writer writer) throws IOException {
 
-        } catch (JSONException e) {
-            throw new InternalErrorException("Error in encoding the response");
+        JSONBulkResponseWriter responseWriter =
+                new JSONBulkResponseWriter(this, writer, bulkResponseData.getSchemas());
+        for (List<BulkResponseContent> responseDataList : Arrays.asList(bulkResponseData.getUserOperationResponse(),
+                bulkResponseData.getGroupOperationResponse(), bulkResponseData.getRoleOperationResponse())) {
+            for (BulkResponseContent responseContent : responseDataList) {
+                responseWriter.write(responseContent);
+            }
         }
-
-        return encodedString;
+        responseWriter.close();
     }
 
-
-    private void encodeResponseContent(BulkResponseContent responseContent,
-                                       ArrayList<JSONObject> operationResponseList)
-            throws JSONException {
+    JSONObject encodeResponseContent(BulkResponseContent responseContent) throws JSONException {
 
         int statusCode = responseContent.getScimResponse().getResponseStatus();
 
@@ -631,6 +741,6 @@ public class JSONEncoder {
             operationObject.put(SCIMConstants.OperationalConstants.RESPONSE,
                     responseContent.getScimResponse().getResponseMessage());
         }
-        operationResponseList.add(operationObject);
+        return operationObject;
     }
 }
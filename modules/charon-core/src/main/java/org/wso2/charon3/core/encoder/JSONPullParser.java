@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.encoder;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A pull parser over a character stream which accepts the same JSON dialect as {@link org.json.JSONTokener}.
+ * <p>
+ * Objects and arrays are walked member by member, so callers decide per value whether to decode it, to
+ * materialise it as an org.json value or to skip it. Scalars are converted with
+ * {@link JSONObject#stringToValue(String)}, so they get the same Java types as in a parsed {@link JSONObject}.
+ * Syntax errors, including duplicate keys, are reported as {@link JSONException}s.
+ */
+final class JSONPullParser {
+
+    private static final String UNQUOTED_TEXT_DELIMITERS = ",:]}/\\\"[{;=#";
+
+    private final Reader reader;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private long index;
+    private boolean eof;
+    private char previous;
+    private boolean usePrevious;
+
+    JSONPullParser(Reader reader) {
+
+        this.reader = reader;
+    }
+
+    /**
+     * Return the next significant character without consuming it, or 0 at the end of the input.
+     */
+    char peek() {
+
+        char c = nextClean();
+        if (c != 0) {
+            back();
+        }
+        return c;
+    }
+
+    /**
+     * Consume the opening brace of an object.
+     */
+    void beginObject() {
+
+        if (nextClean() != '{') {
+            throw syntaxError("A JSONObject text must begin with '{'");
+        }
+        frames.push(new Frame(true));
+    }
+
+    /**
+     * Consume the next member name of the current object together with its colon. The caller must then consume
+     * the member value exactly once.
+     *
+     * @return the member name, or null once the closing brace has been consumed.
+     */
+    String nextKey() {
+
+        Frame frame = frames.peek();
+        if (frame == null || frame.keys == null) {
+            throw new IllegalStateException("Not inside a JSON object.");
+        }
+        if (!frame.first) {
+            switch (nextClean()) {
+                case ';':
+                case ',':
+                    if (nextClean() == '}') {
+                        frames.pop();
+                        return null;
+                    }
+                    back();
+                    break;
+                case '}':
+                    frames.pop();
+                    return null;
+                default:
+                    throw syntaxError("Expected a ',' or '}'");
+            }
+        }
+        frame.first = false;
+        char c = nextClean();
+        if (c == 0) {
+            throw syntaxError("A JSONObject text must end with '}'");
+        }
+        if (c == '}') {
+            frames.pop();
+            return null;
+        }
+        back();
+        String key = nextValue().toString();
+        if (nextClean() != ':') {
+            throw syntaxError("Expected a ':' after a key");
+        }
+        if (!frame.keys.add(key)) {
+            throw syntaxError("Duplicate key \"" + key + "\"");
+        }
+        return key;
+    }
+
+    /**
+     * Consume the opening bracket of an array.
+     */
+    void beginArray() {
+
+        if (nextClean() != '[') {
+            throw syntaxError("A JSONArray text must start with '['");
+        }
+        frames.push(new Frame(false));
+    }
+
+    /**
+     * Move to the next element of the current array. The caller must then consume the element exactly once, for
+     * which {@link #isEmptyElement()} tells whether the element was left out, as in {@code [1,,2]}.
+     *
+     * @return true if there is another element, false once the closing bracket has been consumed.
+     */
+    boolean nextElement() {
+
+        Frame frame = frames.peek();
+        if (frame == null || frame.keys != null) {
+            throw new IllegalStateException("Not inside a JSON array.");
+        }
+        char c;
+        if (frame.first) {
+            frame.first = false;
+            c = nextClean();
+            if (c == 0) {
+                throw syntaxError("Expected a ',' or ']'");
+            }
+        } else {
+            switch (nextClean()) {
+                case ',':
+                    c = nextClean();
+                    if (c == 0) {
+                        throw syntaxError("Expected a ',' or ']'");
+                    }
+                    break;
+                case ']':
+                    frames.pop();
+                    return false;
+                default:
+                    throw syntaxError("Expected a ',' or ']'");
+            }
+        }
+        if (c == ']') {
+            frames.pop();
+            return false;
+        }
+        back();
+        return true;
+    }
+
+    /**
+     * Whether the current array element was left out. Such elements read as {@link JSONObject#NULL}.
+     */
+    boolean isEmptyElement() {
+
+        return peek() == ',';
+    }
+
+    /**
+     * Read the next value, materialising objects and arrays as {@link JSONObject}s and {@link JSONArray}s.
+     */
+    Object nextValue() {
+
+        char c = nextClean();
+        switch (c) {
+            case '"':
+            case '\'':
+                return nextString(c, true);
+            case '{':
+                back();
+                return nextObject();
+            case '[':
+                back();
+                return nextArray();
+            default:
+                return JSONObject.stringToValue(nextUnquotedText(c));
+        }
+    }
+
+    /**
+     * Read the next array element, taking left out elements into account.
+     */
+    Object nextElementValue() {
+
+        return isEmptyElement() ? JSONObject.NULL : nextValue();
+    }
+
+    /**
+     * Consume the next value without materialising it. The value is still checked for syntax errors.
+     */
+    void skipValue() {
+
+        char c = nextClean();
+        if (c == '"' || c == '\'') {
+            nextString(c, false);
+        } else if (c == '{') {
+            back();
+            beginObject();
+            while (nextKey() != null) {
+                skipValue();
+            }
+        } else if (c == '[') {
+            back();
+            beginArray();
+            while (nextElement()) {
+                if (!isEmptyElement()) {
+                    skipValue();
+                }
+            }
+        } else {
+            nextUnquotedText(c);
+        }
+    }
+
+    private JSONObject nextObject() {
+
+        JSONObject jsonObject = new JSONObject();
+        beginObject();
+        String key;
+        while ((key = nextKey()) != null) {
+            jsonObject.put(key, nextValue());
+        }
+        return jsonObject;
+    }
+
+    private JSONArray nextArray() {
+
+        JSONArray jsonArray = new JSONArray();
+        beginArray();
+        while (nextElement()) {
+            jsonArray.put(nextElementValue());
+        }
+        return jsonArray;
+    }
+
+    private String nextString(char quote, boolean keep) {
+
+        StringBuilder sb = keep ? new StringBuilder() : null;
+        for (;;) {
+            char c = next();
+            switch (c) {
+                case 0:
+                case '\n':
+                case '\r':
+                    throw syntaxError("Unterminated string");
+                case '\\':
+                    c = next();
+                    switch (c) {
+                        case 'b':
+                            c = '\b';
+                            break;
+                        case 't':
+                            c = '\t';
+                            break;
+                        case 'n':
+                            c = '\n';
+                            break;
+                        case 'f':
+                            c = '\f';
+                            break;
+                        case 'r':
+                            c = '\r';
+                            break;
+                        case 'u':
+                            c = nextUnicodeEscape();
+                            break;
+                        case '"':
+                        case '\'':
+                        case '\\':
+                        case '/':
+                            break;
+                        default:
+                            throw syntaxError("Illegal escape.");
+                    }
+                    if (sb != null) {
+                        sb.append(c);
+                    }
+                    break;
+                default:
+                    if (c == quote) {
+                        return sb != null ? sb.toString() : null;
+                    }
+                    if (sb != null) {
+                        sb.append(c);
+                    }
+            }
+        }
+    }
+
+    private char nextUnicodeEscape() {
+
+        char[] digits = new char[4];
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = next();
+            if (eof) {
+                throw syntaxError("Substring bounds error");
+            }
+        }
+        try {
+            return (char) Integer.parseInt(new String(digits), 16);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Illegal escape.");
+        }
+    }
+
+    private String nextUnquotedText(char first) {
+
+        StringBuilder sb = new StringBuilder();
+        char c = first;
+        while (c >= ' ' && UNQUOTED_TEXT_DELIMITERS.indexOf(c) < 0) {
+            sb.append(c);
+            c = next();
+        }
+        back();
+        String text = sb.toString().trim();
+        if (text.isEmpty()) {
+            throw syntaxError("Missing value");
+        }
+        return text;
+    }
+
+    private char nextClean() {
+
+        for (;;) {
+            char c = next();
+            if (c == 0 || c > ' ') {
+                return c;
+            }
+        }
+    }
+
+    private char next() {
+
+        char c;
+        if (usePrevious) {
+            usePrevious = false;
+            c = previous;
+        } else {
+            int read;
+            try {
+                read = reader.read();
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+            if (read <= 0) {
+                eof = true;
+                return 0;
+            }
+            c = (char) read;
+            previous = c;
+        }
+        index++;
+        return c;
+    }
+
+    private void back() {
+
+        // The end of the input is sticky, there is nothing to step back to.
+        if (eof) {
+            return;
+        }
+        if (usePrevious || index <= 0) {
+            throw new JSONException("Stepping back two steps is not supported");
+        }
+        index--;
+        usePrevious = true;
+    }
+
+    private JSONException syntaxError(String message) {
+
+        return new JSONException(message + " at " + index);
+    }
+
+    /**
+     * State of an object or array which is being walked.
+     */
+    private static final class Frame {
+
+        private final Set<String> keys;
+        private boolean first = true;
+
+        private Frame(boolean object) {
+
+            this.keys = object ? new HashSet<>() : null;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.encoder;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.objects.ListedResource;
+import org.wso2.charon3.core.objects.Role;
+import org.wso2.charon3.core.objects.SCIMObject;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+import org.wso2.charon3.core.utils.AttributeUtil;
+import org.wso2.charon3.core.utils.ProjectionPlan;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes SCIM objects as JSON straight to a {@link Writer}, without building an intermediate {@link JSONObject}
+ * tree.
+ * <p>
+ * The output is identical to {@link JSONEncoder#encodeSCIMObject(SCIMObject)}. Each JSON object is first laid out
+ * as a small map of member name to attribute, filled in the same order the DOM encoder fills its
+ * {@link JSONObject}. Iterating that map therefore yields the same member order as the {@link HashMap} backing
+ * {@link JSONObject}. Leaf values are rendered with org.json's own quoting and number formatting.
+ * <p>
+ * Given a {@link ProjectionPlan}, the writer leaves out the attributes the plan would prune, without modifying the
+ * written objects. The plan applies to the written object, or to the resources of a written {@link ListedResource}.
+ */
+final class SCIMObjectJSONWriter {
+
+    private final Writer writer;
+    private final ProjectionPlan projectionPlan;
+
+    SCIMObjectJSONWriter(Writer writer) {
+
+        this(writer, null);
+    }
+
+    SCIMObjectJSONWriter(Writer writer, ProjectionPlan projectionPlan) {
+
+        this.writer = writer;
+        this.projectionPlan = projectionPlan;
+    }
+
+    /**
+     * Write the given SCIM object, including its schemas and, for roles, its permissions.
+     *
+     * @param scimObject SCIM object to be written.
+     * @throws IOException   If writing to the underlying writer fails.
+     * @throws JSONException If a value cannot be represented in JSON.
+     */
+    void writeSCIMObject(SCIMObject scimObject) throws IOException {
+
+        Projection projection = null;
+        if (projectionPlan != null) {
+            projection = new Projection(projectionPlan, null, null, scimObject instanceof ListedResource);
+        }
+        Map<String, Object> members = new HashMap<>();
+        members.put(SCIMConstants.CommonSchemaConstants.SCHEMAS, scimObject.getSchemaList().toArray());
+        Map<String, Attribute> attributes = scimObject.getAttributeList();
+        if (attributes != null) {
+            collectMembers(attributes, members, projection);
+        }
+        if (scimObject instanceof Role role && !role.getPermissions().isEmpty()) {
+            members.put(SCIMConstants.RoleSchemaConstants.PERMISSIONS, role.getPermissions().toArray());
+        }
+        writeMembers(members, projection);
+    }
+
+    /*
+     * Add the attributes which the DOM encoder would emit, in the order it would emit them. A null projection
+     * returns every attribute.
+     */
+    private void collectMembers(Map<String, Attribute> attributes, Map<String, Object> members,
+                                Projection projection) {
+
+        for (Attribute attribute : attributes.values()) {
+            if (projection != null && !projection.isReturned(attribute)) {
+                continue;
+            }
+            if (attribute instanceof SimpleAttribute simpleAttribute) {
+                if (simpleAttribute.getValue() != null) {
+                    putMember(members, attribute);
+                }
+            } else if (attribute instanceof ComplexAttribute complexAttribute) {
+                // A complex attribute is only emitted once it has at least one sub attribute.
+                if (hasSubAttributes(complexAttribute, projection == null ? null : projection.child(attribute))) {
+                    putMember(members, attribute);
+                }
+            } else if (attribute instanceof MultiValuedAttribute) {
+                putMember(members, attribute);
+            }
+        }
+    }
+
+    private static boolean hasSubAttributes(ComplexAttribute complexAttribute, Projection projection) {
+
+        for (Attribute subAttribute : complexAttribute.getSubAttributesList().values()) {
+            if (projection == null || projection.isReturned(subAttribute)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void putMember(Map<String, Object> members, Attribute attribute) {
+
+        if (attribute.getName() == null) {
+            throw new JSONException("Null key.");
+        }
+        members.put(attribute.getName(), attribute);
+    }
+
+    private void writeMembers(Map<String, Object> members, Projection projection) throws IOException {
+
+        writer.write('{');
+        boolean first = true;
+        for (Map.Entry<String, Object> member : members.entrySet()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            JSONObject.quote(member.getKey(), writer);
+            writer.write(':');
+            writeMember(member.getValue(), projection);
+        }
+        writer.write('}');
+    }
+
+    private void writeMember(Object member, Projection projection) throws IOException {
+
+        if (member instanceof Object[] values) {
+            writer.write('[');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeValue(values[i]);
+            }
+            writer.write(']');
+        } else if (member instanceof SimpleAttribute simpleAttribute) {
+            writeValue(getEncodedValue(simpleAttribute));
+        } else if (member instanceof ComplexAttribute complexAttribute) {
+            writeComplexAttribute(complexAttribute, projection == null ? null : projection.child(complexAttribute));
+        } else if (member instanceof MultiValuedAttribute multiValuedAttribute) {
+            writeMultiValuedAttribute(multiValuedAttribute,
+                    projection == null ? null : projection.child(multiValuedAttribute));
+        }
+    }
+
+    /*
+     * Write a complex attribute, or a complex value of a multi valued attribute. The projection applies to its sub
+     * attributes.
+     */
+    private void writeComplexAttribute(ComplexAttribute complexAttribute, Projection projection) throws IOException {
+
+        Map<String, Object> members = new HashMap<>();
+        collectMembers(complexAttribute.getSubAttributesList(), members, projection);
+        writeMembers(members, projection);
+    }
+
+    /*
+     * Write a multi valued attribute. The projection applies to the sub attributes of its complex values.
+     */
+    private void writeMultiValuedAttribute(MultiValuedAttribute multiValuedAttribute, Projection projection)
+            throws IOException {
+
+        writer.write('[');
+        boolean first = true;
+        List<Attribute> attributeValues = multiValuedAttribute.getAttributeValues();
+        if (attributeValues != null) {
+            for (Attribute attributeValue : attributeValues) {
+                if (attributeValue instanceof SimpleAttribute simpleAttribute) {
+                    // The DOM encoder drops simple date time values of multi valued attributes.
+                    if (simpleAttribute.getValue() == null || isDateTime(simpleAttribute)) {
+                        continue;
+                    }
+                    if (simpleAttribute.getName() == null) {
+                        throw new JSONException("Null key.");
+                    }
+                    first = writeSeparator(first);
+                    writer.write('{');
+                    JSONObject.quote(simpleAttribute.getName(), writer);
+                    writer.write(':');
+                    writeValue(simpleAttribute.getValue());
+                    writer.write('}');
+                } else if (attributeValue instanceof ComplexAttribute complexAttribute) {
+                    first = writeSeparator(first);
+                    writeComplexAttribute(complexAttribute, projection);
+                }
+            }
+        }
+        List<Object> primitiveValues = multiValuedAttribute.getAttributePrimitiveValues();
+        if (primitiveValues != null) {
+            for (Object primitiveValue : primitiveValues) {
+                first = writeSeparator(first);
+                if (primitiveValue instanceof SCIMObject scimObject) {
+                    writeSCIMObject(scimObject);
+                } else {
+                    writeValue(primitiveValue);
+                }
+            }
+        }
+        writer.write(']');
+    }
+
+    private boolean writeSeparator(boolean first) throws IOException {
+
+        if (!first) {
+            writer.write(',');
+        }
+        return false;
+    }
+
+    private void writeValue(Object value) throws IOException {
+
+        if (value instanceof String stringValue) {
+            JSONObject.quote(stringValue, writer);
+        } else {
+            writer.write(JSONObject.valueToString(value));
+        }
+    }
+
+    private static Object getEncodedValue(SimpleAttribute attribute) {
+
+        if (isDateTime(attribute)) {
+            return AttributeUtil.formatDateTime((Instant) attribute.getValue());
+        }
+        return attribute.getValue();
+    }
+
+    private static boolean isDateTime(SimpleAttribute attribute) {
+
+        return attribute.getType() == SCIMDefinitions.DataType.DATE_TIME;
+    }
+
+    /**
+     * The position of the attributes being written within the projected object, which decides how the projection
+     * plan is asked whether they are returned. The plan only prunes down to the sub attributes of complex sub
+     * attributes, deeper attributes are always returned. The attributes of a listed resource are always returned,
+     * while each of its resources is projected as an object of its own.
+     */
+    private static final class Projection {
+
+        private final ProjectionPlan projectionPlan;
+        private final Attribute attribute;
+        private final Attribute parentAttribute;
+        private final boolean listedResource;
+
+        private Projection(ProjectionPlan projectionPlan, Attribute attribute, Attribute parentAttribute,
+                           boolean listedResource) {
+
+            this.projectionPlan = projectionPlan;
+            this.attribute = attribute;
+            this.parentAttribute = parentAttribute;
+            this.listedResource = listedResource;
+        }
+
+        private boolean isReturned(Attribute subAttribute) {
+
+            if (listedResource) {
+                return true;
+            }
+            if (attribute == null) {
+                return projectionPlan.isReturned(subAttribute);
+            }
+            if (parentAttribute != null) {
+                return projectionPlan.isSubSubAttributeReturned(parentAttribute, attribute, subAttribute);
+            }
+            if (Boolean.TRUE.equals(attribute.getMultiValued())) {
+                return projectionPlan.isValueSubAttributeReturned(attribute, subAttribute);
+            }
+            return projectionPlan.isSubAttributeReturned(attribute, subAttribute);
+        }
+
+        /*
+         * Projection of the sub attributes of the given attribute, or null if they are not pruned.
+         */
+        private Projection child(Attribute subAttribute) {
+
+            if (listedResource) {
+                // The complex values of the resources attribute hold the attributes of the listed resources.
+                return SCIMConstants.ListedResourceSchemaConstants.RESOURCES.equals(subAttribute.getName()) ?
+                        new Projection(projectionPlan, null, null, false) : null;
+            }
+            if (attribute == null) {
+                return new Projection(projectionPlan, subAttribute, null, false);
+            }
+            if (parentAttribute == null && !Boolean.TRUE.equals(attribute.getMultiValued())) {
+                return new Projection(projectionPlan, subAttribute, attribute, false);
+            }
+            return null;
+        }
+    }
+}
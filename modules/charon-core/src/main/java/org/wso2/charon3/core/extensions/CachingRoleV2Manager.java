@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.extensions;
+
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConflictException;
+import org.wso2.charon3.core.exceptions.ForbiddenException;
+import org.wso2.charon3.core.exceptions.NotFoundException;
+import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.objects.RoleV2;
+import org.wso2.charon3.core.objects.plainobjects.RolesV2GetResponse;
+import org.wso2.charon3.core.utils.ResourceCache;
+import org.wso2.charon3.core.utils.codeutils.Node;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+import org.wso2.charon3.core.utils.codeutils.SearchRequest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A role manager which caches the roles read through another role manager, by their id and the attributes they were
+ * loaded with. Writes made through this role manager invalidate the cached role they change.
+ * <p>
+ * The roles of a user are part of the user, so role writes also invalidate the users cached by the
+ * {@link CachingUserManager} given, if any. Changes made to the users and groups of roles by other means, e.g. users
+ * deleted through a user manager, are noticed once the cached roles expire.
+ */
+public class CachingRoleV2Manager implements RoleV2Manager {
+
+    private final RoleV2Manager roleManager;
+    private final ResourceCache<RoleV2> roleCache;
+    private final CachingUserManager userManager;
+
+    /**
+     * Wrap the given role manager, caching at most {@link ResourceCache#DEFAULT_MAX_SIZE} roles for
+     * {@link ResourceCache#DEFAULT_TIME_TO_LIVE_MILLIS} milliseconds.
+     *
+     * @param roleManager Role manager reading from and writing to the user store.
+     */
+    public CachingRoleV2Manager(RoleV2Manager roleManager) {
+
+        this(roleManager, ResourceCache.DEFAULT_MAX_SIZE, ResourceCache.DEFAULT_TIME_TO_LIVE_MILLIS, null);
+    }
+
+    /**
+     * Wrap the given role manager.
+     *
+     * @param roleManager      Role manager reading from and writing to the user store.
+     * @param maxSize          Maximum number of cached roles.
+     * @param timeToLiveMillis Time in milliseconds after which a cached role expires.
+     * @param userManager      User manager whose cached users are invalidated by role writes, or null.
+     */
+    public CachingRoleV2Manager(RoleV2Manager roleManager, int maxSize, long timeToLiveMillis,
+                                CachingUserManager userManager) {
+
+        this.roleManager = roleManager;
+        this.roleCache = new ResourceCache<>(maxSize, timeToLiveMillis);
+        this.userManager = userManager;
+    }
+
+    public RoleV2Manager getRoleManager() {
+
+        return roleManager;
+    }
+
+    /**
+     * Return the cache of the roles, which also carries its hit, miss and eviction counts.
+     *
+     * @return Cache of the roles.
+     */
+    public ResourceCache<RoleV2> getRoleCache() {
+
+        return roleCache;
+    }
+
+    @Override
+    public RoleV2 createRole(RoleV2 role)
+            throws CharonException, ConflictException, NotImplementedException, BadRequestException,
+            ForbiddenException {
+
+        try {
+            return roleManager.createRole(role);
+        } finally {
+            invalidateUsers();
+        }
+    }
+
+    @Override
+    public RoleV2 getRole(String id, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        RoleV2 role = roleCache.get(id, requiredAttributes);
+        if (role == null) {
+            long invalidationCount = roleCache.getInvalidationCount();
+            role = roleManager.getRole(id, requiredAttributes);
+            roleCache.put(id, requiredAttributes, role, invalidationCount);
+        }
+        return role;
+    }
+
+    @Override
+    public void deleteRole(String id)
+            throws NotFoundException, CharonException, NotImplementedException, BadRequestException,
+            ForbiddenException {
+
+        try {
+            roleManager.deleteRole(id);
+        } finally {
+            invalidateRole(id);
+        }
+    }
+
+    @Override
+    public RolesV2GetResponse listRolesWithGET(Node node, Integer startIndex, Integer count, String sortBy,
+                                               String sortOrder, List<String> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return roleManager.listRolesWithGET(node, startIndex, count, sortBy, sortOrder, requiredAttributes);
+    }
+
+    @Override
+    public RoleV2 updateRole(RoleV2 oldRole, RoleV2 newRole)
+            throws NotImplementedException, BadRequestException, CharonException, ConflictException, NotFoundException,
+            ForbiddenException {
+
+        try {
+            return roleManager.updateRole(oldRole, newRole);
+        } finally {
+            invalidateRole(oldRole.getId());
+        }
+    }
+
+    @Override
+    public RolesV2GetResponse listRolesWithPost(SearchRequest searchRequest, List<String> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException {
+
+        return roleManager.listRolesWithPost(searchRequest, requiredAttributes);
+    }
+
+    @Override
+    public RoleV2 patchRole(String roleId, Map<String, List<PatchOperation>> patchOperations)
+            throws NotImplementedException, BadRequestException, CharonException, ConflictException, NotFoundException,
+            ForbiddenException {
+
+        try {
+            return roleManager.patchRole(roleId, patchOperations);
+        } finally {
+            invalidateRole(roleId);
+        }
+    }
+
+    @Override
+    public RoleV2 createRoleMeta(RoleV2 role)
+            throws CharonException, ConflictException, NotImplementedException, BadRequestException {
+
+        return roleManager.createRoleMeta(role);
+    }
+
+    @Override
+    public RoleV2 updateRoleMeta(RoleV2 oldRole, RoleV2 newRole)
+            throws NotImplementedException, BadRequestException, CharonException, ConflictException, NotFoundException {
+
+        try {
+            return roleManager.updateRoleMeta(oldRole, newRole);
+        } finally {
+            invalidateRole(oldRole.getId());
+        }
+    }
+
+    @Override
+    public RoleV2 patchRoleMeta(String roleId, Map<String, List<PatchOperation>> patchOperations)
+            throws NotImplementedException, BadRequestException, CharonException, ConflictException, NotFoundException,
+            ForbiddenException {
+
+        try {
+            return roleManager.patchRoleMeta(roleId, patchOperations);
+        } finally {
+            invalidateRole(roleId);
+        }
+    }
+
+    @Override
+    public RoleV2 updateUsersOfRole(RoleV2 oldRole, RoleV2 newRole)
+            throws NotImplementedException, BadRequestException, CharonException, ConflictException, NotFoundException {
+
+        try {
+            return roleManager.updateUsersOfRole(oldRole, newRole);
+        } finally {
+            invalidateRole(oldRole.getId());
+        }
+    }
+
+    @Override
+    public RoleV2 patchUsersOfRole(String roleId, Map<String, List<PatchOperation>> patchOperations)
+            throws NotImplementedException, BadRequestException, CharonException, ConflictException, NotFoundException,
+            ForbiddenException {
+
+        try {
+            return roleManager.patchUsersOfRole(roleId, patchOperations);
+        } finally {
+            invalidateRole(roleId);
+        }
+    }
+
+    @Override
+    public RoleV2 updateGroupsOfRole(RoleV2 oldRole, RoleV2 newRole)
+            throws NotImplementedException, BadRequestException, CharonException, ConflictException, NotFoundException {
+
+        try {
+            return roleManager.updateGroupsOfRole(oldRole, newRole);
+        } finally {
+            invalidateRole(oldRole.getId());
+        }
+    }
+
+    @Override
+    public RoleV2 patchGroupsOfRole(String roleId, Map<String, List<PatchOperation>> patchOperations)
+            throws NotImplementedException, BadRequestException, CharonException, ConflictException, NotFoundException,
+            ForbiddenException {
+
+        try {
+            return roleManager.patchGroupsOfRole(roleId, patchOperations);
+        } finally {
+            invalidateRole(roleId);
+        }
+    }
+
+    /*
+     * Remove the cached role of the given id, along with the cached users whose roles may have changed.
+     */
+    private void invalidateRole(String roleId) {
+
+        if (roleId == null) {
+            roleCache.clear();
+        } else {
+            roleCache.invalidate(roleId);
+        }
+        invalidateUsers();
+    }
+
+    private void invalidateUsers() {
+
+        if (userManager != null) {
+            userManager.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,641 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.extensions;
+
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.ConflictException;
+import org.wso2.charon3.core.exceptions.ForbiddenException;
+import org.wso2.charon3.core.exceptions.NotFoundException;
+import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.exceptions.PreConditionFailedException;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.objects.plainobjects.BatchOperationResult;
+import org.wso2.charon3.core.objects.plainobjects.ChangeSet;
+import org.wso2.charon3.core.objects.plainobjects.GroupsGetResponse;
+import org.wso2.charon3.core.objects.plainobjects.MembershipDelta;
+import org.wso2.charon3.core.objects.plainobjects.MultiValuedComplexType;
+import org.wso2.charon3.core.objects.plainobjects.UsersGetResponse;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.utils.ResourceCache;
+import org.wso2.charon3.core.utils.codeutils.Node;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+import org.wso2.charon3.core.utils.codeutils.SearchRequest;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A user manager which caches the users read through another user manager, so that user stores which sit on LDAP or
+ * remote databases are not read again for users which were read recently.
+ * <p>
+ * Users are cached by their id, or by their user name for the Me endpoint, and the attributes they were loaded with,
+ * in {@link ResourceCache}s. Writes made through this user manager invalidate the cached users they affect. As the
+ * groups of a user are part of the user, writes to groups invalidate all the cached users, except membership changes
+ * which only invalidate the added and removed members. Changes made to the store by other means, e.g. through the
+ * roles of a {@link RoleV2Manager} or by other nodes, are noticed once the cached users expire.
+ * <p>
+ * All the other operations, including groups and listings, are passed through to the wrapped user manager.
+ */
+public class CachingUserManager implements UserManager {
+
+    private final UserManager userManager;
+    private final ResourceCache<User> userCache;
+    private final ResourceCache<User> meCache;
+
+    /**
+     * Wrap the given user manager, caching at most {@link ResourceCache#DEFAULT_MAX_SIZE} users for
+     * {@link ResourceCache#DEFAULT_TIME_TO_LIVE_MILLIS} milliseconds.
+     *
+     * @param userManager User manager reading from and writing to the user store.
+     */
+    public CachingUserManager(UserManager userManager) {
+
+        this(userManager, ResourceCache.DEFAULT_MAX_SIZE, ResourceCache.DEFAULT_TIME_TO_LIVE_MILLIS);
+    }
+
+    /**
+     * Wrap the given user manager.
+     *
+     * @param userManager      User manager reading from and writing to the user store.
+     * @param maxSize          Maximum number of users cached by id, and of users cached by user name.
+     * @param timeToLiveMillis Time in milliseconds after which a cached user expires.
+     */
+    public CachingUserManager(UserManager userManager, int maxSize, long timeToLiveMillis) {
+
+        this.userManager = userManager;
+        this.userCache = new ResourceCache<>(maxSize, timeToLiveMillis);
+        this.meCache = new ResourceCache<>(maxSize, timeToLiveMillis);
+    }
+
+    public UserManager getUserManager() {
+
+        return userManager;
+    }
+
+    /**
+     * Return the cache of the users read by their id, which also carries its hit, miss and eviction counts.
+     *
+     * @return Cache of the users read by id.
+     */
+    public ResourceCache<User> getUserCache() {
+
+        return userCache;
+    }
+
+    /**
+     * Return the cache of the users read by their user name through the Me endpoint.
+     *
+     * @return Cache of the users read by user name.
+     */
+    public ResourceCache<User> getMeCache() {
+
+        return meCache;
+    }
+
+    /**
+     * Remove all the cached users, e.g. after the user store was changed by other means.
+     */
+    public void invalidateAll() {
+
+        userCache.clear();
+        meCache.clear();
+    }
+
+    @Override
+    public User createUser(User user, Map<String, Boolean> requiredAttributes)
+            throws CharonException, ConflictException, BadRequestException, ForbiddenException {
+
+        return userManager.createUser(user, requiredAttributes);
+    }
+
+    @Override
+    public User getUser(String id, Map<String, Boolean> requiredAttributes)
+            throws CharonException, BadRequestException, NotFoundException {
+
+        User user = userCache.get(id, requiredAttributes);
+        if (user == null) {
+            long invalidationCount = userCache.getInvalidationCount();
+            user = userManager.getUser(id, requiredAttributes);
+            userCache.put(id, requiredAttributes, user, invalidationCount);
+        }
+        return user;
+    }
+
+    @Override
+    public String getUserVersion(String userId)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        return userManager.getUserVersion(userId);
+    }
+
+    @Override
+    public void deleteUser(String userId)
+            throws NotFoundException, CharonException, NotImplementedException, BadRequestException,
+            ForbiddenException {
+
+        try {
+            userManager.deleteUser(userId);
+        } finally {
+            invalidateUser(userId);
+        }
+    }
+
+    @Override
+    public UsersGetResponse listUsersWithGET(Node node, Integer startIndex, Integer count, String sortBy,
+                                             String sortOrder, String domainName,
+                                             Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listUsersWithGET(node, startIndex, count, sortBy, sortOrder, domainName,
+                requiredAttributes);
+    }
+
+    @Override
+    @Deprecated
+    public UsersGetResponse listUsersWithGET(Node node, int startIndex, int count, String sortBy, String sortOrder,
+                                             String domainName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listUsersWithGET(node, startIndex, count, sortBy, sortOrder, domainName,
+                requiredAttributes);
+    }
+
+    @Override
+    @Deprecated
+    public UsersGetResponse listUsersWithGET(Node node, int startIndex, int count, String sortBy, String sortOrder,
+                                             Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listUsersWithGET(node, startIndex, count, sortBy, sortOrder, requiredAttributes);
+    }
+
+    @Override
+    public UsersGetResponse listUsersWithCursor(Node node, String cursor, Integer count, String sortBy,
+                                                String sortOrder, String domainName,
+                                                Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listUsersWithCursor(node, cursor, count, sortBy, sortOrder, domainName,
+                requiredAttributes);
+    }
+
+    @Override
+    public UsersGetResponse listUsersWithPost(SearchRequest searchRequest, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listUsersWithPost(searchRequest, requiredAttributes);
+    }
+
+    @Override
+    public User updateUser(User updatedUser, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException, ForbiddenException,
+            ConflictException {
+
+        try {
+            return userManager.updateUser(updatedUser, requiredAttributes);
+        } finally {
+            invalidateUser(updatedUser.getId());
+        }
+    }
+
+    @Override
+    public User updateUser(User updatedUser, Map<String, Boolean> requiredAttributes,
+                           List<String> allSimpleMultiValuedAttributes)
+            throws CharonException, BadRequestException, NotFoundException, NotImplementedException, ConflictException {
+
+        try {
+            return userManager.updateUser(updatedUser, requiredAttributes, allSimpleMultiValuedAttributes);
+        } finally {
+            invalidateUser(updatedUser.getId());
+        }
+    }
+
+    @Override
+    public User patchUser(String userId, ChangeSet changeSet, User patchedUser, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException, ForbiddenException,
+            ConflictException {
+
+        try {
+            return userManager.patchUser(userId, changeSet, patchedUser, requiredAttributes);
+        } finally {
+            invalidateUser(userId);
+        }
+    }
+
+    @Override
+    public User updateUserWithVersion(User updatedUser, Map<String, Boolean> requiredAttributes,
+                                      String expectedVersion)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException, ForbiddenException,
+            ConflictException, PreConditionFailedException {
+
+        try {
+            return userManager.updateUserWithVersion(updatedUser, requiredAttributes, expectedVersion);
+        } finally {
+            invalidateUser(updatedUser.getId());
+        }
+    }
+
+    @Override
+    public User patchUserWithVersion(String userId, ChangeSet changeSet, User patchedUser,
+                                     Map<String, Boolean> requiredAttributes, String expectedVersion)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException, ForbiddenException,
+            ConflictException, PreConditionFailedException {
+
+        try {
+            return userManager.patchUserWithVersion(userId, changeSet, patchedUser, requiredAttributes,
+                    expectedVersion);
+        } finally {
+            invalidateUser(userId);
+        }
+    }
+
+    @Override
+    public User getMe(String userName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, BadRequestException, NotFoundException, NotImplementedException {
+
+        User user = meCache.get(userName, requiredAttributes);
+        if (user == null) {
+            long invalidationCount = meCache.getInvalidationCount();
+            user = userManager.getMe(userName, requiredAttributes);
+            meCache.put(userName, requiredAttributes, user, invalidationCount);
+        }
+        return user;
+    }
+
+    @Override
+    public User createMe(User user, Map<String, Boolean> requiredAttributes)
+            throws CharonException, ConflictException, BadRequestException, ForbiddenException,
+            NotImplementedException {
+
+        return userManager.createMe(user, requiredAttributes);
+    }
+
+    @Override
+    public void deleteMe(String userName)
+            throws NotFoundException, CharonException, NotImplementedException, BadRequestException,
+            ForbiddenException {
+
+        try {
+            userManager.deleteMe(userName);
+        } finally {
+            // The id of the user is not known, so the user can only be invalidated along with all the others.
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public User updateMe(User updatedUser, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException, ForbiddenException,
+            ConflictException {
+
+        try {
+            return userManager.updateMe(updatedUser, requiredAttributes);
+        } finally {
+            invalidateUser(updatedUser.getId());
+        }
+    }
+
+    @Override
+    public List<BatchOperationResult<User>> createUsers(List<User> users, Map<String, Boolean> requiredAttributes)
+            throws CharonException {
+
+        return userManager.createUsers(users, requiredAttributes);
+    }
+
+    @Override
+    public List<BatchOperationResult<Void>> deleteUsers(List<String> userIds) throws CharonException {
+
+        try {
+            return userManager.deleteUsers(userIds);
+        } finally {
+            for (String userId : userIds) {
+                invalidateUser(userId);
+            }
+        }
+    }
+
+    @Override
+    public Group createGroup(Group group, Map<String, Boolean> requiredAttributes)
+            throws CharonException, ConflictException, NotImplementedException, BadRequestException,
+            ForbiddenException {
+
+        try {
+            return userManager.createGroup(group, requiredAttributes);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public Group getGroup(String id, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        return userManager.getGroup(id, requiredAttributes);
+    }
+
+    @Override
+    public String getGroupVersion(String groupId)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        return userManager.getGroupVersion(groupId);
+    }
+
+    @Override
+    public void deleteGroup(String id)
+            throws NotFoundException, CharonException, NotImplementedException, BadRequestException,
+            ForbiddenException {
+
+        try {
+            userManager.deleteGroup(id);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public List<BatchOperationResult<Group>> createGroups(List<Group> groups, Map<String, Boolean> requiredAttributes)
+            throws CharonException {
+
+        try {
+            return userManager.createGroups(groups, requiredAttributes);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public List<BatchOperationResult<Void>> deleteGroups(List<String> groupIds) throws CharonException {
+
+        try {
+            return userManager.deleteGroups(groupIds);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public GroupsGetResponse listGroupsWithGET(Node node, Integer startIndex, Integer count, String sortBy,
+                                               String sortOrder, String domainName,
+                                               Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listGroupsWithGET(node, startIndex, count, sortBy, sortOrder, domainName,
+                requiredAttributes);
+    }
+
+    @Override
+    @Deprecated
+    public GroupsGetResponse listGroupsWithGET(Node node, int startIndex, int count, String sortBy, String sortOrder,
+                                               String domainName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listGroupsWithGET(node, startIndex, count, sortBy, sortOrder, domainName,
+                requiredAttributes);
+    }
+
+    @Override
+    @Deprecated
+    public GroupsGetResponse listGroupsWithGET(Node node, int startIndex, int count, String sortBy, String sortOrder,
+                                               Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.listGroupsWithGET(node, startIndex, count, sortBy, sortOrder, requiredAttributes);
+    }
+
+    @Override
+    public Group updateGroup(Group oldGroup, Group newGroup, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            ForbiddenException {
+
+        try {
+            return userManager.updateGroup(oldGroup, newGroup, requiredAttributes);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void updateGroup(Group oldGroup, Group newGroup)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            ForbiddenException {
+
+        try {
+            userManager.updateGroup(oldGroup, newGroup);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public Group patchGroup(String groupId, String currentGroupName, Map<String, List<PatchOperation>> patchOperations,
+                            Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            ForbiddenException {
+
+        try {
+            return userManager.patchGroup(groupId, currentGroupName, patchOperations, requiredAttributes);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void patchGroup(String groupId, String currentGroupName, Map<String, List<PatchOperation>> patchOperations)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            ForbiddenException {
+
+        try {
+            userManager.patchGroup(groupId, currentGroupName, patchOperations);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public Group patchGroup(String groupId, MembershipDelta membershipDelta, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            ForbiddenException {
+
+        try {
+            return userManager.patchGroup(groupId, membershipDelta, requiredAttributes);
+        } finally {
+            invalidateMembers(membershipDelta);
+        }
+    }
+
+    @Override
+    public void patchGroup(String groupId, MembershipDelta membershipDelta)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            ForbiddenException {
+
+        try {
+            userManager.patchGroup(groupId, membershipDelta);
+        } finally {
+            invalidateMembers(membershipDelta);
+        }
+    }
+
+    @Override
+    public Group updateGroupWithVersion(Group oldGroup, Group newGroup, Map<String, Boolean> requiredAttributes,
+                                        String expectedVersion)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            ForbiddenException, PreConditionFailedException {
+
+        try {
+            return userManager.updateGroupWithVersion(oldGroup, newGroup, requiredAttributes, expectedVersion);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public Group patchGroupWithVersion(String groupId, MembershipDelta membershipDelta,
+                                       Map<String, Boolean> requiredAttributes, String expectedVersion)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            ForbiddenException, PreConditionFailedException {
+
+        try {
+            return userManager.patchGroupWithVersion(groupId, membershipDelta, requiredAttributes, expectedVersion);
+        } finally {
+            invalidateMembers(membershipDelta);
+        }
+    }
+
+    @Override
+    public Iterator<MultiValuedComplexType> getGroupMembers(String groupId, int startIndex)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        return userManager.getGroupMembers(groupId, startIndex);
+    }
+
+    @Override
+    public GroupsGetResponse listGroupsWithPost(SearchRequest searchRequest, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException {
+
+        return userManager.listGroupsWithPost(searchRequest, requiredAttributes);
+    }
+
+    @Override
+    public List<Attribute> getCoreSchema() throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.getCoreSchema();
+    }
+
+    @Override
+    public List<Attribute> getUserSchema() throws CharonException, NotImplementedException, BadRequestException {
+
+        return userManager.getUserSchema();
+    }
+
+    @Override
+    public List<Attribute> getEnterpriseUserSchema() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getEnterpriseUserSchema();
+    }
+
+    @Override
+    public List<Attribute> getSystemUserSchema() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getSystemUserSchema();
+    }
+
+    @Override
+    public List<Attribute> getAgentUserSchema() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getAgentUserSchema();
+    }
+
+    @Override
+    public AttributeSchema getCustomUserSchemaExtension() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getCustomUserSchemaExtension();
+    }
+
+    @Override
+    public AttributeSchema getCustomAttributeSchemaInSystemExtension() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getCustomAttributeSchemaInSystemExtension();
+    }
+
+    @Override
+    public AttributeSchema getCustomAttributeSchemaInAgentExtension() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getCustomAttributeSchemaInAgentExtension();
+    }
+
+    @Override
+    public List<Attribute> getCustomUserSchemaAttributes() throws CharonException, NotImplementedException,
+            BadRequestException {
+
+        return userManager.getCustomUserSchemaAttributes();
+    }
+
+    @Override
+    public String getUserSchemaCacheKey() {
+
+        return userManager.getUserSchemaCacheKey();
+    }
+
+    @Override
+    public Map<String, String> getSyncedUserAttributes() throws CharonException {
+
+        return userManager.getSyncedUserAttributes();
+    }
+
+    /*
+     * Remove the cached user of the given id, whichever key it was read by.
+     */
+    private void invalidateUser(String userId) {
+
+        if (userId == null) {
+            invalidateAll();
+            return;
+        }
+        userCache.invalidate(userId);
+        meCache.invalidate(userId);
+    }
+
+    /*
+     * Remove the cached users whose groups are changed by the given membership delta. Renaming the group changes the
+     * groups of all its members, who are not known here.
+     */
+    private void invalidateMembers(MembershipDelta membershipDelta) {
+
+        if (membershipDelta == null || membershipDelta.getDisplayName() != null) {
+            invalidateAll();
+            return;
+        }
+        for (String memberId : membershipDelta.getAddedMembers().keySet()) {
+            invalidateUser(memberId);
+        }
+        for (String memberId : membershipDelta.getRemovedMembers()) {
+            invalidateUser(memberId);
+        }
+    }
+}
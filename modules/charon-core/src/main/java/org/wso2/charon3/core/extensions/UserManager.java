@@ -22,16 +22,23 @@ import org.wso2.charon3.core.exceptions.ConflictException;
 import org.wso2.charon3.core.exceptions.ForbiddenException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.exceptions.PreConditionFailedException;
 import org.wso2.charon3.core.objects.Group;
 import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.objects.plainobjects.BatchOperationResult;
+import org.wso2.charon3.core.objects.plainobjects.ChangeSet;
 import org.wso2.charon3.core.objects.plainobjects.GroupsGetResponse;
+import org.wso2.charon3.core.objects.plainobjects.MembershipDelta;
+import org.wso2.charon3.core.objects.plainobjects.MultiValuedComplexType;
 import org.wso2.charon3.core.objects.plainobjects.UsersGetResponse;
 import org.wso2.charon3.core.schema.AttributeSchema;
 import org.wso2.charon3.core.utils.codeutils.Node;
 import org.wso2.charon3.core.utils.codeutils.PatchOperation;
 import org.wso2.charon3.core.utils.codeutils.SearchRequest;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -50,6 +57,31 @@ public interface UserManager {
     public User getUser(String id, Map<String, Boolean> requiredAttributes)
             throws CharonException, BadRequestException, NotFoundException;
 
+    /**
+     * Return the current version of a user as kept by the store, e.g. a revision number or a modification
+     * timestamp, which must change whenever the user changes. It is used as the ETag of the user, so that
+     * conditional requests can be answered without the user being loaded. It is looked up whenever a user is
+     * retrieved or updated, so it should be cheap. By default this is not supported, and the ETag is computed from
+     * the encoded user instead.
+     * <p>
+     * The If-Match header of an update is checked against the version and, if
+     * {@link #updateUserWithVersion(User, Map, String)} and
+     * {@link #patchUserWithVersion(String, ChangeSet, User, Map, String)} are implemented, checked again by the
+     * store together with the update. Stores which do not keep versions, or which do not implement these methods,
+     * get a best-effort check only: the user is compared before it is updated, so a concurrent update made in
+     * between is overwritten.
+     *
+     * @param userId ID of the user.
+     * @return Version of the user, either as is or as an entity tag.
+     * @throws NotImplementedException If the store does not keep versions of users.
+     * @throws NotFoundException       If the user does not exist.
+     */
+    default String getUserVersion(String userId)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        throw new NotImplementedException("Versions of users are not supported");
+    }
+
     public void deleteUser(String userId)
             throws NotFoundException, CharonException, NotImplementedException, BadRequestException, ForbiddenException;
 
@@ -101,6 +133,31 @@ public interface UserManager {
         return listUsersWithGET(node, startIndex, count, sortBy, sortOrder, null, requiredAttributes);
     }
 
+    /**
+     * List users with cursor pagination. Instead of skipping to a start index, the listing continues at the position
+     * where the previous page ended, so that user stores can seek to it, e.g. with a keyset condition on the sort
+     * key, and paging through all users takes linear total time. By default this is not supported.
+     *
+     * @param node               Filter of the listing, or null to list all users.
+     * @param cursor             Position at which the previous page ended, as given in
+     *                           {@link UsersGetResponse#getNextCursor()}, or null for the first page.
+     * @param count              Maximum number of users of the page.
+     * @param sortBy             Sort by.
+     * @param sortOrder          Sort order.
+     * @param domainName         Domain name.
+     * @param requiredAttributes Required user attributes.
+     * @return Users of the page, and the position of the next page if there is one.
+     * @throws NotImplementedException If cursor pagination is not supported.
+     * @throws BadRequestException     If the cursor is not a valid position.
+     */
+    default UsersGetResponse listUsersWithCursor(Node node, String cursor, Integer count, String sortBy,
+                                                 String sortOrder, String domainName,
+                                                 Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        throw new NotImplementedException("Cursor pagination is not supported");
+    }
+
     public UsersGetResponse listUsersWithPost(SearchRequest searchRequest, Map<String, Boolean> requiredAttributes)
             throws CharonException, NotImplementedException, BadRequestException;
 
@@ -128,6 +185,74 @@ public interface UserManager {
                 "Updating simple multi-valued attributes independently from simple attributes is not supported");
     }
 
+    /**
+     * Apply the changes a PATCH request made to a user. Implementations backed by a store which can update individual
+     * attributes, such as claims, columns or LDAP attributes, can override this to write only what changed. By
+     * default this is not supported, and the patched user replaces the stored user through
+     * {@link #updateUser(User, Map, List)} instead.
+     *
+     * @param userId             Id of the patched user.
+     * @param changeSet          Attributes added, replaced and removed by the request, and values added to and removed
+     *                           from multi valued attributes.
+     * @param patchedUser        User with the changes applied, validated against the stored user.
+     * @param requiredAttributes URIs of required attributes which must be given a value.
+     * @return Updated user stored in the user store.
+     * @throws NotImplementedException If patching with a change set is not supported.
+     */
+    default User patchUser(String userId, ChangeSet changeSet, User patchedUser,
+                           Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException, ForbiddenException,
+            ConflictException {
+
+        throw new NotImplementedException("Patching users with a change set is not supported");
+    }
+
+    /**
+     * Update the user only if its current version is still the given one, checking and updating atomically, e.g.
+     * with a conditional update on a version column. This lets If-Match headers be checked without a concurrent
+     * update being lost. By default this is not supported, and the user is updated through
+     * {@link #updateUser(User, Map)} after the version was checked separately.
+     *
+     * @param updatedUser        Updated user.
+     * @param requiredAttributes URIs of required attributes which must be given a value.
+     * @param expectedVersion    Version of the user the update is based on, as returned by
+     *                           {@link #getUserVersion(String)}.
+     * @return Updated user stored in the user store.
+     * @throws NotImplementedException     If conditional updates are not supported.
+     * @throws PreConditionFailedException If the current version of the user differs from the expected one.
+     */
+    default User updateUserWithVersion(User updatedUser, Map<String, Boolean> requiredAttributes,
+                                       String expectedVersion)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException, ForbiddenException,
+            ConflictException, PreConditionFailedException {
+
+        throw new NotImplementedException("Conditional updates of users are not supported");
+    }
+
+    /**
+     * Apply the changes a PATCH request made to a user only if its current version is still the given one, checking
+     * and updating atomically. See {@link #patchUser(String, ChangeSet, User, Map)} and
+     * {@link #updateUserWithVersion(User, Map, String)}.
+     *
+     * @param userId             Id of the patched user.
+     * @param changeSet          Attributes added, replaced and removed by the request, and values added to and removed
+     *                           from multi valued attributes.
+     * @param patchedUser        User with the changes applied, validated against the stored user.
+     * @param requiredAttributes URIs of required attributes which must be given a value.
+     * @param expectedVersion    Version of the user the patch is based on, as returned by
+     *                           {@link #getUserVersion(String)}.
+     * @return Updated user stored in the user store.
+     * @throws NotImplementedException     If conditional patches are not supported.
+     * @throws PreConditionFailedException If the current version of the user differs from the expected one.
+     */
+    default User patchUserWithVersion(String userId, ChangeSet changeSet, User patchedUser,
+                                      Map<String, Boolean> requiredAttributes, String expectedVersion)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException, ForbiddenException,
+            ConflictException, PreConditionFailedException {
+
+        throw new NotImplementedException("Conditional patches of users are not supported");
+    }
+
     public User getMe(String userName, Map<String, Boolean> requiredAttributes)
             throws CharonException, BadRequestException, NotFoundException, NotImplementedException;
 
@@ -141,6 +266,58 @@ public interface UserManager {
             throws NotImplementedException, CharonException, BadRequestException, NotFoundException, ForbiddenException,
             ConflictException;
 
+    /**
+     * Create the given users, e.g. for the user creations of a bulk request. Implementations backed by a store which
+     * can create several users in one round trip, such as in one transaction or with a multi-row insert, can
+     * override this. By default the users are created one by one.
+     *
+     * @param users              Users to be created.
+     * @param requiredAttributes Attributes to be returned for the created users.
+     * @return Result of each user, in the order of the given users. A user which could not be created does not
+     * prevent the others from being created.
+     * @throws CharonException If the users could not be created as a whole, e.g. when the store cannot be reached.
+     *                         The default implementation never throws, since a user which could not be created
+     *                         is reported in its result.
+     */
+    default List<BatchOperationResult<User>> createUsers(List<User> users, Map<String, Boolean> requiredAttributes)
+            throws CharonException {
+
+        List<BatchOperationResult<User>> results = new ArrayList<>(users.size());
+        for (User user : users) {
+            try {
+                results.add(BatchOperationResult.success(createUser(user, requiredAttributes)));
+            } catch (CharonException | ConflictException | BadRequestException | ForbiddenException e) {
+                results.add(BatchOperationResult.failure(e));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Delete the users with the given ids. Implementations can override this to delete the users in one round trip.
+     * By default the users are deleted one by one.
+     *
+     * @param userIds Ids of the users to be deleted.
+     * @return Result of each user, in the order of the given ids.
+     * @throws CharonException If the users could not be deleted as a whole, e.g. when the store cannot be reached.
+     *                         The default implementation never throws, since a user which could not be deleted
+     *                         is reported in its result.
+     */
+    default List<BatchOperationResult<Void>> deleteUsers(List<String> userIds) throws CharonException {
+
+        List<BatchOperationResult<Void>> results = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            try {
+                deleteUser(userId);
+                results.add(BatchOperationResult.success(null));
+            } catch (NotFoundException | CharonException | NotImplementedException | BadRequestException |
+                     ForbiddenException e) {
+                results.add(BatchOperationResult.failure(e));
+            }
+        }
+        return results;
+    }
+
 
    /* ****************Group manipulation operations.********************/
 
@@ -150,9 +327,77 @@ public interface UserManager {
     public Group getGroup(String id, Map<String, Boolean> requiredAttributes)
             throws NotImplementedException, BadRequestException, CharonException, NotFoundException;
 
+    /**
+     * Return the current version of a group as kept by the store, which must change whenever the group or its
+     * members change. See {@link #getUserVersion(String)}. As for users, If-Match headers of stores which do not
+     * keep versions, or which implement neither {@link #updateGroupWithVersion(Group, Group, Map, String)} nor
+     * {@link #patchGroupWithVersion(String, MembershipDelta, Map, String)}, get a best-effort check only.
+     *
+     * @param groupId ID of the group.
+     * @return Version of the group, either as is or as an entity tag.
+     * @throws NotImplementedException If the store does not keep versions of groups.
+     * @throws NotFoundException       If the group does not exist.
+     */
+    default String getGroupVersion(String groupId)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        throw new NotImplementedException("Versions of groups are not supported");
+    }
+
     public void deleteGroup(String id)
             throws NotFoundException, CharonException, NotImplementedException, BadRequestException, ForbiddenException;
 
+    /**
+     * Create the given groups. Implementations can override this to create the groups in one round trip. By default
+     * the groups are created one by one.
+     *
+     * @param groups             Groups to be created.
+     * @param requiredAttributes Attributes to be returned for the created groups.
+     * @return Result of each group, in the order of the given groups.
+     * @throws CharonException If the groups could not be created as a whole, e.g. when the store cannot be reached.
+     *                         The default implementation never throws, since a group which could not be created
+     *                         is reported in its result.
+     */
+    default List<BatchOperationResult<Group>> createGroups(List<Group> groups, Map<String, Boolean> requiredAttributes)
+            throws CharonException {
+
+        List<BatchOperationResult<Group>> results = new ArrayList<>(groups.size());
+        for (Group group : groups) {
+            try {
+                results.add(BatchOperationResult.success(createGroup(group, requiredAttributes)));
+            } catch (CharonException | ConflictException | NotImplementedException | BadRequestException |
+                     ForbiddenException e) {
+                results.add(BatchOperationResult.failure(e));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Delete the groups with the given ids. Implementations can override this to delete the groups in one round
+     * trip. By default the groups are deleted one by one.
+     *
+     * @param groupIds Ids of the groups to be deleted.
+     * @return Result of each group, in the order of the given ids.
+     * @throws CharonException If the groups could not be deleted as a whole, e.g. when the store cannot be reached.
+     *                         The default implementation never throws, since a group which could not be deleted
+     *                         is reported in its result.
+     */
+    default List<BatchOperationResult<Void>> deleteGroups(List<String> groupIds) throws CharonException {
+
+        List<BatchOperationResult<Void>> results = new ArrayList<>(groupIds.size());
+        for (String groupId : groupIds) {
+            try {
+                deleteGroup(groupId);
+                results.add(BatchOperationResult.success(null));
+            } catch (NotFoundException | CharonException | NotImplementedException | BadRequestException |
+                     ForbiddenException e) {
+                results.add(BatchOperationResult.failure(e));
+            }
+        }
+        return results;
+    }
+
     default GroupsGetResponse listGroupsWithGET(Node node, Integer startIndex, Integer count, String sortBy,
                                String sortOrder, String domainName, Map<String, Boolean> requiredAttributes)
             throws CharonException, NotImplementedException, BadRequestException {
@@ -244,6 +489,101 @@ public interface UserManager {
         throw new NotImplementedException();
     }
 
+    /**
+     * Updates the members and the display name of a group via PATCH. Implementations which can add and remove
+     * members by their ids can override this to avoid both the operation maps of
+     * {@link #patchGroup(String, String, Map, Map)} and the lookup of the current group name. By default this is not
+     * supported, and the group is patched with the operations instead.
+     *
+     * @param groupId            ID of the group.
+     * @param membershipDelta    Members added and removed by the request, and the new display name, if any.
+     * @param requiredAttributes Attributes to be returned in the response.
+     * @return Updated group.
+     * @throws NotImplementedException If patching with a membership delta is not supported.
+     */
+    default Group patchGroup(String groupId, MembershipDelta membershipDelta, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            ForbiddenException {
+
+        throw new NotImplementedException("Patching groups with a membership delta is not supported");
+    }
+
+    /**
+     * Updates the members and the display name of a group via PATCH, without returning the updated group.
+     *
+     * @param groupId         ID of the group.
+     * @param membershipDelta Members added and removed by the request, and the new display name, if any.
+     * @throws NotImplementedException If patching with a membership delta is not supported.
+     * @see #patchGroup(String, MembershipDelta, Map)
+     */
+    default void patchGroup(String groupId, MembershipDelta membershipDelta)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            ForbiddenException {
+
+        throw new NotImplementedException("Patching groups with a membership delta is not supported");
+    }
+
+    /**
+     * Update the group only if its current version is still the given one, checking and updating atomically. See
+     * {@link #updateUserWithVersion(User, Map, String)}. By default this is not supported, and the group is updated
+     * through {@link #updateGroup(Group, Group, Map)} after the version was checked separately.
+     *
+     * @param oldGroup           Group as stored before the update.
+     * @param newGroup           Updated group.
+     * @param requiredAttributes Attributes to be returned in the response.
+     * @param expectedVersion    Version of the group the update is based on, as returned by
+     *                           {@link #getGroupVersion(String)}.
+     * @return Updated group.
+     * @throws NotImplementedException     If conditional updates are not supported.
+     * @throws PreConditionFailedException If the current version of the group differs from the expected one.
+     */
+    default Group updateGroupWithVersion(Group oldGroup, Group newGroup, Map<String, Boolean> requiredAttributes,
+                                         String expectedVersion)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException, ForbiddenException,
+            PreConditionFailedException {
+
+        throw new NotImplementedException("Conditional updates of groups are not supported");
+    }
+
+    /**
+     * Updates the members and the display name of a group via PATCH only if its current version is still the given
+     * one, checking and updating atomically. See {@link #patchGroup(String, MembershipDelta, Map)} and
+     * {@link #updateUserWithVersion(User, Map, String)}.
+     *
+     * @param groupId            ID of the group.
+     * @param membershipDelta    Members added and removed by the request, and the new display name, if any.
+     * @param requiredAttributes Attributes to be returned in the response.
+     * @param expectedVersion    Version of the group the patch is based on, as returned by
+     *                           {@link #getGroupVersion(String)}.
+     * @return Updated group.
+     * @throws NotImplementedException     If conditional patches with a membership delta are not supported.
+     * @throws PreConditionFailedException If the current version of the group differs from the expected one.
+     */
+    default Group patchGroupWithVersion(String groupId, MembershipDelta membershipDelta,
+                                        Map<String, Boolean> requiredAttributes, String expectedVersion)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException, ForbiddenException,
+            PreConditionFailedException {
+
+        throw new NotImplementedException("Conditional patches of groups are not supported");
+    }
+
+    /**
+     * Iterate the members of a group lazily, so that a page of the members of a large group can be returned without
+     * all of them being loaded. By default this is not supported, and pages are cut out of the members returned by
+     * {@link #getGroup(String, Map)} instead.
+     *
+     * @param groupId    ID of the group.
+     * @param startIndex 1-based index of the first member to iterate.
+     * @return Members of the group from the start index on, with their value, display, $ref and type.
+     * @throws NotImplementedException If iterating group members is not supported.
+     * @throws NotFoundException       If the group does not exist.
+     */
+    default Iterator<MultiValuedComplexType> getGroupMembers(String groupId, int startIndex)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
+
+        throw new NotImplementedException("Iterating group members is not supported");
+    }
+
     public GroupsGetResponse listGroupsWithPost(SearchRequest searchRequest, Map<String, Boolean> requiredAttributes)
             throws NotImplementedException, BadRequestException, CharonException;
 
@@ -352,6 +692,21 @@ public interface UserManager {
         return null;
     }
 
+    /**
+     * Return the key against which the user resource schema composed for this user manager can be cached, e.g. the
+     * tenant the user manager serves. User managers returning the same key must provide the same custom, system and
+     * agent schema extensions. When those extensions change, the cached schema has to be invalidated through
+     * {@link org.wso2.charon3.core.schema.SCIMResourceSchemaManager#invalidateUserResourceSchema(String)}.
+     * Without a key, the extensions are requested on every request and the schema is composed again whenever one of
+     * the extension schema instances returned is replaced, so an extension must not be modified in place.
+     *
+     * @return Schema cache key, or null if the user resource schema should be cached against the extension schemas.
+     */
+    default String getUserSchemaCacheKey() {
+
+        return null;
+    }
+
     default Map<String, String> getSyncedUserAttributes() throws CharonException {
 
         return new HashMap<>();
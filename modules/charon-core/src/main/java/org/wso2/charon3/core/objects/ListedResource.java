@@ -130,6 +130,33 @@ public class ListedResource extends AbstractSCIMObject {
         }
     }
 
+    /**
+     * @return the cursor of the next page of this listed resource, or null if there is none
+     */
+    public String getNextCursor() {
+        if (!isAttributeExist(SCIMConstants.ListedResourceSchemaConstants.NEXT_CURSOR)) {
+            return null;
+        }
+        return (String) ((SimpleAttribute) attributeList.get(SCIMConstants.ListedResourceSchemaConstants.NEXT_CURSOR))
+            .getValue();
+    }
+
+    /**
+     * cursor paginated listed resource next cursor settings
+     *
+     * @param nextCursor
+     */
+    public void setNextCursor(String nextCursor) {
+        if (!isAttributeExist(SCIMConstants.ListedResourceSchemaConstants.NEXT_CURSOR)) {
+            SimpleAttribute nextCursorAttribute =
+                new SimpleAttribute(SCIMConstants.ListedResourceSchemaConstants.NEXT_CURSOR, nextCursor);
+            attributeList.put(SCIMConstants.ListedResourceSchemaConstants.NEXT_CURSOR, nextCursorAttribute);
+        } else {
+            ((SimpleAttribute) attributeList.get(SCIMConstants.ListedResourceSchemaConstants.NEXT_CURSOR))
+                .setValue(nextCursor);
+        }
+    }
+
     /**
      * set the listed resources
      *
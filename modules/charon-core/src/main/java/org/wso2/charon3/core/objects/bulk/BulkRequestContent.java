@@ -17,6 +17,8 @@
 */
 package org.wso2.charon3.core.objects.bulk;
 
+import org.json.JSONObject;
+
 /**
  *
  */
@@ -24,6 +26,7 @@ public class BulkRequestContent {
     private String bulkID;
     private String method;
     private String data;
+    private JSONObject decodedData;
     private String path;
     private String version;
 
@@ -59,12 +62,36 @@ public class BulkRequestContent {
         this.method = method;
     }
 
+    /**
+     * Return the data of the operation as json text. Data which was decoded along with the request is only encoded
+     * again when it is asked for as text.
+     *
+     * @return Data of the operation, or null if it has none.
+     */
     public String getData() {
+        if (data == null && decodedData != null) {
+            return decodedData.toString();
+        }
         return data;
     }
 
     public void setData(String data) {
         this.data = data;
+        this.decodedData = null;
+    }
+
+    /**
+     * Return the data of the operation as the json object it was decoded into.
+     *
+     * @return Decoded data of the operation, or null if its data is not a json object or was only given as text.
+     */
+    public JSONObject getDecodedData() {
+        return decodedData;
+    }
+
+    public void setDecodedData(JSONObject decodedData) {
+        this.decodedData = decodedData;
+        this.data = null;
     }
 
     public String getPath() {
@@ -77,7 +104,7 @@ public class BulkRequestContent {
 
     @Override
     public String toString() {
-        return "BulkID :" + bulkID + " Data :" + data + " Method :" +
+        return "BulkID :" + bulkID + " Data :" + getData() + " Method :" +
                 method + " Path :" + path + " Version :" + version;
     }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.objects.plainobjects;
+
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
+
+/**
+ * This class representation carries the outcome of a single item of a batch operation of a user manager, which is
+ * either the resulting resource or the error the item failed with.
+ *
+ * @param <T> Type of the resulting resource.
+ */
+public class BatchOperationResult<T> {
+
+    private final T result;
+    private final AbstractCharonException error;
+
+    private BatchOperationResult(T result, AbstractCharonException error) {
+
+        this.result = result;
+        this.error = error;
+    }
+
+    /**
+     * Create the result of an item which succeeded.
+     *
+     * @param result Resulting resource, which may be null for operations without a result such as deletions.
+     * @return Successful result.
+     */
+    public static <T> BatchOperationResult<T> success(T result) {
+
+        return new BatchOperationResult<>(result, null);
+    }
+
+    /**
+     * Create the result of an item which failed.
+     *
+     * @param error Error the item failed with.
+     * @return Failed result.
+     */
+    public static <T> BatchOperationResult<T> failure(AbstractCharonException error) {
+
+        return new BatchOperationResult<>(null, error);
+    }
+
+    public boolean isSuccessful() {
+
+        return error == null;
+    }
+
+    public T getResult() {
+
+        return result;
+    }
+
+    public AbstractCharonException getError() {
+
+        return error;
+    }
+}
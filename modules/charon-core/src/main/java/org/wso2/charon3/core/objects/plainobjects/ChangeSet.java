@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.objects.plainobjects;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class representation carries the changes a PATCH request made to a resource, so that a store can write only
+ * what changed instead of replacing the whole resource.
+ * <p>
+ * Singular attributes are identified by the URIs of their simple attributes, e.g.
+ * {@code urn:ietf:params:scim:schemas:core:2.0:User:name.givenName}, and carry their values. Multi valued attributes
+ * are identified by their URI and carry the values which were added to or removed from them. A value of a multi
+ * valued attribute is either a primitive value or, for complex values, a map of sub attribute name to value. An
+ * attribute which no longer has a value at all is listed as removed.
+ */
+public class ChangeSet {
+
+    private final Map<String, Object> addedAttributes = new LinkedHashMap<>();
+    private final Map<String, Object> replacedAttributes = new LinkedHashMap<>();
+    private final Set<String> removedAttributes = new LinkedHashSet<>();
+    private final Map<String, List<Object>> addedValues = new LinkedHashMap<>();
+    private final Map<String, List<Object>> removedValues = new LinkedHashMap<>();
+
+    public void addAttribute(String attributeURI, Object value) {
+
+        addedAttributes.put(attributeURI, value);
+    }
+
+    public void replaceAttribute(String attributeURI, Object value) {
+
+        replacedAttributes.put(attributeURI, value);
+    }
+
+    public void removeAttribute(String attributeURI) {
+
+        removedAttributes.add(attributeURI);
+    }
+
+    public void addValue(String attributeURI, Object value) {
+
+        addedValues.computeIfAbsent(attributeURI, uri -> new ArrayList<>()).add(value);
+    }
+
+    public void removeValue(String attributeURI, Object value) {
+
+        removedValues.computeIfAbsent(attributeURI, uri -> new ArrayList<>()).add(value);
+    }
+
+    /**
+     * Return the singular attributes which had no value before the change.
+     *
+     * @return Attribute URI to the new value.
+     */
+    public Map<String, Object> getAddedAttributes() {
+
+        return Collections.unmodifiableMap(addedAttributes);
+    }
+
+    /**
+     * Return the singular attributes whose value was changed.
+     *
+     * @return Attribute URI to the new value.
+     */
+    public Map<String, Object> getReplacedAttributes() {
+
+        return Collections.unmodifiableMap(replacedAttributes);
+    }
+
+    /**
+     * Return the attributes, singular or multi valued, which have no value after the change.
+     *
+     * @return URIs of the removed attributes.
+     */
+    public Set<String> getRemovedAttributes() {
+
+        return Collections.unmodifiableSet(removedAttributes);
+    }
+
+    /**
+     * Return the values added to multi valued attributes, including attributes which had no value before the change.
+     *
+     * @return Attribute URI to the added values.
+     */
+    public Map<String, List<Object>> getAddedValues() {
+
+        return Collections.unmodifiableMap(addedValues);
+    }
+
+    /**
+     * Return the values removed from multi valued attributes which still have a value after the change.
+     *
+     * @return Attribute URI to the removed values.
+     */
+    public Map<String, List<Object>> getRemovedValues() {
+
+        return Collections.unmodifiableMap(removedValues);
+    }
+
+    public boolean isEmpty() {
+
+        return addedAttributes.isEmpty() && replacedAttributes.isEmpty() && removedAttributes.isEmpty() &&
+                addedValues.isEmpty() && removedValues.isEmpty();
+    }
+}
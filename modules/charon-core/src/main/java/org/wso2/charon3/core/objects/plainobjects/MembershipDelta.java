@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.objects.plainobjects;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class representation carries the net changes a PATCH request makes to the members of a group, so that a store
+ * can add and remove the members by their ids without the whole member list being materialised.
+ * <p>
+ * Members are kept once per id, in the order they were first named. A member both added and removed by the same
+ * request ends up as the last of those operations leaves it, as if the operations were applied in order: added and
+ * then removed, it is removed, and removed and then added, it is added. The new display name of the group is carried
+ * too, if the request changes it.
+ */
+public class MembershipDelta {
+
+    private final Map<String, String> addedMembers = new LinkedHashMap<>();
+    private final Set<String> removedMembers = new LinkedHashSet<>();
+    private String displayName;
+
+    /**
+     * Add a member, overriding an earlier removal of the same member.
+     *
+     * @param memberId Id of the member.
+     * @param display  Display name of the member.
+     */
+    public void addMember(String memberId, String display) {
+
+        removedMembers.remove(memberId);
+        addedMembers.putIfAbsent(memberId, display);
+    }
+
+    /**
+     * Remove a member, overriding an earlier addition of the same member.
+     *
+     * @param memberId Id of the member.
+     */
+    public void removeMember(String memberId) {
+
+        addedMembers.remove(memberId);
+        removedMembers.add(memberId);
+    }
+
+    /**
+     * Return the members to be added.
+     *
+     * @return Member id to the display name of the member.
+     */
+    public Map<String, String> getAddedMembers() {
+
+        return Collections.unmodifiableMap(addedMembers);
+    }
+
+    /**
+     * Return the members to be removed.
+     *
+     * @return Ids of the members.
+     */
+    public Set<String> getRemovedMembers() {
+
+        return Collections.unmodifiableSet(removedMembers);
+    }
+
+    /**
+     * Return the new display name of the group.
+     *
+     * @return New display name, or null if it is not changed.
+     */
+    public String getDisplayName() {
+
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+
+        this.displayName = displayName;
+    }
+
+    public boolean isEmpty() {
+
+        return addedMembers.isEmpty() && removedMembers.isEmpty() && displayName == null;
+    }
+}
@@ -29,6 +29,7 @@ public class UsersGetResponse {
 
     private int totalUsers;
     private List<User> users;
+    private String nextCursor;
 
     /**
      * Constructor used to build a response object when not using cursor pagination.
@@ -39,6 +40,20 @@ public class UsersGetResponse {
         this.users = users;
     }
 
+    /**
+     * Constructor used to build a response object when using cursor pagination.
+     *
+     * @param totalUsers Total number of users matching the filter.
+     * @param users      Users of the page.
+     * @param nextCursor Position at which the listing continues, or null if this is the last page.
+     */
+    public UsersGetResponse(int totalUsers, List<User> users, String nextCursor) {
+
+        this.totalUsers = totalUsers;
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
     public int getTotalUsers() {
 
         return totalUsers;
@@ -58,4 +73,21 @@ public class UsersGetResponse {
 
         this.users = filteredUsers;
     }
+
+    /**
+     * Return the position at which the user store continues the listing, in its own terms, e.g. the sort key of the
+     * last user of the page. It is made opaque by {@link org.wso2.charon3.core.utils.CursorCodec} before it is
+     * returned to the client.
+     *
+     * @return Position of the next page, or null if this is the last page.
+     */
+    public String getNextCursor() {
+
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+
+        this.nextCursor = nextCursor;
+    }
 }
@@ -22,7 +22,10 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import org.wso2.charon3.core.encoder.JSONBulkRequestReader;
+import org.wso2.charon3.core.encoder.JSONBulkResponseWriter;
 import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.PayloadTooLargeException;
 import org.wso2.charon3.core.extensions.RoleManager;
 import org.wso2.charon3.core.extensions.RoleV2Manager;
 import org.wso2.charon3.core.extensions.UserManager;
@@ -30,6 +33,7 @@ import org.wso2.charon3.core.objects.bulk.BulkRequestContent;
 import org.wso2.charon3.core.objects.bulk.BulkRequestData;
 import org.wso2.charon3.core.objects.bulk.BulkResponseContent;
 import org.wso2.charon3.core.objects.bulk.BulkResponseData;
+import org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager;
 import org.wso2.charon3.core.protocol.endpoints.GroupResourceManager;
 import org.wso2.charon3.core.protocol.endpoints.ResourceManager;
 import org.wso2.charon3.core.protocol.endpoints.RoleResourceManager;
@@ -37,25 +41,74 @@ import org.wso2.charon3.core.protocol.endpoints.RoleResourceV2Manager;
 import org.wso2.charon3.core.protocol.endpoints.UserResourceManager;
 import org.wso2.charon3.core.schema.SCIMConstants;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
- *
+ * Executes the operations of a bulk request.
+ * <p>
+ * Operations are ordered by a dependency graph. An operation depends on the user creation whose bulkId it
+ * references through a {@code bulkId:} value in the members of a group or the users of a role, and on the previous
+ * operation addressing the same resource. As when the operations run one by one, all the user operations complete
+ * before any group operation starts, and all the group operations complete before any role operation starts, since
+ * a group or role may refer to a user by its id.
+ * When an {@link Executor} is set, operations whose dependencies have completed run concurrently on it, at most
+ * {@link #getMaxConcurrentOperations()} at a time. Without an executor, operations run one by one on the calling
+ * thread in request order. Either way the operation responses are returned in request order.
+ * <p>
+ * When failOnErrors is set, no more operations run at a time than may still fail before it is reached, so that no
+ * operation runs which would not have run had the operations run one by one.
+ * <p>
+ * Consecutive user or group creations, and consecutive user or group deletions, which are ready at the same time
+ * are sent to the resource manager as one batch of at most {@link #getMaxBatchSize()} operations, so that user
+ * managers implementing the batch methods of {@link UserManager} can process them together.
+ * <p>
+ * A bulk request can also be processed while it is read, in windows of at most {@link #getMaxBufferedOperations()}
+ * operations. The responses of each window are written as soon as its operations have run, before the next window is
+ * read, so that the operations and responses held do not grow with the number of operations in the request.
+ * <p>
+ * A processor holds the state of the request it processes, so each request is processed by a processor of its own.
  */
 public class BulkRequestProcessor {
+
+    public static final int DEFAULT_MAX_CONCURRENT_OPERATIONS = 10;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    public static final int DEFAULT_MAX_BUFFERED_OPERATIONS = 1000;
+
+    private static final String BULK_ID_PREFIX =
+            SCIMConstants.OperationalConstants.BULK_ID + SCIMConstants.OperationalConstants.COLON;
+
     private UserResourceManager userResourceManager;
     private GroupResourceManager groupResourceManager;
     private RoleResourceManager roleResourceManager;
     private RoleResourceV2Manager roleResourceV2Manager;
-    private int failOnError;
-    private int errors;
+    private volatile int failOnError;
+    private final AtomicInteger errors = new AtomicInteger();
     private UserManager userManager;
     private RoleManager roleManager;
     private RoleV2Manager roleV2Manager;
+    private Executor executor;
+    private volatile int maxConcurrentOperations = DEFAULT_MAX_CONCURRENT_OPERATIONS;
+    private volatile int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private volatile int maxBufferedOperations = DEFAULT_MAX_BUFFERED_OPERATIONS;
 
     public UserResourceManager getUserResourceManager() {
         return userResourceManager;
@@ -102,11 +155,11 @@ public class BulkRequestProcessor {
     }
 
     public int getErrors() {
-        return errors;
+        return errors.get();
     }
 
     public void setErrors(int errors) {
-        this.errors = errors;
+        this.errors.set(errors);
     }
 
     public UserManager getUserManager() {
@@ -137,6 +190,78 @@ public class BulkRequestProcessor {
         this.roleV2Manager = roleV2Manager;
     }
 
+    public Executor getExecutor() {
+
+        return executor;
+    }
+
+    /**
+     * Set the executor to run independent operations concurrently on. The resource managers are then called from
+     * the executor's threads, so any thread bound context they rely on has to be propagated by the executor.
+     *
+     * @param executor Executor to run operations on, or null to run them one by one on the calling thread.
+     */
+    public void setExecutor(Executor executor) {
+
+        this.executor = executor;
+    }
+
+    public int getMaxConcurrentOperations() {
+
+        return maxConcurrentOperations;
+    }
+
+    /**
+     * Set the maximum number of operations of a bulk request which run at the same time on the executor. A batch
+     * of operations counts as one operation.
+     *
+     * @param maxConcurrentOperations Maximum number of concurrent operations, or 0 for no limit.
+     */
+    public void setMaxConcurrentOperations(int maxConcurrentOperations) {
+
+        this.maxConcurrentOperations = maxConcurrentOperations;
+    }
+
+    public int getMaxBatchSize() {
+
+        return maxBatchSize;
+    }
+
+    /**
+     * Set the maximum number of operations which are sent to a resource manager as one batch.
+     *
+     * @param maxBatchSize Maximum number of operations in a batch, or 1 to send each operation on its own.
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxBufferedOperations() {
+
+        return maxBufferedOperations;
+    }
+
+    /**
+     * Set the maximum number of operations of a bulk request processed while it is read which are held at a time.
+     *
+     * @param maxBufferedOperations Maximum number of operations in a window.
+     */
+    public void setMaxBufferedOperations(int maxBufferedOperations) {
+
+        this.maxBufferedOperations = maxBufferedOperations;
+    }
+
+    /**
+     * Create an executor which runs each operation on a new virtual thread.
+     *
+     * @return Executor service backed by virtual threads. The caller is responsible for shutting it down.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
     public BulkRequestProcessor() {
 
         userResourceManager = new UserResourceManager();
@@ -144,88 +269,437 @@ public class BulkRequestProcessor {
         roleResourceManager = new RoleResourceManager();
         roleResourceV2Manager = new RoleResourceV2Manager();
         failOnError = 0;
-        errors = 0;
         userManager = null;
         roleManager = null;
     }
 
     public BulkResponseData processBulkRequests(BulkRequestData bulkRequestData) throws BadRequestException {
 
-        BulkResponseData bulkResponseData = new BulkResponseData();
+        errors.set(0);
+        List<BulkOperation> operations = runOperations(bulkRequestData, new ConcurrentHashMap<>());
 
-        for (BulkRequestContent bulkRequestContent : bulkRequestData.getUserOperationRequests()) {
-            if (failOnError == 0) {
-                bulkResponseData.addUserOperation(getBulkResponseContent(bulkRequestContent, userResourceManager));
-            } else if (errors < failOnError) {
-                bulkResponseData.addUserOperation(getBulkResponseContent(bulkRequestContent, userResourceManager));
+        // Operations skipped due to failOnErrors have no response.
+        BulkResponseData bulkResponseData = new BulkResponseData();
+        for (BulkOperation operation : operations) {
+            if (operation.response == null) {
+                continue;
+            }
+            switch (operation.type) {
+                case USER:
+                    bulkResponseData.addUserOperation(operation.response);
+                    break;
+                case GROUP:
+                    bulkResponseData.addGroupOperation(operation.response);
+                    break;
+                default:
+                    bulkResponseData.addRoleOperation(operation.response);
+                    break;
             }
         }
-        Map<String, String> userIdMappings = getUserIdBulkIdMapping(bulkResponseData.getUserOperationResponse());
+        bulkResponseData.setSchema(SCIMConstants.BULK_RESPONSE_URI);
+        return bulkResponseData;
+    }
 
-        for (BulkRequestContent bulkRequestContent : bulkRequestData.getGroupOperationRequests()) {
-            if (failOnError == 0) {
-                bulkResponseData.addGroupOperation(
-                        getBulkResponseContent(bulkRequestContent, userIdMappings, groupResourceManager));
-            } else  {
-                if (errors < failOnError) {
-                    bulkResponseData.addGroupOperation(
-                            getBulkResponseContent(bulkRequestContent, userIdMappings, groupResourceManager));
+    /**
+     * Read the first window of operations of a bulk request, of at most {@link #getMaxBufferedOperations()}
+     * operations, without running any of them. A request whose first window is not valid or already has more
+     * operations than allowed is thus rejected before any of its operations has run.
+     *
+     * @param requestReader Reader of the operations of the request.
+     * @param maxOperations Maximum number of operations in the request.
+     * @return First window of operations of the request, or null if the request has no operations.
+     * @throws BadRequestException      If an operation could not be read.
+     * @throws PayloadTooLargeException If the first window has more operations than allowed.
+     */
+    public BulkRequestData readFirstWindow(JSONBulkRequestReader requestReader, int maxOperations)
+            throws BadRequestException, PayloadTooLargeException {
+
+        return readWindow(requestReader, maxOperations);
+    }
+
+    /**
+     * Process the operations of a bulk request while it is read, and write the response of each operation once it
+     * has run. Starting with the given first window, each window is processed as a whole request would be, and its
+     * responses are written and flushed before the next window is read. Only the ids of the users created so far
+     * are kept across windows. Hence a bulkId can be referenced in the window of its creation and in any later
+     * window, and a request which fits in one window is processed and answered exactly as it would be as a whole.
+     *
+     * @param firstWindow    First window of the request, read by
+     *                       {@link #readFirstWindow(JSONBulkRequestReader, int)}, or null if there is none.
+     * @param requestReader  Reader of the remaining operations of the request.
+     * @param responseWriter Writer of the operation responses.
+     * @param maxOperations  Maximum number of operations in the request.
+     * @throws BadRequestException      If an operation could not be read or processed.
+     * @throws PayloadTooLargeException If the request has more operations than allowed. The operations of the
+     *                                  earlier windows have been processed by then.
+     * @throws IOException              If a response could not be written.
+     */
+    public void processBulkRequests(BulkRequestData firstWindow, JSONBulkRequestReader requestReader,
+                                    JSONBulkResponseWriter responseWriter, int maxOperations)
+            throws BadRequestException, PayloadTooLargeException, IOException {
+
+        errors.set(0);
+        // Only the ids of created users outlive their window, for later windows to reference them.
+        Map<String, String> userIdMappings = new ConcurrentHashMap<>();
+        BulkRequestData window = firstWindow;
+        while (window != null) {
+            for (BulkOperation operation : runOperations(window, userIdMappings)) {
+                if (operation.response != null) {
+                    responseWriter.write(operation.response);
                 }
             }
+            responseWriter.flush();
+            if (isFailOnErrorsReached()) {
+                break;
+            }
+            window = readWindow(requestReader, maxOperations);
+        }
+    }
+
+    /*
+     * Read the next window of operations, or return null if there are no more. At most one operation more than
+     * allowed is read, so that the operations read stay bounded even when the request has too many.
+     */
+    private BulkRequestData readWindow(JSONBulkRequestReader requestReader, int maxOperations)
+            throws BadRequestException, PayloadTooLargeException {
 
+        BulkRequestData window = new BulkRequestData();
+        long operationsToRead = (long) maxOperations - requestReader.getOperationCount() + 1;
+        if (requestReader.readOperations(window,
+                (int) Math.min(Math.max(maxBufferedOperations, 1), operationsToRead)) == 0) {
+            return null;
+        }
+        if (requestReader.getOperationCount() > maxOperations) {
+            throw new PayloadTooLargeException(String.format(
+                    ResponseCodeConstants.ERROR_DESC_MAX_OPERATIONS_EXCEEDED, requestReader.getOperationCount(),
+                    maxOperations));
         }
+        return window;
+    }
+
+    /*
+     * Run the operations of a request or of a window of it: users, then groups, then roles, as the response lists
+     * are ordered.
+     */
+    private List<BulkOperation> runOperations(BulkRequestData bulkRequestData, Map<String, String> userIdMappings)
+            throws BadRequestException {
+
+        List<BulkOperation> operations = new ArrayList<>();
+        addOperations(operations, bulkRequestData.getUserOperationRequests(), userResourceManager,
+                BulkOperationType.USER);
+        addOperations(operations, bulkRequestData.getGroupOperationRequests(), groupResourceManager,
+                BulkOperationType.GROUP);
         // Handle v1 role operations.
-        for (BulkRequestContent bulkRequestContent : bulkRequestData.getRoleOperationRequests()) {
-            if (failOnError == 0) {
-                bulkResponseData.addRoleOperation(getBulkResponseContent(bulkRequestContent, userIdMappings,
-                        roleResourceManager));
+        addOperations(operations, bulkRequestData.getRoleOperationRequests(), roleResourceManager,
+                BulkOperationType.ROLE);
+        // Handle v2 role operations.
+        addOperations(operations, bulkRequestData.getRoleV2OperationRequests(), roleResourceV2Manager,
+                BulkOperationType.ROLE);
+        resolveDependencies(operations);
+        executeOperations(operations, userIdMappings);
+        return operations;
+    }
+
+    private static void addOperations(List<BulkOperation> operations, List<BulkRequestContent> requests,
+                                      ResourceManager resourceManager, BulkOperationType type) {
+
+        for (BulkRequestContent bulkRequestContent : requests) {
+            operations.add(new BulkOperation(operations.size(), bulkRequestContent, resourceManager, type));
+        }
+    }
+
+    /**
+     * Link each operation to the operations it has to wait for. Operations only ever depend on operations which
+     * come before them in request order, so the graph has no cycles. The data of each operation is decoded here, if
+     * it was not decoded along with the request, and the bulkId references found in it are kept to be resolved
+     * when the operation runs.
+     *
+     * @param operations Operations in request order.
+     */
+    private static void resolveDependencies(List<BulkOperation> operations) {
+
+        Map<String, BulkOperation> userCreations = new HashMap<>();
+        Map<String, BulkOperation> lastOperationOnResource = new HashMap<>();
+        for (BulkOperation operation : operations) {
+            BulkRequestContent bulkRequestContent = operation.content;
+            boolean isCreation = SCIMConstants.OperationalConstants.POST.equals(bulkRequestContent.getMethod());
+            operation.data = getDecodedData(bulkRequestContent);
+            if (operation.type == BulkOperationType.USER) {
+                if (isCreation && StringUtils.isNotEmpty(bulkRequestContent.getBulkID())) {
+                    userCreations.putIfAbsent(bulkRequestContent.getBulkID(), operation);
+                }
             } else {
-                if (errors < failOnError) {
-                    bulkResponseData.addRoleOperation(getBulkResponseContent(bulkRequestContent,
-                            userIdMappings, roleResourceManager));
+                // Only user bulkIds are resolved, in the members of groups and the users of roles.
+                operation.bulkIdReferences = getBulkIdReferences(operation.data, bulkRequestContent);
+                for (JSONObject reference : operation.bulkIdReferences) {
+                    operation.dependOn(userCreations.get(getReferencedBulkId(reference)));
                 }
             }
+            if (!isCreation && bulkRequestContent.getPath() != null) {
+                String resource = StringUtils.substringBefore(bulkRequestContent.getPath(), "?");
+                operation.dependOn(lastOperationOnResource.put(resource, operation));
+            }
         }
-        // Handle v2 role operations.
-        for (BulkRequestContent bulkRequestContent : bulkRequestData.getRoleV2OperationRequests()) {
-            if (failOnError == 0) {
-                bulkResponseData.addRoleOperation(getBulkResponseContent(bulkRequestContent, userIdMappings,
-                        roleResourceV2Manager));
+    }
+
+    /**
+     * Run the operations once their dependencies have completed, and those of the preceding resource types have
+     * all completed. Scheduling, error counting and bulkId resolution happen on the calling thread, only the
+     * operations themselves run on the executor.
+     *
+     * @param operations     Operations in request order.
+     * @param userIdMappings User ids of the users created so far, by their bulkId. Users created by the operations
+     *                       are added.
+     * @throws BadRequestException If an operation could not be processed.
+     */
+    private void executeOperations(List<BulkOperation> operations, Map<String, String> userIdMappings)
+            throws BadRequestException {
+
+        PriorityQueue<BulkOperation> readyOperations =
+                new PriorityQueue<>(Comparator.comparingInt((BulkOperation operation) -> operation.index));
+        int[] pendingOperationsOfType = new int[BulkOperationType.values().length];
+        for (BulkOperation operation : operations) {
+            pendingOperationsOfType[operation.type.ordinal()]++;
+            if (operation.pendingDependencies == 0) {
+                readyOperations.add(operation);
+            }
+        }
+        BlockingQueue<BatchTask> completedBatches = new LinkedBlockingQueue<>();
+        List<BatchTask> runningBatches = new ArrayList<>();
+        int maxRunningBatches = executor == null ? 1 :
+                (maxConcurrentOperations > 0 ? maxConcurrentOperations : Integer.MAX_VALUE);
+        int runningOperations = 0;
+        Exception failure = null;
+        boolean interrupted = false;
+
+        while (true) {
+            while (failure == null && !interrupted && !readyOperations.isEmpty() &&
+                    runningBatches.size() < maxRunningBatches &&
+                    isTypeStarted(readyOperations.peek().type, pendingOperationsOfType)) {
+                int remainingOperations = getRemainingOperations(runningOperations);
+                if (remainingOperations <= 0) {
+                    break;
+                }
+                BatchTask task = new BatchTask(pollBatch(readyOperations, remainingOperations), userIdMappings,
+                        completedBatches);
+                runningBatches.add(task);
+                runningOperations += task.batch.size();
+                if (executor == null) {
+                    task.run();
+                } else {
+                    try {
+                        executor.execute(task);
+                    } catch (RejectedExecutionException e) {
+                        task.run();
+                    }
+                }
+            }
+            if (runningBatches.isEmpty()) {
+                break;
+            }
+            BatchTask completedTask;
+            try {
+                completedTask = completedBatches.take();
+            } catch (InterruptedException e) {
+                // Stop starting operations, but still wait for the running ones.
+                interrupted = true;
+                continue;
+            }
+            runningBatches.remove(completedTask);
+            runningOperations -= completedTask.batch.size();
+            for (BulkOperation completedOperation : completedTask.batch) {
+                pendingOperationsOfType[completedOperation.type.ordinal()]--;
+                if (completedOperation.failure != null) {
+                    if (failure == null) {
+                        failure = completedOperation.failure;
+                    }
+                    continue;
+                }
+                if (completedOperation.type == BulkOperationType.USER) {
+                    String userId = getCreatedResourceId(completedOperation.response);
+                    if (userId != null && StringUtils.isNotEmpty(completedOperation.content.getBulkID())) {
+                        userIdMappings.put(completedOperation.content.getBulkID(), userId);
+                    }
+                }
+                for (BulkOperation dependent : completedOperation.dependents) {
+                    if (--dependent.pendingDependencies == 0) {
+                        readyOperations.add(dependent);
+                    }
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof BadRequestException badRequestException) {
+            throw badRequestException;
+        } else if (failure != null) {
+            throw new IllegalStateException("Error while processing the bulk operations", failure);
+        }
+    }
+
+    /**
+     * Return whether operations of the given type may start, which is once all the operations of the preceding
+     * types have completed.
+     *
+     * @param type                    Type of the operation.
+     * @param pendingOperationsOfType Number of operations of each type which have not completed.
+     * @return True if operations of the type may start.
+     */
+    private static boolean isTypeStarted(BulkOperationType type, int[] pendingOperationsOfType) {
+
+        for (int i = 0; i < type.ordinal(); i++) {
+            if (pendingOperationsOfType[i] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the number of operations which may start. When failOnErrors is set, the running operations may all
+     * fail, so only as many more operations may start as may fail along with them before failOnErrors is reached.
+     *
+     * @param runningOperations Number of operations which are running.
+     * @return Number of operations which may start.
+     */
+    private int getRemainingOperations(int runningOperations) {
+
+        if (failOnError == 0) {
+            return Integer.MAX_VALUE;
+        }
+        return failOnError - errors.get() - runningOperations;
+    }
+
+    /**
+     * Take the next ready operation together with the ready operations which directly follow it in request order
+     * and can be sent to the resource manager in the same batch.
+     *
+     * @param readyOperations     Operations whose dependencies have completed.
+     * @param remainingOperations Number of operations which may start.
+     * @return Operations of the batch in request order.
+     */
+    private List<BulkOperation> pollBatch(PriorityQueue<BulkOperation> readyOperations, int remainingOperations) {
+
+        BulkOperation operation = readyOperations.poll();
+        List<BulkOperation> batch = new ArrayList<>();
+        batch.add(operation);
+        if (!isBatchable(operation)) {
+            return batch;
+        }
+        int batchLimit = Math.min(maxBatchSize, remainingOperations);
+        BulkOperation last = operation;
+        while (batch.size() < batchLimit && !readyOperations.isEmpty()) {
+            BulkOperation next = readyOperations.peek();
+            if (next.index != last.index + 1 || next.type != operation.type || !isBatchable(next) ||
+                    !next.content.getMethod().equals(operation.content.getMethod())) {
+                break;
+            }
+            batch.add(readyOperations.poll());
+            last = next;
+        }
+        return batch;
+    }
+
+    private static boolean isBatchable(BulkOperation operation) {
+
+        if (operation.type == BulkOperationType.ROLE || operation.content.getPath() == null) {
+            return false;
+        }
+        String method = operation.content.getMethod();
+        // Creations whose data is not a json object are answered on their own.
+        return SCIMConstants.OperationalConstants.POST.equals(method) ? operation.data != null :
+                SCIMConstants.OperationalConstants.DELETE.equals(method);
+    }
+
+    private void runBatch(List<BulkOperation> batch, Map<String, String> userIdMappings) {
+
+        try {
+            if (batch.size() == 1) {
+                BulkOperation operation = batch.get(0);
+                operation.response = getBulkResponseContent(operation, userIdMappings);
             } else {
-                if (errors < failOnError) {
-                    bulkResponseData.addRoleOperation(getBulkResponseContent(bulkRequestContent,
-                            userIdMappings, roleResourceV2Manager));
+                runBatchedOperations(batch, userIdMappings);
+            }
+        } catch (BadRequestException | RuntimeException e) {
+            for (BulkOperation operation : batch) {
+                if (operation.response == null) {
+                    operation.failure = e;
                 }
             }
         }
-        bulkResponseData.setSchema(SCIMConstants.BULK_RESPONSE_URI);
-        return bulkResponseData;
     }
 
-    private BulkResponseContent getBulkResponseContent(BulkRequestContent bulkRequestContent,
-                                                       ResourceManager resourceManager) throws BadRequestException {
+    /**
+     * Send a batch of creations or deletions of the same resource type to the resource manager in one call.
+     *
+     * @param batch          Operations of the batch in request order.
+     * @param userIdMappings User ids of the users created so far, by their bulkId.
+     * @throws BadRequestException If an operation could not be processed.
+     */
+    private void runBatchedOperations(List<BulkOperation> batch, Map<String, String> userIdMappings)
+            throws BadRequestException {
 
-        return getBulkResponseContent(bulkRequestContent, null, resourceManager);
+        BulkOperation first = batch.get(0);
+        String method = first.content.getMethod();
+        List<SCIMResponse> responses;
+        if (SCIMConstants.OperationalConstants.POST.equals(method)) {
+            List<JSONObject> payloads = new ArrayList<>(batch.size());
+            for (BulkOperation operation : batch) {
+                resolveBulkIds(operation, userIdMappings);
+                payloads.add(operation.data);
+            }
+            responses = first.resourceManager.createDecodedResources(payloads, userManager, null, null);
+        } else {
+            List<String> ids = new ArrayList<>(batch.size());
+            for (BulkOperation operation : batch) {
+                ids.add(extractIDFromPath(operation.content.getPath()));
+            }
+            responses = first.resourceManager.deleteResources(ids, userManager);
+        }
+        if (responses == null || responses.size() != batch.size()) {
+            throw new IllegalStateException("Resource manager did not return a response for each operation.");
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            BulkOperation operation = batch.get(i);
+            operation.response = createBulkResponseContent(responses.get(i), method, operation.content);
+            errorsCheck(responses.get(i));
+        }
     }
 
-    private BulkResponseContent getBulkResponseContent(BulkRequestContent bulkRequestContent,
-                                                       Map<String, String> userIdMappings,
-                                                       ResourceManager resourceManager)
+    private boolean isFailOnErrorsReached() {
+
+        return failOnError != 0 && errors.get() >= failOnError;
+    }
+
+    private BulkResponseContent getBulkResponseContent(BulkOperation operation, Map<String, String> userIdMappings)
             throws BadRequestException {
 
+        BulkRequestContent bulkRequestContent = operation.content;
+        ResourceManager resourceManager = operation.resourceManager;
+        JSONObject data = operation.data;
         BulkResponseContent bulkResponseContent = null;
         SCIMResponse response;
-        processBulkRequestContent(bulkRequestContent, userIdMappings, bulkRequestContent.getMethod());
+        resolveBulkIds(operation, userIdMappings);
+
+        if (data == null && isDataRequired(bulkRequestContent.getMethod())) {
+            // Data which is not a json object can not be decoded into a resource or a patch request.
+            response = AbstractResourceManager.encodeSCIMException(
+                    new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX));
+            bulkResponseContent = createBulkResponseContent(response, bulkRequestContent.getMethod(),
+                    bulkRequestContent);
+            errorsCheck(response);
+            return bulkResponseContent;
+        }
 
         switch (bulkRequestContent.getMethod()) {
             case SCIMConstants.OperationalConstants.POST:
                 if (bulkRequestContent.getPath().contains(SCIMConstants.ROLE_V2_ENDPOINT)) {
-                    response = resourceManager.createRole(bulkRequestContent.getData(), roleV2Manager);
+                    response = resourceManager.createRole(data, roleV2Manager);
                 } else if (bulkRequestContent.getPath().contains(SCIMConstants.ROLE_ENDPOINT)) {
-                    response = resourceManager.createRole(bulkRequestContent.getData(), roleManager);
+                    response = resourceManager.createRole(data, roleManager);
                 } else {
-                    response = resourceManager.create(bulkRequestContent.getData(), userManager,
-                            null, null);
+                    response = resourceManager.create(data, userManager, null, null);
                 }
 
                 bulkResponseContent = createBulkResponseContent(response, SCIMConstants.OperationalConstants.POST,
@@ -237,14 +711,11 @@ public class BulkRequestProcessor {
                 String resourceId = extractIDFromPath(bulkRequestContent.getPath());
                 if (bulkRequestContent.getPath().contains(SCIMConstants.ROLE_V2_ENDPOINT)) {
                     resourceId = extractIDFromV2Path(bulkRequestContent.getPath());
-                    response = resourceManager.updateWithPUTRole(resourceId, bulkRequestContent.getData(),
-                            roleV2Manager);
+                    response = resourceManager.updateWithPUTRole(resourceId, data, roleV2Manager);
                 } else if (bulkRequestContent.getPath().contains(SCIMConstants.ROLE_ENDPOINT)) {
-                    response = resourceManager.updateWithPUTRole(resourceId, bulkRequestContent.getData(),
-                            roleManager);
+                    response = resourceManager.updateWithPUTRole(resourceId, data, roleManager);
                 } else {
-                    response = resourceManager.updateWithPUT(resourceId, bulkRequestContent.getData(), userManager,
-                            null, null);
+                    response = resourceManager.updateWithPUT(resourceId, data, userManager, null, null);
                 }
 
                 bulkResponseContent = createBulkResponseContent(response, SCIMConstants.OperationalConstants.PUT,
@@ -257,14 +728,11 @@ public class BulkRequestProcessor {
                 String resourceId = extractIDFromPath(bulkRequestContent.getPath());
                 if (bulkRequestContent.getPath().contains(SCIMConstants.ROLE_V2_ENDPOINT)) {
                     resourceId = extractIDFromV2Path(bulkRequestContent.getPath());
-                    response = resourceManager.updateWithPATCHRole(resourceId, bulkRequestContent.getData(),
-                            roleV2Manager);
+                    response = resourceManager.updateWithPATCHRole(resourceId, data, roleV2Manager);
                 } else if (bulkRequestContent.getPath().contains(SCIMConstants.ROLE_ENDPOINT)) {
-                    response = resourceManager.updateWithPATCHRole(resourceId, bulkRequestContent.getData(),
-                            roleManager);
+                    response = resourceManager.updateWithPATCHRole(resourceId, data, roleManager);
                 } else {
-                    response = resourceManager.updateWithPATCH(resourceId, bulkRequestContent.getData(), userManager,
-                            null, null);
+                    response = resourceManager.updateWithPATCH(resourceId, data, userManager, null, null);
                 }
 
                 bulkResponseContent = createBulkResponseContent(response, SCIMConstants.OperationalConstants.PATCH,
@@ -295,12 +763,17 @@ public class BulkRequestProcessor {
                 Map<String, String> queryParams = parseQueryParameters(bulkRequestContent.getPath());
                 String attributes = queryParams.get(SCIMConstants.CommonSchemaConstants.ATTRIBUTES);
                 String excludeAttributes = queryParams.get(SCIMConstants.CommonSchemaConstants.EXCLUDE_ATTRIBUTES);
-                if (StringUtils.isNotBlank(bulkRequestContent.getData())) {
+                if (data == null && StringUtils.isNotBlank(bulkRequestContent.getData())) {
+                    throw new BadRequestException("Error while parsing the data field of the bulk request content",
+                            ResponseCodeConstants.INVALID_SYNTAX);
+                }
+                if (data != null) {
                     if (StringUtils.isBlank(attributes)) {
-                        attributes = getAttributesFromData(bulkRequestContent.getData());
+                        attributes = data.optString(SCIMConstants.CommonSchemaConstants.ATTRIBUTES, null);
                     }
                     if (StringUtils.isBlank(excludeAttributes)) {
-                        excludeAttributes = getExcludedAttributesFromData(bulkRequestContent.getData());
+                        excludeAttributes =
+                                data.optString(SCIMConstants.CommonSchemaConstants.EXCLUDE_ATTRIBUTES, null);
                     }
                 }
                 if (bulkRequestContent.getPath().contains(SCIMConstants.ROLE_V2_ENDPOINT)) {
@@ -321,34 +794,11 @@ public class BulkRequestProcessor {
         return bulkResponseContent;
     }
 
-    private String getExcludedAttributesFromData(String data) throws BadRequestException {
-
-        String excludedAttributes = null;
-        try {
-            JSONObject dataJson = new JSONObject(data);
-            if (dataJson.has(SCIMConstants.CommonSchemaConstants.EXCLUDE_ATTRIBUTES)) {
-                excludedAttributes = dataJson.getString(SCIMConstants.CommonSchemaConstants.EXCLUDE_ATTRIBUTES);
-            }
-        } catch (JSONException e) {
-            throw new BadRequestException("Error while parsing the data field of the bulk request content",
-                    ResponseCodeConstants.INVALID_SYNTAX);
-        }
-        return excludedAttributes;
-    }
-
-    private String getAttributesFromData(String data) throws BadRequestException {
+    private static boolean isDataRequired(String method) {
 
-        String attributes = null;
-        try {
-            JSONObject dataJson = new JSONObject(data);
-            if (dataJson.has(SCIMConstants.CommonSchemaConstants.ATTRIBUTES)) {
-                attributes = dataJson.getString(SCIMConstants.CommonSchemaConstants.ATTRIBUTES);
-            }
-        } catch (JSONException e) {
-            throw new BadRequestException("Error while parsing the data field of the bulk request content",
-                    ResponseCodeConstants.INVALID_SYNTAX);
-        }
-        return attributes;
+        return SCIMConstants.OperationalConstants.POST.equals(method) ||
+                SCIMConstants.OperationalConstants.PUT.equals(method) ||
+                SCIMConstants.OperationalConstants.PATCH.equals(method);
     }
 
     private String extractIDFromPath(String path) throws BadRequestException {
@@ -429,132 +879,230 @@ public class BulkRequestProcessor {
     private void errorsCheck(SCIMResponse response) {
         if (response.getResponseStatus() != 200 && response.getResponseStatus() != 201 &&
                 response.getResponseStatus() != 204) {
-            errors++;
+            errors.incrementAndGet();
         }
     }
 
     /**
-     * This method is used to process the bulk request content.
-     * This method will replace the bulk id with the created user id.
+     * Return the data of a bulk operation as a json object. Data which was decoded along with the request is used
+     * as it is, data which was only given as text is decoded once here.
      *
-     * @param bulkRequestContent   Bulk request content.
-     * @param userIDMappings       User id bulk id mapping.
-     * @param method               HTTP method.
-     * @throws BadRequestException Bad request exception.
+     * @param bulkRequestContent Bulk request content.
+     * @return Data of the operation, or null if it has none or it is not a json object.
      */
-    private void processBulkRequestContent(BulkRequestContent bulkRequestContent, Map<String, String> userIDMappings,
-                                           String method) throws BadRequestException {
-
-        try {
-            if (userIDMappings == null || userIDMappings.isEmpty() ||
-                    SCIMConstants.OperationalConstants.DELETE.equals(method)) {
-                return;
+    private static JSONObject getDecodedData(BulkRequestContent bulkRequestContent) {
+
+        if (bulkRequestContent.getDecodedData() == null && StringUtils.isNotBlank(bulkRequestContent.getData())) {
+            try {
+                bulkRequestContent.setDecodedData(new JSONObject(bulkRequestContent.getData()));
+            } catch (JSONException e) {
+                // Left as given, the operation is answered with an invalid syntax error.
+                return null;
             }
+        }
+        return bulkRequestContent.getDecodedData();
+    }
 
-            JSONObject dataJson = new JSONObject(bulkRequestContent.getData());
-            String usersOrMembersKey = getUsersOrMembersKey(bulkRequestContent.getPath());
-            JSONArray usersArray = getUserArray(dataJson, method, usersOrMembersKey);
-
-            if (usersArray != null) {
-                String bulkIdPrefix =
-                        SCIMConstants.OperationalConstants.BULK_ID + SCIMConstants.OperationalConstants.COLON;
-                for (int i = 0; i < usersArray.length(); i++) {
-                    JSONObject user = usersArray.getJSONObject(i);
-                    String userValue = user.getString(SCIMConstants.OperationalConstants.VALUE);
-                    if (userValue.startsWith(bulkIdPrefix)) {
-                        String userBulkId = userValue.substring(bulkIdPrefix.length());
-                        String userId = userIDMappings.get(userBulkId);
-                        if (StringUtils.isNotBlank(userId)) {
-                            user.put(SCIMConstants.OperationalConstants.VALUE, userId);
-                        }
-                    }
+    /**
+     * This method is used to find the bulkId references of a bulk operation, which are the values of the members of
+     * groups and the users of roles, including those added or replaced by patch operations, which refer to a user
+     * by its bulkId.
+     *
+     * @param data               Decoded data of the operation.
+     * @param bulkRequestContent Bulk request content.
+     * @return The members or users referring to a user by its bulkId.
+     */
+    private static List<JSONObject> getBulkIdReferences(JSONObject data, BulkRequestContent bulkRequestContent) {
+
+        String method = bulkRequestContent.getMethod();
+        if (data == null || !isDataRequired(method)) {
+            return Collections.emptyList();
+        }
+        List<JSONObject> references = new ArrayList<>();
+        for (JSONArray usersArray : getUserArrays(data, method, getUsersOrMembersKey(bulkRequestContent.getPath()))) {
+            for (int i = 0; i < usersArray.length(); i++) {
+                JSONObject user = usersArray.optJSONObject(i);
+                if (user != null && getReferencedBulkId(user) != null) {
+                    references.add(user);
                 }
             }
-            bulkRequestContent.setData(dataJson.toString());
-        } catch (JSONException e) {
-            throw new BadRequestException("Error while parsing the data field of the bulk request content",
-                    ResponseCodeConstants.INVALID_SYNTAX);
         }
+        return references;
+    }
+
+    private static String getReferencedBulkId(JSONObject user) {
+
+        String userValue = user.optString(SCIMConstants.OperationalConstants.VALUE, null);
+        return userValue != null && userValue.startsWith(BULK_ID_PREFIX) ?
+                userValue.substring(BULK_ID_PREFIX.length()) : null;
     }
 
-    private String getUsersOrMembersKey(String path) {
+    /**
+     * This method is used to replace the bulkIds referenced by a bulk operation with the ids of the users created
+     * for them. The values are replaced in the decoded data of the operation, which is handed to the resource
+     * manager as it is. References to users which were not created are left as given.
+     *
+     * @param operation      Bulk operation.
+     * @param userIdMappings User ids of the users created so far, by their bulkId.
+     */
+    private static void resolveBulkIds(BulkOperation operation, Map<String, String> userIdMappings) {
 
-        return path.contains(SCIMConstants.ROLE_ENDPOINT) ? SCIMConstants.RoleSchemaConstants.USERS :
+        for (JSONObject reference : operation.bulkIdReferences) {
+            String bulkId = getReferencedBulkId(reference);
+            String userId = bulkId == null ? null : userIdMappings.get(bulkId);
+            if (StringUtils.isNotBlank(userId)) {
+                reference.put(SCIMConstants.OperationalConstants.VALUE, userId);
+            }
+        }
+    }
+
+    private static String getUsersOrMembersKey(String path) {
+
+        return path != null && path.contains(SCIMConstants.ROLE_ENDPOINT) ? SCIMConstants.RoleSchemaConstants.USERS :
                 SCIMConstants.GroupSchemaConstants.MEMBERS;
     }
 
     /**
-     * This method is used to get the user array from the data JSON object.
+     * This method is used to get the user arrays from the data JSON object.
      *
      * @param dataJson          SCIM data JSON object.
      * @param method            HTTP method.
      * @param usersOrMembersKey Users or members key.
-     * @return User array.
-     * @throws JSONException    JSON exception.
+     * @return User arrays, which are the values of the patch operations adding or replacing users or members.
      */
-    private JSONArray getUserArray(JSONObject dataJson, String method, String usersOrMembersKey) throws JSONException {
+    private static List<JSONArray> getUserArrays(JSONObject dataJson, String method, String usersOrMembersKey) {
 
-        if (SCIMConstants.OperationalConstants.PATCH.equals(method)) {
-            return getUserArrayForPatch(dataJson, usersOrMembersKey);
+        List<JSONArray> usersArrays = new ArrayList<>();
+        if (!SCIMConstants.OperationalConstants.PATCH.equals(method)) {
+            addIfPresent(usersArrays, dataJson.optJSONArray(usersOrMembersKey));
+            return usersArrays;
         }
-        return dataJson.optJSONArray(usersOrMembersKey);
-    }
-
-    private JSONArray getUserArrayForPatch(JSONObject dataJson, String usersOrMembersKey) throws JSONException {
-
         JSONArray operations = dataJson.optJSONArray(SCIMConstants.OperationalConstants.OPERATIONS);
         if (operations == null) {
-            return null;
+            return usersArrays;
         }
         for (int i = 0; i < operations.length(); i++) {
-            JSONObject operation = operations.getJSONObject(i);
-            if (isValidOperation(operation, usersOrMembersKey)) {
-                if (operation.has(SCIMConstants.OperationalConstants.PATH)) {
-                    return operation.optJSONArray(SCIMConstants.OperationalConstants.VALUE);
-                }
+            JSONObject operation = operations.optJSONObject(i);
+            if (operation == null || !isAddOrReplace(operation)) {
+                continue;
+            }
+            String operationPath = operation.optString(SCIMConstants.OperationalConstants.PATH, StringUtils.EMPTY);
+            if (operationPath.isEmpty()) {
                 JSONObject valueObject = operation.optJSONObject(SCIMConstants.OperationalConstants.VALUE);
                 if (valueObject != null) {
-                    return valueObject.optJSONArray(usersOrMembersKey);
+                    addIfPresent(usersArrays, valueObject.optJSONArray(usersOrMembersKey));
                 }
+            } else if (operationPath.equalsIgnoreCase(usersOrMembersKey)) {
+                addIfPresent(usersArrays, operation.optJSONArray(SCIMConstants.OperationalConstants.VALUE));
             }
         }
-        return null;
+        return usersArrays;
     }
 
-    private boolean isValidOperation(JSONObject operation, String path) throws JSONException {
+    private static void addIfPresent(List<JSONArray> usersArrays, JSONArray usersArray) {
 
-        String operationType = operation.optString(SCIMConstants.OperationalConstants.OP);
-        String operationPath = operation.optString(SCIMConstants.OperationalConstants.PATH, StringUtils.EMPTY);
+        if (usersArray != null) {
+            usersArrays.add(usersArray);
+        }
+    }
+
+    private static boolean isAddOrReplace(JSONObject operation) {
 
-        return (SCIMConstants.OperationalConstants.ADD.equalsIgnoreCase(operationType) ||
-                SCIMConstants.OperationalConstants.REPLACE.equalsIgnoreCase(operationType)) &&
-                (operationPath.equals(path) || operationPath.isEmpty());
+        String operationType = operation.optString(SCIMConstants.OperationalConstants.OP);
+        return SCIMConstants.OperationalConstants.ADD.equalsIgnoreCase(operationType) ||
+                SCIMConstants.OperationalConstants.REPLACE.equalsIgnoreCase(operationType);
     }
 
     /**
-     * This method is used to get user id bulk id mapping from the bulk user operation response.
+     * This method is used to get the id of the resource created by a bulk operation.
      *
-     * @param bulkUserOperationResponse Bulk user operation response.
-     * @return Bulk id user id mapping.
+     * @param bulkResponse Bulk operation response.
+     * @return Id of the created resource, or null if the operation did not create a resource.
      */
-    private static Map<String, String> getUserIdBulkIdMapping(List<BulkResponseContent> bulkUserOperationResponse) {
+    private static String getCreatedResourceId(BulkResponseContent bulkResponse) {
 
-        Map<String, String> userIdMappings = new HashMap<>();
-        for (BulkResponseContent bulkResponse : bulkUserOperationResponse) {
-            String bulkId = bulkResponse.getBulkID();
+        SCIMResponse response = bulkResponse.getScimResponse();
+        if (response.getResponseStatus() == ResponseCodeConstants.CODE_CREATED &&
+                response.getHeaderParamMap() != null) {
+            String locationHeader = response.getHeaderParamMap().get(SCIMConstants.LOCATION_HEADER);
 
-            SCIMResponse response = bulkResponse.getScimResponse();
-            if (response.getResponseStatus() == ResponseCodeConstants.CODE_CREATED) {
-                String locationHeader = response.getHeaderParamMap().get(SCIMConstants.LOCATION_HEADER);
+            if (locationHeader != null) {
+                String[] locationHeaderParts =
+                        locationHeader.split(SCIMConstants.OperationalConstants.URL_SEPARATOR);
+                return locationHeaderParts[locationHeaderParts.length - 1];
+            }
+        }
+        return null;
+    }
 
-                if (locationHeader != null) {
-                    String[] locationHeaderParts =
-                            locationHeader.split(SCIMConstants.OperationalConstants.URL_SEPARATOR);
-                    String userId = locationHeaderParts[locationHeaderParts.length - 1];
-                    userIdMappings.put(bulkId, userId);
-                }
+    /**
+     * Resource type of a bulk operation, which decides the response list the operation is reported in.
+     */
+    private enum BulkOperationType {
+        USER, GROUP, ROLE
+    }
+
+    /**
+     * A batch of operations handed to the executor.
+     */
+    private final class BatchTask implements Runnable {
+
+        private final List<BulkOperation> batch;
+        private final Map<String, String> userIdMappings;
+        private final BlockingQueue<BatchTask> completedBatches;
+
+        private BatchTask(List<BulkOperation> batch, Map<String, String> userIdMappings,
+                          BlockingQueue<BatchTask> completedBatches) {
+
+            this.batch = batch;
+            this.userIdMappings = userIdMappings;
+            this.completedBatches = completedBatches;
+        }
+
+        @Override
+        public void run() {
+
+            try {
+                runBatch(batch, userIdMappings);
+            } finally {
+                completedBatches.add(this);
+            }
+        }
+    }
+
+    /**
+     * A bulk operation together with its place in the dependency graph. The graph is only walked on the
+     * scheduling thread, the response and failure are handed over through the completion queue.
+     */
+    private static final class BulkOperation {
+
+        private final int index;
+        private final BulkRequestContent content;
+        private final ResourceManager resourceManager;
+        private final BulkOperationType type;
+        private final Set<BulkOperation> dependencies = new HashSet<>();
+        private final List<BulkOperation> dependents = new ArrayList<>();
+        private int pendingDependencies;
+        private JSONObject data;
+        private List<JSONObject> bulkIdReferences = Collections.emptyList();
+        private BulkResponseContent response;
+        private Exception failure;
+
+        private BulkOperation(int index, BulkRequestContent content, ResourceManager resourceManager,
+                              BulkOperationType type) {
+
+            this.index = index;
+            this.content = content;
+            this.resourceManager = resourceManager;
+            this.type = type;
+        }
+
+        private void dependOn(BulkOperation operation) {
+
+            if (operation != null && operation != this && dependencies.add(operation)) {
+                operation.dependents.add(this);
+                pendingDependencies++;
             }
         }
-        return userIdMappings;
     }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the body of a {@link SCIMResponse} straight to the output stream of the HTTP response, so that large bodies
+ * are not built in memory before they are sent.
+ */
+@FunctionalInterface
+public interface ResponseBodyWriter {
+
+    /**
+     * Write the body to the given stream as UTF-8. The stream is flushed but not closed.
+     *
+     * @param outputStream Stream to which the body is written.
+     * @throws IOException If the body cannot be encoded or written.
+     */
+    void writeTo(OutputStream outputStream) throws IOException;
+}
@@ -15,6 +15,11 @@
  */
 package org.wso2.charon3.core.protocol;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
@@ -24,6 +29,10 @@ public class SCIMResponse {
 
     protected int responseStatus;
     protected String responseMessage;
+    // Writes the body straight to the HTTP response, instead of the response message being built in memory.
+    protected ResponseBodyWriter responseBodyWriter;
+    // Whether the writer has written the body to a stream, which leaves no body to return.
+    protected boolean isResponseBodyStreamed;
 
     //If there are any HTTP header parameters to be set in response other than response code,
     protected Map<String, String> headerParamMap;
@@ -41,14 +50,105 @@ public class SCIMResponse {
         this.headerParamMap = headerMap;
     }
 
+    /**
+     * Create a response whose body is written by the given writer when the response is sent, instead of being
+     * built as a string up front.
+     *
+     * @param responseStatus     HTTP status code corresponding to the operation status.
+     * @param responseBodyWriter Writer of the json encoded response body.
+     * @param headerMap          HTTP headers (eg-Content-type).
+     * @return The response.
+     */
+    public static SCIMResponse withBodyWriter(int responseStatus, ResponseBodyWriter responseBodyWriter,
+                                              Map<String, String> headerMap) {
+
+        return new SCIMResponse(responseBodyWriter, responseStatus, headerMap);
+    }
+
+    private SCIMResponse(ResponseBodyWriter responseBodyWriter, int responseStatus, Map<String, String> headerMap) {
+
+        this.responseStatus = responseStatus;
+        this.responseBodyWriter = responseBodyWriter;
+        this.headerParamMap = headerMap;
+    }
+
     public int getResponseStatus() {
         return responseStatus;
     }
 
-    public String getResponseMessage() {
+    /**
+     * Return the response body. A body which is written by a {@link ResponseBodyWriter} is built in memory on the
+     * first call and kept from then on, so callers which can write to a stream should use
+     * {@link #writeResponseBody(OutputStream)} instead. A body which has already been written to a stream is not
+     * kept, so it cannot be returned afterwards.
+     *
+     * @return The json encoded response body, or null if there is no body.
+     * @throws IllegalStateException If the body has already been written to a stream by its writer.
+     */
+    public synchronized String getResponseMessage() {
+
+        if (responseMessage == null && responseBodyWriter != null) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try {
+                runResponseBodyWriter(outputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error in writing the response body.", e);
+            }
+            responseMessage = outputStream.toString(StandardCharsets.UTF_8);
+        } else if (responseMessage == null && isResponseBodyStreamed) {
+            throw new IllegalStateException("The response body has already been written to a stream.");
+        }
         return responseMessage;
     }
 
+    public synchronized ResponseBodyWriter getResponseBodyWriter() {
+
+        return responseBodyWriter;
+    }
+
+    /**
+     * Return whether the response has a body, without building it.
+     *
+     * @return True if the response has a body.
+     */
+    public synchronized boolean hasResponseBody() {
+
+        return responseMessage != null || responseBodyWriter != null || isResponseBodyStreamed;
+    }
+
+    /**
+     * Write the response body to the given stream as UTF-8. The stream is flushed but not closed. A body written by
+     * a {@link ResponseBodyWriter} goes straight to the stream without being kept, so it can be written only once,
+     * unless it has been built by {@link #getResponseMessage()} before.
+     *
+     * @param outputStream Stream to which the body is written.
+     * @throws IOException           If the body cannot be encoded or written.
+     * @throws IllegalStateException If the body has already been written to a stream by its writer.
+     */
+    public synchronized void writeResponseBody(OutputStream outputStream) throws IOException {
+
+        if (responseBodyWriter != null) {
+            isResponseBodyStreamed = true;
+            runResponseBodyWriter(outputStream);
+            outputStream.flush();
+        } else if (responseMessage != null) {
+            outputStream.write(responseMessage.getBytes(StandardCharsets.UTF_8));
+            outputStream.flush();
+        } else if (isResponseBodyStreamed) {
+            throw new IllegalStateException("The response body has already been written to a stream.");
+        }
+    }
+
+    /*
+     * Run the body writer. The writer is dropped before it runs, so that it does not run again even if it fails.
+     */
+    private void runResponseBodyWriter(OutputStream outputStream) throws IOException {
+
+        ResponseBodyWriter writer = responseBodyWriter;
+        responseBodyWriter = null;
+        writer.writeTo(outputStream);
+    }
+
     public Map<String, String> getHeaderParamMap() {
         return headerParamMap;
     }
@@ -15,18 +15,25 @@
  */
 package org.wso2.charon3.core.protocol.endpoints;
 
+import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.encoder.JSONEncoder;
 import org.wso2.charon3.core.exceptions.AbstractCharonException;
+import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.schema.ResourceTypeSchema;
 import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -64,6 +71,40 @@ public abstract class AbstractResourceManager implements ResourceManager {
         return decoder;
     }
 
+    /**
+     * Decode a resource from the payload of a request, given either as json text or as the json object it has
+     * already been parsed into, such as the data of a bulk operation.
+     *
+     * @param payload        Payload of the request, as a {@link String} or a {@link JSONObject}.
+     * @param resourceSchema SCIM defined resource schema.
+     * @param scimObject     A container holding the attributes and schema list.
+     * @return SCIMObject
+     */
+    protected <T extends AbstractSCIMObject> T decodeResource(Object payload, ResourceTypeSchema resourceSchema,
+                                                              T scimObject)
+            throws BadRequestException, CharonException, InternalErrorException {
+
+        if (payload instanceof JSONObject) {
+            return getDecoder().decodeResource((JSONObject) payload, resourceSchema, scimObject);
+        }
+        return getDecoder().decodeResource((String) payload, resourceSchema, scimObject);
+    }
+
+    /**
+     * Decode the operations of a PATCH request, given either as json text or as the json object it has already
+     * been parsed into, such as the data of a bulk operation.
+     *
+     * @param payload Payload of the request, as a {@link String} or a {@link JSONObject}.
+     * @return Operations of the request in their execution order.
+     */
+    protected List<PatchOperation> decodePatchRequest(Object payload) throws BadRequestException, CharonException {
+
+        if (payload instanceof JSONObject) {
+            return getDecoder().decodeRequest((JSONObject) payload);
+        }
+        return getDecoder().decodeRequest((String) payload);
+    }
+
     /**
      * Sets the resource URL builder implementation.
      *
@@ -19,6 +19,8 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.charon3.core.config.CharonConfiguration;
 import org.wso2.charon3.core.config.SCIMConfigConstants;
+import org.wso2.charon3.core.encoder.JSONBulkRequestReader;
+import org.wso2.charon3.core.encoder.JSONBulkResponseWriter;
 import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.encoder.JSONEncoder;
 import org.wso2.charon3.core.exceptions.BadRequestException;
@@ -29,14 +31,17 @@ import org.wso2.charon3.core.extensions.RoleManager;
 import org.wso2.charon3.core.extensions.RoleV2Manager;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.objects.bulk.BulkRequestData;
+import org.wso2.charon3.core.objects.bulk.BulkResponseContent;
 import org.wso2.charon3.core.objects.bulk.BulkResponseData;
 import org.wso2.charon3.core.protocol.BulkRequestProcessor;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.protocol.SCIMResponse;
 import org.wso2.charon3.core.schema.SCIMConstants;
 
+import java.io.Reader;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * REST API exposed by Charon-Core to perform bulk operations.
@@ -48,58 +53,138 @@ public class BulkResourceManager extends AbstractResourceManager {
     private static final Log logger = LogFactory.getLog(BulkResourceManager.class);
     private JSONEncoder encoder;
     private JSONDecoder decoder;
-    private BulkRequestProcessor bulkRequestProcessor;
+    // Settings of the processors of the requests. Each request is processed by a processor of its own.
+    private Executor bulkOperationExecutor;
+    private int maxConcurrentBulkOperations = BulkRequestProcessor.DEFAULT_MAX_CONCURRENT_OPERATIONS;
+    private int maxBufferedBulkOperations = BulkRequestProcessor.DEFAULT_MAX_BUFFERED_OPERATIONS;
+
+    /**
+     * Run independent bulk operations concurrently on the given executor.
+     *
+     * @param executor                Executor to run operations on, or null to run them sequentially.
+     * @param maxConcurrentOperations Maximum number of operations of a request running at the same time, or 0 for
+     *                                no limit.
+     */
+    public void setBulkOperationExecutor(Executor executor, int maxConcurrentOperations) {
+
+        bulkOperationExecutor = executor;
+        maxConcurrentBulkOperations = maxConcurrentOperations;
+    }
+
+    /**
+     * Set the maximum number of operations of a streamed bulk request which are processed as one window.
+     *
+     * @param maxBufferedOperations Maximum number of operations processed as one window.
+     * @see #processBulkData(Reader, UserManager)
+     */
+    public void setMaxBufferedBulkOperations(int maxBufferedOperations) {
 
-    public BulkResourceManager() {
-        bulkRequestProcessor = new BulkRequestProcessor();
+        maxBufferedBulkOperations = maxBufferedOperations;
     }
 
     public SCIMResponse processBulkData(String data, UserManager userManager, RoleManager roleManager,
                                         RoleV2Manager roleV2Manager) {
 
-        bulkRequestProcessor.setRoleManager(roleManager);
-        bulkRequestProcessor.setRoleV2Manager(roleV2Manager);
-        return processBulkData(data, userManager);
+        try {
+            // Decode the request.
+            BulkRequestData bulkRequestDataObject = getDecodeBulkRequest(data);
+
+            BulkResponseData bulkResponseData = processBulkData(bulkRequestDataObject, userManager, roleManager,
+                    roleV2Manager);
+            return getEncodeSCIMResponse(bulkResponseData);
+
+        } catch (CharonException | BadRequestException | PayloadTooLargeException | InternalErrorException e) {
+            return AbstractResourceManager.encodeSCIMException(e);
+        }
     }
 
     public SCIMResponse processBulkData(String data, UserManager userManager, RoleManager roleManager) {
 
-        bulkRequestProcessor.setRoleManager(roleManager);
-        return processBulkData(data, userManager);
+        return processBulkData(data, userManager, roleManager, null);
     }
 
     public SCIMResponse processBulkData(String data, UserManager userManager) {
 
-        try {
-            // Decode the request.
-            BulkRequestData bulkRequestDataObject = getDecodeBulkRequest(data);
+        return processBulkData(data, userManager, null, null);
+    }
 
-            BulkResponseData bulkResponseData = processBulkData(bulkRequestDataObject, userManager);
-            return getEncodeSCIMResponse(bulkResponseData);
+    /**
+     * Process a bulk request while it is read, without holding all of its operations or their responses. The
+     * operations are read and run in windows when the body of the returned response is written, and the responses
+     * of each window are written as soon as the window has run, before the next window is read. The reader must
+     * therefore stay readable until the response body has been written. The schemas and failOnErrors members of
+     * the request must precede its Operations.
+     * <p>
+     * The first window is read before the response is returned, so that a request whose first window is not valid
+     * or already has too many operations is rejected before any of its operations runs. An error found later, such
+     * as an invalid operation or exceeding the maximum number of operations, ends the processing. The response
+     * then ends with an operation response carrying the error, with neither method nor bulkId.
+     *
+     * @param reader        Reader of the bulk request body.
+     * @param userManager   User manager.
+     * @param roleManager   Role manager, or null if roles are not managed.
+     * @param roleV2Manager Role V2 manager, or null if roles are not managed.
+     * @return Response whose body is written as the operations are processed.
+     */
+    public SCIMResponse processBulkData(Reader reader, UserManager userManager, RoleManager roleManager,
+                                        RoleV2Manager roleV2Manager) {
 
-        } catch (CharonException | BadRequestException | PayloadTooLargeException | InternalErrorException e) {
+        JSONEncoder responseEncoder;
+        BulkRequestProcessor bulkRequestProcessor;
+        JSONBulkRequestReader requestReader;
+        BulkRequestData firstWindow;
+        int maxOperationCount = getMaxOperationCount();
+        try {
+            encoder = getEncoder();
+            decoder = getDecoder();
+            responseEncoder = encoder;
+            requestReader = decoder.openBulkRequest(reader);
+            bulkRequestProcessor = createBulkRequestProcessor(userManager, roleManager, roleV2Manager,
+                    requestReader.getFailOnErrors());
+            firstWindow = bulkRequestProcessor.readFirstWindow(requestReader, maxOperationCount);
+        } catch (CharonException | BadRequestException | PayloadTooLargeException e) {
             return AbstractResourceManager.encodeSCIMException(e);
         }
-    }
 
-    public BulkResponseData processBulkData(BulkRequestData bulkRequestDataObject, UserManager userManager,
-                                            RoleManager roleManager, RoleV2Manager roleV2Manager)
-            throws CharonException, PayloadTooLargeException, BadRequestException {
+        Map<String, String> responseHeaders = new HashMap<>();
+        responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+        return SCIMResponse.withBodyWriter(ResponseCodeConstants.CODE_OK, outputStream -> {
+            JSONBulkResponseWriter responseWriter = responseEncoder.openBulkResponse(outputStream);
+            try {
+                bulkRequestProcessor.processBulkRequests(firstWindow, requestReader, responseWriter,
+                        maxOperationCount);
+            } catch (BadRequestException | PayloadTooLargeException e) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Error while processing the streamed bulk request.", e);
+                }
+                BulkResponseContent errorResponse = new BulkResponseContent();
+                errorResponse.setScimResponse(AbstractResourceManager.encodeSCIMException(e));
+                responseWriter.write(errorResponse);
+            }
+            responseWriter.close();
+        }, responseHeaders);
+    }
 
-        bulkRequestProcessor.setRoleManager(roleManager);
-        bulkRequestProcessor.setRoleV2Manager(roleV2Manager);
-        return processBulkData(bulkRequestDataObject, userManager);
+    /**
+     * Process a bulk request read from the given reader, without role managers.
+     *
+     * @param reader      Reader of the bulk request body.
+     * @param userManager User manager.
+     * @return Response whose body is written as the operations are processed.
+     * @see #processBulkData(Reader, UserManager, RoleManager, RoleV2Manager)
+     */
+    public SCIMResponse processBulkData(Reader reader, UserManager userManager) {
+
+        return processBulkData(reader, userManager, null, null);
     }
 
-    public BulkResponseData processBulkData(BulkRequestData bulkRequestDataObject, UserManager userManager)
+    public BulkResponseData processBulkData(BulkRequestData bulkRequestDataObject, UserManager userManager,
+                                            RoleManager roleManager, RoleV2Manager roleV2Manager)
             throws CharonException, PayloadTooLargeException, BadRequestException {
 
         encoder = getEncoder();
-        bulkRequestProcessor.setFailOnError(bulkRequestDataObject.getFailOnErrors());
-        bulkRequestProcessor.setUserManager(userManager);
 
-        int maxOperationCount =
-                (Integer) CharonConfiguration.getInstance().getConfig().get(SCIMConfigConstants.MAX_OPERATIONS);
+        int maxOperationCount = getMaxOperationCount();
         int totalOperationCount = bulkRequestDataObject.getUserOperationRequests().size() +
                 bulkRequestDataObject.getGroupOperationRequests().size() +
                 bulkRequestDataObject.getRoleOperationRequests().size() +
@@ -115,20 +200,47 @@ public class BulkResourceManager extends AbstractResourceManager {
         }
 
         // Get bulk response data.
-        return bulkRequestProcessor.processBulkRequests(bulkRequestDataObject);
+        return createBulkRequestProcessor(userManager, roleManager, roleV2Manager,
+                bulkRequestDataObject.getFailOnErrors()).processBulkRequests(bulkRequestDataObject);
     }
 
-    public SCIMResponse getEncodeSCIMResponse(BulkResponseData bulkResponseData) throws InternalErrorException {
+    public BulkResponseData processBulkData(BulkRequestData bulkRequestDataObject, UserManager userManager)
+            throws CharonException, PayloadTooLargeException, BadRequestException {
 
-        // Encode the BulkResponseData object.
-        String finalEncodedResponse = encoder.encodeBulkResponseData(bulkResponseData);
+        return processBulkData(bulkRequestDataObject, userManager, null, null);
+    }
+
+    /*
+     * Create the processor of a request, which holds the state of the request.
+     */
+    private BulkRequestProcessor createBulkRequestProcessor(UserManager userManager, RoleManager roleManager,
+                                                            RoleV2Manager roleV2Manager, int failOnErrors) {
+
+        BulkRequestProcessor bulkRequestProcessor = new BulkRequestProcessor();
+        bulkRequestProcessor.setExecutor(bulkOperationExecutor);
+        bulkRequestProcessor.setMaxConcurrentOperations(maxConcurrentBulkOperations);
+        bulkRequestProcessor.setMaxBufferedOperations(maxBufferedBulkOperations);
+        bulkRequestProcessor.setUserManager(userManager);
+        bulkRequestProcessor.setRoleManager(roleManager);
+        bulkRequestProcessor.setRoleV2Manager(roleV2Manager);
+        bulkRequestProcessor.setFailOnError(failOnErrors);
+        return bulkRequestProcessor;
+    }
+
+    private static int getMaxOperationCount() {
+
+        return (Integer) CharonConfiguration.getInstance().getConfig().get(SCIMConfigConstants.MAX_OPERATIONS);
+    }
+
+    public SCIMResponse getEncodeSCIMResponse(BulkResponseData bulkResponseData) throws InternalErrorException {
 
         Map<String, String> responseHeaders = new HashMap<>();
         // Add content type header.
         responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
 
-        // Create the final response.
-        return new SCIMResponse(ResponseCodeConstants.CODE_OK, finalEncodedResponse, responseHeaders);
+        // Create the final response, whose body is encoded as it is written.
+        return SCIMResponse.withBodyWriter(ResponseCodeConstants.CODE_OK,
+                encoder.getResponseBodyWriter(bulkResponseData), responseHeaders);
     }
 
     public BulkRequestData getDecodeBulkRequest(String data) throws CharonException, BadRequestException {
@@ -27,6 +27,7 @@ import org.wso2.charon3.core.attributes.MultiValuedAttribute;
 import org.wso2.charon3.core.attributes.SimpleAttribute;
 import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.encoder.JSONEncoder;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.ConflictException;
@@ -34,11 +35,15 @@ import org.wso2.charon3.core.exceptions.ForbiddenException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.exceptions.PreConditionFailedException;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.objects.AbstractSCIMObject;
 import org.wso2.charon3.core.objects.Group;
 import org.wso2.charon3.core.objects.ListedResource;
+import org.wso2.charon3.core.objects.plainobjects.BatchOperationResult;
 import org.wso2.charon3.core.objects.plainobjects.GroupsGetResponse;
+import org.wso2.charon3.core.objects.plainobjects.MembershipDelta;
+import org.wso2.charon3.core.objects.plainobjects.MultiValuedComplexType;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.protocol.SCIMResponse;
 import org.wso2.charon3.core.schema.SCIMConstants;
@@ -47,15 +52,19 @@ import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
 import org.wso2.charon3.core.schema.ServerSideValidator;
 import org.wso2.charon3.core.utils.CopyUtil;
-import org.wso2.charon3.core.utils.PatchOperationUtil;
+import org.wso2.charon3.core.utils.ETagUtil;
+import org.wso2.charon3.core.utils.MembershipDeltaUtil;
+import org.wso2.charon3.core.utils.PatchWorkingCopy;
+import org.wso2.charon3.core.utils.ProjectionPlanCache;
 import org.wso2.charon3.core.utils.ResourceManagerUtil;
-import org.wso2.charon3.core.utils.codeutils.FilterTreeManager;
+import org.wso2.charon3.core.utils.codeutils.FilterTreeCache;
 import org.wso2.charon3.core.utils.codeutils.Node;
 import org.wso2.charon3.core.utils.codeutils.PatchOperation;
 import org.wso2.charon3.core.utils.codeutils.SearchRequest;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -84,34 +93,54 @@ public class GroupResourceManager extends AbstractResourceManager {
      */
     @Override
     public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes) {
+
+        return get(id, userManager, attributes, excludeAttributes, null);
+    }
+
+    /**
+     * Retrieves a group resource given an unique group id, unless the client already has its current version. The
+     * entity tag of the group is returned in the {@link SCIMConstants#ETAG_HEADER} header. If it matches the given
+     * If-None-Match header, a 304 Not Modified response is returned without a body. When the user manager keeps
+     * versions of groups, this is decided without the group being loaded.
+     *
+     * @param id                Unique id of the group.
+     * @param userManager       SCIM UserManager that handles the persistence layer.
+     * @param attributes        Attributes to return in the response.
+     * @param excludeAttributes Attributes to exclude in the response.
+     * @param ifNoneMatch       Value of the If-None-Match header, or null if it was not given.
+     * @return SCIM response to be returned.
+     */
+    public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes,
+                            String ifNoneMatch) {
         JSONEncoder encoder = null;
         try {
             //obtain the correct encoder according to the format requested.
             encoder = getEncoder();
-            // returns core-group schema
-            SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
-            //get the URIs of required attributes which must be given a value
-            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                    CopyUtil.deepCopy(schema), attributes, excludeAttributes);
-            ResourceManagerUtil.includeRolesUnlessExcluded(requiredAttributes, excludeAttributes, attributes);
-
-            //API user should pass a usermanager usermanager to GroupResourceEndpoint.
-            //retrieve the group from the provided usermanager.
-            Group group = ((UserManager) userManager).getGroup(id, requiredAttributes);
 
-            //if group not found, return an error in relevant format.
-            if (group == null) {
-                String message = "Group not found in the user store.";
-                throw new NotFoundException(message);
+            //answer the precondition from the version kept by the user store, if any, without loading the group.
+            String eTag = getStoredETag(id, userManager);
+            if (ETagUtil.isMatch(ifNoneMatch, eTag, true)) {
+                return buildNotModifiedResponse(eTag);
             }
 
-            ServerSideValidator.validateRetrievedSCIMObjectInList(group, schema, attributes, excludeAttributes);
-            //convert the group into specific format.
-            String encodedGroup = encoder.encodeSCIMObject(group);
+            //without a stored version the entity tag is computed from the group as a plain GET returns it, so the
+            //group is retrieved once with the attributes of a plain GET along with the requested ones.
+            Group group = eTag == null ?
+                    getGroup(id, userManager, getRequiredAttributesWithETag(attributes, excludeAttributes)) :
+                    getGroup(id, userManager, attributes, excludeAttributes);
+            //convert the group into specific format, leaving out the attributes which are not returned.
+            String encodedGroup = encoder.encodeSCIMObject(group,
+                    ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
+            if (eTag == null) {
+                eTag = getComputedETag(group, attributes, excludeAttributes, encodedGroup);
+                if (ETagUtil.isMatch(ifNoneMatch, eTag, true)) {
+                    return buildNotModifiedResponse(eTag);
+                }
+            }
             //if there are any http headers to be added in the response header.
             Map<String, String> httpHeaders = new HashMap<String, String>();
             httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+            httpHeaders.put(SCIMConstants.ETAG_HEADER, eTag);
             return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedGroup, httpHeaders);
         } catch (NotFoundException e) {
             return encodeSCIMException(e);
@@ -124,6 +153,85 @@ public class GroupResourceManager extends AbstractResourceManager {
         }
     }
 
+    /**
+     * Retrieves a group resource with a page of its members, so that large groups are not returned with all their
+     * members at once. Members are iterated lazily through {@link UserManager#getGroupMembers(String, int)}, or cut
+     * out of the members of the group if the user manager does not support that. If more members follow the page,
+     * the start index of the next page is returned in the {@link SCIMConstants#MEMBERS_NEXT_START_INDEX_HEADER}
+     * header. The entity tag of the group is returned in the {@link SCIMConstants#ETAG_HEADER} header only when the
+     * user manager keeps versions of groups, since computing it would need all the members of the group.
+     *
+     * @param id                Unique id of the group.
+     * @param userManager       SCIM UserManager that handles the persistence layer.
+     * @param attributes        Attributes to return in the response.
+     * @param excludeAttributes Attributes to exclude in the response.
+     * @param membersStartIndex 1-based index of the first member to return.
+     * @param membersCount      Maximum number of members to return.
+     * @return SCIM response to be returned.
+     */
+    public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes,
+                            int membersStartIndex, int membersCount) {
+
+        try {
+            if (membersStartIndex < 1 || membersCount < 0) {
+                throw new BadRequestException("Invalid range of members, start index: " + membersStartIndex +
+                        ", count: " + membersCount, ResponseCodeConstants.INVALID_VALUE);
+            }
+            Map<String, Boolean> requiredAttributes = getRequiredAttributes(attributes, excludeAttributes);
+            boolean membersReturned = requiredAttributes.keySet().stream()
+                    .anyMatch(uri -> uri.startsWith(SCIMConstants.GroupSchemaConstants.MEMBERS_URI));
+
+            Iterator<MultiValuedComplexType> members = null;
+            if (membersReturned) {
+                try {
+                    members = userManager.getGroupMembers(id, membersStartIndex);
+                } catch (NotImplementedException e) {
+                    // Cut the page out of the members of the group instead.
+                }
+            }
+            if (members != null) {
+                requiredAttributes.keySet()
+                        .removeIf(uri -> uri.startsWith(SCIMConstants.GroupSchemaConstants.MEMBERS_URI));
+            }
+            Group group = getGroup(id, userManager, requiredAttributes);
+
+            boolean moreMembers = false;
+            if (members != null) {
+                group.deleteAttribute(SCIMConstants.GroupSchemaConstants.MEMBERS);
+                for (int i = 0; i < membersCount && members.hasNext(); i++) {
+                    MultiValuedComplexType member = members.next();
+                    group.setMember(member.getValue(), member.getDisplay(), member.getReference(),
+                            member.getType());
+                }
+                moreMembers = members.hasNext();
+            } else if (group.getAttribute(SCIMConstants.GroupSchemaConstants.MEMBERS)
+                    instanceof MultiValuedAttribute membersAttribute && membersAttribute.getAttributeValues() != null) {
+                List<Attribute> memberValues = membersAttribute.getAttributeValues();
+                int fromIndex = Math.min(membersStartIndex - 1, memberValues.size());
+                int toIndex = (int) Math.min((long) fromIndex + membersCount, memberValues.size());
+                moreMembers = toIndex < memberValues.size();
+                membersAttribute.setAttributeValues(new ArrayList<>(memberValues.subList(fromIndex, toIndex)));
+            }
+
+            // Convert the group into specific format, leaving out the attributes which are not returned.
+            String encodedGroup = getEncoder().encodeSCIMObject(group,
+                    ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
+            Map<String, String> httpHeaders = new HashMap<>();
+            httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+            String eTag = getStoredETag(id, userManager);
+            if (eTag != null) {
+                httpHeaders.put(SCIMConstants.ETAG_HEADER, eTag);
+            }
+            if (moreMembers) {
+                httpHeaders.put(SCIMConstants.MEMBERS_NEXT_START_INDEX_HEADER,
+                        String.valueOf((long) membersStartIndex + membersCount));
+            }
+            return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedGroup, httpHeaders);
+        } catch (NotFoundException | BadRequestException | CharonException | NotImplementedException e) {
+            return encodeSCIMException(e);
+        }
+    }
+
     /*
      * Create group in the service provider given the submitted payload that contains the SCIM group
      * resource, format and the handler to usermanager.
@@ -137,22 +245,44 @@ public class GroupResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse create(String scimObjectString, UserManager userManager,
                                String attributes, String excludeAttributes) {
+
+        return createGroup(scimObjectString, userManager, attributes, excludeAttributes);
+    }
+
+    /**
+     * Create the group given by a payload which has already been parsed into a json object.
+     *
+     * @param scimObject        Payload of the request.
+     * @param userManager       User manager.
+     * @param attributes        Attributes to be returned.
+     * @param excludeAttributes Attributes to be excluded.
+     * @return SCIM Response.
+     */
+    @Override
+    public SCIMResponse create(JSONObject scimObject, UserManager userManager, String attributes,
+                               String excludeAttributes) {
+
+        return createGroup(scimObject, userManager, attributes, excludeAttributes);
+    }
+
+    /*
+     * Create the group given by the payload, as json text or as a json object.
+     */
+    private SCIMResponse createGroup(Object payload, UserManager userManager, String attributes,
+                                     String excludeAttributes) {
+
         JSONEncoder encoder = null;
-        JSONDecoder decoder = null;
 
         try {
             //obtain the json encoder
             encoder = getEncoder();
-            //obtain the json decoder
-            decoder = getDecoder();
             // returns core-group schema
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
             //get the URIs of required attributes which must be given a value
-            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                    CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                    attributes, excludeAttributes);
             //decode the SCIM group object, encoded in the submitted payload.
-            Group group = (Group) decoder.decodeResource(scimObjectString, schema, new Group());
+            Group group = decodeResource(payload, schema, new Group());
             //validate decoded group
             ServerSideValidator.validateCreatedSCIMObject(group, SCIMSchemaDefinitions.SCIM_GROUP_SCHEMA);
             //handover the SCIM User object to the group usermanager provided by the SP.
@@ -160,24 +290,7 @@ public class GroupResourceManager extends AbstractResourceManager {
             //need to send back the newly created group in the response payload
             createdGroup = ((UserManager) userManager).createGroup(group, requiredAttributes);
 
-            //encode the newly created SCIM group object and add id attribute to Location header.
-            String encodedGroup;
-            Map<String, String> httpHeaders = new HashMap<String, String>();
-            if (createdGroup != null) {
-                ServerSideValidator.validateReturnedAttributes(createdGroup, attributes, excludeAttributes);
-                encodedGroup = encoder.encodeSCIMObject(createdGroup);
-                //add location header
-                httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
-                        SCIMConstants.GROUP_ENDPOINT) + "/" + createdGroup.getId());
-                httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-
-            } else {
-                String message = "Newly created Group resource is null..";
-                throw new InternalErrorException(message);
-            }
-
-            //put the uri of the Group object in the response header parameter.
-            return new SCIMResponse(ResponseCodeConstants.CODE_CREATED, encodedGroup, httpHeaders);
+            return buildCreatedGroupResponse(createdGroup, encoder, attributes, excludeAttributes);
 
         } catch (InternalErrorException | BadRequestException | ConflictException | CharonException |
                  NotFoundException | NotImplementedException | ForbiddenException e) {
@@ -185,6 +298,124 @@ public class GroupResourceManager extends AbstractResourceManager {
         }
     }
 
+    /*
+     * Encode the newly created group and add its id to the Location header.
+     */
+    private SCIMResponse buildCreatedGroupResponse(Group createdGroup, JSONEncoder encoder, String attributes,
+                                                   String excludeAttributes)
+            throws CharonException, InternalErrorException, NotFoundException {
+
+        //encode the newly created SCIM group object and add id attribute to Location header.
+        String encodedGroup;
+        Map<String, String> httpHeaders = new HashMap<String, String>();
+        if (createdGroup != null) {
+            encodedGroup = encoder.encodeSCIMObject(createdGroup,
+                    ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
+            //add location header
+            httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
+                    SCIMConstants.GROUP_ENDPOINT) + "/" + createdGroup.getId());
+            httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+
+        } else {
+            String message = "Newly created Group resource is null..";
+            throw new InternalErrorException(message);
+        }
+
+        //put the uri of the Group object in the response header parameter.
+        return new SCIMResponse(ResponseCodeConstants.CODE_CREATED, encodedGroup, httpHeaders);
+    }
+
+    /**
+     * Create the groups given by the payloads through {@link UserManager#createGroups(List, Map)}. Each payload
+     * gets the response {@link #create(String, UserManager, String, String)} would give it. Payloads which can not
+     * be decoded or validated are left out of the batch.
+     *
+     * @param scimObjectStrings Payloads of the groups to be created.
+     * @param userManager       User manager.
+     * @param attributes        Attributes to be returned.
+     * @param excludeAttributes Attributes to be excluded.
+     * @return Response of each group, in the order of the given payloads.
+     */
+    @Override
+    public List<SCIMResponse> createResources(List<String> scimObjectStrings, UserManager userManager,
+                                              String attributes, String excludeAttributes) {
+
+        return createGroups(scimObjectStrings, userManager, attributes, excludeAttributes);
+    }
+
+    /**
+     * Create the groups given by payloads which have already been parsed into json objects, as
+     * {@link #createResources(List, UserManager, String, String)} does.
+     *
+     * @param scimObjects       Payloads of the groups to be created.
+     * @param userManager       User manager.
+     * @param attributes        Attributes to be returned.
+     * @param excludeAttributes Attributes to be excluded.
+     * @return Response of each group, in the order of the given payloads.
+     */
+    @Override
+    public List<SCIMResponse> createDecodedResources(List<JSONObject> scimObjects, UserManager userManager,
+                                                     String attributes, String excludeAttributes) {
+
+        return createGroups(scimObjects, userManager, attributes, excludeAttributes);
+    }
+
+    /*
+     * Create the groups given by the payloads, as json text or as json objects.
+     */
+    private List<SCIMResponse> createGroups(List<?> payloads, UserManager userManager, String attributes,
+                                            String excludeAttributes) {
+
+        SCIMResponse[] responses = new SCIMResponse[payloads.size()];
+        try {
+            JSONEncoder encoder = getEncoder();
+            // returns core-group schema
+            SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
+            //get the URIs of required attributes which must be given a value
+            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                    attributes, excludeAttributes);
+
+            List<Group> groups = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < responses.length; i++) {
+                try {
+                    Group group = decodeResource(payloads.get(i), schema, new Group());
+                    ServerSideValidator.validateCreatedSCIMObject(group, SCIMSchemaDefinitions.SCIM_GROUP_SCHEMA);
+                    groups.add(group);
+                    positions.add(i);
+                } catch (CharonException | BadRequestException | InternalErrorException | NotFoundException e) {
+                    responses[i] = encodeSCIMException(e);
+                }
+            }
+            if (!groups.isEmpty()) {
+                List<BatchOperationResult<Group>> results = userManager.createGroups(groups, requiredAttributes);
+                if (results == null || results.size() != groups.size()) {
+                    throw new CharonException("User manager did not return a result for each created group.");
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    BatchOperationResult<Group> result = results.get(i);
+                    try {
+                        if (!result.isSuccessful()) {
+                            throw result.getError();
+                        }
+                        responses[positions.get(i)] = buildCreatedGroupResponse(result.getResult(), encoder,
+                                attributes, excludeAttributes);
+                    } catch (AbstractCharonException e) {
+                        responses[positions.get(i)] = encodeSCIMException(e);
+                    }
+                }
+            }
+        } catch (CharonException e) {
+            // The batch as a whole failed, so does each payload which has no response yet.
+            for (int i = 0; i < responses.length; i++) {
+                if (responses[i] == null) {
+                    responses[i] = encodeSCIMException(e);
+                }
+            }
+        }
+        return Arrays.asList(responses);
+    }
+
     /*
      * Method of the ResourceManager that is mapped to HTTP Delete method..
      *
@@ -212,6 +443,42 @@ public class GroupResourceManager extends AbstractResourceManager {
         }
     }
 
+    /**
+     * Delete the groups with the given ids through {@link UserManager#deleteGroups(List)}.
+     *
+     * @param ids         Ids of the groups to be deleted.
+     * @param userManager User manager.
+     * @return Response of each group, in the order of the given ids.
+     */
+    @Override
+    public List<SCIMResponse> deleteResources(List<String> ids, UserManager userManager) {
+
+        List<SCIMResponse> responses = new ArrayList<>(ids.size());
+        try {
+            if (userManager == null) {
+                String error = "Provided user manager handler is null.";
+                //throw internal server error.
+                throw new InternalErrorException(error);
+            }
+            List<BatchOperationResult<Void>> results = userManager.deleteGroups(ids);
+            if (results == null || results.size() != ids.size()) {
+                throw new CharonException("User manager did not return a result for each deleted group.");
+            }
+            for (BatchOperationResult<Void> result : results) {
+                //on successful deletion SCIMResponse only has 204 No Content status code.
+                responses.add(result.isSuccessful() ?
+                        new SCIMResponse(ResponseCodeConstants.CODE_NO_CONTENT, null, null) :
+                        encodeSCIMException(result.getError()));
+            }
+        } catch (CharonException | InternalErrorException e) {
+            responses.clear();
+            for (int i = 0; i < ids.size(); i++) {
+                responses.add(encodeSCIMException(e));
+            }
+        }
+        return responses;
+    }
+
     /*
      * Method to list the groups at the /Groups endpoint
      *
@@ -253,7 +520,7 @@ public class GroupResourceManager extends AbstractResourceManager {
 
             // Get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
-                    .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), attributes,
+                    .getOnlyRequiredAttributesURIs(schema, attributes,
                             excludeAttributes);
             ResourceManagerUtil.includeRolesUnlessExcluded(requiredAttributes, excludeAttributes, attributes);
 
@@ -318,8 +585,7 @@ public class GroupResourceManager extends AbstractResourceManager {
     private Node buildNode(String filter, SCIMResourceTypeSchema schema) throws BadRequestException, IOException {
 
         if (filter != null) {
-            FilterTreeManager filterTreeManager = new FilterTreeManager(filter, schema);
-            return filterTreeManager.buildTree();
+            return FilterTreeCache.getInstance().getFilterTree(filter, schema);
         }
         return null;
     }
@@ -345,7 +611,6 @@ public class GroupResourceManager extends AbstractResourceManager {
     public SCIMResponse listWithGET(UserManager userManager, String filter, Integer startIndexInt, Integer countInt,
             String sortBy, String sortOrder, String domainName, String attributes, String excludeAttributes) {
 
-        FilterTreeManager filterTreeManager;
         try {
             Integer count = ResourceManagerUtil.processCount(countInt);
             Integer startIndex = ResourceManagerUtil.processStartIndex(startIndexInt);
@@ -364,7 +629,7 @@ public class GroupResourceManager extends AbstractResourceManager {
 
             // Get the URIs of required attributes which must be given a value.
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
-                    .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), attributes,
+                    .getOnlyRequiredAttributesURIs(schema, attributes,
                             excludeAttributes);
             ResourceManagerUtil.includeRolesUnlessExcluded(requiredAttributes, excludeAttributes, attributes);
 
@@ -412,19 +677,16 @@ public class GroupResourceManager extends AbstractResourceManager {
         if (groupsResponse.getGroups() == null) {
             groupsResponse.setGroups(Collections.emptyList());
         }
-        for (Group group : groupsResponse.getGroups()) {
-            // Perform service provider side validation.
-            ServerSideValidator.validateRetrievedSCIMObjectInList(group, SCIMSchemaDefinitions.SCIM_GROUP_SCHEMA,
-                            attributes, excludeAttributes);
-        }
         // Create a listed resource object out of the returned groups list.
         ListedResource listedResource = createListedResource(groupsResponse, startIndex);
-        // Convert the listed resource into specific format.
-        String encodedListedResource = encoder.encodeSCIMObject(listedResource);
         // If there are any http headers to be added in the response header.
         Map<String, String> responseHeaders = new HashMap<String, String>();
         responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-        return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
+        // Convert the listed resource into specific format as the response is written, leaving out the attributes
+        // which are not returned.
+        return SCIMResponse.withBodyWriter(ResponseCodeConstants.CODE_OK, encoder.getResponseBodyWriter(
+                listedResource, ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes)),
+                responseHeaders);
     }
 
     /*
@@ -473,10 +735,8 @@ public class GroupResourceManager extends AbstractResourceManager {
             }
 
             //get the URIs of required attributes which must be given a value
-            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), searchRequest.getAttributesAsString(),
-                    searchRequest.getExcludedAttributesAsString());
+            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                    searchRequest.getAttributesAsString(), searchRequest.getExcludedAttributesAsString());
             ResourceManagerUtil.includeRolesUnlessExcluded(requiredAttributes,
                     searchRequest.getExcludedAttributesAsString(), searchRequest.getAttributesAsString());
 
@@ -486,19 +746,17 @@ public class GroupResourceManager extends AbstractResourceManager {
             if (userManager != null) {
                 GroupsGetResponse groupsResponse = userManager.listGroupsWithPost(searchRequest, requiredAttributes);
 
-                for (Group group : groupsResponse.getGroups()) {
-                    //perform service provider side validation.
-                    ServerSideValidator.validateRetrievedSCIMObjectInList(group, schema,
-                            searchRequest.getAttributesAsString(), searchRequest.getExcludedAttributesAsString());
-                }
                 //create a listed resource object out of the returned users list.
                 ListedResource listedResource = createListedResource(groupsResponse, searchRequest.getStartIndex());
-                //convert the listed resource into specific format.
-                String encodedListedResource = encoder.encodeSCIMObject(listedResource);
                 //if there are any http headers to be added in the response header.
                 Map<String, String> responseHeaders = new HashMap<String, String>();
                 responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-                return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
+                //convert the listed resource into specific format as the response is written, leaving out the
+                //attributes which are not returned.
+                return SCIMResponse.withBodyWriter(ResponseCodeConstants.CODE_OK, encoder.getResponseBodyWriter(
+                        listedResource, ProjectionPlanCache.getInstance().getProjectionPlan(
+                                searchRequest.getAttributesAsString(), searchRequest.getExcludedAttributesAsString())),
+                        responseHeaders);
 
             } else {
                 String error = "Provided user manager handler is null.";
@@ -530,33 +788,76 @@ public class GroupResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse updateWithPUT(String existingId, String scimObjectString,
                                       UserManager userManager, String attributes, String excludeAttributes) {
+
+        return updateWithPUT(existingId, scimObjectString, userManager, attributes, excludeAttributes, null);
+    }
+
+    /**
+     * Update the group by giving entire attribute set, unless it was changed since the client retrieved it. If the
+     * If-Match header is given and does not match the current entity tag of the group, the update is rejected with
+     * 412 Precondition Failed before the payload is decoded.
+     *
+     * @param existingId        SCIM2 ID of the existing group.
+     * @param scimObjectString  Payload of the request.
+     * @param userManager       SCIM UserManager that handles the persistence layer.
+     * @param attributes        Attributes to return in the response.
+     * @param excludeAttributes Attributes to exclude in the response.
+     * @param ifMatch           Value of the If-Match header, or null if it was not given.
+     * @return SCIM Response.
+     */
+    public SCIMResponse updateWithPUT(String existingId, String scimObjectString, UserManager userManager,
+                                      String attributes, String excludeAttributes, String ifMatch) {
+
+        return updateGroupWithPUT(existingId, scimObjectString, userManager, attributes, excludeAttributes, ifMatch);
+    }
+
+    /**
+     * Update the group by giving entire attribute set, from a payload which has already been parsed into a json
+     * object.
+     *
+     * @param existingId        SCIM2 ID of the existing group.
+     * @param scimObject        Payload of the request.
+     * @param userManager       SCIM UserManager that handles the persistence layer.
+     * @param attributes        Attributes to return in the response.
+     * @param excludeAttributes Attributes to exclude in the response.
+     * @return SCIM Response.
+     */
+    @Override
+    public SCIMResponse updateWithPUT(String existingId, JSONObject scimObject, UserManager userManager,
+                                      String attributes, String excludeAttributes) {
+
+        return updateGroupWithPUT(existingId, scimObject, userManager, attributes, excludeAttributes, null);
+    }
+
+    /*
+     * Update the group by giving entire attribute set, given as json text or as a json object.
+     */
+    private SCIMResponse updateGroupWithPUT(String existingId, Object payload, UserManager userManager,
+                                            String attributes, String excludeAttributes, String ifMatch) {
         //needs to validate the incoming object. eg: id can not be set by the consumer.
 
         JSONEncoder encoder = null;
-        JSONDecoder decoder = null;
 
         try {
             //obtain the json encoder
             encoder = getEncoder();
-            //obtain the json decoder.
-            decoder = getDecoder();
 
+            String expectedVersion = checkIfMatch(existingId, userManager, ifMatch);
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
-            //get the URIs of required attributes which must be given a value
-            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                    CopyUtil.deepCopy(schema), attributes, excludeAttributes);
-            ResourceManagerUtil.includeRolesUnlessExcluded(requiredAttributes, excludeAttributes, attributes);
+            //get the URIs of required attributes which must be given a value, along with those the entity tag of
+            //the updated group is computed from.
+            Map<String, Boolean> requiredAttributes = getRequiredAttributesWithETag(attributes, excludeAttributes);
 
             //decode the SCIM User object, encoded in the submitted payload.
-            Group group = (Group) decoder.decodeResource(scimObjectString, schema, new Group());
+            Group group = decodeResource(payload, schema, new Group());
             Group updatedGroup = null;
             if (userManager != null) {
                 //retrieve the old object
                 Group oldGroup = userManager.getGroup(existingId, ResourceManagerUtil.getAllAttributeURIs(schema));
                 if (oldGroup != null) {
                     Group newGroup = (Group) ServerSideValidator.validateUpdatedSCIMObject(oldGroup, group, schema);
-                    updatedGroup = userManager.updateGroup(oldGroup, newGroup, requiredAttributes);
+                    updatedGroup = updateGroup(userManager, oldGroup, newGroup, requiredAttributes,
+                            expectedVersion);
 
                 } else {
                     String error = "No user exists with the given id: " + existingId;
@@ -571,15 +872,15 @@ public class GroupResourceManager extends AbstractResourceManager {
             String encodedGroup;
             Map<String, String> httpHeaders = new HashMap<String, String>();
             if (updatedGroup != null) {
-                //create a deep copy of the user object since we are going to change it.
-                Group copiedGroup = (Group) CopyUtil.deepCopy(updatedGroup);
-                //need to remove password before returning
-                ServerSideValidator.validateReturnedAttributes(copiedGroup, attributes, excludeAttributes);
-                encodedGroup = encoder.encodeSCIMObject(copiedGroup);
+                //leave out the attributes which are not returned.
+                encodedGroup = encoder.encodeSCIMObject(updatedGroup,
+                        ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
                 //add location header
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.GROUP_ENDPOINT) + "/" + updatedGroup.getId());
                 httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                httpHeaders.put(SCIMConstants.ETAG_HEADER, getResponseETag(updatedGroup, userManager, attributes,
+                        excludeAttributes, encodedGroup));
 
             } else {
                 String error = "Updated Group resource is null.";
@@ -590,7 +891,7 @@ public class GroupResourceManager extends AbstractResourceManager {
             return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedGroup, httpHeaders);
 
         } catch (NotFoundException | CharonException | InternalErrorException | NotImplementedException |
-                 BadRequestException | ForbiddenException e) {
+                 BadRequestException | ForbiddenException | PreConditionFailedException e) {
             return encodeSCIMException(e);
         }
     }
@@ -607,21 +908,68 @@ public class GroupResourceManager extends AbstractResourceManager {
      */
     public SCIMResponse updateWithPATCH(String existingId, String patchRequest, UserManager userManager,
                                         String attributes, String excludeAttributes) {
+
+        return updateWithPATCH(existingId, patchRequest, userManager, attributes, excludeAttributes, null);
+    }
+
+    /**
+     * Updates the group based on the operations defined in the patchRequest, unless it was changed since the client
+     * retrieved it. If the If-Match header is given and does not match the current entity tag of the group, the
+     * update is rejected with 412 Precondition Failed before the operations are decoded.
+     *
+     * @param existingId        SCIM2 ID of the existing group.
+     * @param patchRequest      SCIM2 patch request.
+     * @param userManager       SCIM UserManager that handles the persistence layer.
+     * @param attributes        Attributes to return in the response.
+     * @param excludeAttributes Attributes to exclude in the response.
+     * @param ifMatch           Value of the If-Match header, or null if it was not given.
+     * @return SCIM Response.
+     */
+    public SCIMResponse updateWithPATCH(String existingId, String patchRequest, UserManager userManager,
+                                        String attributes, String excludeAttributes, String ifMatch) {
+
+        return updateGroupWithPATCH(existingId, patchRequest, userManager, attributes, excludeAttributes, ifMatch);
+    }
+
+    /**
+     * Updates the group based on the operations defined in a patch request which has already been parsed into a
+     * json object.
+     *
+     * @param existingId        SCIM2 ID of the existing group.
+     * @param patchRequest      SCIM2 patch request.
+     * @param userManager       SCIM UserManager that handles the persistence layer.
+     * @param attributes        Attributes to return in the response.
+     * @param excludeAttributes Attributes to exclude in the response.
+     * @return SCIM Response.
+     */
+    @Override
+    public SCIMResponse updateWithPATCH(String existingId, JSONObject patchRequest, UserManager userManager,
+                                        String attributes, String excludeAttributes) {
+
+        return updateGroupWithPATCH(existingId, patchRequest, userManager, attributes, excludeAttributes, null);
+    }
+
+    /*
+     * Updates the group based on the operations of the patch request, given as json text or as a json object.
+     */
+    private SCIMResponse updateGroupWithPATCH(String existingId, Object patchRequest, UserManager userManager,
+                                              String attributes, String excludeAttributes, String ifMatch) {
         try {
             if (userManager == null) {
                 String error = "Provided user manager handler is null.";
                 throw new InternalErrorException(error);
             }
+            String expectedVersion = checkIfMatch(existingId, userManager, ifMatch);
 
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getAllAttributeURIs(schema);
             ResourceManagerUtil.includeRolesUnlessExcluded(requiredAttributes, excludeAttributes, attributes);
 
-            List<PatchOperation> opList = getDecoder().decodeRequest(patchRequest);
+            List<PatchOperation> opList = decodePatchRequest(patchRequest);
 
             if (!isDeleteAllUsersOperationFound(opList)) {
                 return updateWithPatchForAddRemoveOperations(existingId, opList, userManager, attributes,
-                        excludeAttributes);
+                        excludeAttributes, expectedVersion);
             }
 
             // Get the group from the user core
@@ -630,27 +978,29 @@ public class GroupResourceManager extends AbstractResourceManager {
                 throw new NotFoundException("No group with the id : " + existingId + " in the user store.");
             }
 
-            Group originalGroup = (Group) CopyUtil.deepCopy(oldGroup);
-            Group patchedGroup = doPatchGroup(oldGroup, schema, patchRequest);
+            // Apply the operations to a single working copy of the group, leaving the original group untouched.
+            Group patchedGroup = (Group) CopyUtil.deepCopy(oldGroup);
+            doPatchGroup(new PatchWorkingCopy<>(oldGroup, patchedGroup, schema), opList);
 
-            Group updatedGroup = userManager.updateGroup(originalGroup, patchedGroup, requiredAttributes);
+            Group updatedGroup = updateGroup(userManager, oldGroup, patchedGroup, requiredAttributes,
+                    expectedVersion);
             if (updatedGroup != null) {
-                // Create a deep copy of the group object since we are going to change it.
-                Group copyOfUpdatedGroup = (Group) CopyUtil.deepCopy(updatedGroup);
-                ServerSideValidator.validateReturnedAttributes(copyOfUpdatedGroup, attributes, excludeAttributes);
-
-                String encodedGroup = getEncoder().encodeSCIMObject(copyOfUpdatedGroup);
+                // Leave out the attributes which are not returned.
+                String encodedGroup = getEncoder().encodeSCIMObject(updatedGroup,
+                        ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
                 Map<String, String> httpHeaders = new HashMap<>();
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.GROUP_ENDPOINT) + "/" + updatedGroup.getId());
                 httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                httpHeaders.put(SCIMConstants.ETAG_HEADER, getResponseETag(updatedGroup, userManager, attributes,
+                        excludeAttributes, encodedGroup));
                 return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedGroup, httpHeaders);
             } else {
                 String error = "Updated group resource is null.";
                 throw new CharonException(error);
             }
         } catch (NotFoundException | BadRequestException | NotImplementedException | CharonException |
-                InternalErrorException | ForbiddenException e) {
+                InternalErrorException | ForbiddenException | PreConditionFailedException e) {
             return AbstractResourceManager.encodeSCIMException(e);
         } catch (RuntimeException e) {
             CharonException e1 = new CharonException("Error in performing the patch operation on group resource.", e);
@@ -700,34 +1050,50 @@ public class GroupResourceManager extends AbstractResourceManager {
                                                               UserManager userManager, String attributes,
                                                               String excludeAttributes) {
 
-        try {
-            Map<String, List<PatchOperation>> patchOperations = buildPatchOperationsMap(opList);
-
-            SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
-            String groupName = getGroupName(userManager, existingGroupId);
+        return updateWithPatchForAddRemoveOperations(existingGroupId, opList, userManager, attributes,
+                excludeAttributes, null);
+    }
 
-            processGroupPatchOperations(patchOperations, schema);
+    /*
+     * Update the group based on the operations, conditionally on the expected version if there is one and the user
+     * manager supports that.
+     */
+    private SCIMResponse updateWithPatchForAddRemoveOperations(String existingGroupId, List<PatchOperation> opList,
+                                                               UserManager userManager, String attributes,
+                                                               String excludeAttributes, String expectedVersion) {
 
-            // Get the URIs of required attributes which must be given a value.
-            Map<String, Boolean> requiredAttributes =
-                    ResourceManagerUtil.getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), attributes, excludeAttributes);
-            ResourceManagerUtil.includeRolesUnlessExcluded(requiredAttributes, excludeAttributes, attributes);
+        try {
+            SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
 
-            Group updatedGroup = userManager.patchGroup(existingGroupId, groupName, patchOperations,
-                    requiredAttributes);
+            // Get the URIs of required attributes which must be given a value, along with those the entity tag of
+            // the updated group is computed from.
+            Map<String, Boolean> requiredAttributes = getRequiredAttributesWithETag(attributes, excludeAttributes);
+
+            Group updatedGroup;
+            try {
+                updatedGroup = patchGroupWithMembershipDelta(existingGroupId, opList, userManager,
+                        requiredAttributes, expectedVersion);
+            } catch (NotImplementedException e) {
+                // Fall back to patching the group with the operations.
+                Map<String, List<PatchOperation>> patchOperations = buildPatchOperationsMap(opList);
+                String groupName = getGroupName(userManager, existingGroupId);
+                processGroupPatchOperations(patchOperations, schema);
+                updatedGroup = userManager.patchGroup(existingGroupId, groupName, patchOperations,
+                        requiredAttributes);
+            }
 
             if (updatedGroup != null) {
-                // Create a deep copy of the group object since we are going to change it.
-                Group copyOfUpdatedGroup = (Group) CopyUtil.deepCopy(updatedGroup);
-                ServerSideValidator.validateReturnedAttributes(copyOfUpdatedGroup, attributes, excludeAttributes);
-                // Encode the updated group object and add id attribute to Location header.
-                String encodedGroup = getEncoder().encodeSCIMObject(copyOfUpdatedGroup);
+                // Encode the updated group object, leaving out the attributes which are not returned, and add id
+                // attribute to Location header.
+                String encodedGroup = getEncoder().encodeSCIMObject(updatedGroup,
+                        ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
 
                 Map<String, String> httpHeaders = new HashMap<>();
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER,
                         getResourceEndpointURL(SCIMConstants.GROUP_ENDPOINT) + "/" + updatedGroup.getId());
                 httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                httpHeaders.put(SCIMConstants.ETAG_HEADER, getResponseETag(updatedGroup, userManager, attributes,
+                        excludeAttributes, encodedGroup));
 
                 return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedGroup, httpHeaders);
             } else {
@@ -735,7 +1101,7 @@ public class GroupResourceManager extends AbstractResourceManager {
                 throw new CharonException(error);
             }
         } catch (NotFoundException | BadRequestException | NotImplementedException | CharonException
-                 | ForbiddenException e) {
+                 | ForbiddenException | PreConditionFailedException e) {
             return AbstractResourceManager.encodeSCIMException(e);
         } catch (RuntimeException e) {
             CharonException e1 = new CharonException("Error in performing the patch operation on group resource.", e);
@@ -743,6 +1109,51 @@ public class GroupResourceManager extends AbstractResourceManager {
         }
     }
 
+    /*
+     * Patch the group with the net membership changes of the operations, without looking up the group name, and
+     * conditionally on the expected version if there is one and the user manager supports that. Throws
+     * NotImplementedException if the operations can not be expressed as a membership delta, or if the user manager
+     * does not support it.
+     */
+    private Group patchGroupWithMembershipDelta(String existingGroupId, List<PatchOperation> opList,
+                                                UserManager userManager, Map<String, Boolean> requiredAttributes,
+                                                String expectedVersion)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            ForbiddenException, PreConditionFailedException {
+
+        MembershipDelta membershipDelta = MembershipDeltaUtil.getMembershipDelta(opList);
+        if (membershipDelta == null) {
+            throw new NotImplementedException("Operations can not be expressed as a membership delta");
+        }
+        if (expectedVersion != null) {
+            try {
+                return userManager.patchGroupWithVersion(existingGroupId, membershipDelta, requiredAttributes,
+                        expectedVersion);
+            } catch (NotImplementedException e) {
+                // The version was checked before the patch, which is the best the user manager allows.
+            }
+        }
+        return userManager.patchGroup(existingGroupId, membershipDelta, requiredAttributes);
+    }
+
+    /*
+     * Update the group, conditionally on the expected version if there is one and the user manager supports that.
+     */
+    private Group updateGroup(UserManager userManager, Group oldGroup, Group newGroup,
+                              Map<String, Boolean> requiredAttributes, String expectedVersion)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException,
+            ForbiddenException, PreConditionFailedException {
+
+        if (expectedVersion != null) {
+            try {
+                return userManager.updateGroupWithVersion(oldGroup, newGroup, requiredAttributes, expectedVersion);
+            } catch (NotImplementedException e) {
+                // The version was checked before the update, which is the best the user manager allows.
+            }
+        }
+        return userManager.updateGroup(oldGroup, newGroup, requiredAttributes);
+    }
+
     private Map<String, List<PatchOperation>> buildPatchOperationsMap(List<PatchOperation> opList)
             throws BadRequestException {
 
@@ -772,9 +1183,29 @@ public class GroupResourceManager extends AbstractResourceManager {
     }
 
     private void updateWithPatchForAddRemoveOperations(String existingGroupId, List<PatchOperation> opList,
-                                                       UserManager userManager) throws BadRequestException,
-            NotImplementedException, NotFoundException, CharonException, ForbiddenException {
-
+                                                       UserManager userManager, Map<String, Boolean> requestAttributes,
+                                                       String expectedVersion)
+            throws BadRequestException, NotImplementedException, NotFoundException, CharonException,
+            ForbiddenException, PreConditionFailedException {
+
+        MembershipDelta membershipDelta = MembershipDeltaUtil.getMembershipDelta(opList);
+        if (membershipDelta != null) {
+            if (expectedVersion != null) {
+                try {
+                    userManager.patchGroupWithVersion(existingGroupId, membershipDelta, requestAttributes,
+                            expectedVersion);
+                    return;
+                } catch (NotImplementedException e) {
+                    // The version was checked before the patch, which is the best the user manager allows.
+                }
+            }
+            try {
+                userManager.patchGroup(existingGroupId, membershipDelta);
+                return;
+            } catch (NotImplementedException e) {
+                // Fall back to patching the group with the operations.
+            }
+        }
         Map<String, List<PatchOperation>> patchOperations = buildPatchOperationsMap(opList);
         SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
         String groupName = getGroupName(userManager, existingGroupId);
@@ -967,11 +1398,28 @@ public class GroupResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse updateWithPATCH(String existingGroupId, String patchRequest, UserManager userManager) {
 
+        return updateWithPATCH(existingGroupId, patchRequest, userManager, null);
+    }
+
+    /**
+     * Updates the group based on the operations defined in the patchRequest, unless it was changed since the client
+     * retrieved it. The updated group information is not sent back in the response.
+     *
+     * @param existingGroupId SCIM2 ID of the existing group.
+     * @param patchRequest    SCIM2 patch request.
+     * @param userManager     SCIM UserManager that handles the persistence layer.
+     * @param ifMatch         Value of the If-Match header, or null if it was not given.
+     * @return SCIM Response.
+     */
+    public SCIMResponse updateWithPATCH(String existingGroupId, String patchRequest, UserManager userManager,
+                                        String ifMatch) {
+
         try {
             if (userManager == null) {
                 String error = "Provided user manager handler is null.";
                 throw new InternalErrorException(error);
             }
+            String expectedVersion = checkIfMatch(existingGroupId, userManager, ifMatch);
 
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
             Map<String, Boolean> requestAttributes = ResourceManagerUtil.getAllAttributeURIs(schema);
@@ -979,7 +1427,8 @@ public class GroupResourceManager extends AbstractResourceManager {
             List<PatchOperation> opList = getDecoder().decodeRequest(patchRequest);
 
             if (!isDeleteAllUsersOperationFound(opList)) {
-                updateWithPatchForAddRemoveOperations(existingGroupId, opList, userManager);
+                updateWithPatchForAddRemoveOperations(existingGroupId, opList, userManager, requestAttributes,
+                        expectedVersion);
             } else {
                 Group oldGroup = userManager.getGroup(existingGroupId, requestAttributes);
                 if (oldGroup == null) {
@@ -987,11 +1436,16 @@ public class GroupResourceManager extends AbstractResourceManager {
                             + " exists in the user store.");
                 }
 
-                // Make a copy of original group. This will be used to restore the original condition if failure occurs.
-                Group originalGroup = (Group) CopyUtil.deepCopy(oldGroup);
-                Group patchedGroup = doPatchGroup(oldGroup, schema, patchRequest);
+                // Apply the operations to a single working copy of the group. The original group is left untouched
+                // to restore the original condition if failure occurs.
+                Group patchedGroup = (Group) CopyUtil.deepCopy(oldGroup);
+                doPatchGroup(new PatchWorkingCopy<>(oldGroup, patchedGroup, schema), opList);
 
-                userManager.updateGroup(originalGroup, patchedGroup);
+                if (expectedVersion != null) {
+                    updateGroup(userManager, oldGroup, patchedGroup, requestAttributes, expectedVersion);
+                } else {
+                    userManager.updateGroup(oldGroup, patchedGroup);
+                }
             }
 
             // Build the 204 response.
@@ -999,7 +1453,7 @@ public class GroupResourceManager extends AbstractResourceManager {
             httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
             return new SCIMResponse(ResponseCodeConstants.CODE_NO_CONTENT, null, httpHeaders);
         } catch (NotFoundException | BadRequestException | NotImplementedException | CharonException |
-                InternalErrorException | ForbiddenException e) {
+                InternalErrorException | ForbiddenException | PreConditionFailedException e) {
             return AbstractResourceManager.encodeSCIMException(e);
         } catch (RuntimeException e) {
             CharonException ex = new CharonException("Error in performing the patch operation on group resource.", e);
@@ -1008,59 +1462,141 @@ public class GroupResourceManager extends AbstractResourceManager {
     }
 
 
-    private Group doPatchGroup(Group oldGroup, SCIMResourceTypeSchema groupSchema, String patchRequest)
-            throws CharonException, BadRequestException, NotImplementedException, InternalErrorException {
+    /*
+     * Retrieve the group with the attributes needed for the given projection.
+     */
+    private Group getGroup(String id, UserManager userManager, String attributes, String excludeAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
 
-        // Make a copy of the original group.
-        Group originalGroup = (Group) CopyUtil.deepCopy(oldGroup);
-        Group copyOfOldGroup = (Group) CopyUtil.deepCopy(oldGroup);
+        return getGroup(id, userManager, getRequiredAttributes(attributes, excludeAttributes));
+    }
 
-        Group patchedGroup = null;
-        List<PatchOperation> opList = getDecoder().decodeRequest(patchRequest);
-        for (PatchOperation operation : opList) {
-            switch (operation.getOperation()) {
-                case SCIMConstants.OperationalConstants.ADD:
-                    if (patchedGroup == null) {
-                        patchedGroup = (Group) PatchOperationUtil
-                                .doPatchAdd(operation, getDecoder(), oldGroup, copyOfOldGroup, groupSchema);
-                        copyOfOldGroup = (Group) CopyUtil.deepCopy(patchedGroup);
-                    } else {
-                        patchedGroup = (Group) PatchOperationUtil.doPatchAdd
-                                (operation, getDecoder(), patchedGroup, copyOfOldGroup, groupSchema);
-                        copyOfOldGroup = (Group) CopyUtil.deepCopy(patchedGroup);
+    /*
+     * Retrieve the group with the given required attributes.
+     */
+    private Group getGroup(String id, UserManager userManager, Map<String, Boolean> requiredAttributes)
+            throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
 
-                    }
-                    break;
-                case SCIMConstants.OperationalConstants.REMOVE:
-                    if (patchedGroup == null) {
-                        patchedGroup = (Group) PatchOperationUtil.doPatchRemove
-                                (operation, oldGroup, copyOfOldGroup, groupSchema);
-                        copyOfOldGroup = (Group) CopyUtil.deepCopy(patchedGroup);
+        //API user should pass a usermanager usermanager to GroupResourceEndpoint.
+        //retrieve the group from the provided usermanager.
+        Group group = userManager.getGroup(id, requiredAttributes);
 
-                    } else {
-                        patchedGroup = (Group) PatchOperationUtil.doPatchRemove
-                                (operation, patchedGroup, copyOfOldGroup, groupSchema);
-                        copyOfOldGroup = (Group) CopyUtil.deepCopy(patchedGroup);
-                    }
-                    break;
-                case SCIMConstants.OperationalConstants.REPLACE:
-                    if (patchedGroup == null) {
-                        patchedGroup = (Group) PatchOperationUtil.doPatchReplace
-                                (operation, getDecoder(), oldGroup, copyOfOldGroup, groupSchema);
-                        copyOfOldGroup = (Group) CopyUtil.deepCopy(patchedGroup);
+        //if group not found, return an error in relevant format.
+        if (group == null) {
+            String message = "Group not found in the user store.";
+            throw new NotFoundException(message);
+        }
+        return group;
+    }
 
-                    } else {
-                        patchedGroup = (Group) PatchOperationUtil.doPatchReplace
-                                (operation, getDecoder(), patchedGroup, copyOfOldGroup, groupSchema);
-                        copyOfOldGroup = (Group) CopyUtil.deepCopy(patchedGroup);
-                    }
-                    break;
-                default:
-                    throw new BadRequestException("Unknown operation.", ResponseCodeConstants.INVALID_SYNTAX);
-            }
+    /*
+     * URIs of the attributes of the group needed for the given projection.
+     */
+    private static Map<String, Boolean> getRequiredAttributes(String attributes, String excludeAttributes)
+            throws CharonException {
+
+        // returns core-group schema
+        SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
+        //get the URIs of required attributes which must be given a value
+        Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                attributes, excludeAttributes);
+        ResourceManagerUtil.includeRolesUnlessExcluded(requiredAttributes, excludeAttributes, attributes);
+        return requiredAttributes;
+    }
+
+    /*
+     * URIs of the required attributes of the given projection, along with those of a plain GET of the group, from
+     * which the entity tag of the group is computed when its store keeps no versions.
+     */
+    private static Map<String, Boolean> getRequiredAttributesWithETag(String attributes, String excludeAttributes)
+            throws CharonException {
+
+        Map<String, Boolean> requiredAttributes = getRequiredAttributes(attributes, excludeAttributes);
+        if (StringUtils.isNotBlank(attributes) || StringUtils.isNotBlank(excludeAttributes)) {
+            requiredAttributes.putAll(getRequiredAttributes(null, null));
+        }
+        return requiredAttributes;
+    }
+
+    /*
+     * Entity tag of the version of the group kept by the user store, or null if the user store does not keep one.
+     */
+    private String getStoredETag(String id, UserManager userManager)
+            throws CharonException, BadRequestException, NotFoundException {
+
+        try {
+            return ETagUtil.fromVersion(userManager.getGroupVersion(id));
+        } catch (NotImplementedException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Reject the update if the given If-Match header does not match the current entity tag of the group. Without a
+     * stored version, the entity tag is computed from the group as a plain GET returns it. Returns the matched
+     * version, which the user manager checks again together with the update, or null if there is none to check.
+     */
+    private String checkIfMatch(String id, UserManager userManager, String ifMatch)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException,
+            PreConditionFailedException {
+
+        if (StringUtils.isBlank(ifMatch) || userManager == null) {
+            return null;
+        }
+        String version;
+        try {
+            version = userManager.getGroupVersion(id);
+        } catch (NotImplementedException e) {
+            version = null;
         }
+        String eTag = ETagUtil.fromVersion(version);
+        if (eTag == null) {
+            eTag = getComputedETag(getGroup(id, userManager, null, null), null, null, null);
+        }
+        if (!ETagUtil.isMatch(ifMatch, eTag, false)) {
+            throw new PreConditionFailedException();
+        }
+        return version;
+    }
+
+    private String getResponseETag(Group group, UserManager userManager, String attributes,
+                                   String excludeAttributes, String encodedGroup)
+            throws CharonException, BadRequestException, NotFoundException {
+
+        String eTag = getStoredETag(group.getId(), userManager);
+        return eTag == null ? getComputedETag(group, attributes, excludeAttributes, encodedGroup) : eTag;
+    }
 
-        return (Group) ServerSideValidator.validateUpdatedSCIMObject(originalGroup, patchedGroup, groupSchema);
+    /*
+     * Entity tag of a group whose store keeps no versions. It is computed from the group as a plain GET returns it,
+     * whatever attributes were requested, since it identifies the version of the group rather than the returned
+     * representation. The group must have been retrieved with at least the attributes of a plain GET.
+     */
+    private String getComputedETag(Group group, String attributes, String excludeAttributes, String encodedGroup)
+            throws CharonException {
+
+        if (encodedGroup != null && StringUtils.isBlank(attributes) && StringUtils.isBlank(excludeAttributes)) {
+            return ETagUtil.fromBody(encodedGroup);
+        }
+        return ETagUtil.fromBody(getEncoder().encodeSCIMObject(group,
+                ProjectionPlanCache.getInstance().getProjectionPlan(null, null)));
+    }
+
+    private static SCIMResponse buildNotModifiedResponse(String eTag) {
+
+        Map<String, String> httpHeaders = new HashMap<>();
+        httpHeaders.put(SCIMConstants.ETAG_HEADER, eTag);
+        return new SCIMResponse(ResponseCodeConstants.CODE_NOT_MODIFIED, null, httpHeaders);
+    }
+
+    private void doPatchGroup(PatchWorkingCopy<Group> groupPatch, List<PatchOperation> opList)
+            throws CharonException, BadRequestException, NotImplementedException, InternalErrorException {
+
+        for (PatchOperation operation : opList) {
+            groupPatch.apply(operation, getDecoder());
+        }
+        // Validate the attributes modified by the operations, once all of them are applied.
+        groupPatch.validate();
     }
 
     /**
@@ -35,7 +35,8 @@ import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.charon3.core.schema.ServerSideValidator;
 import org.wso2.charon3.core.utils.CopyUtil;
-import org.wso2.charon3.core.utils.PatchOperationUtil;
+import org.wso2.charon3.core.utils.PatchWorkingCopy;
+import org.wso2.charon3.core.utils.ProjectionPlanCache;
 import org.wso2.charon3.core.utils.ResourceManagerUtil;
 import org.wso2.charon3.core.utils.codeutils.PatchOperation;
 
@@ -68,9 +69,8 @@ public class MeResourceManager extends AbstractResourceManager {
             SCIMResourceTypeSchema schema = getSchema(userManager);
             //get the URIs of required attributes which must be given a value
 
-            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                    CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                    attributes, excludeAttributes);
 
             /*API user should pass a usermanager impl to UserResourceEndpoint.
             retrieve the user from the provided UM handler.*/
@@ -82,9 +82,10 @@ public class MeResourceManager extends AbstractResourceManager {
                 throw new NotFoundException(error);
             }
             //perform service provider side validation.
-            ServerSideValidator.validateRetrievedSCIMObject(user, schema, attributes, excludeAttributes);
-            //convert the user into requested format.
-            String encodedUser = encoder.encodeSCIMObject(user);
+            ServerSideValidator.validateSchemaList(user, schema);
+            //convert the user into requested format, leaving out the attributes which are not returned.
+            String encodedUser = encoder.encodeSCIMObject(user,
+                    ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
             //if there are any http headers to be added in the response header.
             Map<String, String> responseHeaders = new HashMap<String, String>();
             responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
@@ -116,9 +117,8 @@ public class MeResourceManager extends AbstractResourceManager {
             // unless configured returns core-user schema or else returns extended user schema)
             SCIMResourceTypeSchema schema = getSchema(userManager);
             //get the URIs of required attributes which must be given a value
-            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                    CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                    attributes, excludeAttributes);
             //decode the SCIM User object, encoded in the submitted payload.
             User user = (User) decoder.decodeResource(scimObjectString, schema, new User());
             //validate the created user.
@@ -140,11 +140,9 @@ public class MeResourceManager extends AbstractResourceManager {
             Map<String, String> responseHeaders = new HashMap<String, String>();
 
             if (createdUser != null) {
-                //create a deep copy of the user object since we are going to change it.
-                User copiedUser = (User) CopyUtil.deepCopy(createdUser);
-                //need to remove password before returning
-                ServerSideValidator.validateReturnedAttributes(copiedUser, attributes, excludeAttributes);
-                encodedUser = encoder.encodeSCIMObject(copiedUser);
+                //need to leave out the password and the other attributes which are not returned.
+                encodedUser = encoder.encodeSCIMObject(createdUser,
+                        ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
                 //add location header
                 responseHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.USER_ENDPOINT) + "/" + createdUser.getId());
@@ -226,9 +224,8 @@ public class MeResourceManager extends AbstractResourceManager {
             SCIMResourceTypeSchema schema = getSchema(userManager);
 
             //get the URIs of required attributes which must be given a value
-            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                    CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                    attributes, excludeAttributes);
             //decode the SCIM User object, encoded in the submitted payload.
             User user = (User) decoder.decodeResource(scimObjectString, schema, new User());
 
@@ -253,11 +250,9 @@ public class MeResourceManager extends AbstractResourceManager {
             String encodedUser;
             Map<String, String> httpHeaders = new HashMap<String, String>();
             if (updatedUser != null) {
-                //create a deep copy of the user object since we are going to change it.
-                User copiedUser = (User) CopyUtil.deepCopy(updatedUser);
-                //need to remove password before returning
-                ServerSideValidator.validateReturnedAttributes(copiedUser, attributes, excludeAttributes);
-                encodedUser = encoder.encodeSCIMObject(copiedUser);
+                //need to leave out the password and the other attributes which are not returned.
+                encodedUser = encoder.encodeSCIMObject(updatedUser,
+                        ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
                 //add location header
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.USER_ENDPOINT) + "/" + updatedUser.getId());
@@ -306,68 +301,30 @@ public class MeResourceManager extends AbstractResourceManager {
             if (oldUser == null) {
                 throw new NotFoundException("No associated user exits in the user store.");
             }
-            //make a copy of the original user
-            User copyOfOldUser = (User) CopyUtil.deepCopy(oldUser);
-            //make another copy of original user.
-            //this will be used to restore to the original condition if failure occurs.
-            User originalUser = (User) CopyUtil.deepCopy(copyOfOldUser);
-
-            User newUser = null;
+            //apply all the operations to a single working copy of the user. the original user is left untouched
+            //to validate the patched user against, and to restore the original condition if failure occurs.
+            User patchedUser = (User) CopyUtil.deepCopy(oldUser);
+            PatchWorkingCopy<User> userPatch = new PatchWorkingCopy<>(oldUser, patchedUser, schema);
 
             Map<String, String> syncedAttributes = userManager.getSyncedUserAttributes();
             List<String> deletedSyncedAttributes = new ArrayList<>();
             for (PatchOperation operation : opList) {
 
-                if (operation.getOperation().equals(SCIMConstants.OperationalConstants.ADD)) {
-                    if (newUser == null) {
-                        newUser = (User) PatchOperationUtil.doPatchAdd
-                                (operation, getDecoder(), oldUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-
-                    } else {
-                        newUser = (User) PatchOperationUtil.doPatchAdd
-                                (operation, getDecoder(), newUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-
-                    }
-                } else if (operation.getOperation().equals(SCIMConstants.OperationalConstants.REMOVE)) {
-                    try {
-                        if (newUser == null) {
-                            newUser = (User) PatchOperationUtil.doPatchRemove(operation, oldUser, copyOfOldUser,
-                                    schema);
-                            copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-
-                        } else {
-                            newUser = (User) PatchOperationUtil.doPatchRemove(operation, newUser, copyOfOldUser,
-                                    schema);
-                            copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-                        }
-                    } catch (BadRequestException e) {
-                        /*
-                         * This condition is for the migrated users who have enterprise user attributes and system
-                         * schema attributes both mapped to a single local claim. In such cases, if both the scim
-                         * attributes are specified to be removed in the patch request, for the second attribute, there
-                         * will be an error thrown because it is already removed when processing the first attribute.
-                         */
-                        if (!ResponseCodeConstants.INVALID_PATH.equals(e.getScimType()) ||
-                                determineScimAttributes(operation).stream()
-                                        .noneMatch(deletedSyncedAttributes::contains)) {
-                            throw e;
-                        }
-                    }
-                } else if (operation.getOperation().equals(SCIMConstants.OperationalConstants.REPLACE)) {
-                    if (newUser == null) {
-                        newUser = (User) PatchOperationUtil.doPatchReplace
-                                (operation, getDecoder(), oldUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-
-                    } else {
-                        newUser = (User) PatchOperationUtil.doPatchReplace
-                                (operation, getDecoder(), newUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
+                try {
+                    userPatch.apply(operation, getDecoder());
+                } catch (BadRequestException e) {
+                    /*
+                     * This condition is for the migrated users who have enterprise user attributes and system
+                     * schema attributes both mapped to a single local claim. In such cases, if both the scim
+                     * attributes are specified to be removed in the patch request, for the second attribute, there
+                     * will be an error thrown because it is already removed when processing the first attribute.
+                     */
+                    if (!SCIMConstants.OperationalConstants.REMOVE.equals(operation.getOperation()) ||
+                            !ResponseCodeConstants.INVALID_PATH.equals(e.getScimType()) ||
+                            determineScimAttributes(operation).stream()
+                                    .noneMatch(deletedSyncedAttributes::contains)) {
+                        throw e;
                     }
-                } else  {
-                    throw new BadRequestException("Unknown operation.", ResponseCodeConstants.INVALID_SYNTAX);
                 }
 
                 /*
@@ -396,41 +353,37 @@ public class MeResourceManager extends AbstractResourceManager {
 
                     switch (subAttributes.length) {
                         case 1:
-                            newUser.deleteSubAttribute(baseAttributeName, subAttributes[0]);
+                            patchedUser.deleteSubAttribute(baseAttributeName, subAttributes[0]);
                             deletedSyncedAttributes.add(syncedAttribute);
                             break;
                         case 2:
-                            newUser.deleteSubSubAttribute(subAttributes[1], subAttributes[0], baseAttributeName);
+                            patchedUser.deleteSubSubAttribute(subAttributes[1], subAttributes[0], baseAttributeName);
                             deletedSyncedAttributes.add(syncedAttribute);
                             break;
                         default:
                             break;
                     }
 
-                    copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
+                    userPatch.markModified(syncedAttribute);
                     syncedAttributes.remove(syncedAttribute);
                 }
             }
 
             //get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes =
-                    ResourceManagerUtil.getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+                    ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema, attributes, excludeAttributes);
 
 
-            User validatedUser = (User) ServerSideValidator.validateUpdatedSCIMObject
-                    (originalUser, newUser, schema);
-            newUser = userManager.updateMe(validatedUser, requiredAttributes);
+            userPatch.validate();
+            User newUser = userManager.updateMe(patchedUser, requiredAttributes);
 
             //encode the newly created SCIM user object and add id attribute to Location header.
             String encodedUser;
             Map<String, String> httpHeaders = new HashMap<String, String>();
             if (newUser != null) {
-                //create a deep copy of the user object since we are going to change it.
-                User copiedUser = (User) CopyUtil.deepCopy(newUser);
-                //need to remove password before returning
-                ServerSideValidator.validateReturnedAttributes(copiedUser, attributes, excludeAttributes);
-                encodedUser = getEncoder().encodeSCIMObject(copiedUser);
+                //need to leave out the password and the other attributes which are not returned.
+                encodedUser = getEncoder().encodeSCIMObject(newUser,
+                        ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
                 //add location header
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.USER_ENDPOINT) + "/" + newUser.getId());
@@ -17,13 +17,16 @@
  */
 package org.wso2.charon3.core.protocol.endpoints;
 
+import org.json.JSONObject;
 import org.wso2.charon3.core.extensions.RoleManager;
 import org.wso2.charon3.core.extensions.RoleV2Manager;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.protocol.SCIMResponse;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Interface for SCIM resource endpoints.
@@ -52,6 +55,23 @@ public interface ResourceManager {
      */
     SCIMResponse create(String scimObjectString, UserManager userManager, String attributes, String excludeAttributes);
 
+    /**
+     * Create a resource from a payload which has already been parsed into a json object, such as the data of a bulk
+     * operation. Resource endpoints override this to decode the resource straight from the json object. By default
+     * the payload is handed to {@link #create(String, UserManager, String, String)} as text.
+     *
+     * @param scimObject        Payload of the request.
+     * @param userManager       User manager.
+     * @param attributes        Attributes to be returned.
+     * @param excludeAttributes Attributes to be excluded.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse create(JSONObject scimObject, UserManager userManager, String attributes,
+                                String excludeAttributes) {
+
+        return create(scimObject.toString(), userManager, attributes, excludeAttributes);
+    }
+
     /*
      * Method of the ResourceManager that is mapped to HTTP Delete method..
      *
@@ -61,6 +81,64 @@ public interface ResourceManager {
      */
     SCIMResponse delete(String id, UserManager userManager);
 
+    /**
+     * Create several resources, e.g. for consecutive creations of a bulk request. Resource endpoints backed by a
+     * batch operation of the user manager override this. By default the resources are created one by one.
+     *
+     * @param scimObjectStrings Payloads of the resources to be created.
+     * @param userManager       User manager.
+     * @param attributes        Attributes to be returned.
+     * @param excludeAttributes Attributes to be excluded.
+     * @return Response of each resource, in the order of the given payloads.
+     */
+    default List<SCIMResponse> createResources(List<String> scimObjectStrings, UserManager userManager,
+                                               String attributes, String excludeAttributes) {
+
+        List<SCIMResponse> responses = new ArrayList<>(scimObjectStrings.size());
+        for (String scimObjectString : scimObjectStrings) {
+            responses.add(create(scimObjectString, userManager, attributes, excludeAttributes));
+        }
+        return responses;
+    }
+
+    /**
+     * Create several resources from payloads which have already been parsed into json objects, such as the data of
+     * consecutive creations of a bulk request. Resource endpoints backed by a batch operation of the user manager
+     * override this. By default the resources are created one by one.
+     *
+     * @param scimObjects       Payloads of the resources to be created.
+     * @param userManager       User manager.
+     * @param attributes        Attributes to be returned.
+     * @param excludeAttributes Attributes to be excluded.
+     * @return Response of each resource, in the order of the given payloads.
+     */
+    default List<SCIMResponse> createDecodedResources(List<JSONObject> scimObjects, UserManager userManager,
+                                                      String attributes, String excludeAttributes) {
+
+        List<SCIMResponse> responses = new ArrayList<>(scimObjects.size());
+        for (JSONObject scimObject : scimObjects) {
+            responses.add(create(scimObject, userManager, attributes, excludeAttributes));
+        }
+        return responses;
+    }
+
+    /**
+     * Delete several resources. Resource endpoints backed by a batch operation of the user manager override this.
+     * By default the resources are deleted one by one.
+     *
+     * @param ids         Ids of the resources to be deleted.
+     * @param userManager User manager.
+     * @return Response of each resource, in the order of the given ids.
+     */
+    default List<SCIMResponse> deleteResources(List<String> ids, UserManager userManager) {
+
+        List<SCIMResponse> responses = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            responses.add(delete(id, userManager));
+        }
+        return responses;
+    }
+
     /**
      * This method is deprecated
      *
@@ -125,6 +203,24 @@ public interface ResourceManager {
     SCIMResponse updateWithPUT(String existingId, String scimObjectString, UserManager userManager, String attributes,
             String excludeAttributes);
 
+    /**
+     * Update a resource by giving entire attribute set, from a payload which has already been parsed into a json
+     * object. By default the payload is handed to
+     * {@link #updateWithPUT(String, String, UserManager, String, String)} as text.
+     *
+     * @param existingId        Id of the resource.
+     * @param scimObject        Payload of the request.
+     * @param userManager       User manager.
+     * @param attributes        Attributes to be returned.
+     * @param excludeAttributes Attributes to be excluded.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse updateWithPUT(String existingId, JSONObject scimObject, UserManager userManager,
+                                       String attributes, String excludeAttributes) {
+
+        return updateWithPUT(existingId, scimObject.toString(), userManager, attributes, excludeAttributes);
+    }
+
     /*
      * @param existingId
      * @param scimObjectString
@@ -134,6 +230,24 @@ public interface ResourceManager {
     SCIMResponse updateWithPATCH(String existingId, String scimObjectString, UserManager userManager, String attributes,
             String excludeAttributes);
 
+    /**
+     * Update a resource by sequence of operations, from a request which has already been parsed into a json
+     * object. By default the request is handed to
+     * {@link #updateWithPATCH(String, String, UserManager, String, String)} as text.
+     *
+     * @param existingId        Id of the resource.
+     * @param patchRequest      Patch request.
+     * @param userManager       User manager.
+     * @param attributes        Attributes to be returned.
+     * @param excludeAttributes Attributes to be excluded.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse updateWithPATCH(String existingId, JSONObject patchRequest, UserManager userManager,
+                                         String attributes, String excludeAttributes) {
+
+        return updateWithPATCH(existingId, patchRequest.toString(), userManager, attributes, excludeAttributes);
+    }
+
 
     /*
      * Partially updates a resource. This method does not return the updated resource in the response.
@@ -177,6 +291,18 @@ public interface ResourceManager {
                 Collections.emptyMap());
     }
 
+    /**
+     * POST method to create a new role, from a request which has already been parsed into a json object.
+     *
+     * @param postRequest Post request.
+     * @param roleManager Role manager.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse createRole(JSONObject postRequest, RoleManager roleManager) {
+
+        return createRole(postRequest.toString(), roleManager);
+    }
+
     /**
      * DELETE method to delete a specific role.
      *
@@ -235,6 +361,20 @@ public interface ResourceManager {
                 Collections.emptyMap());
     }
 
+    /**
+     * PUT method To update a role by giving entire attributes set, from a request which has already been parsed
+     * into a json object.
+     *
+     * @param id          Resource id.
+     * @param putRequest  Put request.
+     * @param roleManager Role manager.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse updateWithPUTRole(String id, JSONObject putRequest, RoleManager roleManager) {
+
+        return updateWithPUTRole(id, putRequest.toString(), roleManager);
+    }
+
     /**
      * PATCH method to partially updates a role.
      *
@@ -249,6 +389,19 @@ public interface ResourceManager {
                 Collections.emptyMap());
     }
 
+    /**
+     * PATCH method to partially updates a role, from a request which has already been parsed into a json object.
+     *
+     * @param id           Resource id.
+     * @param patchRequest Patch request.
+     * @param roleManager  Role manager.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse updateWithPATCHRole(String id, JSONObject patchRequest, RoleManager roleManager) {
+
+        return updateWithPATCHRole(id, patchRequest.toString(), roleManager);
+    }
+
     // RoleV2 resource management operations.
 
     /**
@@ -279,6 +432,18 @@ public interface ResourceManager {
                 Collections.emptyMap());
     }
 
+    /**
+     * POST method to create a new role, from a request which has already been parsed into a json object.
+     *
+     * @param postRequest Post request.
+     * @param roleManager RoleV2 manager.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse createRole(JSONObject postRequest, RoleV2Manager roleManager) {
+
+        return createRole(postRequest.toString(), roleManager);
+    }
+
     /**
      * DELETE method to delete a specific role in roleV2 model.
      *
@@ -339,6 +504,20 @@ public interface ResourceManager {
                 Collections.emptyMap());
     }
 
+    /**
+     * PUT method To update a role by giving entire attributes set, from a request which has already been parsed
+     * into a json object.
+     *
+     * @param id          Resource id.
+     * @param putRequest  Put request.
+     * @param roleManager RoleV2 manager.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse updateWithPUTRole(String id, JSONObject putRequest, RoleV2Manager roleManager) {
+
+        return updateWithPUTRole(id, putRequest.toString(), roleManager);
+    }
+
     /**
      * PATCH method to partially updates a role.
      *
@@ -353,6 +532,19 @@ public interface ResourceManager {
                 Collections.emptyMap());
     }
 
+    /**
+     * PATCH method to partially updates a role, from a request which has already been parsed into a json object.
+     *
+     * @param id           Resource id.
+     * @param patchRequest Patch request.
+     * @param roleManager  RoleV2 manager.
+     * @return SCIMResponse.
+     */
+    default SCIMResponse updateWithPATCHRole(String id, JSONObject patchRequest, RoleV2Manager roleManager) {
+
+        return updateWithPATCHRole(id, patchRequest.toString(), roleManager);
+    }
+
     /**
      * Handles the POST request to create a new role.
      * This method allows assigning only role metadata during creation; users and groups cannot be assigned.
@@ -52,7 +52,7 @@ import org.wso2.charon3.core.schema.ServerSideValidator;
 import org.wso2.charon3.core.utils.CopyUtil;
 import org.wso2.charon3.core.utils.PatchOperationUtil;
 import org.wso2.charon3.core.utils.ResourceManagerUtil;
-import org.wso2.charon3.core.utils.codeutils.FilterTreeManager;
+import org.wso2.charon3.core.utils.codeutils.FilterTreeCache;
 import org.wso2.charon3.core.utils.codeutils.Node;
 import org.wso2.charon3.core.utils.codeutils.PatchOperation;
 import org.wso2.charon3.core.utils.codeutils.SearchRequest;
@@ -82,7 +82,7 @@ public class RoleResourceManager extends AbstractResourceManager {
             JSONEncoder encoder = getEncoder();
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getRoleResourceSchema();
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
-                    .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), attributes,
+                    .getOnlyRequiredAttributesURIs(schema, attributes,
                             excludeAttributes);
 
             Role role = roleManager.getRole(id, requiredAttributes);
@@ -108,16 +108,29 @@ public class RoleResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse createRole(String postRequest, RoleManager roleManager) {
 
+        return createRoleFromRequest(postRequest, roleManager);
+    }
+
+    @Override
+    public SCIMResponse createRole(JSONObject postRequest, RoleManager roleManager) {
+
+        return createRoleFromRequest(postRequest, roleManager);
+    }
+
+    /*
+     * Create the role given by the request, as json text or as a json object.
+     */
+    private SCIMResponse createRoleFromRequest(Object postRequest, RoleManager roleManager) {
+
         try {
             if (roleManager == null) {
                 String error = "Provided role manager is null.";
                 throw new InternalErrorException(error);
             }
             JSONEncoder encoder = getEncoder();
-            JSONDecoder decoder = getDecoder();
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getRoleResourceSchema();
 
-            Role role = decoder.decodeResource(postRequest, schema, new Role());
+            Role role = decodeResource(postRequest, schema, new Role());
             ServerSideValidator.validateCreatedSCIMObject(role, SCIMSchemaDefinitions.SCIM_ROLE_SCHEMA);
 
             Role createdRole = roleManager.createRole(role);
@@ -226,8 +239,7 @@ public class RoleResourceManager extends AbstractResourceManager {
     private Node buildNode(String filter, SCIMResourceTypeSchema schema) throws BadRequestException, IOException {
 
         if (filter != null) {
-            FilterTreeManager filterTreeManager = new FilterTreeManager(filter, schema);
-            return filterTreeManager.buildTree();
+            return FilterTreeCache.getInstance().getFilterTree(filter, schema);
         }
         return null;
     }
@@ -339,16 +351,29 @@ public class RoleResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse updateWithPUTRole(String id, String putRequest, RoleManager roleManager) {
 
+        return updateRoleWithPUT(id, putRequest, roleManager);
+    }
+
+    @Override
+    public SCIMResponse updateWithPUTRole(String id, JSONObject putRequest, RoleManager roleManager) {
+
+        return updateRoleWithPUT(id, putRequest, roleManager);
+    }
+
+    /*
+     * Update the role by giving entire attributes set, given as json text or as a json object.
+     */
+    private SCIMResponse updateRoleWithPUT(String id, Object putRequest, RoleManager roleManager) {
+
         try {
             if (roleManager == null) {
                 String error = "Provided role manager is null.";
                 throw new InternalErrorException(error);
             }
             JSONEncoder encoder = getEncoder();
-            JSONDecoder decoder = getDecoder();
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getRoleResourceSchema();
             Map<String, Boolean> requestAttributes = ResourceManagerUtil.getAllAttributeURIs(schema);
-            Role role = decoder.decodeResource(putRequest, schema, new Role());
+            Role role = decodeResource(putRequest, schema, new Role());
             Role updatedRole;
 
             // Retrieve the old object.
@@ -371,6 +396,20 @@ public class RoleResourceManager extends AbstractResourceManager {
     @Override
     public SCIMResponse updateWithPATCHRole(String id, String patchRequest, RoleManager roleManager) {
 
+        return updateRoleWithPATCH(id, patchRequest, roleManager);
+    }
+
+    @Override
+    public SCIMResponse updateWithPATCHRole(String id, JSONObject patchRequest, RoleManager roleManager) {
+
+        return updateRoleWithPATCH(id, patchRequest, roleManager);
+    }
+
+    /*
+     * Partially update the role by the operations of the request, given as json text or as a json object.
+     */
+    private SCIMResponse updateRoleWithPATCH(String id, Object patchRequest, RoleManager roleManager) {
+
         try {
             if (roleManager == null) {
                 String error = "Provided role manager handler is null.";
@@ -380,7 +419,7 @@ public class RoleResourceManager extends AbstractResourceManager {
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getRoleResourceSchema();
             Map<String, Boolean> requestAttributes = ResourceManagerUtil.getAllAttributeURIs(schema);
 
-            List<PatchOperation> opList = getDecoder().decodeRequest(patchRequest);
+            List<PatchOperation> opList = decodePatchRequest(patchRequest);
 
             if (!isUpdateAllUsersOperationFound(opList)) {
                 return updateWithPatchOperations(id, opList, roleManager, schema, encoder);
@@ -392,7 +431,7 @@ public class RoleResourceManager extends AbstractResourceManager {
             }
             // Make a copy of original group. This will be used to restore to the original condition if failure occurs.
             Role originalRole = (Role) CopyUtil.deepCopy(oldRole);
-            Role patchedRole = doPatchRole(oldRole, schema, patchRequest);
+            Role patchedRole = doPatchRole(oldRole, schema, opList);
             Role updatedRole = roleManager.updateRole(originalRole, patchedRole);
             return getScimResponse(encoder, updatedRole);
 
@@ -425,7 +464,7 @@ public class RoleResourceManager extends AbstractResourceManager {
         return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedRole, httpHeaders);
     }
 
-    private Role doPatchRole(Role oldRole, SCIMResourceTypeSchema roleSchema, String patchRequest)
+    private Role doPatchRole(Role oldRole, SCIMResourceTypeSchema roleSchema, List<PatchOperation> opList)
             throws CharonException, BadRequestException, NotImplementedException, InternalErrorException {
 
         // Make a copy of the original group.
@@ -433,7 +472,6 @@ public class RoleResourceManager extends AbstractResourceManager {
         Role copyOfOldRole = (Role) CopyUtil.deepCopy(oldRole);
 
         Role patchedRole = null;
-        List<PatchOperation> opList = getDecoder().decodeRequest(patchRequest);
         for (PatchOperation operation : opList) {
             switch (operation.getOperation()) {
             case SCIMConstants.OperationalConstants.ADD:
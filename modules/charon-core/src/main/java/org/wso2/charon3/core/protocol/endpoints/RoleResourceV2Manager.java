@@ -55,7 +55,7 @@ import org.wso2.charon3.core.schema.ServerSideValidator;
 import org.wso2.charon3.core.utils.CopyUtil;
 import org.wso2.charon3.core.utils.PatchOperationUtil;
 import org.wso2.charon3.core.utils.ResourceManagerUtil;
-import org.wso2.charon3.core.utils.codeutils.FilterTreeManager;
+import org.wso2.charon3.core.utils.codeutils.FilterTreeCache;
 import org.wso2.charon3.core.utils.codeutils.Node;
 import org.wso2.charon3.core.utils.codeutils.PatchOperation;
 import org.wso2.charon3.core.utils.codeutils.SearchRequest;
@@ -86,7 +86,7 @@ public class RoleResourceV2Manager extends AbstractResourceManager {
             JSONEncoder encoder = getEncoder();
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getRoleResourceV2Schema();
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
-                    .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), attributes,
+                    .getOnlyRequiredAttributesURIs(schema, attributes,
                             excludeAttributes);
 
             RoleV2 role = roleManager.getRole(id, requiredAttributes);
@@ -109,6 +109,20 @@ public class RoleResourceV2Manager extends AbstractResourceManager {
     @Override
     public SCIMResponse createRole(String postRequest, RoleV2Manager roleManager) {
 
+        return createRoleFromRequest(postRequest, roleManager);
+    }
+
+    @Override
+    public SCIMResponse createRole(JSONObject postRequest, RoleV2Manager roleManager) {
+
+        return createRoleFromRequest(postRequest, roleManager);
+    }
+
+    /*
+     * Create the role given by the request, as json text or as a json object.
+     */
+    private SCIMResponse createRoleFromRequest(Object postRequest, RoleV2Manager roleManager) {
+
         try {
             validateManager(roleManager);
 
@@ -252,6 +266,20 @@ public class RoleResourceV2Manager extends AbstractResourceManager {
     @Override
     public SCIMResponse updateWithPUTRole(String id, String putRequest, RoleV2Manager roleManager) {
 
+        return updateRoleWithPUT(id, putRequest, roleManager);
+    }
+
+    @Override
+    public SCIMResponse updateWithPUTRole(String id, JSONObject putRequest, RoleV2Manager roleManager) {
+
+        return updateRoleWithPUT(id, putRequest, roleManager);
+    }
+
+    /*
+     * Update the role by giving entire attributes set, given as json text or as a json object.
+     */
+    private SCIMResponse updateRoleWithPUT(String id, Object putRequest, RoleV2Manager roleManager) {
+
         try {
             validateManager(roleManager);
             JSONEncoder encoder = getEncoder();
@@ -274,13 +302,27 @@ public class RoleResourceV2Manager extends AbstractResourceManager {
     @Override
     public SCIMResponse updateWithPATCHRole(String id, String patchRequest, RoleV2Manager roleManager) {
 
+        return updateRoleWithPATCH(id, patchRequest, roleManager);
+    }
+
+    @Override
+    public SCIMResponse updateWithPATCHRole(String id, JSONObject patchRequest, RoleV2Manager roleManager) {
+
+        return updateRoleWithPATCH(id, patchRequest, roleManager);
+    }
+
+    /*
+     * Partially update the role by the operations of the request, given as json text or as a json object.
+     */
+    private SCIMResponse updateRoleWithPATCH(String id, Object patchRequest, RoleV2Manager roleManager) {
+
         try {
             validateManager(roleManager);
             JSONEncoder encoder = getEncoder();
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getRoleResourceV2Schema();
             Map<String, Boolean> requestAttributes = ResourceManagerUtil.getAllAttributeURIs(schema);
 
-            List<PatchOperation> opList = getDecoder().decodeRequest(patchRequest);
+            List<PatchOperation> opList = decodePatchRequest(patchRequest);
 
             if (!isUpdateAllUsersOperationFound(opList)) {
                 return updateWithPatchOperations(id, opList, roleManager, schema, encoder);
@@ -289,7 +331,7 @@ public class RoleResourceV2Manager extends AbstractResourceManager {
             RoleV2 oldRole = getOldRole(id, roleManager, requestAttributes);
             // Make a copy of original role. This will be used to restore to the original condition if failure occurs.
             RoleV2 originalRole = (RoleV2) CopyUtil.deepCopy(oldRole);
-            RoleV2 patchedRole = doPatchRole(oldRole, schema, patchRequest);
+            RoleV2 patchedRole = doPatchRole(oldRole, schema, opList);
             RoleV2 updatedRole = roleManager.updateRole(originalRole, patchedRole);
             return getScimResponse(encoder, updatedRole);
         } catch (NotFoundException | BadRequestException | NotImplementedException | CharonException | ConflictException
@@ -358,7 +400,7 @@ public class RoleResourceV2Manager extends AbstractResourceManager {
             RoleV2 oldRole = getOldRole(id, roleManager, requestAttributes);
             // Make a copy of original role. This will be used to restore to the original condition if failure occurs.
             RoleV2 originalRole = (RoleV2) CopyUtil.deepCopy(oldRole);
-            RoleV2 patchedRole = doPatchRole(oldRole, schema, patchRequest);
+            RoleV2 patchedRole = doPatchRole(oldRole, schema, opList);
             RoleV2 updatedRole = roleManager.updateRoleMeta(originalRole, patchedRole);
             return getScimResponse(encoder, updatedRole);
         } catch (NotFoundException | BadRequestException | NotImplementedException | CharonException | ConflictException
@@ -413,7 +455,7 @@ public class RoleResourceV2Manager extends AbstractResourceManager {
             RoleV2 oldRole = getOldRole(id, roleManager, requestAttributes);
             // Make a copy of original role. This will be used to restore to the original condition if failure occurs.
             RoleV2 originalRole = (RoleV2) CopyUtil.deepCopy(oldRole);
-            RoleV2 patchedRole = doPatchRole(oldRole, schema, patchRequest);
+            RoleV2 patchedRole = doPatchRole(oldRole, schema, opList);
             RoleV2 updatedRole = roleManager.updateUsersOfRole(originalRole, patchedRole);
             return getScimResponse(encoder, updatedRole);
         } catch (NotFoundException | BadRequestException | NotImplementedException | CharonException | ConflictException
@@ -468,7 +510,7 @@ public class RoleResourceV2Manager extends AbstractResourceManager {
             RoleV2 oldRole = getOldRole(id, roleManager, requestAttributes);
             // Make a copy of original role. This will be used to restore to the original condition if failure occurs.
             RoleV2 originalRole = (RoleV2) CopyUtil.deepCopy(oldRole);
-            RoleV2 patchedRole = doPatchRole(oldRole, schema, patchRequest);
+            RoleV2 patchedRole = doPatchRole(oldRole, schema, opList);
             RoleV2 updatedRole = roleManager.updateGroupsOfRole(originalRole, patchedRole);
             return getScimResponse(encoder, updatedRole);
         } catch (NotFoundException | BadRequestException | NotImplementedException | CharonException | ConflictException
@@ -572,8 +614,7 @@ public class RoleResourceV2Manager extends AbstractResourceManager {
     private Node buildNode(String filter, SCIMResourceTypeSchema schema) throws BadRequestException, IOException {
 
         if (filter != null) {
-            FilterTreeManager filterTreeManager = new FilterTreeManager(filter, schema);
-            return filterTreeManager.buildTree();
+            return FilterTreeCache.getInstance().getFilterTree(filter, schema);
         }
         return null;
     }
@@ -752,7 +793,7 @@ public class RoleResourceV2Manager extends AbstractResourceManager {
         }
     }
 
-    private RoleV2 doPatchRole(RoleV2 oldRole, SCIMResourceTypeSchema roleSchema, String patchRequest)
+    private RoleV2 doPatchRole(RoleV2 oldRole, SCIMResourceTypeSchema roleSchema, List<PatchOperation> opList)
             throws CharonException, BadRequestException, NotImplementedException, InternalErrorException {
 
         // Make a copy of the original group.
@@ -760,7 +801,6 @@ public class RoleResourceV2Manager extends AbstractResourceManager {
         RoleV2 copyOfOldRole = (RoleV2) CopyUtil.deepCopy(oldRole);
 
         RoleV2 patchedRole = null;
-        List<PatchOperation> opList = getDecoder().decodeRequest(patchRequest);
         for (PatchOperation operation : opList) {
             switch (operation.getOperation()) {
                 case SCIMConstants.OperationalConstants.ADD:
@@ -1030,18 +1070,17 @@ public class RoleResourceV2Manager extends AbstractResourceManager {
     /**
      * Decodes the role from the request.
      *
-     * @param request Request string containing the role information.
+     * @param request Request containing the role information, as json text or as a json object.
      * @param schema  SCIM resource type schema for roles.
      * @return Decoded RoleV2 object.
      * @throws BadRequestException    BadRequestException.
      * @throws CharonException        CharonException.
      * @throws InternalErrorException InternalErrorException.
      */
-    private RoleV2 decodeRole(String request, SCIMResourceTypeSchema schema)
+    private RoleV2 decodeRole(Object request, SCIMResourceTypeSchema schema)
             throws BadRequestException, CharonException, InternalErrorException {
 
-        JSONDecoder decoder = getDecoder();
-        return decoder.decodeResource(request, schema, new RoleV2());
+        return decodeResource(request, schema, new RoleV2());
     }
 
     /**
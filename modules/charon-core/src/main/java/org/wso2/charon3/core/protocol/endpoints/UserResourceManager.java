@@ -18,11 +18,13 @@ package org.wso2.charon3.core.protocol.endpoints;
 
 
 import org.apache.commons.lang3.StringUtils;
+import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.charon3.core.attributes.Attribute;
 import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.encoder.JSONEncoder;
+import org.wso2.charon3.core.exceptions.AbstractCharonException;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.ConflictException;
@@ -30,9 +32,12 @@ import org.wso2.charon3.core.exceptions.ForbiddenException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.exceptions.PreConditionFailedException;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.objects.ListedResource;
 import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.objects.plainobjects.BatchOperationResult;
+import org.wso2.charon3.core.objects.plainobjects.ChangeSet;
 import org.wso2.charon3.core.objects.plainobjects.UsersGetResponse;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.protocol.SCIMResponse;
@@ -41,15 +46,19 @@ import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.charon3.core.schema.ServerSideValidator;
 import org.wso2.charon3.core.utils.CopyUtil;
-import org.wso2.charon3.core.utils.PatchOperationUtil;
+import org.wso2.charon3.core.utils.CursorCodec;
+import org.wso2.charon3.core.utils.ETagUtil;
+import org.wso2.charon3.core.utils.PatchWorkingCopy;
+import org.wso2.charon3.core.utils.ProjectionPlanCache;
 import org.wso2.charon3.core.utils.ResourceManagerUtil;
-import org.wso2.charon3.core.utils.codeutils.FilterTreeManager;
+import org.wso2.charon3.core.utils.codeutils.FilterTreeCache;
 import org.wso2.charon3.core.utils.codeutils.Node;
 import org.wso2.charon3.core.utils.codeutils.PatchOperation;
 import org.wso2.charon3.core.utils.codeutils.SearchRequest;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -81,6 +90,25 @@ public class UserResourceManager extends AbstractResourceManager {
      * @return SCIM response to be returned.
      */
     public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes) {
+
+        return get(id, userManager, attributes, excludeAttributes, null);
+    }
+
+    /**
+     * Retrieves a user resource given an unique user id, unless the client already has its current version. The
+     * entity tag of the user is returned in the {@link SCIMConstants#ETAG_HEADER} header. If it matches the given
+     * If-None-Match header, a 304 Not Modified response is returned without a body. When the user manager keeps
+     * versions of users, this is decided without the user being loaded.
+     *
+     * @param id                Unique id of the user.
+     * @param userManager       SCIM UserManager that handles the persistence layer.
+     * @param attributes        Attributes to return in the response.
+     * @param excludeAttributes Attributes to exclude in the response.
+     * @param ifNoneMatch       Value of the If-None-Match header, or null if it was not given.
+     * @return SCIM response to be returned.
+     */
+    public SCIMResponse get(String id, UserManager userManager, String attributes, String excludeAttributes,
+                            String ifNoneMatch) {
         JSONEncoder encoder = null;
         try {
             //obtain the json encoder
@@ -90,29 +118,33 @@ public class UserResourceManager extends AbstractResourceManager {
             // unless configured returns core-user schema or else returns extended user schema)
             SCIMResourceTypeSchema schema = getSchema(userManager);
 
-            //get the URIs of required attributes which must be given a value
-            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), attributes, excludeAttributes);
-
-            /*API user should pass a usermanager impl to UserResourceEndpoint.
-            retrieve the user from the provided UM handler.*/
-            User user = ((UserManager) userManager).getUser(id, requiredAttributes);
-
-            //if user not found, return an error in relevant format.
-            if (user == null) {
-                String error = "User not found in the user store.";
-                throw new NotFoundException(error);
-            }
-            //perform service provider side validation.
-            ServerSideValidator.validateRetrievedSCIMObject(user, schema, attributes, excludeAttributes);
-            //convert the user into requested format.
-            String encodedUser = encoder.encodeSCIMObject(user);
+            //answer the precondition from the version kept by the user store, if any, without loading the user.
+            String eTag = getStoredETag(id, userManager);
+            if (ETagUtil.isMatch(ifNoneMatch, eTag, true)) {
+                return buildNotModifiedResponse(eTag);
+            }
+
+            //without a stored version the entity tag is computed from the user as a plain GET returns it, so the
+            //user is retrieved once with the attributes of a plain GET along with the requested ones.
+            User user = eTag == null ?
+                    getValidatedUser(id, userManager, schema,
+                            getRequiredAttributesWithETag(schema, attributes, excludeAttributes)) :
+                    getValidatedUser(id, userManager, schema, attributes, excludeAttributes);
+            //convert the user into requested format, leaving out the attributes which are not returned.
+            String encodedUser = encoder.encodeSCIMObject(user,
+                    ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
+            if (eTag == null) {
+                eTag = getComputedETag(user, attributes, excludeAttributes, encodedUser);
+                if (ETagUtil.isMatch(ifNoneMatch, eTag, true)) {
+                    return buildNotModifiedResponse(eTag);
+                }
+            }
             //if there are any http headers to be added in the response header.
             Map<String, String> responseHeaders = new HashMap<String, String>();
             responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
             responseHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                     SCIMConstants.USER_ENDPOINT) + "/" + user.getId());
+            responseHeaders.put(SCIMConstants.ETAG_HEADER, eTag);
             return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedUser, responseHeaders);
 
         } catch (NotFoundException e) {
@@ -135,25 +167,46 @@ public class UserResourceManager extends AbstractResourceManager {
     public SCIMResponse create(String scimObjectString, UserManager userManager, String attributes,
             String excludeAttributes) {
 
+        return createUser(scimObjectString, userManager, attributes, excludeAttributes);
+    }
+
+    /**
+     * Create the user given by a payload which has already been parsed into a json object.
+     *
+     * @param scimObject        Payload of the request.
+     * @param userManager       User manager.
+     * @param attributes        Attributes to be returned.
+     * @param excludeAttributes Attributes to be excluded.
+     * @return SCIM response to be returned.
+     */
+    @Override
+    public SCIMResponse create(JSONObject scimObject, UserManager userManager, String attributes,
+                               String excludeAttributes) {
+
+        return createUser(scimObject, userManager, attributes, excludeAttributes);
+    }
+
+    /*
+     * Create the user given by the payload, as json text or as a json object.
+     */
+    private SCIMResponse createUser(Object payload, UserManager userManager, String attributes,
+                                    String excludeAttributes) {
+
         JSONEncoder encoder = null;
         try {
             //obtain the json encoder
             encoder = getEncoder();
 
-            //obtain the json decoder
-            JSONDecoder decoder = getDecoder();
-
             //obtain the schema corresponding to user
             // unless configured returns core-user schema or else returns extended user schema)
             SCIMResourceTypeSchema schema = getSchema(userManager);
             //decode the SCIM User object, encoded in the submitted payload.
-            User user = (User) decoder.decodeResource(scimObjectString, schema, new User());
+            User user = decodeResource(payload, schema, new User());
             //validate the created user.
             ServerSideValidator.validateCreatedSCIMObject(user, schema);
             //get the URIs of required attributes which must be given a value
-            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                    attributes, excludeAttributes);
             User createdUser;
 
             if (userManager != null) {
@@ -165,35 +218,7 @@ public class UserResourceManager extends AbstractResourceManager {
                 //throw internal server error.
                 throw new InternalErrorException(error);
             }
-            //encode the newly created SCIM user object and add id attribute to Location header.
-            String encodedUser;
-            Map<String, String> responseHeaders = new HashMap<String, String>();
-
-            if (createdUser != null) {
-                // TODO: Until handled properly, assume a not-null user without a user ID is created when a workflow
-                //  engagement in involved with user addition flow. Hence, respond with 202 Accepted. See issue :
-                //  https://github.com/wso2/product-is/issues/10442 for more info.
-                if (StringUtils.isBlank(createdUser.getId())) {
-                    return new SCIMResponse(ResponseCodeConstants.CODE_ACCEPTED, null, null);
-                }
-                //create a deep copy of the user object since we are going to change it.
-                User copiedUser = (User) CopyUtil.deepCopy(createdUser);
-                //need to remove password before returning
-                ServerSideValidator.validateReturnedAttributes(copiedUser, attributes, excludeAttributes);
-                encodedUser = encoder.encodeSCIMObject(copiedUser);
-                //add location header
-                responseHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
-                        SCIMConstants.USER_ENDPOINT) + "/" + createdUser.getId());
-                responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-
-            } else {
-                String error = "Newly created User resource is null.";
-                throw new InternalErrorException(error);
-            }
-
-            //put the uri of the User object in the response header parameter.
-            return new SCIMResponse(ResponseCodeConstants.CODE_CREATED,
-                    encodedUser, responseHeaders);
+            return buildCreatedUserResponse(createdUser, encoder, attributes, excludeAttributes);
 
         } catch (CharonException e) {
             //we have charon exceptions also, instead of having only internal server error exceptions,
@@ -217,6 +242,182 @@ public class UserResourceManager extends AbstractResourceManager {
         }
     }
 
+    /*
+     * Encode the newly created user and add its id to the Location header.
+     */
+    private SCIMResponse buildCreatedUserResponse(User createdUser, JSONEncoder encoder, String attributes,
+                                                  String excludeAttributes)
+            throws CharonException, InternalErrorException, NotFoundException {
+
+        //encode the newly created SCIM user object and add id attribute to Location header.
+        String encodedUser;
+        Map<String, String> responseHeaders = new HashMap<String, String>();
+
+        if (createdUser != null) {
+            // TODO: Until handled properly, assume a not-null user without a user ID is created when a workflow
+            //  engagement in involved with user addition flow. Hence, respond with 202 Accepted. See issue :
+            //  https://github.com/wso2/product-is/issues/10442 for more info.
+            if (StringUtils.isBlank(createdUser.getId())) {
+                return new SCIMResponse(ResponseCodeConstants.CODE_ACCEPTED, null, null);
+            }
+            //need to leave out the password and the other attributes which are not returned.
+            encodedUser = encoder.encodeSCIMObject(createdUser,
+                    ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
+            //add location header
+            responseHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
+                    SCIMConstants.USER_ENDPOINT) + "/" + createdUser.getId());
+            responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+
+        } else {
+            String error = "Newly created User resource is null.";
+            throw new InternalErrorException(error);
+        }
+
+        //put the uri of the User object in the response header parameter.
+        return new SCIMResponse(ResponseCodeConstants.CODE_CREATED,
+                encodedUser, responseHeaders);
+    }
+
+    /**
+     * Create the users given by the payloads through {@link UserManager#createUsers(List, Map)}. Each payload gets
+     * the response {@link #create(String, UserManager, String, String)} would give it. Payloads which can not be
+     * decoded or validated are left out of the batch.
+     *
+     * @param scimObjectStrings Payloads of the users to be created.
+     * @param userManager       User manager.
+     * @param attributes        Attributes to be returned.
+     * @param excludeAttributes Attributes to be excluded.
+     * @return Response of each user, in the order of the given payloads.
+     */
+    @Override
+    public List<SCIMResponse> createResources(List<String> scimObjectStrings, UserManager userManager,
+                                              String attributes, String excludeAttributes) {
+
+        return createUsers(scimObjectStrings, userManager, attributes, excludeAttributes);
+    }
+
+    /**
+     * Create the users given by payloads which have already been parsed into json objects, as
+     * {@link #createResources(List, UserManager, String, String)} does.
+     *
+     * @param scimObjects       Payloads of the users to be created.
+     * @param userManager       User manager.
+     * @param attributes        Attributes to be returned.
+     * @param excludeAttributes Attributes to be excluded.
+     * @return Response of each user, in the order of the given payloads.
+     */
+    @Override
+    public List<SCIMResponse> createDecodedResources(List<JSONObject> scimObjects, UserManager userManager,
+                                                     String attributes, String excludeAttributes) {
+
+        return createUsers(scimObjects, userManager, attributes, excludeAttributes);
+    }
+
+    /*
+     * Create the users given by the payloads, as json text or as json objects.
+     */
+    private List<SCIMResponse> createUsers(List<?> payloads, UserManager userManager, String attributes,
+                                           String excludeAttributes) {
+
+        SCIMResponse[] responses = new SCIMResponse[payloads.size()];
+        try {
+            if (userManager == null) {
+                String error = "Provided user manager handler is null.";
+                //throw internal server error.
+                throw new InternalErrorException(error);
+            }
+            JSONEncoder encoder = getEncoder();
+            SCIMResourceTypeSchema schema = getSchema(userManager);
+            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                    attributes, excludeAttributes);
+
+            List<User> users = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < responses.length; i++) {
+                try {
+                    User user = decodeResource(payloads.get(i), schema, new User());
+                    ServerSideValidator.validateCreatedSCIMObject(user, schema);
+                    users.add(user);
+                    positions.add(i);
+                } catch (CharonException | BadRequestException | InternalErrorException | NotFoundException e) {
+                    responses[i] = encodeCreateException(e);
+                }
+            }
+            if (!users.isEmpty()) {
+                List<BatchOperationResult<User>> results = userManager.createUsers(users, requiredAttributes);
+                if (results == null || results.size() != users.size()) {
+                    throw new CharonException("User manager did not return a result for each created user.");
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    BatchOperationResult<User> result = results.get(i);
+                    try {
+                        if (!result.isSuccessful()) {
+                            throw result.getError();
+                        }
+                        responses[positions.get(i)] = buildCreatedUserResponse(result.getResult(), encoder,
+                                attributes, excludeAttributes);
+                    } catch (AbstractCharonException e) {
+                        responses[positions.get(i)] = encodeCreateException(e);
+                    }
+                }
+            }
+        } catch (CharonException | InternalErrorException | BadRequestException | NotImplementedException e) {
+            // The batch as a whole failed, so does each payload which has no response yet.
+            for (int i = 0; i < responses.length; i++) {
+                if (responses[i] == null) {
+                    responses[i] = encodeCreateException(e);
+                }
+            }
+        }
+        return Arrays.asList(responses);
+    }
+
+    /**
+     * Delete the users with the given ids through {@link UserManager#deleteUsers(List)}.
+     *
+     * @param ids         Ids of the users to be deleted.
+     * @param userManager User manager.
+     * @return Response of each user, in the order of the given ids.
+     */
+    @Override
+    public List<SCIMResponse> deleteResources(List<String> ids, UserManager userManager) {
+
+        List<SCIMResponse> responses = new ArrayList<>(ids.size());
+        try {
+            if (userManager == null) {
+                String error = "Provided user manager handler is null.";
+                //throw internal server error.
+                throw new InternalErrorException(error);
+            }
+            List<BatchOperationResult<Void>> results = userManager.deleteUsers(ids);
+            if (results == null || results.size() != ids.size()) {
+                throw new CharonException("User manager did not return a result for each deleted user.");
+            }
+            for (BatchOperationResult<Void> result : results) {
+                //on successful deletion SCIMResponse only has 204 No Content status code.
+                responses.add(result.isSuccessful() ?
+                        new SCIMResponse(ResponseCodeConstants.CODE_NO_CONTENT, null, null) :
+                        AbstractResourceManager.encodeSCIMException(result.getError()));
+            }
+        } catch (CharonException | InternalErrorException e) {
+            responses.clear();
+            for (int i = 0; i < ids.size(); i++) {
+                responses.add(AbstractResourceManager.encodeSCIMException(e));
+            }
+        }
+        return responses;
+    }
+
+    private static SCIMResponse encodeCreateException(AbstractCharonException e) {
+
+        //we have charon exceptions also, instead of having only internal server error exceptions,
+        //because inside API code throws CharonException.
+        if (e instanceof CharonException && e.getStatus() == -1) {
+            e.setStatus(ResponseCodeConstants.CODE_INTERNAL_ERROR);
+        }
+        return AbstractResourceManager.encodeSCIMException(e);
+    }
+
     /*
      * Method of the ResourceManager that is mapped to HTTP Delete method..
      *
@@ -285,7 +486,7 @@ public class UserResourceManager extends AbstractResourceManager {
 
             // Get the URIs of required attributes which must be given a value.
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
-                    .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), attributes,
+                    .getOnlyRequiredAttributesURIs(schema, attributes,
                             excludeAttributes);
 
             // API user should pass a user manager to UserResourceEndpoint.
@@ -350,7 +551,7 @@ public class UserResourceManager extends AbstractResourceManager {
 
             // Get the URIs of required attributes which must be given a value
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
-                    .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), attributes,
+                    .getOnlyRequiredAttributesURIs(schema, attributes,
                             excludeAttributes);
 
             // API user should pass a user manager to UserResourceEndpoint.
@@ -375,6 +576,74 @@ public class UserResourceManager extends AbstractResourceManager {
         }
     }
 
+    /**
+     * Method to list users at the Users endpoint with cursor pagination. The first page is requested with an empty
+     * cursor, and each page returns the cursor of the next page as nextCursor, until the last page which returns
+     * none. Cursors are only valid for the filter, sorting and domain they were issued for.
+     *
+     * @param userManager       User manager
+     * @param filter            Filter to be executed
+     * @param cursor            Cursor of the page, or an empty string for the first page
+     * @param countInt          Number of required results
+     * @param sortBy            SortBy
+     * @param sortOrder         Sorting order
+     * @param domainName        Domain name
+     * @param attributes        Attributes in the request
+     * @param excludeAttributes Exclude attributes
+     * @return SCIM response
+     */
+    public SCIMResponse listWithCursor(UserManager userManager, String filter, String cursor, Integer countInt,
+            String sortBy, String sortOrder, String domainName, String attributes, String excludeAttributes) {
+
+        try {
+            if (userManager == null) {
+                throw new InternalErrorException("Provided user manager handler is null.");
+            }
+            Integer count = ResourceManagerUtil.processCount(countInt);
+            sortOrder = resolveSortOrder(sortOrder, sortBy);
+            String position = CursorCodec.decode(cursor, filter, sortBy, sortOrder, domainName);
+
+            SCIMResourceTypeSchema schema = getSchema(userManager);
+            Node rootNode = buildNode(filter, schema);
+            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                    attributes, excludeAttributes);
+
+            UsersGetResponse usersGetResponse = userManager.listUsersWithCursor(rootNode, position, count, sortBy,
+                    sortOrder, domainName, requiredAttributes);
+            if (usersGetResponse == null) {
+                usersGetResponse = new UsersGetResponse(0, Collections.emptyList());
+            }
+            if (usersGetResponse.getUsers() == null) {
+                usersGetResponse.setUsers(Collections.emptyList());
+            }
+
+            // A page of a cursor paginated listing has no start index.
+            ListedResource listedResource = new ListedResource();
+            listedResource.setSchema(SCIMConstants.LISTED_RESOURCE_CORE_SCHEMA_URI);
+            listedResource.setTotalResults(usersGetResponse.getTotalUsers());
+            listedResource.setItemsPerPage(usersGetResponse.getUsers().size());
+            if (usersGetResponse.getNextCursor() != null) {
+                listedResource.setNextCursor(CursorCodec.encode(usersGetResponse.getNextCursor(), filter, sortBy,
+                        sortOrder, domainName));
+            }
+            for (User user : usersGetResponse.getUsers()) {
+                listedResource.setResources(user.getAttributeList());
+            }
+
+            Map<String, String> responseHeaders = new HashMap<>();
+            responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+            return SCIMResponse.withBodyWriter(ResponseCodeConstants.CODE_OK, getEncoder().getResponseBodyWriter(
+                    listedResource, ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes)),
+                    responseHeaders);
+        } catch (CharonException | InternalErrorException | BadRequestException | NotImplementedException e) {
+            return AbstractResourceManager.encodeSCIMException(e);
+        } catch (IOException e) {
+            String error = "Error in tokenization of the input filter";
+            CharonException charonException = new CharonException(error);
+            return AbstractResourceManager.encodeSCIMException(charonException);
+        }
+    }
+
     /**
      * Build Node for filtering.
      *
@@ -387,8 +656,7 @@ public class UserResourceManager extends AbstractResourceManager {
     private Node buildNode(String filter, SCIMResourceTypeSchema schema) throws BadRequestException, IOException {
 
         if (filter != null) {
-            FilterTreeManager filterTreeManager = new FilterTreeManager(filter, schema);
-            return filterTreeManager.buildTree();
+            return FilterTreeCache.getInstance().getFilterTree(filter, schema);
         }
         return null;
     }
@@ -442,18 +710,16 @@ public class UserResourceManager extends AbstractResourceManager {
         if (usersGetResponse.getUsers() == null) {
             usersGetResponse.setUsers(Collections.emptyList());
         }
-        for (User user : usersGetResponse.getUsers()) {
-            // Perform service provider side validation.
-            ServerSideValidator.validateRetrievedSCIMObjectInList(user, schema, attributes, excludeAttributes);
-        }
         // Create a listed resource object out of the returned users list.
         ListedResource listedResource = createListedResource(usersGetResponse, startIndex);
-        // Convert the listed resource into specific format.
-        String encodedListedResource = encoder.encodeSCIMObject(listedResource);
         // If there are any http headers to be added in the response header.
         Map<String, String> responseHeaders = new HashMap<String, String>();
         responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-        return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
+        // Convert the listed resource into specific format as the response is written, leaving out the attributes
+        // which are not returned.
+        return SCIMResponse.withBodyWriter(ResponseCodeConstants.CODE_OK, encoder.getResponseBodyWriter(
+                listedResource, ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes)),
+                responseHeaders);
     }
 
     /*
@@ -496,28 +762,24 @@ public class UserResourceManager extends AbstractResourceManager {
             }
 
             //get the URIs of required attributes which must be given a value
-            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), searchRequest.getAttributesAsString(),
-                    searchRequest.getExcludedAttributesAsString());
+            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                    searchRequest.getAttributesAsString(), searchRequest.getExcludedAttributesAsString());
 
             //API user should pass a usermanager usermanager to UserResourceEndpoint.
             if (userManager != null) {
                 UsersGetResponse usersGetResponse = userManager.listUsersWithPost(searchRequest, requiredAttributes);
-                for (User user : usersGetResponse.getUsers()) {
-                    //perform service provider side validation.
-                    ServerSideValidator.validateRetrievedSCIMObjectInList(user, schema,
-                            searchRequest.getAttributesAsString(), searchRequest.getExcludedAttributesAsString());
-                }
                 //create a listed resource object out of the returned users list.
                 ListedResource listedResource = createListedResource(
                         usersGetResponse, searchRequest.getStartIndex());
-                //convert the listed resource into specific format.
-                String encodedListedResource = encoder.encodeSCIMObject(listedResource);
                 //if there are any http headers to be added in the response header.
                 Map<String, String> responseHeaders = new HashMap<String, String>();
                 responseHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
-                return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedListedResource, responseHeaders);
+                //convert the listed resource into specific format as the response is written, leaving out the
+                //attributes which are not returned.
+                return SCIMResponse.withBodyWriter(ResponseCodeConstants.CODE_OK, encoder.getResponseBodyWriter(
+                        listedResource, ProjectionPlanCache.getInstance().getProjectionPlan(
+                                searchRequest.getAttributesAsString(), searchRequest.getExcludedAttributesAsString())),
+                        responseHeaders);
 
             } else {
                 String error = "Provided user manager handler is null.";
@@ -547,33 +809,78 @@ public class UserResourceManager extends AbstractResourceManager {
      */
     public SCIMResponse updateWithPUT(String existingId, String scimObjectString, UserManager userManager,
                                       String attributes, String excludeAttributes) {
+
+        return updateWithPUT(existingId, scimObjectString, userManager, attributes, excludeAttributes, null);
+    }
+
+    /**
+     * Update the user by giving entire attribute set, unless it was changed since the client retrieved it. If the
+     * If-Match header is given and does not match the current entity tag of the user, the update is rejected with
+     * 412 Precondition Failed before the payload is decoded.
+     *
+     * @param existingId        Unique id of the user.
+     * @param scimObjectString  Payload of the request.
+     * @param userManager       SCIM UserManager that handles the persistence layer.
+     * @param attributes        Attributes to return in the response.
+     * @param excludeAttributes Attributes to exclude in the response.
+     * @param ifMatch           Value of the If-Match header, or null if it was not given.
+     * @return SCIM response to be returned.
+     */
+    public SCIMResponse updateWithPUT(String existingId, String scimObjectString, UserManager userManager,
+                                      String attributes, String excludeAttributes, String ifMatch) {
+
+        return updateUserWithPUT(existingId, scimObjectString, userManager, attributes, excludeAttributes, ifMatch);
+    }
+
+    /**
+     * Update the user by giving entire attribute set, from a payload which has already been parsed into a json
+     * object.
+     *
+     * @param existingId        Unique id of the user.
+     * @param scimObject        Payload of the request.
+     * @param userManager       SCIM UserManager that handles the persistence layer.
+     * @param attributes        Attributes to return in the response.
+     * @param excludeAttributes Attributes to exclude in the response.
+     * @return SCIM response to be returned.
+     */
+    @Override
+    public SCIMResponse updateWithPUT(String existingId, JSONObject scimObject, UserManager userManager,
+                                      String attributes, String excludeAttributes) {
+
+        return updateUserWithPUT(existingId, scimObject, userManager, attributes, excludeAttributes, null);
+    }
+
+    /*
+     * Update the user by giving entire attribute set, given as json text or as a json object.
+     */
+    private SCIMResponse updateUserWithPUT(String existingId, Object payload, UserManager userManager,
+                                           String attributes, String excludeAttributes, String ifMatch) {
         //needs to validate the incoming object. eg: id can not be set by the consumer.
 
         JSONEncoder encoder = null;
-        JSONDecoder decoder = null;
 
         try {
             //obtain the json encoder
             encoder = getEncoder();
-            //obtain the json decoder.
-            decoder = getDecoder();
 
             SCIMResourceTypeSchema schema = getSchema(userManager);
+            MatchedVersion matchedVersion = checkIfMatch(existingId, userManager, schema, ifMatch);
 
-            //get the URIs of required attributes which must be given a value
-            Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
-                    (SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+            //get the URIs of required attributes which must be given a value, along with those the entity tag of
+            //the updated user is computed from.
+            Map<String, Boolean> requiredAttributes = getRequiredAttributesWithETag(schema, attributes,
+                    excludeAttributes);
 
             //decode the SCIM User object, encoded in the submitted payload.
-            User user = (User) decoder.decodeResource(scimObjectString, schema, new User());
+            User user = decodeResource(payload, schema, new User());
             User updatedUser = null;
             if (userManager != null) {
-                //retrieve the old object
-                User oldUser = userManager.getUser(existingId, ResourceManagerUtil.getAllAttributeURIs(schema));
+                //retrieve the old object, unless it was already retrieved to check the If-Match header.
+                User oldUser = getExistingUser(existingId, userManager, schema, matchedVersion);
                 if (oldUser != null) {
                     User validatedUser = (User) ServerSideValidator.validateUpdatedSCIMObject(oldUser, user, schema);
-                    updatedUser = userManager.updateUser(validatedUser, requiredAttributes);
+                    updatedUser = updateUser(userManager, validatedUser, requiredAttributes,
+                            matchedVersion.version);
 
                 } else {
                     String error = "No user exists with the given id: " + existingId;
@@ -588,15 +895,15 @@ public class UserResourceManager extends AbstractResourceManager {
             String encodedUser;
             Map<String, String> httpHeaders = new HashMap<String, String>();
             if (updatedUser != null) {
-                //create a deep copy of the user object since we are going to change it.
-                User copiedUser = (User) CopyUtil.deepCopy(updatedUser);
-                //need to remove password before returning
-                ServerSideValidator.validateReturnedAttributes(copiedUser, attributes, excludeAttributes);
-                encodedUser = encoder.encodeSCIMObject(copiedUser);
+                //need to leave out the password and the other attributes which are not returned.
+                encodedUser = encoder.encodeSCIMObject(updatedUser,
+                        ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
                 //add location header
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.USER_ENDPOINT) + "/" + updatedUser.getId());
                 httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                httpHeaders.put(SCIMConstants.ETAG_HEADER, getResponseETag(updatedUser, userManager, attributes,
+                        excludeAttributes, encodedUser));
 
             } else {
                 String error = "Updated User resource is null.";
@@ -607,7 +914,7 @@ public class UserResourceManager extends AbstractResourceManager {
             return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedUser, httpHeaders);
 
         } catch (NotFoundException | ForbiddenException | NotImplementedException | InternalErrorException |
-                 CharonException | BadRequestException | ConflictException e) {
+                 CharonException | BadRequestException | ConflictException | PreConditionFailedException e) {
             return AbstractResourceManager.encodeSCIMException(e);
         }
     }
@@ -625,87 +932,94 @@ public class UserResourceManager extends AbstractResourceManager {
 
     public SCIMResponse updateWithPATCH(String existingId, String scimObjectString, UserManager userManager,
                                         String attributes, String excludeAttributes) {
+
+        return updateWithPATCH(existingId, scimObjectString, userManager, attributes, excludeAttributes, null);
+    }
+
+    /**
+     * Update the user resource by sequence of operations, unless it was changed since the client retrieved it. If
+     * the If-Match header is given and does not match the current entity tag of the user, the update is rejected
+     * with 412 Precondition Failed before the operations are decoded.
+     *
+     * @param existingId        Unique id of the user.
+     * @param scimObjectString  Payload of the request.
+     * @param userManager       SCIM UserManager that handles the persistence layer.
+     * @param attributes        Attributes to return in the response.
+     * @param excludeAttributes Attributes to exclude in the response.
+     * @param ifMatch           Value of the If-Match header, or null if it was not given.
+     * @return SCIM response to be returned.
+     */
+    public SCIMResponse updateWithPATCH(String existingId, String scimObjectString, UserManager userManager,
+                                        String attributes, String excludeAttributes, String ifMatch) {
+
+        return updateUserWithPATCH(existingId, scimObjectString, userManager, attributes, excludeAttributes, ifMatch);
+    }
+
+    /**
+     * Update the user resource by sequence of operations, from a request which has already been parsed into a json
+     * object.
+     *
+     * @param existingId        Unique id of the user.
+     * @param patchRequest      Patch request.
+     * @param userManager       SCIM UserManager that handles the persistence layer.
+     * @param attributes        Attributes to return in the response.
+     * @param excludeAttributes Attributes to exclude in the response.
+     * @return SCIM response to be returned.
+     */
+    @Override
+    public SCIMResponse updateWithPATCH(String existingId, JSONObject patchRequest, UserManager userManager,
+                                        String attributes, String excludeAttributes) {
+
+        return updateUserWithPATCH(existingId, patchRequest, userManager, attributes, excludeAttributes, null);
+    }
+
+    /*
+     * Update the user resource by sequence of operations, given as json text or as a json object.
+     */
+    private SCIMResponse updateUserWithPATCH(String existingId, Object payload, UserManager userManager,
+                                             String attributes, String excludeAttributes, String ifMatch) {
         try {
             if (userManager == null) {
                 String error = "Provided user manager handler is null.";
                 throw new InternalErrorException(error);
             }
-            //obtain the json decoder.
-            JSONDecoder decoder = getDecoder();
+            SCIMResourceTypeSchema schema = getSchema(userManager);
+            MatchedVersion matchedVersion = checkIfMatch(existingId, userManager, schema, ifMatch);
+
             //decode the SCIM User object, encoded in the submitted payload.
-            List<PatchOperation> opList = decoder.decodeRequest(scimObjectString);
+            List<PatchOperation> opList = decodePatchRequest(payload);
 
-            SCIMResourceTypeSchema schema = getSchema(userManager);
             List<String> allSimpleMultiValuedAttributes = ResourceManagerUtil.getAllSimpleMultiValuedAttributes(schema);
 
-            //get the user from the user core
-            User oldUser = userManager.getUser(existingId, ResourceManagerUtil.getAllAttributeURIs(schema));
+            //get the user from the user core, unless it was already retrieved to check the If-Match header.
+            User oldUser = getExistingUser(existingId, userManager, schema, matchedVersion);
             if (oldUser == null) {
                 throw new NotFoundException("No user with the id : " + existingId + " in the user store.");
             }
-            //make a copy of the original user
-            User copyOfOldUser = (User) CopyUtil.deepCopy(oldUser);
-            //make another copy of original user.
-            //this will be used to restore to the original condition if failure occurs.
-            User originalUser = (User) CopyUtil.deepCopy(copyOfOldUser);
-
-            User newUser = null;
+            //apply all the operations to a single working copy of the user. the original user is left untouched
+            //to validate the patched user against, and to restore the original condition if failure occurs.
+            User patchedUser = (User) CopyUtil.deepCopy(oldUser);
+            PatchWorkingCopy<User> userPatch = new PatchWorkingCopy<>(oldUser, patchedUser, schema);
 
             Map<String, String> syncedAttributes = userManager.getSyncedUserAttributes();
             List<String> deletedSyncedAttributes = new ArrayList<>();
             for (PatchOperation operation : opList) {
 
-                if (operation.getOperation().equals(SCIMConstants.OperationalConstants.ADD)) {
-                    if (newUser == null) {
-                        newUser = (User) PatchOperationUtil.doPatchAdd
-                                (operation, getDecoder(), oldUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-
-                    } else {
-                        newUser = (User) PatchOperationUtil.doPatchAdd
-                                (operation, getDecoder(), newUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-
-                    }
-                } else if (operation.getOperation().equals(SCIMConstants.OperationalConstants.REMOVE)) {
-                    try {
-                        if (newUser == null) {
-                            newUser = (User) PatchOperationUtil.doPatchRemove(operation, oldUser, copyOfOldUser,
-                                    schema);
-                            copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-
-                        } else {
-                            newUser = (User) PatchOperationUtil.doPatchRemove(operation, newUser, copyOfOldUser,
-                                    schema);
-                            copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-                        }
-                    } catch (BadRequestException e) {
-                        /*
-                         * This condition is for the migrated users who have enterprise user attributes and system
-                         * schema attributes both mapped to a single local claim. In such cases, if both the scim
-                         * attributes are specified to be removed in the patch request, for the second attribute, there
-                         * will be an error thrown because it is already removed when processing the first attribute.
-                         */
-                        if (!ResponseCodeConstants.INVALID_PATH.equals(e.getScimType()) ||
-                                determineScimAttributes(operation).stream()
-                                        .noneMatch(deletedSyncedAttributes::contains)) {
-                            throw e;
-                        }
-                    }
-
-                } else if (operation.getOperation().equals(SCIMConstants.OperationalConstants.REPLACE)) {
-                    if (newUser == null) {
-                        newUser = (User) PatchOperationUtil.doPatchReplace
-                                (operation, getDecoder(), oldUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
-
-                    } else {
-                        newUser = (User) PatchOperationUtil.doPatchReplace
-                                (operation, getDecoder(), newUser, copyOfOldUser, schema);
-                        copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
+                try {
+                    userPatch.apply(operation, getDecoder());
+                } catch (BadRequestException e) {
+                    /*
+                     * This condition is for the migrated users who have enterprise user attributes and system
+                     * schema attributes both mapped to a single local claim. In such cases, if both the scim
+                     * attributes are specified to be removed in the patch request, for the second attribute, there
+                     * will be an error thrown because it is already removed when processing the first attribute.
+                     */
+                    if (!SCIMConstants.OperationalConstants.REMOVE.equals(operation.getOperation()) ||
+                            !ResponseCodeConstants.INVALID_PATH.equals(e.getScimType()) ||
+                            determineScimAttributes(operation).stream()
+                                    .noneMatch(deletedSyncedAttributes::contains)) {
+                        throw e;
                     }
-                } else {
-                    throw new BadRequestException("Unknown operation.", ResponseCodeConstants.INVALID_SYNTAX);
                 }
 
                 /*
@@ -734,49 +1048,52 @@ public class UserResourceManager extends AbstractResourceManager {
 
                     switch (subAttributes.length) {
                         case 1:
-                            newUser.deleteSubAttribute(baseAttributeName, subAttributes[0]);
+                            patchedUser.deleteSubAttribute(baseAttributeName, subAttributes[0]);
                             deletedSyncedAttributes.add(syncedAttribute);
                             break;
                         case 2:
-                            newUser.deleteSubSubAttribute(subAttributes[1], subAttributes[0], baseAttributeName);
+                            patchedUser.deleteSubSubAttribute(subAttributes[1], subAttributes[0], baseAttributeName);
                             deletedSyncedAttributes.add(syncedAttribute);
                             break;
                         default:
                             break;
                     }
 
-                    copyOfOldUser = (User) CopyUtil.deepCopy(newUser);
+                    userPatch.markModified(syncedAttribute);
                     syncedAttributes.remove(syncedAttribute);
                 }
             }
 
-            //get the URIs of required attributes which must be given a value
-            Map<String, Boolean> requiredAttributes =
-                    ResourceManagerUtil.getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema)
-                            CopyUtil.deepCopy(schema), attributes, excludeAttributes);
+            //get the URIs of required attributes which must be given a value, along with those the entity tag of
+            //the updated user is computed from.
+            Map<String, Boolean> requiredAttributes = getRequiredAttributesWithETag(schema, attributes,
+                    excludeAttributes);
 
 
-            User validatedUser = (User) ServerSideValidator.validateUpdatedSCIMObject
-                    (originalUser, newUser, schema);
+            userPatch.validate();
+            User newUser;
             try {
-                newUser = userManager.updateUser(validatedUser, requiredAttributes, allSimpleMultiValuedAttributes);
+                //let the user store write only the changed attributes, if it supports that.
+                newUser = patchUser(userManager, existingId, userPatch.getChangeSet(), patchedUser, requiredAttributes,
+                        matchedVersion.version);
             } catch (NotImplementedException e) {
-                newUser = userManager.updateUser(validatedUser, requiredAttributes);
+                newUser = updatePatchedUser(userManager, patchedUser, requiredAttributes,
+                        allSimpleMultiValuedAttributes, matchedVersion.version);
             }
 
             //encode the newly created SCIM user object and add id attribute to Location header.
             String encodedUser;
             Map<String, String> httpHeaders = new HashMap<String, String>();
             if (newUser != null) {
-                //create a deep copy of the user object since we are going to change it.
-                User copiedUser = (User) CopyUtil.deepCopy(newUser);
-                //need to remove password before returning
-                ServerSideValidator.validateReturnedAttributes(copiedUser, attributes, excludeAttributes);
-                encodedUser = getEncoder().encodeSCIMObject(copiedUser);
+                //need to leave out the password and the other attributes which are not returned.
+                encodedUser = getEncoder().encodeSCIMObject(newUser,
+                        ProjectionPlanCache.getInstance().getProjectionPlan(attributes, excludeAttributes));
                 //add location header
                 httpHeaders.put(SCIMConstants.LOCATION_HEADER, getResourceEndpointURL(
                         SCIMConstants.USER_ENDPOINT) + "/" + newUser.getId());
                 httpHeaders.put(SCIMConstants.CONTENT_TYPE_HEADER, SCIMConstants.APPLICATION_JSON);
+                httpHeaders.put(SCIMConstants.ETAG_HEADER, getResponseETag(newUser, userManager, attributes,
+                        excludeAttributes, encodedUser));
 
             } else {
                 String error = "Updated User resource is null.";
@@ -785,7 +1102,7 @@ public class UserResourceManager extends AbstractResourceManager {
             //put the URI of the User object in the response header parameter.
             return new SCIMResponse(ResponseCodeConstants.CODE_OK, encodedUser, httpHeaders);
         } catch (NotFoundException | BadRequestException | NotImplementedException | CharonException |
-                 InternalErrorException | ForbiddenException | ConflictException e) {
+                 InternalErrorException | ForbiddenException | ConflictException | PreConditionFailedException e) {
             return AbstractResourceManager.encodeSCIMException(e);
         } catch (RuntimeException e) {
             CharonException e1 = new CharonException("Error in performing the patch operation on user resource.", e);
@@ -816,6 +1133,202 @@ public class UserResourceManager extends AbstractResourceManager {
         return listedResource;
     }
 
+    /*
+     * Update the user, conditionally on the expected version if there is one and the user store supports that.
+     */
+    private User updateUser(UserManager userManager, User validatedUser, Map<String, Boolean> requiredAttributes,
+                            String expectedVersion)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException,
+            ForbiddenException, ConflictException, PreConditionFailedException {
+
+        if (expectedVersion != null) {
+            try {
+                return userManager.updateUserWithVersion(validatedUser, requiredAttributes, expectedVersion);
+            } catch (NotImplementedException e) {
+                //the version was checked before the update, which is the best the user store allows.
+            }
+        }
+        return userManager.updateUser(validatedUser, requiredAttributes);
+    }
+
+    /*
+     * Apply the change set of a patch, conditionally on the expected version if there is one and the user store
+     * supports that.
+     */
+    private User patchUser(UserManager userManager, String id, ChangeSet changeSet, User patchedUser,
+                           Map<String, Boolean> requiredAttributes, String expectedVersion)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException,
+            ForbiddenException, ConflictException, PreConditionFailedException {
+
+        if (expectedVersion != null) {
+            try {
+                return userManager.patchUserWithVersion(id, changeSet, patchedUser, requiredAttributes,
+                        expectedVersion);
+            } catch (NotImplementedException e) {
+                //the version was checked before the patch, which is the best the user store allows.
+            }
+        }
+        return userManager.patchUser(id, changeSet, patchedUser, requiredAttributes);
+    }
+
+    /*
+     * Replace the stored user with the patched user, for user stores which cannot apply a change set. The update is
+     * conditional on the expected version if there is one and the user store supports that.
+     */
+    private User updatePatchedUser(UserManager userManager, User patchedUser, Map<String, Boolean> requiredAttributes,
+                                   List<String> allSimpleMultiValuedAttributes, String expectedVersion)
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException,
+            ForbiddenException, ConflictException, PreConditionFailedException {
+
+        if (expectedVersion != null) {
+            try {
+                return userManager.updateUserWithVersion(patchedUser, requiredAttributes, expectedVersion);
+            } catch (NotImplementedException e) {
+                //the version was checked before the update, which is the best the user store allows.
+            }
+        }
+        try {
+            return userManager.updateUser(patchedUser, requiredAttributes, allSimpleMultiValuedAttributes);
+        } catch (NotImplementedException e) {
+            return userManager.updateUser(patchedUser, requiredAttributes);
+        }
+    }
+
+    /*
+     * Retrieve the user with the attributes needed for the given projection and validate it against the schema.
+     */
+    private User getValidatedUser(String id, UserManager userManager, SCIMResourceTypeSchema schema,
+                                  String attributes, String excludeAttributes)
+            throws CharonException, BadRequestException, NotFoundException {
+
+        //get the URIs of required attributes which must be given a value
+        return getValidatedUser(id, userManager, schema, ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                attributes, excludeAttributes));
+    }
+
+    /*
+     * Retrieve the user with the given required attributes and validate it against the schema.
+     */
+    private User getValidatedUser(String id, UserManager userManager, SCIMResourceTypeSchema schema,
+                                  Map<String, Boolean> requiredAttributes)
+            throws CharonException, BadRequestException, NotFoundException {
+
+        /*API user should pass a usermanager impl to UserResourceEndpoint.
+        retrieve the user from the provided UM handler.*/
+        User user = userManager.getUser(id, requiredAttributes);
+
+        //if user not found, return an error in relevant format.
+        if (user == null) {
+            String error = "User not found in the user store.";
+            throw new NotFoundException(error);
+        }
+        //perform service provider side validation.
+        ServerSideValidator.validateSchemaList(user, schema);
+        return user;
+    }
+
+    /*
+     * Entity tag of the version of the user kept by the user store, or null if the user store does not keep one.
+     */
+    private String getStoredETag(String id, UserManager userManager)
+            throws CharonException, BadRequestException, NotFoundException {
+
+        try {
+            return ETagUtil.fromVersion(userManager.getUserVersion(id));
+        } catch (NotImplementedException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Reject the update if the given If-Match header does not match the current entity tag of the user. Without a
+     * stored version, the entity tag is computed from the user, which is retrieved with all its attributes so that
+     * the update can use it as the old user.
+     */
+    private MatchedVersion checkIfMatch(String id, UserManager userManager, SCIMResourceTypeSchema schema,
+                                        String ifMatch)
+            throws CharonException, BadRequestException, NotFoundException, PreConditionFailedException {
+
+        if (StringUtils.isBlank(ifMatch) || userManager == null) {
+            return MatchedVersion.NONE;
+        }
+        String version;
+        try {
+            version = userManager.getUserVersion(id);
+        } catch (NotImplementedException e) {
+            version = null;
+        }
+        String eTag = ETagUtil.fromVersion(version);
+        User user = null;
+        if (eTag == null) {
+            user = getValidatedUser(id, userManager, schema, ResourceManagerUtil.getAllAttributeURIs(schema));
+            eTag = getComputedETag(user, null, null, null);
+        }
+        if (!ETagUtil.isMatch(ifMatch, eTag, false)) {
+            throw new PreConditionFailedException();
+        }
+        return new MatchedVersion(version, user);
+    }
+
+    /*
+     * The user as stored before an update, with all its attributes. It is only retrieved if the If-Match check did
+     * not retrieve it already.
+     */
+    private static User getExistingUser(String id, UserManager userManager, SCIMResourceTypeSchema schema,
+                                        MatchedVersion matchedVersion)
+            throws CharonException, BadRequestException, NotFoundException {
+
+        if (matchedVersion.user != null) {
+            return matchedVersion.user;
+        }
+        return userManager.getUser(id, ResourceManagerUtil.getAllAttributeURIs(schema));
+    }
+
+    private String getResponseETag(User user, UserManager userManager, String attributes, String excludeAttributes,
+                                   String encodedUser) throws CharonException, BadRequestException, NotFoundException {
+
+        String eTag = getStoredETag(user.getId(), userManager);
+        return eTag == null ? getComputedETag(user, attributes, excludeAttributes, encodedUser) : eTag;
+    }
+
+    /*
+     * Entity tag of a user whose store keeps no versions. It is computed from the user as a plain GET returns it,
+     * whatever attributes were requested, since it identifies the version of the user rather than the returned
+     * representation. The user must have been retrieved with at least the attributes of a plain GET.
+     */
+    private String getComputedETag(User user, String attributes, String excludeAttributes, String encodedUser)
+            throws CharonException {
+
+        if (encodedUser != null && StringUtils.isBlank(attributes) && StringUtils.isBlank(excludeAttributes)) {
+            return ETagUtil.fromBody(encodedUser);
+        }
+        return ETagUtil.fromBody(getEncoder().encodeSCIMObject(user,
+                ProjectionPlanCache.getInstance().getProjectionPlan(null, null)));
+    }
+
+    /*
+     * URIs of the required attributes of the given projection, along with those of a plain GET of the user, from
+     * which the entity tag of the user is computed when its store keeps no versions.
+     */
+    private static Map<String, Boolean> getRequiredAttributesWithETag(SCIMResourceTypeSchema schema,
+                                                                      String attributes, String excludeAttributes)
+            throws CharonException {
+
+        Map<String, Boolean> requiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema,
+                attributes, excludeAttributes);
+        if (StringUtils.isNotBlank(attributes) || StringUtils.isNotBlank(excludeAttributes)) {
+            requiredAttributes.putAll(ResourceManagerUtil.getOnlyRequiredAttributesURIs(schema, null, null));
+        }
+        return requiredAttributes;
+    }
+
+    private static SCIMResponse buildNotModifiedResponse(String eTag) {
+
+        Map<String, String> responseHeaders = new HashMap<>();
+        responseHeaders.put(SCIMConstants.ETAG_HEADER, eTag);
+        return new SCIMResponse(ResponseCodeConstants.CODE_NOT_MODIFIED, null, responseHeaders);
+    }
+
     private SCIMResourceTypeSchema getSchema(UserManager userManager) throws BadRequestException,
             NotImplementedException, CharonException {
 
@@ -829,4 +1342,22 @@ public class UserResourceManager extends AbstractResourceManager {
         }
         return schema;
     }
+
+    /*
+     * Outcome of the If-Match check of an update: the matched version, which the user store checks again together
+     * with the update, and the current user if it was retrieved to compute the entity tag. Either may be null.
+     */
+    private static final class MatchedVersion {
+
+        private static final MatchedVersion NONE = new MatchedVersion(null, null);
+
+        private final String version;
+        private final User user;
+
+        private MatchedVersion(String version, User user) {
+
+            this.version = version;
+            this.user = user;
+        }
+    }
 }
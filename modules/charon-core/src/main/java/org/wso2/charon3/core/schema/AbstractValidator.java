@@ -31,9 +31,9 @@ import org.wso2.charon3.core.objects.AbstractSCIMObject;
 import org.wso2.charon3.core.objects.Group;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.utils.CopyUtil;
+import org.wso2.charon3.core.utils.ProjectionPlanCache;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -57,11 +57,29 @@ public abstract class AbstractValidator {
     public static void validateSCIMObjectForRequiredAttributes(AbstractSCIMObject scimObject,
                                                                ResourceTypeSchema resourceSchema)
             throws BadRequestException, CharonException {
+
+        validateSCIMObjectForRequiredAttributes(scimObject, resourceSchema, null);
+    }
+
+    /*
+     * Validate SCIMObject for required attributes, only checking the given top level attributes of the object.
+     *
+     * @param scimObject
+     * @param resourceSchema
+     * @param attributeNames names of the attributes to be checked, or null to check every attribute.
+     */
+    protected static void validateSCIMObjectForRequiredAttributes(AbstractSCIMObject scimObject,
+                                                                  ResourceTypeSchema resourceSchema,
+                                                                  Set<String> attributeNames)
+            throws BadRequestException, CharonException {
         //get attributes from schema.
         List<AttributeSchema> attributeSchemaList = resourceSchema.getAttributesList();
         //get attribute list from scim object.
         Map<String, Attribute> attributeList = scimObject.getAttributeList();
         for (AttributeSchema attributeSchema : attributeSchemaList) {
+            if (attributeNames != null && !attributeNames.contains(attributeSchema.getName())) {
+                continue;
+            }
             //check for required attributes.
             if (attributeSchema.getRequired()) {
                 if (!attributeList.containsKey(attributeSchema.getName())) {
@@ -427,503 +445,43 @@ public abstract class AbstractValidator {
      */
     public static void validateReturnedAttributes(AbstractSCIMObject scimObject, String requestedAttributes,
                                                   String requestedExcludingAttributes) throws CharonException {
-        List<String> requestedAttributesList = null;
-        List<String> requestedExcludingAttributesList = null;
 
-        if (requestedAttributes != null) {
-            //make a list from the comma separated requestedAttributes
-            requestedAttributesList = Arrays.asList(requestedAttributes.split(","));
-        }
-        if (requestedExcludingAttributes != null) {
-            //make a list from the comma separated requestedExcludingAttributes
-            requestedExcludingAttributesList = Arrays.asList(requestedExcludingAttributes.split(","));
-        }
-        Map<String, Attribute> attributeList = scimObject.getAttributeList();
-        ArrayList<Attribute> attributeTemporyList = new ArrayList<Attribute>();
-        for (Attribute attribute : attributeList.values()) {
-            attributeTemporyList.add(attribute);
-        }
-        for (Attribute attribute : attributeTemporyList) {
-            //check for never/request attributes.
-            if (attribute.getReturned().equals(SCIMDefinitions.Returned.NEVER)) {
-                scimObject.deleteAttribute(attribute.getName());
-            }
-            //if the returned property is request, need to check whether is it specifically requested by the user.
-            // If so return it.
-            if (requestedAttributes == null && requestedExcludingAttributes == null) {
-                if (attribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                    scimObject.deleteAttribute(attribute.getName());
-                }
-            } else {
-                //A request should only contains either attributes or exclude attribute params. Not both
-                if (requestedAttributes != null) {
-                    //if attributes are set, delete all the request and default attributes
-                    //and add only the requested attributes
-                    if ((attribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
-                            || attribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                            && (requestedAttributesList.stream().noneMatch(attribute.getName()::equalsIgnoreCase)
-                            && !isSubAttributeExistsInList(requestedAttributesList, attribute))) {
-                        scimObject.deleteAttribute(attribute.getName());
-                    }
-                } else if (requestedExcludingAttributes != null) {
-                    //removing attributes which has returned as request. This is because no request is made
-                    if (attribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                        scimObject.deleteAttribute(attribute.getName());
-                    }
-                    //if exclude attribute is set, set of exclude attributes need to be
-                    // removed from the default set of attributes
-                    if ((attribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                            && requestedExcludingAttributesList.
-                            stream().anyMatch(attribute.getName()::equalsIgnoreCase)) {
-                        scimObject.deleteAttribute(attribute.getName());
-                    }
-                }
-            }
-            // If the Returned type ALWAYS : no need to check and it will be not affected by
-            // requestedExcludingAttributes parameter
-
-            //check the same for sub attributes
-            if (attribute.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
-                if (attribute.getMultiValued()) {
-                    List<Attribute> valuesList = ((MultiValuedAttribute) attribute).getAttributeValues();
-
-                    for (Attribute subAttribute : valuesList) {
-                        Map<String, Attribute> valuesSubAttributeList = ((ComplexAttribute) subAttribute)
-                                .getSubAttributesList();
-                        ArrayList<Attribute> valuesSubAttributeTemporyList = new ArrayList<Attribute>();
-                        //as we are deleting the attributes form the list, list size will change,
-                        //hence need to traverse on a copy
-                        for (Attribute subSimpleAttribute : valuesSubAttributeList.values()) {
-                            valuesSubAttributeTemporyList.add(subSimpleAttribute);
-                        }
-                        for (Attribute subSimpleAttribute : valuesSubAttributeTemporyList) {
-                            removeValuesSubAttributeOnReturn(subSimpleAttribute, subAttribute, attribute,
-                                    requestedAttributes, requestedExcludingAttributes, requestedAttributesList,
-                                    requestedExcludingAttributesList, scimObject);
-                        }
-                    }
-                } else {
-                    Map<String, Attribute> subAttributeList = ((ComplexAttribute) attribute).getSubAttributesList();
-                    ArrayList<Attribute> subAttributeTemporyList = new ArrayList<Attribute>();
-                    for (Attribute subAttribute : subAttributeList.values()) {
-                        subAttributeTemporyList.add(subAttribute);
-                    }
-                    for (Attribute subAttribute : subAttributeTemporyList) {
-                        if (subAttribute.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
-                            //this applicable for extension schema only
-                            if (subAttribute.getMultiValued()) {
-
-                                List<Attribute> valuesList = ((MultiValuedAttribute) subAttribute).getAttributeValues();
-
-                                for (Attribute subSubValue : valuesList) {
-                                    Map<String, Attribute> subValuesSubAttributeList = ((ComplexAttribute)
-                                            subSubValue).getSubAttributesList();
-                                    ArrayList<Attribute> valuesSubSubAttributeTemporyList = new ArrayList<Attribute>();
-                                    //as we are deleting the attributes form the list, list size will change,
-                                    //hence need to traverse on a copy
-                                    for (Attribute subSubSimpleAttribute : subValuesSubAttributeList.values()) {
-                                        valuesSubSubAttributeTemporyList.add(subSubSimpleAttribute);
-                                    }
-                                    for (Attribute subSubSimpleAttribute : valuesSubSubAttributeTemporyList) {
-                                        removeValuesSubSubAttributeOnReturn(attribute, subAttribute, subSubValue,
-                                                subSubSimpleAttribute,
-                                                requestedAttributes, requestedExcludingAttributes,
-                                                requestedAttributesList, requestedExcludingAttributesList, scimObject);
-                                    }
-                                }
-                            } else {
-                                ArrayList<Attribute> subSubAttributeTemporyList = new ArrayList<Attribute>();
-                                Map<String, Attribute> subSubAttributeList = ((ComplexAttribute) subAttribute)
-                                        .getSubAttributesList();
-                                for (Attribute subSubAttribute : subSubAttributeList.values()) {
-                                    subSubAttributeTemporyList.add(subSubAttribute);
-                                }
-                                for (Attribute subSubAttribute : subSubAttributeTemporyList) {
-                                    removeSubSubAttributesOnReturn(attribute, subAttribute, subSubAttribute,
-                                            requestedAttributes, requestedExcludingAttributes,
-                                            requestedAttributesList, requestedExcludingAttributesList, scimObject);
-                                }
-                            }
-                            removeSubAttributesOnReturn(subAttribute, attribute, requestedAttributes,
-                                    requestedExcludingAttributes,
-                                    requestedAttributesList, requestedExcludingAttributesList, scimObject);
-                        } else {
-                            removeSubAttributesOnReturn(subAttribute, attribute, requestedAttributes,
-                                    requestedExcludingAttributes,
-                                    requestedAttributesList, requestedExcludingAttributesList, scimObject);
-                        }
-                    }
-                }
-            }
-        }
+        ProjectionPlanCache.getInstance().getProjectionPlan(requestedAttributes, requestedExcludingAttributes)
+                .prune(scimObject);
     }
 
     /*
-     * This method is to remove any defined and requested sub attributes and include requested sub attributes
-     * from complex attributes.
-     *
-     * @param subAttribute
-     * @param attribute
-     * @param requestedAttributes
-     * @param requestedExcludingAttributes
-     * @param requestedAttributesList
-     * @param requestedExcludingAttributesList
-     * @param scimObject
-     */
-
-    private static void removeSubAttributesOnReturn(Attribute subAttribute, Attribute attribute, String
-            requestedAttributes,
-                                                    String requestedExcludingAttributes, List<String>
-                                                            requestedAttributesList,
-                                                    List<String> requestedExcludingAttributesList, AbstractSCIMObject
-                                                            scimObject) {
-        //check for never/request attributes.
-        if (subAttribute.getReturned().equals(SCIMDefinitions.Returned.NEVER)) {
-            scimObject.deleteSubAttribute(attribute.getName(), subAttribute.getName());
-        }
-        //if the returned property is request, need to check whether is it specifically requested by the user.
-        // If so return it.
-        if (requestedAttributes == null && requestedExcludingAttributes == null) {
-            if (subAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                scimObject.deleteSubAttribute(attribute.getName(), subAttribute.getName());
-            }
-        } else {
-            //A request should only contains either attributes or exclude attribute params. Not the both
-            if (requestedAttributes != null) {
-                //if attributes are set, delete all the request and default attributes
-                // and add only the requested attributes
-                if ((subAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
-                        || subAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                        && (requestedAttributesList.stream().noneMatch((attribute.getName() + "."
-                        + subAttribute.getName())::equalsIgnoreCase) &&
-                        requestedAttributesList.stream().noneMatch(attribute.getName()::equalsIgnoreCase) &&
-                        !isSubSubAttributeExistsInList(requestedAttributesList, attribute, subAttribute))) {
-                    scimObject.deleteSubAttribute(attribute.getName(), subAttribute.getName());
-                }
-            } else if (requestedExcludingAttributes != null) {
-                //removing attributes which has returned as request. This is because no request is made
-                if (subAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                    scimObject.deleteSubAttribute(attribute.getName(), subAttribute.getName());
-                }
-                //if exclude attribute is set, set of exclude attributes need to be
-                // removed from the default set of attributes
-                if ((subAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                        && requestedExcludingAttributesList.stream().anyMatch((attribute.getName() + "."
-                        + subAttribute.getName())::equalsIgnoreCase)) {
-                    scimObject.deleteSubAttribute(attribute.getName(), subAttribute.getName());
-                }
-            }
-        }
-    }
-
-    /*
-     * This method is to remove any defined and requested sub attributes and include requested sub attributes
-     * from complex attributes.
-     * <p>
-     * This is applicable for extension schema only
+     * check for read only and immutable attributes which has been modified on update request
      *
-     * @param attribute
-     * @param subAttribute
-     * @param subSubAttribute
-     * @param requestedAttributes
-     * @param requestedExcludingAttributes
-     * @param requestedAttributesList
-     * @param requestedExcludingAttributesList
-     * @param scimObject
+     * @param oldObject
+     * @param newObject
+     * @param resourceSchema
+     * @return
+     * @throws BadRequestException
      * @throws CharonException
      */
-    private static void removeSubSubAttributesOnReturn(Attribute attribute, Attribute subAttribute, Attribute
-            subSubAttribute, String requestedAttributes,
-                                                       String requestedExcludingAttributes, List<String>
-                                                               requestedAttributesList,
-                                                       List<String> requestedExcludingAttributesList,
-                                                       AbstractSCIMObject scimObject) throws CharonException {
-        //check for never/request attributes.
-        if (subSubAttribute.getReturned().equals(SCIMDefinitions.Returned.NEVER)) {
-            scimObject.deleteSubSubAttribute(subSubAttribute.getName(), subAttribute.getName(), attribute.getName());
-        }
-        //if the returned property is request, need to check whether is it specifically requested by the user.
-        // If so return it.
-        if (requestedAttributes == null && requestedExcludingAttributes == null) {
-            if (subSubAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                scimObject.deleteSubSubAttribute(subSubAttribute.getName(), subAttribute.getName(), attribute.getName
-                        ());
-            }
-        } else {
-            //A request should only contains either attributes or exclude attribute params. Not the both
-            if (requestedAttributes != null) {
-                //if attributes are set, delete all the request and default attributes
-                // and add only the requested attributes
-                if ((subSubAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
-                        || subSubAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                        && (requestedAttributesList.stream().noneMatch((attribute.getName() + "."
-                        + subAttribute.getName() + "." + subSubAttribute.getName())::equalsIgnoreCase) &&
-                        requestedAttributesList.stream().noneMatch(attribute.getName()::equalsIgnoreCase) &&
-                        requestedAttributesList.stream().noneMatch((attribute.getName() + "." + subAttribute.getName())
-                                ::equalsIgnoreCase) &&
-                        !subSubAttribute.getReturned().equals(SCIMDefinitions.Returned.ALWAYS))) {
-                    scimObject.deleteSubSubAttribute(subSubAttribute.getName(), subAttribute.getName(), attribute
-                            .getName());
-                }
-            } else if (requestedExcludingAttributes != null) {
-                //removing attributes which has returned as request. This is because no request is made
-                if (subSubAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                    scimObject.deleteSubSubAttribute(subSubAttribute.getName(), subAttribute.getName(), attribute
-                            .getName());
-                }
-                //if exclude attribute is set, set of exclude attributes need to be
-                // removed from the default set of attributes
-                if ((subSubAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                        && requestedExcludingAttributesList.stream().anyMatch((attribute.getName() + "."
-                        + subAttribute.getName() + "." + subSubAttribute.getName())::equalsIgnoreCase)) {
-                    scimObject.deleteSubSubAttribute(subSubAttribute.getName(), subAttribute.getName(), attribute
-                            .getName());
-                }
-            }
-        }
-    }
-
-
-    /*
-     * This method is to remove any defined and requested sub attributes and include requested sub attributes
-     * from multivalued attributes
-     *
-     * @param subSimpleAttribute
-     * @param subAttribute
-     * @param attribute
-     * @param requestedAttributes
-     * @param requestedExcludingAttributes
-     * @param requestedAttributesList
-     * @param requestedExcludingAttributesList
-     * @param scimObject
-     */
-    private static void removeValuesSubAttributeOnReturn(Attribute subSimpleAttribute, Attribute subAttribute,
-                                                         Attribute attribute, String requestedAttributes,
-                                                         String requestedExcludingAttributes,
-                                                         List<String> requestedAttributesList,
-                                                         List<String> requestedExcludingAttributesList,
-                                                         AbstractSCIMObject scimObject) {
-        if (subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.NEVER)) {
-            scimObject.deleteValuesSubAttribute(attribute.getName(),
-                    subAttribute.getName(), subSimpleAttribute.getName());
-        }
-        if (requestedAttributes == null && requestedExcludingAttributes == null) {
-            if (attribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                scimObject.deleteValuesSubAttribute(attribute.getName(),
-                        subAttribute.getName(), subSimpleAttribute.getName());
-            }
-        } else {
-            //A request should only contains either attributes or exclude attribute params. Not the both
-            if (requestedAttributes != null) {
-                //if attributes are set, delete all the request and default attributes
-                // and add only the requested attributes
-                if ((subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
-                        || subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                        && (requestedAttributesList.stream().noneMatch((attribute.getName() + "."
-                        + subSimpleAttribute.getName())::equalsIgnoreCase) &&
-                        requestedAttributesList.stream().noneMatch(attribute.getName()::equalsIgnoreCase) &&
-                        !isSubSubAttributeExistsInList(requestedAttributesList, attribute, subSimpleAttribute))) {
-                    scimObject.deleteValuesSubAttribute(attribute.getName(),
-                            subAttribute.getName(), subSimpleAttribute.getName());
-                }
-            } else if (requestedExcludingAttributes != null) {
-                //removing attributes which has returned as request. This is because no request is made
-                if (subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                    scimObject.deleteValuesSubAttribute(attribute.getName(),
-                            subAttribute.getName(), subSimpleAttribute.getName());
-                }
-                //if exclude attribute is set, set of exclude attributes need to be
-                // removed from the default set of attributes
-                if ((subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                        && requestedExcludingAttributesList.stream().anyMatch((attribute.getName() + "."
-                        + subSimpleAttribute.getName())::equalsIgnoreCase)) {
-                    scimObject.deleteValuesSubAttribute(attribute.getName(),
-                            subAttribute.getName(), subSimpleAttribute.getName());
-                }
-            }
-        }
-
-
-    }
-
-    /*
-     * This method is to remove any defined and requested sub attributes and include requested sub attributes
-     * from multivalued attributes
-     * <p>
-     * This is only applicable for extension schema
-     *
-     * @param attribute
-     * @param subAttribute
-     * @param subValue
-     * @param subSimpleAttribute
-     * @param requestedAttributes
-     * @param requestedExcludingAttributes
-     * @param requestedAttributesList
-     * @param requestedExcludingAttributesList
-     * @param scimObject
-     */
-    private static void removeValuesSubSubAttributeOnReturn(Attribute attribute, Attribute subAttribute, Attribute
-            subValue,
-                                                            Attribute subSimpleAttribute,
-                                                            String requestedAttributes, String
-                                                                    requestedExcludingAttributes,
-                                                            List<String> requestedAttributesList,
-                                                            List<String> requestedExcludingAttributesList,
-                                                            AbstractSCIMObject scimObject) {
-
-
-        if (subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.NEVER)) {
-            scimObject.deleteSubValuesSubAttribute(attribute.getName(),
-                    subAttribute.getName(), subValue.getName(), subSimpleAttribute.getName());
-        }
-        if (requestedAttributes == null && requestedExcludingAttributes == null) {
-            if (attribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                scimObject.deleteSubValuesSubAttribute(attribute.getName(),
-                        subAttribute.getName(), subValue.getName(), subSimpleAttribute.getName());
-            }
-        } else {
-            //A request should only contains either attributes or exclude attribute params. Not the both
-            if (requestedAttributes != null) {
-                //if attributes are set, delete all the request and default attributes
-                // and add only the requested attributes
-                if ((subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
-                        || subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                        && (requestedAttributesList.stream().noneMatch((attribute.getName() + "."
-                        + subAttribute.getName() + "." + subSimpleAttribute.getName())::equalsIgnoreCase) &&
-                        requestedAttributesList.stream().noneMatch(attribute.getName()::equalsIgnoreCase) &&
-                        requestedAttributesList.stream().noneMatch((attribute.getName() + "."
-                                + subAttribute.getName())::equalsIgnoreCase))) {
-                    scimObject.deleteSubValuesSubAttribute(attribute.getName(),
-                            subAttribute.getName(), subValue.getName(), subSimpleAttribute.getName());
-                }
-            } else if (requestedExcludingAttributes != null) {
-                //removing attributes which has returned as request. This is because no request is made
-                if (subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
-                    scimObject.deleteSubValuesSubAttribute(attribute.getName(),
-                            subAttribute.getName(), subValue.getName(), subSimpleAttribute.getName());
-                }
-                //if exclude attribute is set, set of exclude attributes need to be
-                // removed from the default set of attributes
-                if ((subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                        && requestedExcludingAttributesList.stream().anyMatch((attribute.getName() + "."
-                        + subAttribute.getName() + "." + subSimpleAttribute.getName())::equalsIgnoreCase)) {
-                    scimObject.deleteSubValuesSubAttribute(attribute.getName(),
-                            subAttribute.getName(), subValue.getName(), subSimpleAttribute.getName());
-                }
-            }
-        }
-    }
-
-    /*
-     * This checks whether, within the 'requestedAttributes', is there a sub attribute of the 'attribute'.
-     * If so we should not delete the 'attribute'
-     *
-     * @param requestedAttributes
-     * @param attribute
-     * @return boolean
-     */
-    private static boolean isSubAttributeExistsInList(List<String> requestedAttributes, Attribute attribute) {
-        List<Attribute> subAttributes = null;
-        if (attribute instanceof MultiValuedAttribute) {
-            subAttributes =
-                    (List<Attribute>) ((MultiValuedAttribute) attribute).getAttributeValues();
-            if (subAttributes != null) {
-                for (Attribute subAttribute : subAttributes) {
-                    ArrayList<Attribute> subSimpleAttributes = new ArrayList<Attribute>((
-                            (ComplexAttribute) subAttribute).getSubAttributesList().values());
-                    for (Attribute subSimpleAttribute : subSimpleAttributes) {
-                        if (requestedAttributes.stream().anyMatch((attribute.getName() + "."
-                                + subSimpleAttribute.getName())::equalsIgnoreCase)) {
-                            return true;
-                        }
-                    }
-                    //this case is only valid for extension schema
-                    if (SCIMDefinitions.DataType.COMPLEX.equals(subAttribute.getType())) {
-                        boolean isSubSubAttributeExists = isSubSubAttributeExistsInList(requestedAttributes,
-                                attribute, subAttribute);
-                        if (isSubSubAttributeExists) {
-                            return true;
-                        }
-                    }
-                }
-            }
-        } else if (attribute instanceof ComplexAttribute) {
-            //complex attributes have sub attribute map, hence need conversion to arraylist
-            subAttributes = new ArrayList<Attribute>
-                    (((Map) (((ComplexAttribute) attribute).getSubAttributesList())).values());
-                for (Attribute subAttribute : subAttributes) {
-                    if (requestedAttributes.stream().anyMatch((attribute.getName() + "."
-                            + subAttribute.getName())::equalsIgnoreCase)) {
-                        return true;
-                    }
-                    //this case is only valid for extension schema
-                    if (subAttribute.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
-                        boolean isSubSubAttributeExists = isSubSubAttributeExistsInList(requestedAttributes,
-                                attribute, subAttribute);
-                        if (isSubSubAttributeExists) {
-                            return true;
-                        }
-                    }
-                }
-        }
-        return false;
-    }
+    protected static AbstractSCIMObject checkIfReadOnlyAndImmutableAttributesModified(
+            AbstractSCIMObject oldObject, AbstractSCIMObject newObject, SCIMResourceTypeSchema resourceSchema)
+            throws BadRequestException, CharonException {
 
-    /*
-     * This checks whether, within the 'requestedAttributes', is there a sub attribute of the 'subAttribute'.
-     * If so we should not delete the 'attribute'
-     * This case is only applicable for extension
-     *
-     * @param requestedAttributes
-     * @param grandParentAttribute
-     * @param parentAttribute
-     * @return
-     */
-    private static boolean isSubSubAttributeExistsInList(List<String> requestedAttributes,
-                                                         Attribute grandParentAttribute, Attribute parentAttribute) {
-        List<Attribute> subAttributes = null;
-        if (parentAttribute instanceof MultiValuedAttribute) {
-            subAttributes = (List<Attribute>)
-                    ((MultiValuedAttribute) parentAttribute).getAttributeValues();
-            if (subAttributes != null) {
-                for (Attribute subAttribute : subAttributes) {
-                    ArrayList<Attribute> subSimpleAttributes = new ArrayList<Attribute>((
-                            (ComplexAttribute) subAttribute).getSubAttributesList().values());
-                    for (Attribute subSimpleAttribute : subSimpleAttributes) {
-                        if (requestedAttributes.stream().anyMatch((grandParentAttribute.getName() + "."
-                                + parentAttribute.getName() + "." + subSimpleAttribute.getName())::equalsIgnoreCase)) {
-                            return true;
-                        }
-                    }
-                }
-            }
-        } else if (parentAttribute instanceof ComplexAttribute) {
-            //complex attributes have sub attribute map, hence need conversion to arraylist
-            subAttributes = new ArrayList<Attribute>
-                    (((Map) (((ComplexAttribute) parentAttribute).getSubAttributesList())).values());
-            for (Attribute subAttribute : subAttributes) {
-                if (requestedAttributes.stream().anyMatch((grandParentAttribute.getName() + "."
-                        + parentAttribute.getName() + "." + subAttribute.getName())::equalsIgnoreCase)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return checkIfReadOnlyAndImmutableAttributesModified(oldObject, newObject, resourceSchema, null);
     }
 
     /*
-     * check for read only and immutable attributes which has been modified on update request
+     * Check for read only and immutable attributes which have been modified, only checking the given top level
+     * attributes of the objects.
      *
      * @param oldObject
      * @param newObject
      * @param resourceSchema
+     * @param attributeNames names of the attributes to be checked, or null to check every attribute.
      * @return
      * @throws BadRequestException
      * @throws CharonException
      */
     protected static AbstractSCIMObject checkIfReadOnlyAndImmutableAttributesModified(
-            AbstractSCIMObject oldObject, AbstractSCIMObject newObject, SCIMResourceTypeSchema resourceSchema)
-            throws BadRequestException, CharonException {
+            AbstractSCIMObject oldObject, AbstractSCIMObject newObject, SCIMResourceTypeSchema resourceSchema,
+            Set<String> attributeNames) throws BadRequestException, CharonException {
 
         //get attributes from schema.
         List<AttributeSchema> attributeSchemaList = resourceSchema.getAttributesList();
@@ -933,6 +491,9 @@ public abstract class AbstractValidator {
         Map<String, Attribute> newAttributeList = newObject.getAttributeList();
 
         for (AttributeSchema attributeSchema : attributeSchemaList) {
+            if (attributeNames != null && !attributeNames.contains(attributeSchema.getName())) {
+                continue;
+            }
             if (attributeSchema.getMutability().equals(SCIMDefinitions.Mutability.READ_ONLY)) {
                 if (newAttributeList.containsKey(attributeSchema.getName()) &&
                         oldAttributeList.containsKey(attributeSchema.getName())) {
@@ -17,14 +17,16 @@ package org.wso2.charon3.core.schema;
 
 import org.wso2.charon3.core.exceptions.CharonException;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * This interface defines the common schema base for SCIM attributes and SCIM sub attributes.
  * In such defines as the 'attributes' attribute in Resource Schema Representation in SCIM 2.0
+ * Attributes reference the schema they were created from, hence it is serializable along with them.
  */
-public interface AttributeSchema {
+public interface AttributeSchema extends Serializable {
 
     public void setURI(String uri);
 
@@ -77,6 +77,11 @@ public class SCIMConstants {
     //HTTP Headers used in SCIM request/response other than auth headers.
     public static final String LOCATION_HEADER = "Location";
     public static final String CONTENT_TYPE_HEADER = "Content-Type";
+    public static final String ETAG_HEADER = "ETag";
+    public static final String IF_MATCH_HEADER = "If-Match";
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    // Start index of the next page of members, when a group is returned with a page of its members.
+    public static final String MEMBERS_NEXT_START_INDEX_HEADER = "X-Members-Next-Start-Index";
 
     public static final String DEFAULT = "default";
 
@@ -147,6 +152,7 @@ public class SCIMConstants {
         public static final String RESOURCES = "Resources";
         public static final String ITEMS_PER_PAGE = "itemsPerPage";
         public static final String START_INDEX = "startIndex";
+        public static final String NEXT_CURSOR = "nextCursor";
     }
 
     /**
@@ -33,9 +33,12 @@ import org.wso2.charon3.core.extensions.UserManager;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -48,6 +51,16 @@ public class SCIMResourceSchemaManager {
     private static SCIMResourceSchemaManager manager = new SCIMResourceSchemaManager();
     private static final Logger log = LoggerFactory.getLogger(SCIMResourceSchemaManager.class);
 
+    // Maximum number of user resource schemas cached against the extension schemas they were composed with.
+    private static final int EXTENSION_SCHEMA_CACHE_SIZE = 64;
+
+    // Composed user resource schemas, keyed by the schema cache key of the user manager they were composed for.
+    private final Map<String, SCIMResourceTypeSchema> userResourceSchemaCache = new ConcurrentHashMap<>();
+    // Composed user resource schemas of user managers without a schema cache key, keyed by their extension schemas.
+    private final Map<ExtensionSchemas, SCIMResourceTypeSchema> extensionSchemaCache = new ExtensionSchemaMap();
+    // Incremented whenever a cached user resource schema is invalidated.
+    private final AtomicLong userResourceSchemaVersion = new AtomicLong();
+
     public static SCIMResourceSchemaManager getInstance() {
         return manager;
     }
@@ -104,39 +117,108 @@ public class SCIMResourceSchemaManager {
                 schemaURIs, schemaDefinitions.toArray(new AttributeSchema[0]));
     }
 
-    /*
-     * Return the SCIM User Resource Schema
+    /**
+     * Return the SCIM User Resource Schema composed with the extensions provided by the given user manager.
      *
+     * The composed schema is cached and shared between requests, so the returned schema and the attribute schemas
+     * it holds must not be modified by the caller. Its schema and attribute lists can not be modified. If the user
+     * manager provides a schema cache key through {@link UserManager#getUserSchemaCacheKey()}, the schema is cached
+     * against that key until it is invalidated, and the extensions are not requested from the user manager again.
+     * Otherwise, the extensions are requested on every call and the schema is cached against the extension schema
+     * instances returned, so that it is composed again only when one of them is replaced.
+     *
+     * @param userManager User manager.
      * @return SCIMResourceTypeSchema
      */
     public SCIMResourceTypeSchema getUserResourceSchema(UserManager userManager)
             throws BadRequestException, NotImplementedException, CharonException {
 
-        AttributeSchema enterpriseSchemaExtension = SCIMUserSchemaExtensionBuilder.getInstance().getExtensionSchema();
-        AttributeSchema systemSchemaExtension = SCIMSystemSchemaExtensionBuilder.getInstance().getExtensionSchema();
-        AttributeSchema customSystemAttributeSchema = userManager.getCustomAttributeSchemaInSystemExtension();
-        Map<String, AttributeSchema> systemSchemaSubAttributesMap =
-                Optional.ofNullable(systemSchemaExtension)
-                        .map(AttributeSchema::getSubAttributeSchemas)
-                        .orElse(Collections.emptyList())
-                        .stream()
-                        .filter(attr -> attr.getURI() != null)
-                        .collect(Collectors.toMap(
-                                AttributeSchema::getURI,
-                                Function.identity(),
-                                (existing, replacement) -> existing));
+        String cacheKey = userManager.getUserSchemaCacheKey();
+        if (cacheKey == null) {
+            ExtensionSchemas extensionSchemas = getExtensionSchemas(userManager);
+            SCIMResourceTypeSchema schema;
+            synchronized (extensionSchemaCache) {
+                schema = extensionSchemaCache.get(extensionSchemas);
+            }
+            if (schema == null) {
+                schema = buildUserResourceSchema(extensionSchemas);
+                synchronized (extensionSchemaCache) {
+                    extensionSchemaCache.put(extensionSchemas, schema);
+                }
+            }
+            return schema;
+        }
+
+        SCIMResourceTypeSchema cachedSchema = userResourceSchemaCache.get(cacheKey);
+        if (cachedSchema != null) {
+            return cachedSchema;
+        }
+        // Read the version before composing, so a concurrent invalidation keeps the composed schema out of the cache.
+        long version = userResourceSchemaVersion.get();
+        SCIMResourceTypeSchema schema = buildUserResourceSchema(getExtensionSchemas(userManager));
+        // The version is checked while the entry is locked. An invalidation which bumps the version after the check
+        // removes the entry only once it is put.
+        userResourceSchemaCache.compute(cacheKey,
+                (key, schemaInCache) -> userResourceSchemaVersion.get() == version ? schema : schemaInCache);
+        if (log.isDebugEnabled()) {
+            log.debug("Cached the user resource schema for the schema cache key: " + cacheKey);
+        }
+        return schema;
+    }
+
+    /**
+     * Invalidate the cached user resource schema of the given schema cache key. This should be called whenever the
+     * custom, system or agent schema extensions served for that key are changed. The cached schemas of other keys
+     * are kept.
+     *
+     * @param cacheKey Schema cache key of the user manager.
+     */
+    public void invalidateUserResourceSchema(String cacheKey) {
+
+        if (cacheKey == null) {
+            return;
+        }
+        // A schema of this key which is being composed at the moment may have read the old extensions.
+        userResourceSchemaVersion.incrementAndGet();
+        userResourceSchemaCache.remove(cacheKey);
+    }
+
+    /**
+     * Invalidate all the cached user resource schemas. This is called by the schema extension builders whenever
+     * the enterprise, system, custom or agent schema extension they hold is built, since every composed user
+     * resource schema may hold the previous extension.
+     */
+    public void invalidateUserResourceSchemas() {
+
+        userResourceSchemaVersion.incrementAndGet();
+        userResourceSchemaCache.clear();
+        synchronized (extensionSchemaCache) {
+            extensionSchemaCache.clear();
+        }
+    }
+
+    private ExtensionSchemas getExtensionSchemas(UserManager userManager)
+            throws BadRequestException, NotImplementedException, CharonException {
+
+        return new ExtensionSchemas(SCIMUserSchemaExtensionBuilder.getInstance().getExtensionSchema(),
+                SCIMSystemSchemaExtensionBuilder.getInstance().getExtensionSchema(),
+                userManager.getCustomAttributeSchemaInSystemExtension(), userManager.getCustomUserSchemaExtension(),
+                userManager.getCustomAttributeSchemaInAgentExtension());
+    }
+
+    private SCIMResourceTypeSchema buildUserResourceSchema(ExtensionSchemas extensionSchemas) {
+
+        AttributeSchema enterpriseSchemaExtension = extensionSchemas.enterpriseSchemaExtension;
+        AttributeSchema systemSchemaExtension = extensionSchemas.systemSchemaExtension;
+        AttributeSchema customSystemAttributeSchema = extensionSchemas.customSystemAttributeSchema;
 
         if (systemSchemaExtension == null && customSystemAttributeSchema != null) {
             systemSchemaExtension = customSystemAttributeSchema;
         } else if (customSystemAttributeSchema != null) {
-            for (AttributeSchema attributeSchema : customSystemAttributeSchema.getSubAttributeSchemas()) {
-                if (!systemSchemaSubAttributesMap.containsKey(attributeSchema.getURI())) {
-                    systemSchemaExtension.getSubAttributeSchemas().add(attributeSchema);
-                }
-            }
+            systemSchemaExtension = mergeSubAttributes(systemSchemaExtension, customSystemAttributeSchema);
         }
 
-        AttributeSchema customSchemaExtension = userManager.getCustomUserSchemaExtension();
+        AttributeSchema customSchemaExtension = extensionSchemas.customSchemaExtension;
 
         List<String> schemas = new ArrayList<>();
         schemas.add(SCIMConstants.USER_CORE_SCHEMA_URI);
@@ -185,7 +267,7 @@ public class SCIMResourceSchemaManager {
 
 
         // Retrieve agent schema extension and add it to schemas if it is not null
-        AttributeSchema agentSchemaExtension = userManager.getCustomAttributeSchemaInAgentExtension();
+        AttributeSchema agentSchemaExtension = extensionSchemas.agentSchemaExtension;
 
         if (agentSchemaExtension != null) {
             schemas.add(agentSchemaExtension.getURI());
@@ -194,10 +276,118 @@ public class SCIMResourceSchemaManager {
             log.debug("Agent schema was not loaded.");
         }
 
-        return SCIMResourceTypeSchema.createSCIMResourceSchema(
+        return SCIMResourceTypeSchema.createUnmodifiableSCIMResourceSchema(
                 schemas, schemaDefinitions.toArray(new AttributeSchema[0]));
     }
 
+    /**
+     * Return a new extension schema holding the sub attributes of the given extension schema followed by the sub
+     * attributes of the custom schema which are not already defined in it. The shared extension schema is not
+     * modified.
+     *
+     * @param extensionSchema Extension schema.
+     * @param customSchema    Custom attributes of the extension.
+     * @return Merged extension schema.
+     */
+    private AttributeSchema mergeSubAttributes(AttributeSchema extensionSchema, AttributeSchema customSchema) {
+
+        List<AttributeSchema> subAttributes = Optional.ofNullable(extensionSchema.getSubAttributeSchemas())
+                .orElse(Collections.emptyList());
+        Map<String, AttributeSchema> subAttributesMap = subAttributes.stream()
+                .filter(attr -> attr.getURI() != null)
+                .collect(Collectors.toMap(AttributeSchema::getURI, Function.identity(),
+                        (existing, replacement) -> existing));
+
+        ArrayList<AttributeSchema> mergedSubAttributes = new ArrayList<>(subAttributes);
+        for (AttributeSchema attributeSchema : customSchema.getSubAttributeSchemas()) {
+            if (!subAttributesMap.containsKey(attributeSchema.getURI())) {
+                mergedSubAttributes.add(attributeSchema);
+            }
+        }
+        if (mergedSubAttributes.size() == subAttributes.size()) {
+            return extensionSchema;
+        }
+        return SCIMAttributeSchema.createSCIMAttributeSchema(extensionSchema.getURI(), extensionSchema.getName(),
+                extensionSchema.getType(), extensionSchema.getMultiValued(), extensionSchema.getDescription(),
+                extensionSchema.getRequired(), extensionSchema.getCaseExact(), extensionSchema.getMutability(),
+                extensionSchema.getReturned(), extensionSchema.getUniqueness(),
+                extensionSchema.getCanonicalValues() == null ? null :
+                        new ArrayList<>(extensionSchema.getCanonicalValues()),
+                extensionSchema instanceof SCIMAttributeSchema ?
+                        ((SCIMAttributeSchema) extensionSchema).getReferenceTypes() : null,
+                mergedSubAttributes);
+    }
+
+    /**
+     * Extension schemas a user resource schema is composed with. Two of them are equal only if they hold the same
+     * extension schema instances.
+     */
+    private static final class ExtensionSchemas {
+
+        private final AttributeSchema enterpriseSchemaExtension;
+        private final AttributeSchema systemSchemaExtension;
+        private final AttributeSchema customSystemAttributeSchema;
+        private final AttributeSchema customSchemaExtension;
+        private final AttributeSchema agentSchemaExtension;
+
+        private ExtensionSchemas(AttributeSchema enterpriseSchemaExtension, AttributeSchema systemSchemaExtension,
+                                 AttributeSchema customSystemAttributeSchema, AttributeSchema customSchemaExtension,
+                                 AttributeSchema agentSchemaExtension) {
+
+            this.enterpriseSchemaExtension = enterpriseSchemaExtension;
+            this.systemSchemaExtension = systemSchemaExtension;
+            this.customSystemAttributeSchema = customSystemAttributeSchema;
+            this.customSchemaExtension = customSchemaExtension;
+            this.agentSchemaExtension = agentSchemaExtension;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ExtensionSchemas)) {
+                return false;
+            }
+            ExtensionSchemas that = (ExtensionSchemas) o;
+            return enterpriseSchemaExtension == that.enterpriseSchemaExtension &&
+                    systemSchemaExtension == that.systemSchemaExtension &&
+                    customSystemAttributeSchema == that.customSystemAttributeSchema &&
+                    customSchemaExtension == that.customSchemaExtension &&
+                    agentSchemaExtension == that.agentSchemaExtension;
+        }
+
+        @Override
+        public int hashCode() {
+
+            int result = System.identityHashCode(enterpriseSchemaExtension);
+            result = 31 * result + System.identityHashCode(systemSchemaExtension);
+            result = 31 * result + System.identityHashCode(customSystemAttributeSchema);
+            result = 31 * result + System.identityHashCode(customSchemaExtension);
+            return 31 * result + System.identityHashCode(agentSchemaExtension);
+        }
+    }
+
+    /**
+     * Least recently used user resource schemas composed for user managers without a schema cache key.
+     */
+    private static final class ExtensionSchemaMap extends LinkedHashMap<ExtensionSchemas, SCIMResourceTypeSchema> {
+
+        private static final long serialVersionUID = 3125468211207316519L;
+
+        private ExtensionSchemaMap() {
+
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ExtensionSchemas, SCIMResourceTypeSchema> eldest) {
+
+            return size() > EXTENSION_SCHEMA_CACHE_SIZE;
+        }
+    }
+
     /**
      * Check whether the extension is enabled.
      *
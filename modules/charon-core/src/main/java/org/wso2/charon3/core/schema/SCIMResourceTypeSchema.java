@@ -15,9 +15,19 @@
  */
 package org.wso2.charon3.core.schema;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * This declares the SCIM resources schema as specified in SCIM core specification 2.0.
@@ -31,6 +41,8 @@ public class SCIMResourceTypeSchema implements ResourceTypeSchema, Serializable
     private List<String> schemasList;
     //set of attributeList in the schema
     private ArrayList<AttributeSchema> attributeList = new ArrayList<AttributeSchema>();
+    //attributes by lower case name, dotted path and URI, built from the attributeList
+    private transient volatile Map<String, AttributeSchema> attributeIndex;
 
     private SCIMResourceTypeSchema(List<String> schemas, AttributeSchema[] attributeSchemas) {
         this.schemasList = schemas;
@@ -41,6 +53,13 @@ public class SCIMResourceTypeSchema implements ResourceTypeSchema, Serializable
                 }
             }
         }
+        this.attributeIndex = buildAttributeIndex(attributeList);
+    }
+
+    private SCIMResourceTypeSchema(SCIMResourceTypeSchema schema) {
+        this.schemasList = schema.schemasList == null ? null : Collections.unmodifiableList(schema.schemasList);
+        this.attributeList = new UnmodifiableAttributeList(schema.attributeList);
+        this.attributeIndex = schema.attributeIndex;
     }
 
     /*
@@ -56,6 +75,20 @@ public class SCIMResourceTypeSchema implements ResourceTypeSchema, Serializable
 
     }
 
+    /**
+     * Create a SCIMResourceTypeSchema which can be shared, since neither its schema list nor its attribute list can
+     * be modified. The attribute schemas it holds are not copied.
+     *
+     * @param schemas          Schema URIs of the resource type.
+     * @param attributeSchemas Attribute schemas of the resource type.
+     * @return SCIMResourceTypeSchema with unmodifiable lists.
+     */
+    public static SCIMResourceTypeSchema createUnmodifiableSCIMResourceSchema(List<String> schemas,
+                                                                              AttributeSchema... attributeSchemas) {
+
+        return new SCIMResourceTypeSchema(new SCIMResourceTypeSchema(schemas, attributeSchemas));
+    }
+
     /*
      * schema list contains the specified schema?
      *
@@ -83,6 +116,181 @@ public class SCIMResourceTypeSchema implements ResourceTypeSchema, Serializable
     }
 
     public void setAttributeList(ArrayList attributeList) {
+        if (this.attributeList instanceof UnmodifiableAttributeList) {
+            throw new UnsupportedOperationException("The attribute list of the schema can not be modified.");
+        }
         this.attributeList = attributeList;
+        this.attributeIndex = buildAttributeIndex(attributeList);
+    }
+
+    /**
+     * Return the attribute schema with the given name, dotted path or URI, ignoring case. Names of top level
+     * attributes, paths such as {@code name.givenName} and {@code emails.value}, and the URIs of the attributes and
+     * sub-attributes of the schema are indexed when the attribute list is set. If a name matches more than one
+     * attribute, the attribute which comes first in the attribute list is returned.
+     * <p>
+     * The index does not follow changes made to the attribute list or to the attribute schemas in place.
+     *
+     * @param attributeName Attribute name, dotted path or URI.
+     * @return Attribute schema, or null if no attribute matches the name.
+     */
+    public AttributeSchema getAttributeSchema(String attributeName) {
+
+        if (attributeName == null) {
+            return null;
+        }
+        return attributeIndex.get(attributeName.toLowerCase(Locale.ROOT));
+    }
+
+    private void readObject(ObjectInputStream objectInputStream) throws IOException, ClassNotFoundException {
+
+        objectInputStream.defaultReadObject();
+        // The index is not serialized.
+        attributeIndex = buildAttributeIndex(attributeList);
+    }
+
+    private static Map<String, AttributeSchema> buildAttributeIndex(List<AttributeSchema> attributeSchemas) {
+
+        Map<String, AttributeSchema> index = new HashMap<>();
+        if (attributeSchemas != null) {
+            for (AttributeSchema attributeSchema : attributeSchemas) {
+                if (attributeSchema != null && attributeSchema.getName() != null) {
+                    index.putIfAbsent(attributeSchema.getName().toLowerCase(Locale.ROOT), attributeSchema);
+                    indexAttribute(index, attributeSchema.getName(), attributeSchema);
+                }
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    /*
+     * Index the URI of the attribute, and the paths and URIs of its sub-attributes and their sub-attributes.
+     */
+    private static void indexAttribute(Map<String, AttributeSchema> index, String path,
+                                       AttributeSchema attributeSchema) {
+
+        if (attributeSchema.getURI() != null) {
+            index.putIfAbsent(attributeSchema.getURI().toLowerCase(Locale.ROOT), attributeSchema);
+        }
+        List<AttributeSchema> subAttributeSchemas = attributeSchema.getSubAttributeSchemas();
+        if (subAttributeSchemas == null) {
+            return;
+        }
+        for (AttributeSchema subAttributeSchema : subAttributeSchemas) {
+            if (subAttributeSchema != null && subAttributeSchema.getName() != null) {
+                String subAttributePath = path + "." + subAttributeSchema.getName();
+                index.putIfAbsent(subAttributePath.toLowerCase(Locale.ROOT), subAttributeSchema);
+                indexAttribute(index, subAttributePath, subAttributeSchema);
+            }
+        }
+    }
+
+    /**
+     * Attribute list which can not be modified. A serialized copy of it is a plain, modifiable list again, so that
+     * copies of a shared schema can be modified as before.
+     */
+    public static final class UnmodifiableAttributeList extends ArrayList<AttributeSchema> {
+
+        private static final long serialVersionUID = -2725047829738541370L;
+
+        private UnmodifiableAttributeList(Collection<AttributeSchema> attributeSchemas) {
+
+            super(attributeSchemas);
+        }
+
+        @Override
+        public AttributeSchema set(int index, AttributeSchema element) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean add(AttributeSchema attributeSchema) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void add(int index, AttributeSchema element) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AttributeSchema remove(int index) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean remove(Object o) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void clear() {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends AttributeSchema> c) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends AttributeSchema> c) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super AttributeSchema> filter) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<AttributeSchema> operator) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void sort(Comparator<? super AttributeSchema> c) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<AttributeSchema> subList(int fromIndex, int toIndex) {
+
+            return Collections.unmodifiableList(super.subList(fromIndex, toIndex));
+        }
+
+        private Object writeReplace() {
+
+            return new ArrayList<>(this);
+        }
     }
 }
@@ -26,11 +26,13 @@ import org.wso2.charon3.core.objects.RoleV2;
 import org.wso2.charon3.core.objects.User;
 import org.wso2.charon3.core.protocol.endpoints.AbstractResourceManager;
 import org.wso2.charon3.core.utils.AttributeUtil;
+import org.wso2.charon3.core.utils.StructuralCopier;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -259,6 +261,47 @@ public class ServerSideValidator extends AbstractValidator {
         return validatedObject;
     }
 
+    /**
+     * Perform validation on a SCIM object updated by a patch request, once all of its operations have been applied.
+     * Only the given top level attributes, which are the ones the operations modified, are checked for read only,
+     * immutable and required attribute violations; the rest of the object is left as it was.
+     *
+     * @param oldObject          Scim object before the patch request, used for comparison.
+     * @param newObject          Scim object after the patch request.
+     * @param resourceSchema     Schema for the scim resource.
+     * @param modifiedAttributes Names of the modified top level attributes, or null to check every attribute.
+     * @return Validated scim object.
+     * @throws CharonException     When error occurred while validating the scim object.
+     * @throws BadRequestException When error in the user's input.
+     */
+    public static AbstractSCIMObject validatePatchedSCIMObject(AbstractSCIMObject oldObject,
+                                                               AbstractSCIMObject newObject,
+                                                               SCIMResourceTypeSchema resourceSchema,
+                                                               Set<String> modifiedAttributes)
+            throws CharonException, BadRequestException {
+
+        if (newObject instanceof User) {
+            // Set display names for complex multivalued attributes.
+            setDisplayNameInComplexMultiValuedAttributes(newObject, resourceSchema);
+        }
+        // Check for read only and immutable attributes.
+        AbstractSCIMObject validatedObject = checkIfReadOnlyAndImmutableAttributesModified(oldObject, newObject,
+                resourceSchema, modifiedAttributes);
+        // Copy meta attribute from old to new. It is copied, since the last modified date is set on it below, and the
+        // old object must be left untouched.
+        validatedObject.setAttribute(StructuralCopier.copyAttribute(
+                oldObject.getAttribute(SCIMConstants.CommonSchemaConstants.META)));
+        // Copy id attribute to new object.
+        validatedObject.setAttribute(oldObject.getAttribute(SCIMConstants.CommonSchemaConstants.ID));
+        // Edit last modified date.
+        validatedObject.setLastModifiedInstant(Instant.now());
+        // Check for required attributes.
+        validateSCIMObjectForRequiredAttributes(newObject, resourceSchema, modifiedAttributes);
+        // Check for schema list.
+        validateSchemaList(validatedObject, resourceSchema);
+        return validatedObject;
+    }
+
     /*
      * This method is to add meta data to the resource type resource
      *
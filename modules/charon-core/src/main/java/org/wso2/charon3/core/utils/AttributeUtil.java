@@ -198,7 +198,8 @@ public class AttributeUtil {
     }
 
     /*
-     * Will iterate through <code>{@code SCIMAttributeSchema}</code> objects
+     * Look up the attribute in the attribute index of the schema, and iterate through
+     * <code>{@code SCIMAttributeSchema}</code> objects only if it is not indexed.
      *
      * @param attributeName
      * @return
@@ -206,6 +207,11 @@ public class AttributeUtil {
     public static String getAttributeURI(String attributeName, SCIMResourceTypeSchema schema) throws
             BadRequestException {
 
+        AttributeSchema indexedAttributeSchema = schema.getAttributeSchema(attributeName);
+        if (indexedAttributeSchema != null) {
+            return indexedAttributeSchema.getURI();
+        }
+
         boolean isSCIM2ExtensionSchemaAttribute = false;
         /* Validates whether the attribute is from scim2 extension schema by checking the
         ATTRIBUTE_EXTENSION_SCHEMA_PREFIX. */
@@ -237,9 +243,9 @@ public class AttributeUtil {
                     attributeSchema.getMultiValued()) {
 
                 String subAttribute = null;
-                if (attributeName.contains(".")) {
-                    String[] splittedString = attributeName.split(attributeSchema.getName() + ".", 2);
-                    subAttribute = splittedString[1];
+                int subAttributeIndex = attributeName.indexOf(attributeSchema.getName() + ".");
+                if (subAttributeIndex >= 0) {
+                    subAttribute = attributeName.substring(subAttributeIndex + attributeSchema.getName().length() + 1);
                 }
                 subAttributeURI = attributeSchema.getURI();
                 if (subAttribute != null) {
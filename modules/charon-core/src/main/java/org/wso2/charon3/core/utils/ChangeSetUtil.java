@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.plainobjects.ChangeSet;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class computes the change set between two states of a SCIM object.
+ */
+public class ChangeSetUtil {
+
+    /**
+     * Compute the changes which turn the old object into the new one. The id and meta attributes are managed by the
+     * server and are not compared.
+     *
+     * @param oldObject      Object before the change.
+     * @param newObject      Object after the change.
+     * @param attributeNames Names of the top level attributes to be compared, or null to compare all of them.
+     * @return Changes made to the compared attributes.
+     */
+    public static ChangeSet getChangeSet(AbstractSCIMObject oldObject, AbstractSCIMObject newObject,
+                                         Set<String> attributeNames) {
+
+        Set<String> comparedAttributeNames = new LinkedHashSet<>();
+        if (attributeNames == null) {
+            comparedAttributeNames.addAll(oldObject.getAttributeList().keySet());
+            comparedAttributeNames.addAll(newObject.getAttributeList().keySet());
+            comparedAttributeNames.remove(SCIMConstants.CommonSchemaConstants.ID);
+            comparedAttributeNames.remove(SCIMConstants.CommonSchemaConstants.META);
+        } else {
+            comparedAttributeNames.addAll(attributeNames);
+        }
+        ChangeSet changeSet = new ChangeSet();
+        for (String attributeName : comparedAttributeNames) {
+            compareAttributes(oldObject.getAttribute(attributeName), newObject.getAttribute(attributeName),
+                    changeSet);
+        }
+        return changeSet;
+    }
+
+    private static void compareAttributes(Attribute oldAttribute, Attribute newAttribute, ChangeSet changeSet) {
+
+        if (oldAttribute == null && newAttribute == null) {
+            return;
+        }
+        Attribute attribute = newAttribute == null ? oldAttribute : newAttribute;
+        if (attribute instanceof MultiValuedAttribute) {
+            compareMultiValuedAttributes(oldAttribute, newAttribute, changeSet);
+        } else if (attribute instanceof ComplexAttribute) {
+            // Singular complex attributes are compared by their sub attributes.
+            Map<String, Attribute> oldSubAttributes = getSubAttributes(oldAttribute);
+            Map<String, Attribute> newSubAttributes = getSubAttributes(newAttribute);
+            Set<String> subAttributeNames = new LinkedHashSet<>(oldSubAttributes.keySet());
+            subAttributeNames.addAll(newSubAttributes.keySet());
+            for (String subAttributeName : subAttributeNames) {
+                compareAttributes(oldSubAttributes.get(subAttributeName), newSubAttributes.get(subAttributeName),
+                        changeSet);
+            }
+        } else {
+            Object oldValue = getSimpleValue(oldAttribute);
+            Object newValue = getSimpleValue(newAttribute);
+            if (oldValue == null && newValue != null) {
+                changeSet.addAttribute(attribute.getURI(), newValue);
+            } else if (oldValue != null && newValue == null) {
+                changeSet.removeAttribute(attribute.getURI());
+            } else if (!Objects.equals(oldValue, newValue)) {
+                changeSet.replaceAttribute(attribute.getURI(), newValue);
+            }
+        }
+    }
+
+    /*
+     * Compare the values of a multi valued attribute. Values are matched by equality, so a modified complex value
+     * shows up as the removal of the old value and the addition of the new one.
+     */
+    private static void compareMultiValuedAttributes(Attribute oldAttribute, Attribute newAttribute,
+                                                     ChangeSet changeSet) {
+
+        String attributeURI = (newAttribute == null ? oldAttribute : newAttribute).getURI();
+        List<Object> oldValues = getValues(oldAttribute);
+        List<Object> newValues = getValues(newAttribute);
+        if (newValues.isEmpty()) {
+            if (!oldValues.isEmpty()) {
+                changeSet.removeAttribute(attributeURI);
+            }
+            return;
+        }
+        List<Object> oldKeys = getComparisonKeys(oldValues);
+        List<Object> newKeys = getComparisonKeys(newValues);
+        // Values may repeat, so each key is counted and matches as many values as it occurs.
+        Map<Object, Integer> unmatchedOldKeys = countKeys(oldKeys);
+        for (int i = 0; i < newValues.size(); i++) {
+            if (!takeKey(unmatchedOldKeys, newKeys.get(i))) {
+                changeSet.addValue(attributeURI, newValues.get(i));
+            }
+        }
+        Map<Object, Integer> unmatchedNewKeys = countKeys(newKeys);
+        for (int i = 0; i < oldValues.size(); i++) {
+            if (!takeKey(unmatchedNewKeys, oldKeys.get(i))) {
+                changeSet.removeValue(attributeURI, oldValues.get(i));
+            }
+        }
+    }
+
+    private static Map<Object, Integer> countKeys(List<Object> keys) {
+
+        Map<Object, Integer> keyCounts = new HashMap<>();
+        for (Object key : keys) {
+            keyCounts.merge(key, 1, Integer::sum);
+        }
+        return keyCounts;
+    }
+
+    /*
+     * Take one occurrence of the key from the counted keys, returning false if there is none left.
+     */
+    private static boolean takeKey(Map<Object, Integer> keyCounts, Object key) {
+
+        Integer count = keyCounts.get(key);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            keyCounts.remove(key);
+        } else {
+            keyCounts.put(key, count - 1);
+        }
+        return true;
+    }
+
+    private static Map<String, Attribute> getSubAttributes(Attribute attribute) {
+
+        if (attribute instanceof ComplexAttribute complexAttribute) {
+            return complexAttribute.getSubAttributesList();
+        }
+        return Map.of();
+    }
+
+    private static Object getSimpleValue(Attribute attribute) {
+
+        if (attribute instanceof SimpleAttribute simpleAttribute) {
+            return simpleAttribute.getValue();
+        }
+        return null;
+    }
+
+    /*
+     * Values of a multi valued attribute, with complex values as maps of sub attribute name to value.
+     */
+    private static List<Object> getValues(Attribute attribute) {
+
+        List<Object> values = new ArrayList<>();
+        if (!(attribute instanceof MultiValuedAttribute multiValuedAttribute)) {
+            return values;
+        }
+        if (multiValuedAttribute.getAttributePrimitiveValues() != null) {
+            values.addAll(multiValuedAttribute.getAttributePrimitiveValues());
+        }
+        if (multiValuedAttribute.getAttributeValues() != null) {
+            for (Attribute value : multiValuedAttribute.getAttributeValues()) {
+                Object plainValue = getPlainValue(value);
+                if (plainValue != null) {
+                    values.add(plainValue);
+                }
+            }
+        }
+        return values;
+    }
+
+    private static Object getPlainValue(Attribute attribute) {
+
+        if (attribute instanceof SimpleAttribute simpleAttribute) {
+            return simpleAttribute.getValue();
+        }
+        if (attribute instanceof ComplexAttribute complexAttribute) {
+            Map<String, Object> subValues = new LinkedHashMap<>();
+            for (Attribute subAttribute : complexAttribute.getSubAttributesList().values()) {
+                Object subValue = getPlainValue(subAttribute);
+                if (subValue != null) {
+                    subValues.put(subAttribute.getName(), subValue);
+                }
+            }
+            return subValues.isEmpty() ? null : subValues;
+        }
+        if (attribute instanceof MultiValuedAttribute) {
+            List<Object> values = getValues(attribute);
+            return values.isEmpty() ? null : values;
+        }
+        return null;
+    }
+
+    private static List<Object> getComparisonKeys(List<Object> values) {
+
+        List<Object> keys = new ArrayList<>(values.size());
+        for (Object value : values) {
+            keys.add(getComparisonKey(value));
+        }
+        return keys;
+    }
+
+    private static Object getComparisonKey(Object value) {
+
+        if (value instanceof Map<?, ?> subValues) {
+            return new ComplexValueKey(subValues);
+        }
+        return value;
+    }
+
+    /*
+     * Key of a complex value, matching its sub values except the display sub attribute, which is derived from the
+     * value sub attribute while validating. The sub values are not copied.
+     */
+    private static final class ComplexValueKey {
+
+        private static final String DISPLAY = SCIMConstants.CommonSchemaConstants.DISPLAY;
+
+        private final Map<?, ?> subValues;
+        private final int size;
+        private final int hashCode;
+
+        private ComplexValueKey(Map<?, ?> subValues) {
+
+            this.subValues = subValues;
+            Object display = subValues.get(DISPLAY);
+            this.size = display == null ? subValues.size() : subValues.size() - 1;
+            // The hash code of a map is the sum of the hash codes of its entries.
+            this.hashCode = display == null ? subValues.hashCode() :
+                    subValues.hashCode() - (DISPLAY.hashCode() ^ display.hashCode());
+        }
+
+        @Override
+        public boolean equals(Object object) {
+
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof ComplexValueKey key) || hashCode != key.hashCode || size != key.size) {
+                return false;
+            }
+            for (Map.Entry<?, ?> subValue : subValues.entrySet()) {
+                if (!DISPLAY.equals(subValue.getKey()) &&
+                        !Objects.equals(subValue.getValue(), key.subValues.get(subValue.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+}
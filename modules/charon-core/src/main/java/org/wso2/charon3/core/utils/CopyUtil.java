@@ -26,15 +26,27 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 
 /**
- * This is to create a deep copy of the object using java serialization.
+ * This is to create a deep copy of the object.
  * SCIMObject instances have complex object graphs and hard to deep copy by
- * overriding clone method. Hence, using serialization to do the deep copy.
+ * overriding clone method. Hence, SCIM resources, attributes and schemas are copied by walking the attribute
+ * hierarchy with {@link StructuralCopier}, and any other object is deep copied using java serialization.
  */
 public class CopyUtil {
 
     private static final Logger log = LoggerFactory.getLogger(CopyUtil.class);
 
     public static Object deepCopy(Object oldObject) throws CharonException {
+
+        return StructuralCopier.copy(oldObject);
+    }
+
+    /**
+     * Create a deep copy of the object using java serialization.
+     *
+     * @param oldObject Object to be copied.
+     * @return Deep copy of the object, or null if the object could not be serialized.
+     */
+    public static Object serializationCopy(Object oldObject) {
         ObjectOutputStream objOutPutStream;
         ObjectInputStream objInputStream;
         Object newObject = null;
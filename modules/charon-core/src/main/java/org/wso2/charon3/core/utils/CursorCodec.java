@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.CRC32;
+
+/**
+ * This class converts the positions at which user stores continue a listing into the opaque cursors of cursor
+ * pagination, and back.
+ * <p>
+ * A cursor carries the position along with a fingerprint of the query it was issued for, so that a cursor is rejected
+ * when it is used with a different filter or sorting. Cursors keep no state on the server, which lets any number of
+ * clients page through the same listing concurrently. They are not signed, so user stores must treat the decoded
+ * position as untrusted input.
+ */
+public class CursorCodec {
+
+    private static final String VERSION = "1";
+    private static final char SEPARATOR = '.';
+
+    /**
+     * Encode the given position into a cursor for the given query.
+     *
+     * @param position Position at which the user store continues the listing.
+     * @param query    Parameters of the query which the listing is for, e.g. filter and sorting.
+     * @return Opaque cursor.
+     */
+    public static String encode(String position, String... query) {
+
+        String cursor = VERSION + SEPARATOR + getFingerprint(query) + SEPARATOR + position;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode the given cursor into the position at which the user store continues the listing.
+     *
+     * @param cursor Cursor given by the client, or null or an empty string for the first page.
+     * @param query  Parameters of the query which the listing is for, as given when the cursor was encoded.
+     * @return The position, or null for the first page.
+     * @throws BadRequestException If the cursor is malformed or was issued for a different query.
+     */
+    public static String decode(String cursor, String... query) throws BadRequestException {
+
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        String decodedCursor;
+        try {
+            decodedCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor : " + cursor, ResponseCodeConstants.INVALID_CURSOR);
+        }
+        int fingerprintStart = decodedCursor.indexOf(SEPARATOR) + 1;
+        int positionStart = decodedCursor.indexOf(SEPARATOR, fingerprintStart) + 1;
+        if (fingerprintStart == 0 || positionStart == 0 ||
+                !VERSION.equals(decodedCursor.substring(0, fingerprintStart - 1))) {
+            throw new BadRequestException("Invalid cursor : " + cursor, ResponseCodeConstants.INVALID_CURSOR);
+        }
+        if (!getFingerprint(query).equals(decodedCursor.substring(fingerprintStart, positionStart - 1))) {
+            throw new BadRequestException("Cursor was issued for a different query : " + cursor,
+                    ResponseCodeConstants.INVALID_CURSOR);
+        }
+        return decodedCursor.substring(positionStart);
+    }
+
+    private static String getFingerprint(String... query) {
+
+        CRC32 crc = new CRC32();
+        for (String parameter : query) {
+            if (parameter != null) {
+                crc.update(parameter.getBytes(StandardCharsets.UTF_8));
+            }
+            // Separate the parameters, so that moving a value from one parameter to the next changes the fingerprint.
+            crc.update(0);
+        }
+        return Long.toHexString(crc.getValue());
+    }
+}
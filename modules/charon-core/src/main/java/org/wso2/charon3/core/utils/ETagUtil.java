@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.wso2.charon3.core.exceptions.CharonException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * This class computes the entity tags of SCIM resources and evaluates the If-Match and If-None-Match preconditions
+ * of conditional requests against them.
+ * <p>
+ * An entity tag is taken from the version of the resource kept by the user store when it has one, so that
+ * preconditions can be evaluated without loading the resource. Otherwise it is computed from a hash of the resource
+ * as a plain GET encodes it, whatever attributes were requested, since an entity tag identifies a version of the
+ * resource rather than one of its representations.
+ */
+public class ETagUtil {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int HASH_LENGTH = 16;
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+
+    /**
+     * Return the entity tag of the given version of a resource.
+     *
+     * @param version Version of the resource kept by the user store, either as is or as an entity tag.
+     * @return Entity tag of the version, or null if the version is null.
+     */
+    public static String fromVersion(String version) {
+
+        if (version == null) {
+            return null;
+        }
+        if (version.startsWith(WEAK_PREFIX) || (version.length() >= 2 && version.startsWith("\"") &&
+                version.endsWith("\""))) {
+            return version;
+        }
+        return quote(version);
+    }
+
+    /**
+     * Compute a strong entity tag from the given encoded resource. The encoded resource is hashed as it is
+     * converted to bytes, without being copied.
+     *
+     * @param encodedResource Resource as encoded in the response body.
+     * @return Entity tag of the encoded resource.
+     * @throws CharonException If the resource cannot be hashed.
+     */
+    public static String fromBody(String encodedResource) throws CharonException {
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new CharonException("Error in computing the entity tag of the resource.", e);
+        }
+        try (Writer writer = new OutputStreamWriter(new DigestOutputStream(OutputStream.nullOutputStream(), digest),
+                StandardCharsets.UTF_8)) {
+            writer.write(encodedResource);
+        } catch (IOException e) {
+            throw new CharonException("Error in computing the entity tag of the resource.", e);
+        }
+        byte[] hash = Arrays.copyOf(digest.digest(), HASH_LENGTH);
+        return quote(Base64.getUrlEncoder().withoutPadding().encodeToString(hash));
+    }
+
+    /**
+     * Return whether the given entity tag matches the value of an If-Match or If-None-Match header, which is either
+     * {@code *} or a comma separated list of entity tags. If-Match uses the strong comparison, under which weak
+     * entity tags never match, and If-None-Match uses the weak comparison.
+     *
+     * @param header         Value of the header, or null if the header was not given.
+     * @param eTag           Current entity tag of the resource.
+     * @param weakComparison Whether entity tags are compared regardless of them being weak.
+     * @return True if the entity tag matches any of the entity tags of the header.
+     */
+    public static boolean isMatch(String header, String eTag, boolean weakComparison) {
+
+        if (header == null || eTag == null) {
+            return false;
+        }
+        boolean weak = eTag.startsWith(WEAK_PREFIX);
+        String opaqueTag = weak ? eTag.substring(WEAK_PREFIX.length()) : eTag;
+        int index = 0;
+        while (index < header.length()) {
+            char c = header.charAt(index);
+            if (c == ',' || Character.isWhitespace(c)) {
+                index++;
+                continue;
+            }
+            if (header.startsWith(ANY, index)) {
+                return true;
+            }
+            boolean weakTag = header.startsWith(WEAK_PREFIX, index);
+            int tagStart = weakTag ? index + WEAK_PREFIX.length() : index;
+            int tagEnd = header.indexOf('"', tagStart + 1);
+            if (tagStart >= header.length() || header.charAt(tagStart) != '"' || tagEnd < 0) {
+                // Not an entity tag, skip to the next one.
+                int nextTag = header.indexOf(',', index);
+                index = nextTag < 0 ? header.length() : nextTag + 1;
+                continue;
+            }
+            if ((weakComparison || (!weak && !weakTag)) &&
+                    opaqueTag.equals(header.substring(tagStart, tagEnd + 1))) {
+                return true;
+            }
+            index = tagEnd + 1;
+        }
+        return false;
+    }
+
+    private static String quote(String opaqueTag) {
+
+        return "\"" + opaqueTag + "\"";
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.objects.plainobjects.MembershipDelta;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.utils.codeutils.ExpressionNode;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+import org.wso2.charon3.core.utils.codeutils.PatchPath;
+import org.wso2.charon3.core.utils.codeutils.PatchPathCache;
+
+import java.util.List;
+
+/**
+ * This class reduces the operations of a group PATCH request to the net changes they make to the members of the
+ * group.
+ */
+public class MembershipDeltaUtil {
+
+    /**
+     * Compute the membership delta of the given operations, in their order. The member arrays of the operations are
+     * read value by value, without being decoded into SCIM attributes.
+     * <p>
+     * Only operations which add members, remove members by their value, or change the display name can be expressed
+     * as a delta. Requests with any other operation, e.g. one removing members by their display name, are left to
+     * the operation based PATCH.
+     *
+     * @param operations Operations of the request.
+     * @return Membership delta, or null if any of the operations can not be expressed as a delta.
+     * @throws BadRequestException If a member or a value filter of the request is not valid.
+     */
+    public static MembershipDelta getMembershipDelta(List<PatchOperation> operations) throws BadRequestException {
+
+        MembershipDelta membershipDelta = new MembershipDelta();
+        for (PatchOperation operation : operations) {
+            boolean expressed;
+            switch (operation.getOperation()) {
+                case SCIMConstants.OperationalConstants.ADD:
+                    expressed = addToDelta(operation, membershipDelta, true);
+                    break;
+                case SCIMConstants.OperationalConstants.REPLACE:
+                    expressed = addToDelta(operation, membershipDelta, false);
+                    break;
+                case SCIMConstants.OperationalConstants.REMOVE:
+                    expressed = removeFromDelta(operation, membershipDelta);
+                    break;
+                default:
+                    expressed = false;
+            }
+            if (!expressed) {
+                return null;
+            }
+        }
+        return membershipDelta;
+    }
+
+    /*
+     * Apply an add or a replace operation to the delta. Members can only be added, since replacing them replaces all
+     * the members of the group.
+     */
+    private static boolean addToDelta(PatchOperation operation, MembershipDelta membershipDelta, boolean membersAllowed)
+            throws BadRequestException {
+
+        String path = operation.getPath();
+        Object values = operation.getValues();
+        if (path == null) {
+            if (!(values instanceof JSONObject valuesJson)) {
+                return false;
+            }
+            for (String attributeName : valuesJson.keySet()) {
+                if (!addToDelta(attributeName, valuesJson.get(attributeName), membershipDelta, membersAllowed)) {
+                    return false;
+                }
+            }
+            return valuesJson.length() > 0;
+        }
+        return addToDelta(path, values, membershipDelta, membersAllowed);
+    }
+
+    private static boolean addToDelta(String attributeName, Object values, MembershipDelta membershipDelta,
+                                      boolean membersAllowed) throws BadRequestException {
+
+        if (SCIMConstants.GroupSchemaConstants.DISPLAY_NAME.equals(attributeName) && values instanceof String) {
+            membershipDelta.setDisplayName((String) values);
+            return true;
+        }
+        if (membersAllowed && SCIMConstants.GroupSchemaConstants.MEMBERS.equals(attributeName) &&
+                values instanceof JSONArray members) {
+            for (int i = 0; i < members.length(); i++) {
+                addMember(members.get(i), membershipDelta);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /*
+     * Add a member given as {"value": "...", "display": "..."} to the delta.
+     */
+    private static void addMember(Object member, MembershipDelta membershipDelta) throws BadRequestException {
+
+        if (!(member instanceof JSONObject memberJson) ||
+                !(memberJson.opt(SCIMConstants.CommonSchemaConstants.VALUE) instanceof String value) ||
+                !(memberJson.opt(SCIMConstants.CommonSchemaConstants.DISPLAY) instanceof String display)) {
+            throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+        }
+        if (StringUtils.isEmpty(value)) {
+            throw new BadRequestException(ResponseCodeConstants.INVALID_VALUE);
+        }
+        membershipDelta.addMember(value, display);
+    }
+
+    /*
+     * Apply a remove operation with a path such as members[value eq "..."] to the delta.
+     */
+    private static boolean removeFromDelta(PatchOperation operation, MembershipDelta membershipDelta)
+            throws BadRequestException {
+
+        if (operation.getPath() == null) {
+            return false;
+        }
+        PatchPath patchPath = PatchPathCache.getInstance().getPatchPath(operation.getPath());
+        String[] attributeParts = patchPath.getAttributeParts();
+        if (!patchPath.hasFilter() || attributeParts.length != 1 ||
+                !SCIMConstants.GroupSchemaConstants.MEMBERS.equalsIgnoreCase(attributeParts[0])) {
+            return false;
+        }
+        ExpressionNode filter = patchPath.getFilter();
+        if (!SCIMConstants.GroupSchemaConstants.VALUE.equals(filter.getAttributeValue()) ||
+                !SCIMConstants.OperationalConstants.EQ.trim().equalsIgnoreCase(filter.getOperation())) {
+            return false;
+        }
+        membershipDelta.removeMember(filter.getValue());
+        return true;
+    }
+}
@@ -24,10 +24,6 @@ import org.json.JSONObject;
 import org.json.JSONTokener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.wso2.charon3.core.aParser.Parser;
-import org.wso2.charon3.core.aParser.ParserException;
-import org.wso2.charon3.core.aParser.Rule;
-import org.wso2.charon3.core.aParser.Rule_valuePath;
 import org.wso2.charon3.core.attributes.Attribute;
 import org.wso2.charon3.core.attributes.ComplexAttribute;
 import org.wso2.charon3.core.attributes.DefaultAttributeFactory;
@@ -48,6 +44,8 @@ import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.charon3.core.schema.ServerSideValidator;
 import org.wso2.charon3.core.utils.codeutils.ExpressionNode;
 import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+import org.wso2.charon3.core.utils.codeutils.PatchPath;
+import org.wso2.charon3.core.utils.codeutils.PatchPathCache;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -55,6 +53,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import static org.wso2.charon3.core.schema.SCIMConstants.OperationalConstants.COLON;
 import static org.wso2.charon3.core.schema.SCIMConstants.OperationalConstants.DOT_SEPARATOR;
@@ -86,6 +85,29 @@ public class PatchOperationUtil {
                                                    AbstractSCIMObject copyOfOldResource, SCIMResourceTypeSchema schema)
             throws BadRequestException, NotImplementedException, CharonException {
 
+        applyPatchRemove(operation, oldResource);
+        //validate the updated object
+        AbstractSCIMObject validatedResource =
+                ServerSideValidator.validateUpdatedSCIMObject(copyOfOldResource, oldResource, schema, true);
+
+        return validatedResource;
+
+    }
+
+    /**
+     * Apply a patch remove operation to the given resource, without validating the updated resource. This lets a
+     * series of operations be applied to one working copy which is validated once all of them are applied.
+     *
+     * @param operation Operation to be performed.
+     * @param resource  Resource to be updated in place.
+     * @return The updated resource.
+     * @throws BadRequestException     If the operation is not valid for the resource.
+     * @throws NotImplementedException If the operation is not supported.
+     * @throws CharonException         If the operation cannot be applied.
+     */
+    public static AbstractSCIMObject applyPatchRemove(PatchOperation operation, AbstractSCIMObject resource)
+            throws BadRequestException, NotImplementedException, CharonException {
+
         if (operation.getPath() == null) {
             throw new BadRequestException
                     ("No path value specified for remove operation", ResponseCodeConstants.NO_TARGET);
@@ -95,57 +117,38 @@ public class PatchOperationUtil {
             throw new NotImplementedException("Removing permissions not permitted.");
         }
 
-        String path = operation.getPath();
-        //split the path to extract the filter if present.
-        String[] parts = path.split("[\\[\\]]");
+        PatchPath patchPath = PatchPathCache.getInstance().getPatchPath(operation.getPath());
 
-        if (parts.length != 1) {
+        if (patchPath.hasFilter()) {
             //currently we only support simple filters here.
-            String[] filterParts = parts[1].split(" ");
-
-            ExpressionNode expressionNode = new ExpressionNode();
-            expressionNode.setAttributeValue(filterParts[0]);
-            expressionNode.setOperation(filterParts[1]);
-            // According to the specification filter attribute value specified with quotation mark, so we need to
-            // remove it if exists.
-            expressionNode.setValue(filterParts[2].replaceAll("^\"|\"$", ""));
+            ExpressionNode expressionNode = patchPath.getFilter();
 
             if (expressionNode.getOperation().equalsIgnoreCase((SCIMConstants.OperationalConstants.EQ).trim())) {
 
-                doPatchRemoveWithFilters(parts, oldResource, expressionNode);
+                doPatchRemoveWithFilters(patchPath.getAttributeParts(), resource, expressionNode);
             } else {
                 throw new NotImplementedException("Only Eq filter is supported");
             }
         } else {
 
-            doPatchRemoveWithoutFilters(parts, oldResource);
+            doPatchRemoveWithoutFilters(patchPath.getAttributeParts(), resource);
         }
-        //validate the updated object
-        AbstractSCIMObject validatedResource =
-                ServerSideValidator.validateUpdatedSCIMObject(copyOfOldResource, oldResource, schema, true);
-
-        return validatedResource;
-
+        return resource;
     }
 
     /*
      * This is the patch remove operation when the path is specified with a filter in it.
-     * @param parts
+     * @param attributeParts
      * @param oldResource
      * @param expressionNode
      * @throws BadRequestException
      * @throws CharonException
      */
-    private static AbstractSCIMObject doPatchRemoveWithFilters(String[] parts,
+    private static AbstractSCIMObject doPatchRemoveWithFilters(String[] attributeParts,
                                                                AbstractSCIMObject oldResource,
                                                                ExpressionNode expressionNode)
             throws BadRequestException, CharonException, NotImplementedException {
 
-        if (parts.length == 3) {
-            parts[0] = parts[0] + parts[2];
-        }
-        String[] attributeParts = getAttributeParts(parts[0]);
-
         if (attributeParts.length == 1) {
 
             doPatchRemoveWithFiltersForLevelOne(oldResource, attributeParts, expressionNode);
@@ -161,37 +164,6 @@ public class PatchOperationUtil {
         return oldResource;
     }
 
-    /**
-     * Calculate the parts of an attribute URI
-     * @param attributeURI
-     * @return
-     */
-    private static String[] getAttributeParts(String attributeURI) {
-        ArrayList<String> tempAttributeNames = new ArrayList<>();
-        String extensionURI = "";
-        String[] attributeURIParts = attributeURI.split(":");
-
-        StringBuffer buf = new StringBuffer();
-        for (int i = 0; i < attributeURIParts.length - 1; ++i) {
-            buf.append(":");
-            buf.append(attributeURIParts[i]);
-        }
-        extensionURI = buf.toString();
-
-        String attributeNameString = attributeURIParts[attributeURIParts.length - 1];
-        String[] attributeNames = attributeNameString.split("\\.");
-
-        if (attributeURIParts.length > 1) {
-            tempAttributeNames.add(extensionURI.substring(1));
-        }
-
-        for (int i = 0; i < attributeNames.length; i++) {
-            tempAttributeNames.add(attributeNames[i]);
-        }
-
-        return tempAttributeNames.toArray(attributeNames);
-    }
-
     /*
      *
      * @param oldResource
@@ -578,19 +550,18 @@ public class PatchOperationUtil {
 
     /*
      * This is the patch remove operation when the path is specified without a filter in it.
-     * @param parts
+     * @param attributeParts
      * @param oldResource
      * @return
      * @throws BadRequestException
      * @throws CharonException
      */
     private static AbstractSCIMObject doPatchRemoveWithoutFilters
-    (String[] parts, AbstractSCIMObject oldResource) throws BadRequestException, CharonException {
+    (String[] attributeParts, AbstractSCIMObject oldResource) throws BadRequestException, CharonException {
 
-        String[] attributeParts = getAttributeParts(parts[0]);
         if (attributeParts.length == 1) {
 
-            Attribute attribute = oldResource.getAttribute(parts[0]);
+            Attribute attribute = oldResource.getAttribute(attributeParts[0]);
 
             if (attribute != null) {
                 if (attribute.getMutability().equals(SCIMDefinitions.Mutability.READ_ONLY) ||
@@ -732,6 +703,43 @@ public class PatchOperationUtil {
                                                 SCIMResourceTypeSchema schema)
             throws CharonException, BadRequestException, NotImplementedException, InternalErrorException {
 
+        applyPatchAdd(operation, decoder, oldResource, copyOfOldResource, schema);
+        // Validate the updated object.
+        AbstractSCIMObject validatedResource =
+                ServerSideValidator.validateUpdatedSCIMObject(copyOfOldResource, oldResource, schema, true);
+        return validatedResource;
+    }
+
+    /**
+     * Apply a patch add operation to the given resource, without validating the updated resource. This lets a series
+     * of operations be applied to one working copy which is validated once all of them are applied.
+     *
+     * @param operation Operation to be performed.
+     * @param decoder   JSON decoder.
+     * @param resource  Resource to be updated in place.
+     * @param schema    SCIM resource schema.
+     * @return The updated resource.
+     * @throws CharonException         If the operation cannot be applied.
+     * @throws BadRequestException     If the operation is not valid for the resource.
+     * @throws NotImplementedException If the operation is not supported.
+     * @throws InternalErrorException  If the operation value cannot be decoded.
+     */
+    public static AbstractSCIMObject applyPatchAdd(PatchOperation operation, JSONDecoder decoder,
+                                                   AbstractSCIMObject resource, SCIMResourceTypeSchema schema)
+            throws CharonException, BadRequestException, NotImplementedException, InternalErrorException {
+
+        applyPatchAdd(operation, decoder, resource, null, schema);
+        return resource;
+    }
+
+    /*
+     * Apply a patch add operation. The copy of the old resource is only used to validate add operations without a
+     * path, and may be null to skip that validation.
+     */
+    private static void applyPatchAdd(PatchOperation operation, JSONDecoder decoder, AbstractSCIMObject oldResource,
+                                      AbstractSCIMObject copyOfOldResource, SCIMResourceTypeSchema schema)
+            throws CharonException, BadRequestException, NotImplementedException, InternalErrorException {
+
         if (operation.getValues() == null) {
             throw new BadRequestException("The value is not provided to perform patch add operation.",
                     ResponseCodeConstants.INVALID_SYNTAX);
@@ -750,10 +758,6 @@ public class PatchOperationUtil {
         } else {
             doPatchAddOnResource(operation, decoder, oldResource, copyOfOldResource, schema);
         }
-        // Validate the updated object.
-        AbstractSCIMObject validatedResource =
-                ServerSideValidator.validateUpdatedSCIMObject(copyOfOldResource, oldResource, schema, true);
-        return validatedResource;
     }
 
     /**
@@ -772,49 +776,26 @@ public class PatchOperationUtil {
                                                      AbstractSCIMObject oldResource, SCIMResourceTypeSchema schema)
             throws CharonException, BadRequestException, NotImplementedException, InternalErrorException {
 
-        try {
-            Rule pathAttributeRule = Parser.parse(PATH_RULE_NAME, operation.getPath());
-
-            if (isFilterConditionProvidedInPath(pathAttributeRule)) {
-                // Filter condition has been provided in the path.
-                try {
-                    doPatchAddOnPathWithFilters(operation, decoder, oldResource, schema);
-                } catch (JSONException e) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Input JSON object/array is invalid, " + operation.getValues().toString());
-                    }
-                    throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
-                }
-            } else {
-                // Provided path doesn't contain filter condition.
-                doPatchAddOnPathWithoutFilters(operation, decoder, oldResource, schema);
-            }
-        } catch (ParserException e) {
+        PatchPath patchPath = PatchPathCache.getInstance().getPatchPath(operation.getPath());
+        if (!patchPath.isValidSyntax()) {
             throw new BadRequestException(
                     ("Path value is not a valid syntax according to the SCIM PATCH PATH Rule. path: " + operation
                             .getPath()), ResponseCodeConstants.INVALID_SYNTAX);
-
         }
-    }
 
-    /**
-     * Return true when the path contains filter condition(s), else return false. Normally filters surrounded by
-     * square bracket.
-     * According to SCIM spec Rule: valuePath = attributePath "[" valueFilter "]";
-     * Hence rule size is always four.
-     * Example path with filters: addresses[type eq \"work\"]
-     * Example path without filter: name.familyName
-     *
-     * @param pathAttributeRule Rule.
-     * @return Boolean value.
-     */
-    private static boolean isFilterConditionProvidedInPath(Rule pathAttributeRule) {
-
-        if (pathAttributeRule.rules.get(0).rules.size() == VALUE_PATH_RULE_SIZE &&
-                pathAttributeRule.rules.get(0) instanceof Rule_valuePath) {
-            return true;
+        if (patchPath.hasFilter()) {
+            // Filter condition has been provided in the path.
+            try {
+                doPatchAddOnPathWithFilters(operation, decoder, oldResource, schema, patchPath);
+            } catch (JSONException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Input JSON object/array is invalid, " + operation.getValues().toString());
+                }
+                throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
+            }
         } else {
-            return false;
+            // Provided path doesn't contain filter condition.
+            doPatchAddOnPathWithoutFilters(operation, decoder, oldResource, schema, patchPath);
         }
     }
 
@@ -825,6 +806,7 @@ public class PatchOperationUtil {
      * @param decoder     JSON decoder.
      * @param oldResource Original resource SCIM object.
      * @param schema      SCIM resource schema.
+     * @param patchPath   Compiled path of the operation.
      * @throws NotImplementedException
      * @throws BadRequestException
      * @throws CharonException
@@ -832,16 +814,14 @@ public class PatchOperationUtil {
      * @throws InternalErrorException
      */
     private static void doPatchAddOnPathWithFilters(PatchOperation operation, JSONDecoder decoder,
-                                                    AbstractSCIMObject oldResource, SCIMResourceTypeSchema schema)
+                                                    AbstractSCIMObject oldResource, SCIMResourceTypeSchema schema,
+                                                    PatchPath patchPath)
             throws NotImplementedException, BadRequestException, CharonException, JSONException,
             InternalErrorException {
 
-        String path = operation.getPath();
-        // Split the path to extract the filter.
-        String[] parts = path.split("[\\[\\]]");
         // Since the filter condition has been provided, we can consider this use-case behaviour as patch
         // replace with filters. So passing this to patch replace on path with filters method.
-        doPatchReplaceOnPathWithFilters(oldResource, schema, decoder, operation, parts);
+        doPatchReplaceOnPathWithFilters(oldResource, schema, decoder, operation, patchPath);
     }
 
     /**
@@ -851,17 +831,19 @@ public class PatchOperationUtil {
      * @param decoder     JSON decoder.
      * @param oldResource Original resource SCIM object.
      * @param schema      SCIM resource schema.
+     * @param patchPath   Compiled path of the operation.
      * @throws BadRequestException
      * @throws CharonException
      * @throws InternalErrorException
      * @throws NotImplementedException
      */
     private static void doPatchAddOnPathWithoutFilters(PatchOperation operation, JSONDecoder decoder,
-                                                       AbstractSCIMObject oldResource, SCIMResourceTypeSchema schema)
+                                                       AbstractSCIMObject oldResource, SCIMResourceTypeSchema schema,
+                                                       PatchPath patchPath)
             throws BadRequestException, CharonException, InternalErrorException {
 
         if (operation.getPath().trim().length() > 0) {
-            String[] attributeParts = getAttributeParts(operation.getPath());
+            String[] attributeParts = patchPath.getAttributeParts();
 
             if (log.isDebugEnabled()) {
                 log.debug("After splitting the Path attribute part(s): " + Arrays.toString(attributeParts));
@@ -1592,7 +1574,7 @@ public class PatchOperationUtil {
      * @param operation         Operation to be performed.
      * @param decoder           JSON decoder.
      * @param oldResource       Original resource SCIM object.
-     * @param copyOfOldResource Copy of the original resource SCIM object.
+     * @param copyOfOldResource Copy of the original resource SCIM object, or null to skip validating the update.
      * @param schema            SCIM resource schema.
      * @return Updated SCIM object resource.
      * @throws CharonException
@@ -1734,6 +1716,9 @@ public class PatchOperationUtil {
                         }
                     }
                 }
+                if (copyOfOldResource == null) {
+                    return oldResource;
+                }
                 AbstractSCIMObject validatedResource =
                         ServerSideValidator.validateUpdatedSCIMObject(copyOfOldResource, oldResource, schema, true);
 
@@ -1766,29 +1751,62 @@ public class PatchOperationUtil {
                                                     SCIMResourceTypeSchema schema)
             throws CharonException, NotImplementedException, BadRequestException, InternalErrorException {
 
+        applyPatchReplace(operation, decoder, oldResource, copyOfOldResource, schema);
+        //validate the updated object
+        AbstractSCIMObject validatedResource =
+                ServerSideValidator.validateUpdatedSCIMObject(copyOfOldResource, oldResource, schema, true);
+        return validatedResource;
+    }
+
+    /**
+     * Apply a patch replace operation to the given resource, without validating the updated resource. This lets a
+     * series of operations be applied to one working copy which is validated once all of them are applied.
+     *
+     * @param operation Operation to be performed.
+     * @param decoder   JSON decoder.
+     * @param resource  Resource to be updated in place.
+     * @param schema    SCIM resource schema.
+     * @return The updated resource.
+     * @throws CharonException         If the operation cannot be applied.
+     * @throws NotImplementedException If the operation is not supported.
+     * @throws BadRequestException     If the operation is not valid for the resource.
+     * @throws InternalErrorException  If the operation value cannot be decoded.
+     */
+    public static AbstractSCIMObject applyPatchReplace(PatchOperation operation, JSONDecoder decoder,
+                                                       AbstractSCIMObject resource, SCIMResourceTypeSchema schema)
+            throws CharonException, NotImplementedException, BadRequestException, InternalErrorException {
+
+        applyPatchReplace(operation, decoder, resource, null, schema);
+        return resource;
+    }
+
+    /*
+     * Apply a patch replace operation. The copy of the old resource is only used to validate replace operations
+     * without a path, and may be null to skip that validation.
+     */
+    private static void applyPatchReplace(PatchOperation operation, JSONDecoder decoder,
+                                          AbstractSCIMObject oldResource, AbstractSCIMObject copyOfOldResource,
+                                          SCIMResourceTypeSchema schema)
+            throws CharonException, NotImplementedException, BadRequestException, InternalErrorException {
+
         if (operation.getPath() != null) {
-            String path = operation.getPath();
-            //split the path to extract the filter if present.
-            String[] parts = path.split("[\\[\\]]");
+            PatchPath patchPath = PatchPathCache.getInstance().getPatchPath(operation.getPath());
 
-            if (operation.getPath().contains("[")) {
+            if (patchPath.hasFilter()) {
                 try {
-                    doPatchReplaceOnPathWithFilters(oldResource, schema, decoder, operation, parts);
+                    doPatchReplaceOnPathWithFilters(oldResource, schema, decoder, operation, patchPath);
                 } catch (JSONException e) {
                     throw new BadRequestException(ResponseCodeConstants.INVALID_SYNTAX);
                 }
 
             } else {
-                doPatchReplaceOnPathWithoutFilters(oldResource, schema, decoder, operation, parts);
+                doPatchReplaceOnPathWithoutFilters(oldResource, schema, decoder, operation,
+                        patchPath.getAttributeParts());
             }
 
         } else {
             doPatchReplaceOnResource(oldResource, copyOfOldResource, schema, decoder, operation);
         }
-        //validate the updated object
-        AbstractSCIMObject validatedResource =
-                ServerSideValidator.validateUpdatedSCIMObject(copyOfOldResource, oldResource, schema, true);
-        return validatedResource;
     }
 
     /*
@@ -1797,7 +1815,7 @@ public class PatchOperationUtil {
      * @param schema
      * @param decoder
      * @param operation
-     * @param parts
+     * @param attributeParts
      * @return
      * @throws BadRequestException
      * @throws CharonException
@@ -1807,11 +1825,9 @@ public class PatchOperationUtil {
     private static AbstractSCIMObject doPatchReplaceOnPathWithoutFilters(AbstractSCIMObject oldResource,
                                                                          SCIMResourceTypeSchema schema,
                                                                          JSONDecoder decoder, PatchOperation operation,
-                                                                         String[] parts)
+                                                                         String[] attributeParts)
             throws BadRequestException, CharonException, InternalErrorException {
 
-        String[] attributeParts = getAttributeParts(parts[0]);
-
         if (attributeParts.length == 1) {
 
             doPatchReplaceOnPathWithoutFiltersForLevelOne(oldResource, schema, decoder, operation, attributeParts);
@@ -2714,7 +2730,7 @@ public class PatchOperationUtil {
      * @param schema
      * @param decoder
      * @param operation
-     * @param parts
+     * @param patchPath
      * @throws NotImplementedException
      * @throws BadRequestException
      * @throws CharonException
@@ -2724,47 +2740,86 @@ public class PatchOperationUtil {
     private static void doPatchReplaceOnPathWithFilters(AbstractSCIMObject oldResource,
                                                         SCIMResourceTypeSchema schema,
                                                         JSONDecoder decoder, PatchOperation operation,
-                                                        String[] parts)
+                                                        PatchPath patchPath)
             throws NotImplementedException, BadRequestException,
             CharonException, JSONException, InternalErrorException {
 
-        if (parts.length != 1) {
-            //currently we only support simple filters here.
-            String[] filterParts = parts[1].split(" ");
+        String[] attributeParts = patchPath.getAttributeParts();
+        if (patchPath.hasFilter() && !patchPath.hasExpressionFilter() && attributeParts.length == 1) {
+            // Values of a multi valued complex attribute can be selected with any filter, e.g.
+            // 'emails[type eq work and primary eq true]'.
+            Attribute attribute = oldResource.getAttribute(attributeParts[0]);
+            if (attribute instanceof MultiValuedAttribute &&
+                    SCIMDefinitions.DataType.COMPLEX.equals(attribute.getType())) {
+                doPatchReplaceWithValueFilter((MultiValuedAttribute) attribute, attributeParts,
+                        patchPath.getValueFilter(schema), operation, schema, decoder);
+                return;
+            }
+        }
 
-            ExpressionNode expressionNode = new ExpressionNode();
-            expressionNode.setAttributeValue(filterParts[0]);
-            expressionNode.setOperation(filterParts[1]);
-            // According to the specification filter attribute value specified with quotation mark, so we need to
-            // remove it if exists.
-            expressionNode.setValue(filterParts[2].replaceAll("^\"|\"$", ""));
+        //currently we only support simple filters here.
+        ExpressionNode expressionNode = patchPath.getFilter();
 
-            if (expressionNode.getOperation().equalsIgnoreCase((SCIMConstants.OperationalConstants.EQ).trim())) {
-                if (parts.length == 3) {
-                    parts[0] = parts[0] + parts[2];
-                }
-                String[] attributeParts = getAttributeParts(parts[0]);
+        if (expressionNode.getOperation().equalsIgnoreCase((SCIMConstants.OperationalConstants.EQ).trim())) {
+            if (attributeParts.length == 1) {
 
-                if (attributeParts.length == 1) {
+                doPatchReplaceWithFiltersForLevelOne(oldResource, attributeParts,
+                        expressionNode, operation, schema, decoder);
 
-                    doPatchReplaceWithFiltersForLevelOne(oldResource, attributeParts,
-                            expressionNode, operation, schema, decoder);
+            } else if (attributeParts.length == 2) {
 
-                } else if (attributeParts.length == 2) {
+                doPatchReplaceWithFiltersForLevelTwo(oldResource, attributeParts,
+                        expressionNode, operation, schema, decoder);
 
-                    doPatchReplaceWithFiltersForLevelTwo(oldResource, attributeParts,
-                            expressionNode, operation, schema, decoder);
+            } else if (attributeParts.length == 3) {
 
-                } else if (attributeParts.length == 3) {
+                doPatchReplaceWithFiltersForLevelThree(oldResource, attributeParts,
+                        expressionNode, operation, schema, decoder);
+            }
 
-                    doPatchReplaceWithFiltersForLevelThree(oldResource, attributeParts,
-                            expressionNode, operation, schema, decoder);
-                }
+        } else {
+            throw new NotImplementedException("Only Eq filter is supported");
+        }
+    }
 
-            } else {
-                throw new NotImplementedException("Only Eq filter is supported");
+    /*
+     * This method is to do patch replace for the values of a multi valued complex attribute selected by a filter.
+     * @param attribute
+     * @param attributeParts
+     * @param valueFilter
+     * @param operation
+     * @param schema
+     * @param decoder
+     * @throws BadRequestException
+     * @throws CharonException
+     * @throws JSONException
+     * @throws InternalErrorException
+     */
+    private static void doPatchReplaceWithValueFilter(MultiValuedAttribute attribute, String[] attributeParts,
+                                                      Predicate<ComplexAttribute> valueFilter,
+                                                      PatchOperation operation, SCIMResourceTypeSchema schema,
+                                                      JSONDecoder decoder)
+            throws BadRequestException, CharonException, JSONException, InternalErrorException {
+
+        List<Attribute> subValues = attribute.getAttributeValues();
+        boolean isValueFound = false;
+        for (Iterator<Attribute> subValueIterator = subValues.iterator(); subValueIterator.hasNext(); ) {
+            Attribute subValue = subValueIterator.next();
+            if (subValue instanceof ComplexAttribute && valueFilter.test((ComplexAttribute) subValue)) {
+                if (subValue.getMutability().equals(SCIMDefinitions.Mutability.READ_ONLY) ||
+                        subValue.getMutability().equals(SCIMDefinitions.Mutability.IMMUTABLE)) {
+                    throw new BadRequestException("Can not remove a immutable attribute or a read-only attribute",
+                            ResponseCodeConstants.MUTABILITY);
+                }
+                subValueIterator.remove();
+                isValueFound = true;
             }
         }
+        if (!isValueFound) {
+            throw new BadRequestException("No matching filter value found.", ResponseCodeConstants.NO_TARGET);
+        }
+        AttributeSchema attributeSchema = SchemaUtil.getAttributeSchema(attributeParts[0], schema);
+        subValues.add(decoder.buildComplexAttribute(attributeSchema, (JSONObject) operation.getValues()));
     }
 
     /*
@@ -3607,6 +3662,9 @@ public class PatchOperationUtil {
                         oldResource.setAttribute(attributeHoldingSCIMObject.getAttributeList().get(attributeName));
                     }
                 }
+                if (copyOfOldResource == null) {
+                    return oldResource;
+                }
                 AbstractSCIMObject validatedResource =
                         ServerSideValidator.validateUpdatedSCIMObject(copyOfOldResource, oldResource, schema, true);
 
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.json.JSONObject;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.InternalErrorException;
+import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.plainobjects.ChangeSet;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.schema.ServerSideValidator;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Applies the operations of a PATCH request to a single working copy of a resource.
+ * <p>
+ * Every operation updates the working copy in place, without copying or validating it in between. The resource the
+ * working copy was made from is left untouched; it is what the patched resource is validated against. The top level
+ * attributes touched by the operations are tracked, so that {@link #validate()} only checks those attributes, once,
+ * after all the operations have been applied.
+ *
+ * @param <T> Type of the patched resource.
+ */
+public class PatchWorkingCopy<T extends AbstractSCIMObject> {
+
+    private final SCIMResourceTypeSchema schema;
+    private final T original;
+    private final Set<String> modifiedAttributes = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private final T workingCopy;
+    private boolean allAttributesModified;
+
+    /**
+     * Start patching the given working copy.
+     *
+     * @param original    Resource being patched. It is not modified.
+     * @param workingCopy Copy of the resource, which is updated in place by the operations.
+     * @param schema      Schema of the resource.
+     */
+    public PatchWorkingCopy(T original, T workingCopy, SCIMResourceTypeSchema schema) {
+
+        this.original = original;
+        this.workingCopy = workingCopy;
+        this.schema = schema;
+    }
+
+    /**
+     * Apply the given operation to the working copy.
+     *
+     * @param operation Operation to be applied.
+     * @param decoder   JSON decoder for the values of the operation.
+     * @throws BadRequestException     If the operation is unknown or not valid for the resource.
+     * @throws NotImplementedException If the operation is not supported.
+     * @throws CharonException         If the operation cannot be applied.
+     * @throws InternalErrorException  If the values of the operation cannot be decoded.
+     */
+    public void apply(PatchOperation operation, JSONDecoder decoder)
+            throws BadRequestException, NotImplementedException, CharonException, InternalErrorException {
+
+        switch (operation.getOperation()) {
+            case SCIMConstants.OperationalConstants.ADD:
+                PatchOperationUtil.applyPatchAdd(operation, decoder, workingCopy, schema);
+                break;
+            case SCIMConstants.OperationalConstants.REMOVE:
+                PatchOperationUtil.applyPatchRemove(operation, workingCopy);
+                break;
+            case SCIMConstants.OperationalConstants.REPLACE:
+                PatchOperationUtil.applyPatchReplace(operation, decoder, workingCopy, schema);
+                break;
+            default:
+                throw new BadRequestException("Unknown operation.", ResponseCodeConstants.INVALID_SYNTAX);
+        }
+        if (operation.getPath() != null) {
+            markModified(operation.getPath());
+        } else if (operation.getValues() instanceof JSONObject values) {
+            for (String attributeName : values.keySet()) {
+                markModified(attributeName);
+            }
+        } else {
+            allAttributesModified = true;
+        }
+    }
+
+    /**
+     * Record that the attribute at the given path of the working copy has been modified outside of
+     * {@link #apply(PatchOperation, JSONDecoder)}, so that it is validated.
+     *
+     * @param attributePath Attribute name, dotted path or attribute URI, optionally with a value filter.
+     */
+    public void markModified(String attributePath) {
+
+        String attributeName = getTopLevelAttributeName(attributePath);
+        if (attributeName == null) {
+            // Validate the whole resource when the attribute is not known to the schema.
+            allAttributesModified = true;
+        } else {
+            modifiedAttributes.add(attributeName);
+        }
+    }
+
+    /**
+     * Validate the working copy against the resource it was copied from. Read only attributes are
+     * restored from that resource, immutable attributes are checked for modifications and required attributes for
+     * removals, considering only the modified attributes.
+     *
+     * @throws CharonException     If the working copy cannot be validated.
+     * @throws BadRequestException If the operations left the resource in an invalid state.
+     */
+    public void validate() throws CharonException, BadRequestException {
+
+        ServerSideValidator.validatePatchedSCIMObject(original, workingCopy, schema,
+                allAttributesModified ? null : modifiedAttributes);
+    }
+
+    /**
+     * Return the working copy, with all the operations applied so far.
+     *
+     * @return The working copy.
+     */
+    public T getWorkingCopy() {
+
+        return workingCopy;
+    }
+
+    /**
+     * Return the resource being patched, as it was before any operation was applied.
+     *
+     * @return The resource as it was before the patch.
+     */
+    public T getOriginal() {
+
+        return original;
+    }
+
+    /**
+     * Return the names of the top level attributes modified so far.
+     *
+     * @return Names of the modified attributes, or null if the whole resource has to be considered modified.
+     */
+    public Set<String> getModifiedAttributes() {
+
+        return allAttributesModified ? null : Collections.unmodifiableSet(modifiedAttributes);
+    }
+
+    /**
+     * Compute the changes the operations made to the resource. Only the modified attributes are compared, so this is
+     * meant to be called once the working copy has been validated.
+     *
+     * @return Changes made to the resource.
+     */
+    public ChangeSet getChangeSet() {
+
+        return ChangeSetUtil.getChangeSet(original, workingCopy, getModifiedAttributes());
+    }
+
+    /*
+     * Name of the top level attribute of the schema which holds the attribute at the given path, or null if the
+     * path does not belong to any of them. Extension attributes are held by the attribute named after the extension.
+     */
+    private String getTopLevelAttributeName(String attributePath) {
+
+        if (attributePath == null) {
+            return null;
+        }
+        int filterIndex = attributePath.indexOf('[');
+        String path = (filterIndex < 0 ? attributePath : attributePath.substring(0, filterIndex)).trim();
+        for (AttributeSchema attributeSchema : schema.getAttributesList()) {
+            if (isPathOf(path, attributeSchema.getName()) || isPathOf(path, attributeSchema.getURI())) {
+                return attributeSchema.getName();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isPathOf(String path, String attributeName) {
+
+        if (attributeName == null || !path.regionMatches(true, 0, attributeName, 0, attributeName.length())) {
+            return false;
+        }
+        if (path.length() == attributeName.length()) {
+            return true;
+        }
+        char separator = path.charAt(attributeName.length());
+        return separator == '.' || separator == ':';
+    }
+}
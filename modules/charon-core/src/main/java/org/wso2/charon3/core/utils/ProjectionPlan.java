@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The compiled form of the 'attributes' and 'excludedAttributes' parameters of a request. A plan answers the two
+ * questions asked for every read: which attribute URIs have to be retrieved from the user store, and which
+ * attributes of a retrieved object have to be removed before it is returned.
+ * <p>
+ * The comma separated parameters are split once, when the plan is created. Pruning walks a tree of attribute paths
+ * which mirrors the attributes of the pruned objects; each node knows whether its path is requested or excluded, so
+ * after the first object no attribute path is concatenated or compared again. The same decisions are available one
+ * attribute at a time, so that an encoder can leave attributes out while it writes an object instead of removing
+ * them from it first. The required attribute URIs are computed once per resource type schema, which is matched by
+ * identity.
+ * <p>
+ * Plans are immutable from the outside and safe to share between threads. Use {@link ProjectionPlanCache} to obtain
+ * them.
+ */
+public final class ProjectionPlan {
+
+    private final String attributes;
+    private final String excludedAttributes;
+    private final Set<String> requestedPaths;
+    private final Set<String> excludedPaths;
+    private final PathNode root;
+    private final Map<SCIMResourceTypeSchema, Map<String, Boolean>> requiredAttributeURIs = new WeakHashMap<>();
+
+    /**
+     * Compile the given parameters. A request should only contain one of them.
+     *
+     * @param attributes         Comma separated list of the requested attributes, or null.
+     * @param excludedAttributes Comma separated list of the excluded attributes, or null.
+     */
+    public ProjectionPlan(String attributes, String excludedAttributes) {
+
+        this.attributes = attributes;
+        this.excludedAttributes = excludedAttributes;
+        this.requestedPaths = toPathSet(attributes);
+        this.excludedPaths = toPathSet(excludedAttributes);
+        this.root = new PathNode(null, false, false);
+    }
+
+    public String getAttributes() {
+
+        return attributes;
+    }
+
+    public String getExcludedAttributes() {
+
+        return excludedAttributes;
+    }
+
+    /**
+     * Return the URIs of the attributes which need to be retrieved from the user store, along with whether their
+     * parent attribute is multi valued.
+     *
+     * @param schema Schema of the resource type.
+     * @return A new, modifiable map of the required attribute URIs.
+     * @throws CharonException If the schema attributes could not be copied.
+     */
+    public Map<String, Boolean> getRequiredAttributeURIs(SCIMResourceTypeSchema schema) throws CharonException {
+
+        Map<String, Boolean> attributeURIs;
+        synchronized (requiredAttributeURIs) {
+            attributeURIs = requiredAttributeURIs.get(schema);
+        }
+        if (attributeURIs == null) {
+            attributeURIs = Collections.unmodifiableMap(ResourceManagerUtil.computeRequiredAttributesURIs(schema,
+                    attributes, excludedAttributes));
+            synchronized (requiredAttributeURIs) {
+                requiredAttributeURIs.put(schema, attributeURIs);
+            }
+        }
+        return new HashMap<>(attributeURIs);
+    }
+
+    /**
+     * Remove the attributes which are never returned, are only returned on request, or are not requested, from the
+     * given object.
+     *
+     * @param scimObject Object to be returned.
+     * @throws CharonException If an attribute could not be removed.
+     */
+    public void prune(AbstractSCIMObject scimObject) throws CharonException {
+
+        for (Attribute attribute : new ArrayList<>(scimObject.getAttributeList().values())) {
+            if (!isReturned(attribute)) {
+                scimObject.deleteAttribute(attribute.getName());
+                continue;
+            }
+            if (!SCIMDefinitions.DataType.COMPLEX.equals(attribute.getType())) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(attribute.getMultiValued())) {
+                for (Attribute value : ((MultiValuedAttribute) attribute).getAttributeValues()) {
+                    for (Attribute subAttribute : subAttributesOf(value)) {
+                        if (!isValueSubAttributeReturned(attribute, subAttribute)) {
+                            scimObject.deleteValuesSubAttribute(attribute.getName(), value.getName(),
+                                    subAttribute.getName());
+                        }
+                    }
+                }
+            } else {
+                for (Attribute subAttribute : subAttributesOf(attribute)) {
+                    pruneSubAttribute(scimObject, attribute, subAttribute);
+                }
+            }
+        }
+    }
+
+    /*
+     * Prune a sub attribute of a complex attribute, after the sub attributes of the sub attribute if it is complex.
+     * Complex sub attributes only exist in extension schemas.
+     */
+    private void pruneSubAttribute(AbstractSCIMObject scimObject, Attribute attribute, Attribute subAttribute)
+            throws CharonException {
+
+        if (SCIMDefinitions.DataType.COMPLEX.equals(subAttribute.getType())) {
+            if (Boolean.TRUE.equals(subAttribute.getMultiValued())) {
+                for (Attribute value : ((MultiValuedAttribute) subAttribute).getAttributeValues()) {
+                    for (Attribute subSubAttribute : subAttributesOf(value)) {
+                        if (!isSubSubAttributeReturned(attribute, subAttribute, subSubAttribute)) {
+                            scimObject.deleteSubValuesSubAttribute(attribute.getName(), subAttribute.getName(),
+                                    value.getName(), subSubAttribute.getName());
+                        }
+                    }
+                }
+            } else {
+                for (Attribute subSubAttribute : subAttributesOf(subAttribute)) {
+                    if (!isSubSubAttributeReturned(attribute, subAttribute, subSubAttribute)) {
+                        scimObject.deleteSubSubAttribute(subSubAttribute.getName(), subAttribute.getName(),
+                                attribute.getName());
+                    }
+                }
+            }
+        }
+        if (!isSubAttributeReturned(attribute, subAttribute)) {
+            scimObject.deleteSubAttribute(attribute.getName(), subAttribute.getName());
+        }
+    }
+
+    /**
+     * Whether a top level attribute of an object is returned.
+     *
+     * @param attribute Top level attribute.
+     * @return True if the attribute is returned.
+     */
+    public boolean isReturned(Attribute attribute) {
+
+        PathNode attributeNode = root.child(attribute.getName());
+        return !isRemoved(attribute, attributeNode, isSubAttributeRequested(attributeNode, attribute));
+    }
+
+    /**
+     * Whether a sub attribute of a single valued complex attribute is returned.
+     *
+     * @param attribute    Complex top level attribute.
+     * @param subAttribute Sub attribute of the complex attribute.
+     * @return True if the sub attribute is returned.
+     */
+    public boolean isSubAttributeReturned(Attribute attribute, Attribute subAttribute) {
+
+        PathNode attributeNode = root.child(attribute.getName());
+        PathNode subAttributeNode = attributeNode.child(subAttribute.getName());
+        // Sub attributes of the sub attribute which are never returned do not keep it.
+        return !isRemoved(subAttribute, subAttributeNode, attributeNode.requested ||
+                isSubSubAttributeRequested(subAttributeNode, subAttribute, true));
+    }
+
+    /**
+     * Whether a sub attribute of a value of a multi valued complex attribute is returned.
+     *
+     * @param attribute    Multi valued complex top level attribute.
+     * @param subAttribute Sub attribute of one of the values.
+     * @return True if the sub attribute is returned.
+     */
+    public boolean isValueSubAttributeReturned(Attribute attribute, Attribute subAttribute) {
+
+        PathNode attributeNode = root.child(attribute.getName());
+        PathNode subAttributeNode = attributeNode.child(subAttribute.getName());
+        if (attributes == null && excludedAttributes == null) {
+            // Whether a value's sub attribute is returned on request only depends on the parent attribute.
+            return !hasReturned(subAttribute, SCIMDefinitions.Returned.NEVER) &&
+                    !hasReturned(attribute, SCIMDefinitions.Returned.REQUEST);
+        }
+        return !isRemoved(subAttribute, subAttributeNode, attributeNode.requested ||
+                isSubSubAttributeRequested(subAttributeNode, subAttribute, false));
+    }
+
+    /**
+     * Whether a sub attribute of a complex sub attribute, or of a value of a multi valued complex sub attribute, is
+     * returned. Complex sub attributes only exist in extension schemas.
+     *
+     * @param attribute       Complex top level attribute.
+     * @param subAttribute    Complex sub attribute of the top level attribute.
+     * @param subSubAttribute Sub attribute of the sub attribute or of one of its values.
+     * @return True if the sub attribute of the sub attribute is returned.
+     */
+    public boolean isSubSubAttributeReturned(Attribute attribute, Attribute subAttribute, Attribute subSubAttribute) {
+
+        PathNode attributeNode = root.child(attribute.getName());
+        PathNode subAttributeNode = attributeNode.child(subAttribute.getName());
+        if (attributes == null && excludedAttributes == null) {
+            // The values of a multi valued sub attribute are returned on request along with the top level attribute.
+            Attribute requestReturnedAttribute = Boolean.TRUE.equals(subAttribute.getMultiValued()) ?
+                    attribute : subSubAttribute;
+            return !hasReturned(subSubAttribute, SCIMDefinitions.Returned.NEVER) &&
+                    !hasReturned(requestReturnedAttribute, SCIMDefinitions.Returned.REQUEST);
+        }
+        return !isRemoved(subSubAttribute, subAttributeNode.child(subSubAttribute.getName()),
+                attributeNode.requested || subAttributeNode.requested);
+    }
+
+    /*
+     * Whether an attribute has to be removed, given its own path and whether any of its ancestors or descendants is
+     * requested.
+     */
+    private boolean isRemoved(Attribute attribute, PathNode node, boolean relativeRequested) {
+
+        if (hasReturned(attribute, SCIMDefinitions.Returned.NEVER)) {
+            return true;
+        }
+        if (attributes == null && excludedAttributes == null) {
+            return hasReturned(attribute, SCIMDefinitions.Returned.REQUEST);
+        }
+        if (attributes != null) {
+            return (hasReturned(attribute, SCIMDefinitions.Returned.DEFAULT) ||
+                    hasReturned(attribute, SCIMDefinitions.Returned.REQUEST)) && !node.requested &&
+                    !relativeRequested;
+        }
+        return hasReturned(attribute, SCIMDefinitions.Returned.REQUEST) ||
+                (hasReturned(attribute, SCIMDefinitions.Returned.DEFAULT) && node.excluded);
+    }
+
+    /*
+     * Whether any sub attribute, or sub attribute of a complex sub attribute, of the given attribute is requested.
+     * Only the sub attributes which are present in the object are considered.
+     */
+    private boolean isSubAttributeRequested(PathNode node, Attribute attribute) {
+
+        if (attributes == null) {
+            return false;
+        }
+        if (attribute instanceof MultiValuedAttribute multiValuedAttribute) {
+            for (Attribute value : multiValuedAttribute.getAttributeValues()) {
+                for (Attribute subAttribute : subAttributesOf(value)) {
+                    if (node.child(subAttribute.getName()).requested) {
+                        return true;
+                    }
+                }
+                if (SCIMDefinitions.DataType.COMPLEX.equals(value.getType()) &&
+                        isSubSubAttributeRequested(node.child(value.getName()), value, false)) {
+                    return true;
+                }
+            }
+        } else if (attribute instanceof ComplexAttribute complexAttribute) {
+            for (Attribute subAttribute : complexAttribute.getSubAttributesList().values()) {
+                PathNode subAttributeNode = node.child(subAttribute.getName());
+                if (subAttributeNode.requested || (SCIMDefinitions.DataType.COMPLEX.equals(subAttribute.getType()) &&
+                        isSubSubAttributeRequested(subAttributeNode, subAttribute, false))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Whether any sub attribute of the given attribute is requested, without descending further. This is how the
+     * sub attributes of a sub attribute are checked. Sub attributes which are never returned can be left out.
+     */
+    private boolean isSubSubAttributeRequested(PathNode node, Attribute subAttribute, boolean returnedOnly) {
+
+        if (attributes == null) {
+            return false;
+        }
+        if (subAttribute instanceof MultiValuedAttribute multiValuedAttribute) {
+            for (Attribute value : multiValuedAttribute.getAttributeValues()) {
+                if (isAnySubAttributeRequested(node, value, returnedOnly)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return isAnySubAttributeRequested(node, subAttribute, returnedOnly);
+    }
+
+    private boolean isAnySubAttributeRequested(PathNode node, Attribute attribute, boolean returnedOnly) {
+
+        if (attribute instanceof ComplexAttribute complexAttribute) {
+            for (Attribute subAttribute : complexAttribute.getSubAttributesList().values()) {
+                if (node.child(subAttribute.getName()).requested &&
+                        !(returnedOnly && hasReturned(subAttribute, SCIMDefinitions.Returned.NEVER))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasReturned(Attribute attribute, SCIMDefinitions.Returned returned) {
+
+        return returned.equals(attribute.getReturned());
+    }
+
+    /*
+     * Snapshot of the sub attributes of a complex attribute, as they may be removed while they are iterated.
+     */
+    private static Iterable<Attribute> subAttributesOf(Attribute attribute) {
+
+        if (attribute instanceof ComplexAttribute complexAttribute) {
+            return new ArrayList<>(complexAttribute.getSubAttributesList().values());
+        }
+        return Collections.emptyList();
+    }
+
+    private static Set<String> toPathSet(String paths) {
+
+        if (paths == null) {
+            return null;
+        }
+        Set<String> pathSet = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        pathSet.addAll(Arrays.asList(paths.split(",")));
+        return pathSet;
+    }
+
+    /**
+     * An attribute path, along with whether it is requested or excluded. Child nodes are created on first use, as
+     * attribute names of extensions may contain dots and the paths can therefore not be split.
+     */
+    private final class PathNode {
+
+        private final String path;
+        private final boolean requested;
+        private final boolean excluded;
+        private final ConcurrentMap<String, PathNode> children = new ConcurrentHashMap<>();
+
+        private PathNode(String path, boolean requested, boolean excluded) {
+
+            this.path = path;
+            this.requested = requested;
+            this.excluded = excluded;
+        }
+
+        private PathNode child(String name) {
+
+            PathNode child = children.get(name);
+            if (child == null) {
+                String childPath = path == null ? name : path + "." + name;
+                child = new PathNode(childPath, requestedPaths != null && requestedPaths.contains(childPath),
+                        excludedPaths != null && excludedPaths.contains(childPath));
+                PathNode existingChild = children.putIfAbsent(name, child);
+                if (existingChild != null) {
+                    child = existingChild;
+                }
+            }
+            return child;
+        }
+    }
+}
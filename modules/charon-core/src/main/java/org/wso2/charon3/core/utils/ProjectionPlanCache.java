@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, least recently used cache of the {@link ProjectionPlan}s compiled from the 'attributes' and
+ * 'excludedAttributes' parameters of requests.
+ * <p>
+ * Plans only depend on the parameters, so a plan is shared by every resource type; the required attribute URIs a
+ * plan computes are kept per resource type schema inside the plan.
+ */
+public final class ProjectionPlanCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final ProjectionPlanCache INSTANCE = new ProjectionPlanCache();
+
+    private final ProjectionPlanMap projectionPlans = new ProjectionPlanMap();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile int maxSize = DEFAULT_MAX_SIZE;
+
+    private ProjectionPlanCache() {
+
+    }
+
+    public static ProjectionPlanCache getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Return the projection plan of the given parameters, compiling it only if it is not cached yet.
+     *
+     * @param attributes         Comma separated list of the requested attributes, or null.
+     * @param excludedAttributes Comma separated list of the excluded attributes, or null.
+     * @return Projection plan of the parameters.
+     */
+    public ProjectionPlan getProjectionPlan(String attributes, String excludedAttributes) {
+
+        if (maxSize <= 0) {
+            misses.incrementAndGet();
+            return new ProjectionPlan(attributes, excludedAttributes);
+        }
+        CacheKey key = new CacheKey(attributes, excludedAttributes);
+        ProjectionPlan projectionPlan;
+        synchronized (projectionPlans) {
+            projectionPlan = projectionPlans.get(key);
+        }
+        if (projectionPlan != null) {
+            hits.incrementAndGet();
+            return projectionPlan;
+        }
+        misses.incrementAndGet();
+        projectionPlan = new ProjectionPlan(attributes, excludedAttributes);
+        synchronized (projectionPlans) {
+            ProjectionPlan existingPlan = projectionPlans.putIfAbsent(key, projectionPlan);
+            if (existingPlan != null) {
+                projectionPlan = existingPlan;
+            }
+        }
+        return projectionPlan;
+    }
+
+    public int getMaxSize() {
+
+        return maxSize;
+    }
+
+    /**
+     * Set the maximum number of cached projection plans.
+     *
+     * @param maxSize Maximum number of cached projection plans, or 0 to disable caching.
+     */
+    public void setMaxSize(int maxSize) {
+
+        this.maxSize = maxSize;
+        synchronized (projectionPlans) {
+            projectionPlans.maxSize = maxSize;
+            projectionPlans.entrySet().removeIf(entry -> projectionPlans.size() > Math.max(maxSize, 0));
+        }
+    }
+
+    /**
+     * Remove all the cached projection plans. The hit, miss and eviction counts are kept.
+     */
+    public void clear() {
+
+        synchronized (projectionPlans) {
+            projectionPlans.clear();
+        }
+    }
+
+    public int size() {
+
+        synchronized (projectionPlans) {
+            return projectionPlans.size();
+        }
+    }
+
+    public long getHitCount() {
+
+        return hits.get();
+    }
+
+    public long getMissCount() {
+
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+
+        return projectionPlans.evictions.get();
+    }
+
+    /**
+     * Projection plans in least recently used order, holding at most the maximum number of plans.
+     */
+    private static final class ProjectionPlanMap extends LinkedHashMap<CacheKey, ProjectionPlan> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final AtomicLong evictions = new AtomicLong();
+        private int maxSize = DEFAULT_MAX_SIZE;
+
+        private ProjectionPlanMap() {
+
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, ProjectionPlan> eldest) {
+
+            if (size() > maxSize) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Key of a cached projection plan.
+     */
+    private static final class CacheKey {
+
+        private final String attributes;
+        private final String excludedAttributes;
+        private final int hashCode;
+
+        private CacheKey(String attributes, String excludedAttributes) {
+
+            this.attributes = attributes;
+            this.excludedAttributes = excludedAttributes;
+            this.hashCode = 31 * Objects.hashCode(attributes) + Objects.hashCode(excludedAttributes);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof CacheKey key)) {
+                return false;
+            }
+            return hashCode == key.hashCode && Objects.equals(attributes, key.attributes) &&
+                    Objects.equals(excludedAttributes, key.excludedAttributes);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+}
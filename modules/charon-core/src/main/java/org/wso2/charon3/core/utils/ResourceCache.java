@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded, least recently used cache of SCIM resources read from a user store, keyed by the key the resource was
+ * looked up by, e.g. its id or user name, and the attributes it was loaded with. Resources expire after a fixed time
+ * to live, which bounds how long changes made to the store by others go unnoticed.
+ * <p>
+ * Resources are copied as they are put into and taken out of the cache, so that callers can modify the resources
+ * they get. All the cached resources of an id are invalidated together, whichever key they were looked up by.
+ * <p>
+ * A resource loaded while the cache is being invalidated may already be stale. Callers therefore take the
+ * invalidation count before loading a resource and pass it to {@link #put(String, Map, AbstractSCIMObject, long)},
+ * which drops the resource if any invalidation happened in the meantime.
+ *
+ * @param <T> Type of the cached resources.
+ */
+public final class ResourceCache<T extends AbstractSCIMObject> {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 60000L;
+
+    private final Map<CacheKey, CacheEntry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<CacheKey>> keysOfResources = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Create a cache holding at most the given number of resources, each for at most the given time.
+     *
+     * @param maxSize          Maximum number of cached resources, or 0 to disable caching.
+     * @param timeToLiveMillis Time in milliseconds after which a cached resource expires.
+     */
+    public ResourceCache(int maxSize, long timeToLiveMillis) {
+
+        this(maxSize, timeToLiveMillis, System::nanoTime);
+    }
+
+    ResourceCache(int maxSize, long timeToLiveMillis, LongSupplier clock) {
+
+        this.maxSize = Math.max(maxSize, 0);
+        this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Return a copy of the resource cached for the given key and attributes.
+     *
+     * @param key                Key the resource is looked up by.
+     * @param requiredAttributes URIs of the attributes the resource is loaded with.
+     * @return Copy of the cached resource, or null if it is not cached or has expired.
+     */
+    public T get(String key, Map<String, Boolean> requiredAttributes) {
+
+        CacheEntry<T> entry;
+        synchronized (entries) {
+            CacheKey cacheKey = new CacheKey(key, requiredAttributes);
+            entry = entries.get(cacheKey);
+            if (entry != null && clock.getAsLong() - entry.expiresAt > 0) {
+                remove(cacheKey, entry);
+                evictions.incrementAndGet();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return StructuralCopier.copySCIMObject(entry.resource);
+    }
+
+    /**
+     * Cache a copy of the given resource for the given key and attributes, unless an invalidation happened since
+     * the given invalidation count was taken.
+     *
+     * @param key                Key the resource was looked up by.
+     * @param requiredAttributes URIs of the attributes the resource was loaded with.
+     * @param resource           Resource loaded from the user store.
+     * @param invalidationCount  Invalidation count taken before the resource was loaded.
+     */
+    public void put(String key, Map<String, Boolean> requiredAttributes, T resource, long invalidationCount) {
+
+        if (maxSize == 0 || resource == null || resource.getId() == null) {
+            return;
+        }
+        CacheEntry<T> entry = new CacheEntry<>(resource.getId(), StructuralCopier.copySCIMObject(resource),
+                clock.getAsLong() + timeToLiveNanos);
+        synchronized (entries) {
+            if (invalidations.get() != invalidationCount) {
+                return;
+            }
+            CacheKey cacheKey = new CacheKey(key, requiredAttributes == null ? null :
+                    new HashMap<>(requiredAttributes));
+            CacheEntry<T> existingEntry = entries.put(cacheKey, entry);
+            if (existingEntry != null && !existingEntry.resourceId.equals(entry.resourceId)) {
+                removeKeyOfResource(existingEntry.resourceId, cacheKey);
+            }
+            keysOfResources.computeIfAbsent(entry.resourceId, id -> new HashSet<>()).add(cacheKey);
+            Iterator<Map.Entry<CacheKey, CacheEntry<T>>> eldestEntries = entries.entrySet().iterator();
+            while (entries.size() > maxSize) {
+                Map.Entry<CacheKey, CacheEntry<T>> eldestEntry = eldestEntries.next();
+                eldestEntries.remove();
+                removeKeyOfResource(eldestEntry.getValue().resourceId, eldestEntry.getKey());
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Remove all the cached resources of the given id.
+     *
+     * @param resourceId Id of the resource.
+     */
+    public void invalidate(String resourceId) {
+
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            Set<CacheKey> keys = keysOfResources.remove(resourceId);
+            if (keys != null) {
+                entries.keySet().removeAll(keys);
+            }
+        }
+    }
+
+    /**
+     * Remove all the cached resources. The hit, miss and eviction counts are kept.
+     */
+    public void clear() {
+
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.clear();
+            keysOfResources.clear();
+        }
+    }
+
+    public int size() {
+
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxSize() {
+
+        return maxSize;
+    }
+
+    public long getTimeToLiveMillis() {
+
+        return TimeUnit.NANOSECONDS.toMillis(timeToLiveNanos);
+    }
+
+    public long getHitCount() {
+
+        return hits.get();
+    }
+
+    public long getMissCount() {
+
+        return misses.get();
+    }
+
+    /**
+     * Return the number of resources removed because the cache was full or because they expired.
+     *
+     * @return Number of evicted resources.
+     */
+    public long getEvictionCount() {
+
+        return evictions.get();
+    }
+
+    /**
+     * Return the number of invalidations so far, to be taken before a resource is loaded from the user store.
+     *
+     * @return Number of invalidations.
+     */
+    public long getInvalidationCount() {
+
+        return invalidations.get();
+    }
+
+    private void remove(CacheKey cacheKey, CacheEntry<T> entry) {
+
+        entries.remove(cacheKey);
+        removeKeyOfResource(entry.resourceId, cacheKey);
+    }
+
+    private void removeKeyOfResource(String resourceId, CacheKey cacheKey) {
+
+        Set<CacheKey> keys = keysOfResources.get(resourceId);
+        if (keys != null && keys.remove(cacheKey) && keys.isEmpty()) {
+            keysOfResources.remove(resourceId);
+        }
+    }
+
+    /**
+     * A cached resource along with the time it expires at.
+     */
+    private static final class CacheEntry<T> {
+
+        private final String resourceId;
+        private final T resource;
+        private final long expiresAt;
+
+        private CacheEntry(String resourceId, T resource, long expiresAt) {
+
+            this.resourceId = resourceId;
+            this.resource = resource;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Key of a cached resource.
+     */
+    private static final class CacheKey {
+
+        private final String key;
+        private final Map<String, Boolean> requiredAttributes;
+        private final int hashCode;
+
+        private CacheKey(String key, Map<String, Boolean> requiredAttributes) {
+
+            this.key = key;
+            this.requiredAttributes = requiredAttributes;
+            this.hashCode = 31 * Objects.hashCode(key) + Objects.hashCode(requiredAttributes);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof CacheKey cacheKey)) {
+                return false;
+            }
+            return hashCode == cacheKey.hashCode && Objects.equals(key, cacheKey.key) &&
+                    Objects.equals(requiredAttributes, cacheKey.requiredAttributes);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+}
@@ -50,6 +50,24 @@ public class ResourceManagerUtil {
                                                                      String requestedExcludingAttributes)
             throws CharonException {
 
+        return ProjectionPlanCache.getInstance().getProjectionPlan(requestedAttributes, requestedExcludingAttributes)
+                .getRequiredAttributeURIs(schema);
+    }
+
+    /*
+     * Compute the uri list of the required attributes, which is cached by the projection plan of the parameters.
+     *
+     * @param schema
+     * @param requestedAttributes
+     * @param requestedExcludingAttributes
+     * @return
+     * @throws CharonException
+     */
+    static Map<String, Boolean> computeRequiredAttributesURIs(SCIMResourceTypeSchema schema,
+                                                              String requestedAttributes,
+                                                              String requestedExcludingAttributes)
+            throws CharonException {
+
         ArrayList<AttributeSchema> attributeSchemaArrayList  =
                 getOnlyRequiredAttributes(schema, requestedAttributes, requestedExcludingAttributes);
         return convertSchemasToURIs(attributeSchemaArrayList);
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.charon3.core.utils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.wso2.charon3.core.attributes.AbstractAttribute;
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.Agent;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.ListedResource;
+import org.wso2.charon3.core.objects.Role;
+import org.wso2.charon3.core.objects.RoleV2;
+import org.wso2.charon3.core.objects.SCIMObject;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMAttributeSchema;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Schema aware deep copy engine for SCIM resources, attributes and schemas.
+ *
+ * Instead of round tripping the object graph through java serialization, the {@link Attribute} hierarchy and the
+ * attribute list of {@link AbstractSCIMObject} are walked directly and only the mutable containers are re-created.
+ * Immutable leaves such as Strings, Instants, enums and boxed values are shared between the original and the copy.
+ * Like serialization, an object referenced more than once in the source graph is copied only once.
+ *
+ * Types which are not known to this engine, including subclasses of the known SCIM types that may carry additional
+ * state, are copied with java serialization through {@link CopyUtil#serializationCopy(Object)}.
+ */
+public final class StructuralCopier {
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(String.class, Boolean.class, Character.class,
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigInteger.class,
+            BigDecimal.class, Instant.class, LocalDate.class, LocalDateTime.class, OffsetDateTime.class,
+            ZonedDateTime.class, UUID.class);
+
+    private static final Map<Class<?>, Supplier<AbstractSCIMObject>> SCIM_OBJECT_FACTORIES = Map.of(
+            AbstractSCIMObject.class, AbstractSCIMObject::new,
+            User.class, User::new,
+            Agent.class, Agent::new,
+            Group.class, Group::new,
+            Role.class, Role::new,
+            RoleV2.class, RoleV2::new,
+            ListedResource.class, ListedResource::new);
+
+    /** Copies created so far, keyed by the identity of the original object. */
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+
+    private StructuralCopier() {
+
+    }
+
+    /**
+     * Create a deep copy of the given object.
+     *
+     * @param object Object to be copied.
+     * @return Deep copy of the object.
+     */
+    public static Object copy(Object object) {
+
+        return new StructuralCopier().copyObject(object);
+    }
+
+    /**
+     * Create a deep copy of the given attribute.
+     *
+     * @param attribute Attribute to be copied.
+     * @return Deep copy of the attribute.
+     */
+    public static Attribute copyAttribute(Attribute attribute) {
+
+        return (Attribute) copy(attribute);
+    }
+
+    /**
+     * Create a deep copy of the given SCIM object.
+     *
+     * @param scimObject SCIM object to be copied.
+     * @param <T>        Type of the SCIM object.
+     * @return Deep copy of the SCIM object.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends AbstractSCIMObject> T copySCIMObject(T scimObject) {
+
+        return (T) copy(scimObject);
+    }
+
+    private static boolean isImmutable(Object object) {
+
+        return IMMUTABLE_TYPES.contains(object.getClass()) || object instanceof Enum || object == JSONObject.NULL;
+    }
+
+    private Object copyObject(Object object) {
+
+        if (object == null || isImmutable(object)) {
+            return object;
+        }
+        Object existingCopy = copies.get(object);
+        if (existingCopy != null) {
+            return existingCopy;
+        }
+
+        Class<?> type = object.getClass();
+        if (type == SimpleAttribute.class) {
+            return copySimpleAttribute((SimpleAttribute) object);
+        } else if (type == ComplexAttribute.class) {
+            return copyComplexAttribute((ComplexAttribute) object);
+        } else if (type == MultiValuedAttribute.class) {
+            return copyMultiValuedAttribute((MultiValuedAttribute) object);
+        } else if (SCIM_OBJECT_FACTORIES.containsKey(type)) {
+            return copySCIMObject((AbstractSCIMObject) object, SCIM_OBJECT_FACTORIES.get(type).get());
+        } else if (type == SCIMAttributeSchema.class) {
+            return copyAttributeSchema((SCIMAttributeSchema) object);
+        } else if (type == SCIMResourceTypeSchema.class) {
+            return copyResourceTypeSchema((SCIMResourceTypeSchema) object);
+        } else if (type == ArrayList.class || type == SCIMResourceTypeSchema.UnmodifiableAttributeList.class) {
+            return copyList((List<?>) object, new ArrayList<>(((List<?>) object).size()));
+        } else if (type == HashMap.class) {
+            return copyMap((Map<?, ?>) object, new HashMap<>());
+        } else if (type == LinkedHashMap.class) {
+            return copyMap((Map<?, ?>) object, new LinkedHashMap<>());
+        } else if (type == byte[].class) {
+            return remember(object, ((byte[]) object).clone());
+        } else if (type == Byte[].class) {
+            return remember(object, ((Byte[]) object).clone());
+        } else if (type == JSONObject.class) {
+            return remember(object, new JSONObject(object.toString()));
+        } else if (type == JSONArray.class) {
+            return remember(object, new JSONArray(object.toString()));
+        }
+        return remember(object, CopyUtil.serializationCopy(object));
+    }
+
+    private <T> T remember(Object original, T copy) {
+
+        copies.put(original, copy);
+        return copy;
+    }
+
+    private SimpleAttribute copySimpleAttribute(SimpleAttribute source) {
+
+        SimpleAttribute target = remember(source, new SimpleAttribute(source.getName(), null));
+        copyCharacteristics(source, target);
+        target.setValue(copyObject(source.getValue()));
+        return target;
+    }
+
+    private ComplexAttribute copyComplexAttribute(ComplexAttribute source) {
+
+        ComplexAttribute target = remember(source, new ComplexAttribute(source.getName()));
+        copyCharacteristics(source, target);
+        Map<String, Attribute> subAttributes = source.getSubAttributesList();
+        if (subAttributes == null) {
+            target.setSubAttributesList(null);
+        } else {
+            Map<String, Attribute> copiedSubAttributes = subAttributes instanceof LinkedHashMap ?
+                    new LinkedHashMap<>() : new HashMap<>();
+            copyMap(subAttributes, copiedSubAttributes);
+            target.setSubAttributesList(copiedSubAttributes);
+        }
+        return target;
+    }
+
+    private MultiValuedAttribute copyMultiValuedAttribute(MultiValuedAttribute source) {
+
+        MultiValuedAttribute target = remember(source, new MultiValuedAttribute(source.getName()));
+        copyCharacteristics(source, target);
+        List<Attribute> attributeValues = source.getAttributeValues();
+        target.setAttributeValues(attributeValues == null ? null :
+                copyList(attributeValues, new ArrayList<>(attributeValues.size())));
+        List<Object> primitiveValues = source.getAttributePrimitiveValues();
+        target.setAttributePrimitiveValues(primitiveValues == null ? null :
+                copyList(primitiveValues, new ArrayList<>(primitiveValues.size())));
+        return target;
+    }
+
+    private void copyCharacteristics(AbstractAttribute source, AbstractAttribute target) {
+
+        // Attribute schemas are not modified once built, so the copy shares the schema of the source.
+        source.copyCharacteristicsTo(target);
+        for (Map.Entry<String, String> property : source.getAttributeProperties().entrySet()) {
+            target.addAttributeProperty(property.getKey(), property.getValue());
+        }
+        for (Map.Entry<String, JSONObject> property : source.getAttributeJSONProperties().entrySet()) {
+            target.addAttributeJSONProperty(property.getKey(), (JSONObject) copyObject(property.getValue()));
+        }
+        for (Map.Entry<String, JSONArray> property : source.getAttributeJSONArrays().entrySet()) {
+            target.addAttributeJSONArray(property.getKey(), (JSONArray) copyObject(property.getValue()));
+        }
+    }
+
+    private AbstractSCIMObject copySCIMObject(AbstractSCIMObject source, AbstractSCIMObject target) {
+
+        remember(source, target);
+        copyMap(source.getAttributeList(), target.getAttributeList());
+        target.getSchemaList().addAll(source.getSchemaList());
+        if (source instanceof Role sourceRole && target instanceof Role targetRole) {
+            List<String> permissions = sourceRole.getPermissions();
+            targetRole.setPermissions(permissions == null ? null : new ArrayList<>(permissions));
+        } else if (source instanceof ListedResource sourceList && target instanceof ListedResource targetList) {
+            for (SCIMObject resource : sourceList.getResources()) {
+                targetList.addResource((SCIMObject) copyObject(resource));
+            }
+        }
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private SCIMAttributeSchema copyAttributeSchema(SCIMAttributeSchema source) {
+
+        List<String> canonicalValues = source.getCanonicalValues();
+        List<SCIMDefinitions.ReferenceType> referenceTypes = source.getReferenceTypes();
+        SCIMAttributeSchema target = remember(source, SCIMAttributeSchema.createSCIMAttributeSchema(
+                source.getURI(), source.getName(), source.getType(), source.getMultiValued(),
+                source.getDescription(), source.getRequired(), source.getCaseExact(), source.getMutability(),
+                source.getReturned(), source.getUniqueness(),
+                canonicalValues == null ? null : new ArrayList<>(canonicalValues),
+                referenceTypes == null ? null : new ArrayList<>(referenceTypes), null));
+        List<AttributeSchema> subAttributes = source.getSubAttributeSchemas();
+        if (subAttributes != null) {
+            target.setSubAttributes((ArrayList<AttributeSchema>) copyObject(subAttributes));
+        }
+        return target;
+    }
+
+    private SCIMResourceTypeSchema copyResourceTypeSchema(SCIMResourceTypeSchema source) {
+
+        List<String> schemas = source.getSchemasList();
+        SCIMResourceTypeSchema target = remember(source, SCIMResourceTypeSchema.createSCIMResourceSchema(
+                schemas == null ? null : new ArrayList<>(schemas)));
+        List<AttributeSchema> attributes = source.getAttributesList();
+        if (attributes != null) {
+            target.setAttributeList((ArrayList<?>) copyObject(attributes));
+        } else {
+            target.setAttributeList(null);
+        }
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, L extends List<T>> L copyList(List<? extends T> source, L target) {
+
+        remember(source, target);
+        for (T element : source) {
+            target.add((T) copyObject(element));
+        }
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V, M extends Map<K, V>> M copyMap(Map<? extends K, ? extends V> source, M target) {
+
+        remember(source, target);
+        for (Map.Entry<? extends K, ? extends V> entry : source.entrySet()) {
+            target.put((K) copyObject(entry.getKey()), (V) copyObject(entry.getValue()));
+        }
+        return target;
+    }
+}
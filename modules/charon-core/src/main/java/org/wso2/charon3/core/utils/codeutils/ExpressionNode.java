@@ -58,4 +58,14 @@ public class ExpressionNode extends Node {
     public void setAttributeValue(String attributeValue) {
         this.attributeValue = attributeValue;
     }
+
+    @Override
+    public ExpressionNode copy() {
+
+        ExpressionNode copy = new ExpressionNode();
+        copy.operation = operation;
+        copy.value = value;
+        copy.attributeValue = attributeValue;
+        return copyChildren(copy);
+    }
 }
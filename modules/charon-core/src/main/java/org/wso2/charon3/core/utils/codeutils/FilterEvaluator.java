@@ -0,0 +1,613 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils.codeutils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.utils.AttributeUtil;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates filter trees built by {@link FilterTreeManager} against SCIM objects held in memory, and orders such
+ * objects by an attribute.
+ * <p>
+ * A filter tree is compiled once into a predicate. The attribute URI of every filter expression is resolved to the
+ * attribute names along its path and the filter value is converted to the data type of the attribute at compile time,
+ * so evaluating the predicate only walks the attributes of the object. Comparisons follow RFC 7644 section 3.4.2.2:
+ * <ul>
+ * <li>String comparisons honour the case exactness of the attribute.</li>
+ * <li>An expression on a multi-valued attribute, or on a sub-attribute of one, matches if any of the values
+ * matches. {@code ne} matches if none of the values is equal to the filter value.</li>
+ * <li>The filter of a value path, such as {@code emails[type eq work and value co example.org]}, matches if it
+ * matches a single value of the attribute, and is evaluated against each value in turn.</li>
+ * <li>An expression on a complex attribute without a sub-attribute applies to its {@code value} sub-attribute.</li>
+ * <li>{@code gt}, {@code ge}, {@code lt} and {@code le} are not supported on boolean and binary attributes.</li>
+ * </ul>
+ */
+public final class FilterEvaluator {
+
+    private static final String VALUE_SUB_ATTRIBUTE = "value";
+
+    private FilterEvaluator() {
+
+    }
+
+    /**
+     * Compile the given filter tree into a predicate over SCIM objects.
+     *
+     * @param filter Root node of the filter tree, or null to match every object.
+     * @param schema Schema of the resource type the filter was built against.
+     * @return Predicate which matches the objects selected by the filter.
+     * @throws BadRequestException If the filter refers to an unknown attribute, uses an operator which is not
+     *                             supported on the attribute or has a value which does not match the attribute type.
+     */
+    public static Predicate<AbstractSCIMObject> compile(Node filter, SCIMResourceTypeSchema schema)
+            throws BadRequestException {
+
+        if (filter == null) {
+            return object -> true;
+        }
+        Predicate<Function<String, Attribute>> predicate = compile(filter, schema, null);
+        return object -> predicate.test(object::getAttribute);
+    }
+
+    /*
+     * Compile the given filter tree into a predicate over the attributes of an object, or of a value of a
+     * multi-valued attribute when the tree is the filter of a value path. The attributes are looked up by the name
+     * of the first attribute of their path below the given scope, which is the path of the value path attribute, or
+     * null for the attributes of an object.
+     */
+    private static Predicate<Function<String, Attribute>> compile(Node filter, SCIMResourceTypeSchema schema,
+                                                                  List<AttributeSchema> scope)
+            throws BadRequestException {
+
+        if (scope == null && filter.getValuePath() != null) {
+            return compileValuePath(filter, schema);
+        }
+        if (filter instanceof ExpressionNode expressionNode) {
+            return compileExpression(expressionNode, schema, scope);
+        }
+        if (!(filter instanceof OperationNode operationNode)) {
+            throw invalidFilter("Given filter operator is not supported.");
+        }
+        String operation = operationNode.getOperation();
+        if (SCIMConstants.OperationalConstants.AND.equalsIgnoreCase(operation)) {
+            return compileOperand(filter.getLeftNode(), schema, scope)
+                    .and(compileOperand(filter.getRightNode(), schema, scope));
+        }
+        if (SCIMConstants.OperationalConstants.OR.equalsIgnoreCase(operation)) {
+            return compileOperand(filter.getLeftNode(), schema, scope)
+                    .or(compileOperand(filter.getRightNode(), schema, scope));
+        }
+        if (SCIMConstants.OperationalConstants.NOT.equalsIgnoreCase(operation)) {
+            Node operand = filter.getRightNode() != null ? filter.getRightNode() : filter.getLeftNode();
+            return compileOperand(operand, schema, scope).negate();
+        }
+        throw invalidFilter("Given filter operator is not supported.");
+    }
+
+    private static Predicate<Function<String, Attribute>> compileOperand(Node operand, SCIMResourceTypeSchema schema,
+                                                                         List<AttributeSchema> scope)
+            throws BadRequestException {
+
+        return operand == null ? attributes -> true : compile(operand, schema, scope);
+    }
+
+    /*
+     * Compile the filter of a value path into a predicate which matches if the filter matches any single value of
+     * the value path attribute.
+     */
+    private static Predicate<Function<String, Attribute>> compileValuePath(Node filter,
+                                                                           SCIMResourceTypeSchema schema)
+            throws BadRequestException {
+
+        List<AttributeSchema> scope = resolveValuePath(filter, schema);
+        Predicate<Function<String, Attribute>> valueFilter = compile(filter, schema, scope);
+        String[] names = getNames(scope);
+        return attributes -> anyValueMatch(attributes.apply(names[0]), names, 0, valueFilter);
+    }
+
+    private static List<AttributeSchema> resolveValuePath(Node filter, SCIMResourceTypeSchema schema)
+            throws BadRequestException {
+
+        List<AttributeSchema> scope = resolvePath(filter.getValuePath(), schema);
+        if (scope.get(scope.size() - 1).getType() != SCIMDefinitions.DataType.COMPLEX) {
+            throw invalidFilter("The attribute " + filter.getValuePath() + " of a value path filter is not a " +
+                    "complex attribute.");
+        }
+        return scope;
+    }
+
+    /**
+     * Compile the filter of a value path, such as the sub-tree built by {@link FilterTreeManager} for
+     * {@code emails[type eq work and value co example.org]}, into a predicate over a single value of the attribute.
+     *
+     * @param filter Root node of the filter of a value path.
+     * @param schema Schema of the resource type the filter was built against.
+     * @return Predicate which matches the values selected by the filter.
+     * @throws BadRequestException If the filter is not the filter of a value path or can not be compiled.
+     */
+    public static Predicate<ComplexAttribute> compileValueFilter(Node filter, SCIMResourceTypeSchema schema)
+            throws BadRequestException {
+
+        if (filter == null || filter.getValuePath() == null) {
+            throw invalidFilter("The filter is not the filter of a value path.");
+        }
+        Predicate<Function<String, Attribute>> valueFilter = compile(filter, schema, resolveValuePath(filter, schema));
+        return value -> valueFilter.test(value.getSubAttributesList()::get);
+    }
+
+    /**
+     * Return the objects of the given list which match the given filter tree.
+     *
+     * @param objects SCIM objects to filter.
+     * @param filter  Root node of the filter tree, or null to match every object.
+     * @param schema  Schema of the resource type the filter was built against.
+     * @param <T>     Type of the SCIM objects.
+     * @return New list of the matching objects, in the order of the given list.
+     * @throws BadRequestException If the filter can not be compiled.
+     */
+    public static <T extends AbstractSCIMObject> List<T> filter(List<T> objects, Node filter,
+                                                               SCIMResourceTypeSchema schema)
+            throws BadRequestException {
+
+        Predicate<AbstractSCIMObject> predicate = compile(filter, schema);
+        List<T> matchingObjects = new ArrayList<>();
+        for (T object : objects) {
+            if (predicate.test(object)) {
+                matchingObjects.add(object);
+            }
+        }
+        return matchingObjects;
+    }
+
+    private static Predicate<Function<String, Attribute>> compileExpression(ExpressionNode expressionNode,
+                                                                            SCIMResourceTypeSchema schema,
+                                                                            List<AttributeSchema> scope)
+            throws BadRequestException {
+
+        Operator operator = Operator.fromString(expressionNode.getOperation());
+        List<AttributeSchema> path = resolvePath(expressionNode.getAttributeValue(), schema);
+        AttributeSchema attributeSchema = path.get(path.size() - 1);
+        if (operator != Operator.PR && attributeSchema.getType() == SCIMDefinitions.DataType.COMPLEX) {
+            attributeSchema = addValueSubAttribute(path, "The operator " + operator.name().toLowerCase(Locale.ROOT) +
+                    " is not supported on the complex attribute " + attributeSchema.getURI() + ".");
+        }
+        if (scope != null) {
+            if (path.size() <= scope.size() || !path.subList(0, scope.size()).equals(scope)) {
+                throw invalidFilter("The attribute " + expressionNode.getAttributeValue() + " is not a " +
+                        "sub-attribute of the value path " + scope.get(scope.size() - 1).getURI() + ".");
+            }
+            path = path.subList(scope.size(), path.size());
+        }
+        String[] names = getNames(path);
+
+        Predicate<Object> matcher = operator == Operator.PR ? FilterEvaluator::isPresent :
+                valueMatcher(operator == Operator.NE ? Operator.EQ : operator, expressionNode.getValue(),
+                        attributeSchema);
+        Predicate<Function<String, Attribute>> predicate = attributes -> anyMatch(attributes.apply(names[0]), names,
+                0, matcher);
+        return operator == Operator.NE ? predicate.negate() : predicate;
+    }
+
+    /**
+     * Compile a comparator which orders SCIM objects by the attribute with the given URI, as defined for the
+     * {@code sortBy} parameter in RFC 7644 section 3.4.2.3. A multi-valued attribute is ordered by its primary value,
+     * or else its first value. Objects without a value for the attribute are ordered last in both sort orders.
+     *
+     * @param attributeURI URI of the attribute to sort by.
+     * @param ascending    Whether to sort in ascending order.
+     * @param schema       Schema of the resource type of the objects.
+     * @return Comparator of SCIM objects.
+     * @throws BadRequestException If the attribute is not defined in the schema or can not be sorted by.
+     */
+    public static Comparator<AbstractSCIMObject> compileSort(String attributeURI, boolean ascending,
+                                                             SCIMResourceTypeSchema schema)
+            throws BadRequestException {
+
+        List<AttributeSchema> path = resolvePath(attributeURI, schema);
+        AttributeSchema attributeSchema = path.get(path.size() - 1);
+        if (attributeSchema.getType() == SCIMDefinitions.DataType.COMPLEX) {
+            attributeSchema = addValueSubAttribute(path, "Can not sort by the complex attribute " +
+                    attributeSchema.getURI() + ".");
+        }
+        String[] names = getNames(path);
+        SCIMDefinitions.DataType type = attributeSchema.getType();
+        if (type == SCIMDefinitions.DataType.INTEGER) {
+            return sortComparator(names, ascending, Comparator.<Long>naturalOrder(),
+                    value -> value instanceof Number number ? Long.valueOf(number.longValue()) : null);
+        }
+        if (type == SCIMDefinitions.DataType.DECIMAL) {
+            return sortComparator(names, ascending, Comparator.<Double>naturalOrder(),
+                    value -> value instanceof Number number ? Double.valueOf(number.doubleValue()) : null);
+        }
+        if (type == SCIMDefinitions.DataType.DATE_TIME) {
+            return sortComparator(names, ascending, Comparator.<Instant>naturalOrder(), FilterEvaluator::toInstant);
+        }
+        if (type == SCIMDefinitions.DataType.BOOLEAN) {
+            // "false" is ordered before "true", as false is before true.
+            return sortComparator(names, ascending, Comparator.<String>naturalOrder(),
+                    value -> value instanceof Boolean booleanValue ? booleanValue.toString() : null);
+        }
+        return sortComparator(names, ascending,
+                attributeSchema.getCaseExact() ? Comparator.<String>naturalOrder() : String.CASE_INSENSITIVE_ORDER,
+                value -> value == null || value instanceof Attribute ? null : String.valueOf(value));
+    }
+
+    private static <T> Comparator<AbstractSCIMObject> sortComparator(String[] names, boolean ascending,
+                                                                     Comparator<T> order,
+                                                                     Function<Object, T> converter) {
+
+        return Comparator.comparing(object -> converter.apply(sortValue(object.getAttribute(names[0]), names, 0)),
+                Comparator.nullsLast(ascending ? order : order.reversed()));
+    }
+
+    /*
+     * Return the value of the attribute at the end of the path which an object is sorted by.
+     */
+    private static Object sortValue(Attribute attribute, String[] names, int index) {
+
+        if (attribute instanceof SimpleAttribute simpleAttribute) {
+            return index == names.length - 1 ? simpleAttribute.getValue() : null;
+        }
+        if (attribute instanceof ComplexAttribute complexAttribute) {
+            return index == names.length - 1 ? null :
+                    sortValue(complexAttribute.getSubAttributesList().get(names[index + 1]), names, index + 1);
+        }
+        if (attribute instanceof MultiValuedAttribute multiValuedAttribute) {
+            if (index == names.length - 1) {
+                List<Object> primitiveValues = multiValuedAttribute.getAttributePrimitiveValues();
+                return primitiveValues.isEmpty() ? null : primitiveValues.get(0);
+            }
+            ComplexAttribute sortedValue = null;
+            for (Attribute value : multiValuedAttribute.getAttributeValues()) {
+                if (value instanceof ComplexAttribute complexValue) {
+                    if (isPrimary(complexValue)) {
+                        sortedValue = complexValue;
+                        break;
+                    }
+                    if (sortedValue == null) {
+                        sortedValue = complexValue;
+                    }
+                }
+            }
+            return sortedValue == null ? null :
+                    sortValue(sortedValue.getSubAttributesList().get(names[index + 1]), names, index + 1);
+        }
+        return null;
+    }
+
+    private static boolean isPrimary(ComplexAttribute complexAttribute) {
+
+        return complexAttribute.getSubAttributesList().get(SCIMConstants.CommonSchemaConstants.PRIMARY)
+                instanceof SimpleAttribute primary && Boolean.TRUE.equals(primary.getValue());
+    }
+
+    private static List<AttributeSchema> resolvePath(String attributeURI, SCIMResourceTypeSchema schema)
+            throws BadRequestException {
+
+        List<AttributeSchema> path = new ArrayList<>();
+        if (attributeURI == null || !resolvePath(attributeURI, schema.getAttributesList(), path)) {
+            throw invalidFilter("The attribute " + attributeURI + " is not defined in the schema.");
+        }
+        return path;
+    }
+
+    /*
+     * Extend the path to a complex attribute with its value sub-attribute, which operations on the complex
+     * attribute apply to.
+     */
+    private static AttributeSchema addValueSubAttribute(List<AttributeSchema> path, String error)
+            throws BadRequestException {
+
+        AttributeSchema valueSchema = path.get(path.size() - 1).getSubAttributeSchema(VALUE_SUB_ATTRIBUTE);
+        if (valueSchema == null) {
+            throw invalidFilter(error);
+        }
+        path.add(valueSchema);
+        return valueSchema;
+    }
+
+    private static String[] getNames(List<AttributeSchema> path) {
+
+        String[] names = new String[path.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = path.get(i).getName();
+        }
+        return names;
+    }
+
+    /*
+     * Collect the schemas along the path to the attribute with the given URI, starting from one of the given
+     * schemas. Extension schemas are the first element of the path of their attributes.
+     */
+    private static boolean resolvePath(String attributeURI, List<AttributeSchema> attributeSchemas,
+                                       List<AttributeSchema> path) {
+
+        if (attributeSchemas == null) {
+            return false;
+        }
+        for (AttributeSchema attributeSchema : attributeSchemas) {
+            path.add(attributeSchema);
+            if (attributeSchema.getURI().equalsIgnoreCase(attributeURI) ||
+                    resolvePath(attributeURI, attributeSchema.getSubAttributeSchemas(), path)) {
+                return true;
+            }
+            path.remove(path.size() - 1);
+        }
+        return false;
+    }
+
+    /*
+     * Check whether any value of the attribute at the given position of the path, or of its sub-attributes further
+     * along the path, matches.
+     */
+    private static boolean anyMatch(Attribute attribute, String[] names, int index, Predicate<Object> matcher) {
+
+        if (attribute == null) {
+            return false;
+        }
+        if (index == names.length - 1) {
+            return anyValueMatch(attribute, matcher);
+        }
+        String subAttributeName = names[index + 1];
+        if (attribute instanceof ComplexAttribute complexAttribute) {
+            return anyMatch(complexAttribute.getSubAttributesList().get(subAttributeName), names, index + 1, matcher);
+        }
+        if (attribute instanceof MultiValuedAttribute multiValuedAttribute) {
+            for (Attribute value : multiValuedAttribute.getAttributeValues()) {
+                if (value instanceof ComplexAttribute complexValue &&
+                        anyMatch(complexValue.getSubAttributesList().get(subAttributeName), names, index + 1,
+                                matcher)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Check whether the filter of a value path matches any value of the attribute at the end of the path, starting
+     * from the attribute at the given position of the path.
+     */
+    private static boolean anyValueMatch(Attribute attribute, String[] names, int index,
+                                         Predicate<Function<String, Attribute>> valueFilter) {
+
+        if (attribute instanceof ComplexAttribute complexAttribute) {
+            return index == names.length - 1 ? valueFilter.test(complexAttribute.getSubAttributesList()::get) :
+                    anyValueMatch(complexAttribute.getSubAttributesList().get(names[index + 1]), names, index + 1,
+                            valueFilter);
+        }
+        if (attribute instanceof MultiValuedAttribute multiValuedAttribute) {
+            for (Attribute value : multiValuedAttribute.getAttributeValues()) {
+                if (anyValueMatch(value, names, index, valueFilter)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyValueMatch(Attribute attribute, Predicate<Object> matcher) {
+
+        if (attribute instanceof SimpleAttribute simpleAttribute) {
+            return matcher.test(simpleAttribute.getValue());
+        }
+        if (attribute instanceof MultiValuedAttribute multiValuedAttribute) {
+            for (Object value : multiValuedAttribute.getAttributePrimitiveValues()) {
+                if (matcher.test(value)) {
+                    return true;
+                }
+            }
+            for (Attribute value : multiValuedAttribute.getAttributeValues()) {
+                if (anyValueMatch(value, matcher)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return matcher.test(attribute);
+    }
+
+    private static boolean isPresent(Object value) {
+
+        if (value instanceof String stringValue) {
+            return !stringValue.isEmpty();
+        }
+        if (value instanceof ComplexAttribute complexAttribute) {
+            for (Attribute subAttribute : complexAttribute.getSubAttributesList().values()) {
+                if (anyValueMatch(subAttribute, FilterEvaluator::isPresent)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return value != null;
+    }
+
+    /*
+     * Build the matcher of a single value of an attribute with the given schema. The filter value is converted to
+     * the data type of the attribute here, so that it is converted only once.
+     */
+    private static Predicate<Object> valueMatcher(Operator operator, String filterValue,
+                                                  AttributeSchema attributeSchema) throws BadRequestException {
+
+        if (filterValue == null) {
+            throw invalidFilter("Missing the value of a filter expression.");
+        }
+        SCIMDefinitions.DataType type = attributeSchema.getType();
+        if (type == null || type == SCIMDefinitions.DataType.STRING || type == SCIMDefinitions.DataType.REFERENCE) {
+            return stringMatcher(operator, filterValue, attributeSchema.getCaseExact());
+        }
+        boolean ordering = operator == Operator.GT || operator == Operator.GE || operator == Operator.LT ||
+                operator == Operator.LE;
+        if (type == SCIMDefinitions.DataType.BOOLEAN || type == SCIMDefinitions.DataType.BINARY) {
+            if (ordering) {
+                throw invalidFilter("The operator " + operator.name().toLowerCase(Locale.ROOT) +
+                        " is not supported on the " + type.name().toLowerCase(Locale.ROOT) + " attribute " +
+                        attributeSchema.getURI() + ".");
+            }
+            if (type == SCIMDefinitions.DataType.BINARY) {
+                return stringMatcher(operator, filterValue, true);
+            }
+        }
+        if (operator == Operator.CO || operator == Operator.SW || operator == Operator.EW) {
+            return stringMatcher(operator, filterValue, true);
+        }
+        try {
+            switch (type) {
+                case BOOLEAN:
+                    if (!"true".equalsIgnoreCase(filterValue) && !"false".equalsIgnoreCase(filterValue)) {
+                        throw invalidValue(filterValue, attributeSchema);
+                    }
+                    // Only eq is left, as ne is evaluated as the negation of eq.
+                    Boolean booleanFilterValue = Boolean.valueOf(filterValue);
+                    return booleanFilterValue::equals;
+                case INTEGER:
+                    return comparisonMatcher(operator, Long.valueOf(filterValue),
+                            value -> value instanceof Number number ? Long.valueOf(number.longValue()) : null);
+                case DECIMAL:
+                    return comparisonMatcher(operator, Double.valueOf(filterValue),
+                            value -> value instanceof Number number ? Double.valueOf(number.doubleValue()) : null);
+                case DATE_TIME:
+                    return comparisonMatcher(operator, AttributeUtil.parseDateTime(filterValue),
+                            FilterEvaluator::toInstant);
+                default:
+                    throw invalidFilter("The operator " + operator.name().toLowerCase(Locale.ROOT) +
+                            " is not supported on the attribute " + attributeSchema.getURI() + ".");
+            }
+        } catch (NumberFormatException | CharonException e) {
+            throw invalidValue(filterValue, attributeSchema);
+        }
+    }
+
+    private static Predicate<Object> stringMatcher(Operator operator, String filterValue, boolean caseExact) {
+
+        return value -> {
+            if (value == null || value instanceof Attribute) {
+                return false;
+            }
+            String stringValue = value instanceof String string ? string : String.valueOf(value);
+            switch (operator) {
+                case EQ:
+                    return caseExact ? stringValue.equals(filterValue) : stringValue.equalsIgnoreCase(filterValue);
+                case CO:
+                    return caseExact ? stringValue.contains(filterValue) :
+                            StringUtils.containsIgnoreCase(stringValue, filterValue);
+                case SW:
+                    return stringValue.regionMatches(!caseExact, 0, filterValue, 0, filterValue.length());
+                case EW:
+                    return stringValue.regionMatches(!caseExact, stringValue.length() - filterValue.length(),
+                            filterValue, 0, filterValue.length());
+                default:
+                    return operator.matches(caseExact ? stringValue.compareTo(filterValue) :
+                            stringValue.compareToIgnoreCase(filterValue));
+            }
+        };
+    }
+
+    private static <T extends Comparable<T>> Predicate<Object> comparisonMatcher(Operator operator, T filterValue,
+                                                                                Function<Object, T> converter) {
+
+        return value -> {
+            T comparableValue = converter.apply(value);
+            return comparableValue != null && operator.matches(comparableValue.compareTo(filterValue));
+        };
+    }
+
+    private static Instant toInstant(Object value) {
+
+        if (value instanceof Instant instant) {
+            return instant;
+        }
+        if (value instanceof Date date) {
+            return date.toInstant();
+        }
+        return null;
+    }
+
+    private static BadRequestException invalidValue(String filterValue, AttributeSchema attributeSchema) {
+
+        return invalidFilter("The value " + filterValue + " in the filter is not a valid " +
+                attributeSchema.getType().name().toLowerCase(Locale.ROOT) + " value for the attribute " +
+                attributeSchema.getURI() + ".");
+    }
+
+    private static BadRequestException invalidFilter(String message) {
+
+        return new BadRequestException(message, ResponseCodeConstants.INVALID_FILTER);
+    }
+
+    /**
+     * Filter operators. The ordering operators are matched against the result of a comparison.
+     */
+    private enum Operator {
+        EQ, NE, CO, SW, EW, PR, GT, GE, LT, LE;
+
+        private static Operator fromString(String operation) throws BadRequestException {
+
+            if (operation != null) {
+                String trimmedOperation = operation.trim();
+                for (Operator operator : values()) {
+                    if (operator.name().equalsIgnoreCase(trimmedOperation)) {
+                        return operator;
+                    }
+                }
+            }
+            throw invalidFilter("Given filter operator is not supported.");
+        }
+
+        private boolean matches(int comparison) {
+
+            switch (this) {
+                case EQ:
+                    return comparison == 0;
+                case GT:
+                    return comparison > 0;
+                case GE:
+                    return comparison >= 0;
+                case LT:
+                    return comparison < 0;
+                case LE:
+                    return comparison <= 0;
+                default:
+                    return false;
+            }
+        }
+    }
+}
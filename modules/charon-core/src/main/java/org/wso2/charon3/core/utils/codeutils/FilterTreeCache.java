@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils.codeutils;
+
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, least recently used cache of the filter trees built by {@link FilterTreeManager}, keyed by the filter
+ * string and the resource type schema it was built against.
+ * <p>
+ * Each caller gets its own copy of the cached tree, which it is free to modify. Schemas are matched by identity,
+ * which is cheap and stable since the resource type schemas are shared instances, the user resource schemas
+ * composed for user managers included, which {@link org.wso2.charon3.core.schema.SCIMResourceSchemaManager}
+ * caches. Trees built against a schema which has been replaced are left to be evicted.
+ */
+public final class FilterTreeCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final FilterTreeCache INSTANCE = new FilterTreeCache();
+
+    private final FilterTreeMap filterTrees = new FilterTreeMap();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile int maxSize = DEFAULT_MAX_SIZE;
+
+    private FilterTreeCache() {
+
+    }
+
+    public static FilterTreeCache getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Return the filter tree of the given filter, building it only if it is not cached yet.
+     *
+     * @param filter Filter string.
+     * @param schema Schema of the resource type the filter applies to.
+     * @return Root node of a copy of the filter tree, which the caller may modify.
+     * @throws BadRequestException If the filter is invalid.
+     * @throws IOException         If the filter could not be tokenized.
+     */
+    public Node getFilterTree(String filter, SCIMResourceTypeSchema schema) throws BadRequestException, IOException {
+
+        if (maxSize <= 0) {
+            misses.incrementAndGet();
+            return new FilterTreeManager(filter, schema).buildTree();
+        }
+        CacheKey key = new CacheKey(filter, schema);
+        Node filterTree;
+        synchronized (filterTrees) {
+            filterTree = filterTrees.get(key);
+        }
+        if (filterTree != null) {
+            hits.incrementAndGet();
+            return filterTree.copy();
+        }
+        misses.incrementAndGet();
+        filterTree = new FilterTreeManager(filter, schema).buildTree();
+        if (filterTree != null) {
+            synchronized (filterTrees) {
+                filterTrees.put(key, filterTree.copy());
+            }
+        }
+        return filterTree;
+    }
+
+    public int getMaxSize() {
+
+        return maxSize;
+    }
+
+    /**
+     * Set the maximum number of cached filter trees.
+     *
+     * @param maxSize Maximum number of cached filter trees, or 0 to disable caching.
+     */
+    public void setMaxSize(int maxSize) {
+
+        this.maxSize = maxSize;
+        synchronized (filterTrees) {
+            filterTrees.maxSize = maxSize;
+            filterTrees.entrySet().removeIf(entry -> filterTrees.size() > Math.max(maxSize, 0));
+        }
+    }
+
+    /**
+     * Remove all the cached filter trees. The hit, miss and eviction counts are kept.
+     */
+    public void clear() {
+
+        synchronized (filterTrees) {
+            filterTrees.clear();
+        }
+    }
+
+    public int size() {
+
+        synchronized (filterTrees) {
+            return filterTrees.size();
+        }
+    }
+
+    public long getHitCount() {
+
+        return hits.get();
+    }
+
+    public long getMissCount() {
+
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+
+        return filterTrees.evictions.get();
+    }
+
+    /**
+     * Filter trees in least recently used order, holding at most the maximum number of trees.
+     */
+    private static final class FilterTreeMap extends LinkedHashMap<CacheKey, Node> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final AtomicLong evictions = new AtomicLong();
+        private int maxSize = DEFAULT_MAX_SIZE;
+
+        private FilterTreeMap() {
+
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, Node> eldest) {
+
+            if (size() > maxSize) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Key of a cached filter tree.
+     */
+    private static final class CacheKey {
+
+        private final String filter;
+        private final SCIMResourceTypeSchema schema;
+        private final int hashCode;
+
+        private CacheKey(String filter, SCIMResourceTypeSchema schema) {
+
+            this.filter = filter;
+            this.schema = schema;
+            this.hashCode = 31 * filter.hashCode() + System.identityHashCode(schema);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof CacheKey key)) {
+                return false;
+            }
+            return hashCode == key.hashCode && schema == key.schema && filter.equals(key.filter);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+}
@@ -15,7 +15,6 @@
  */
 package org.wso2.charon3.core.utils.codeutils;
 
-import org.apache.commons.lang3.StringUtils;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.schema.SCIMConstants;
@@ -23,14 +22,6 @@ import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.charon3.core.utils.AttributeUtil;
 
 import java.io.IOException;
-import java.io.StreamTokenizer;
-import java.io.StringReader;
-import java.net.URLDecoder;
-import java.net.URLEncoder;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Locale;
-import java.util.regex.Pattern;
 
 /**
  * This class is basically for creating a binary tree which preserves the precedence order with simple
@@ -39,115 +30,46 @@ import java.util.regex.Pattern;
  * <p>
  * All terminals are filter expressions hence denoted by ExpressionNodes and all non terminal nodes are operators hence
  * denoted by OperatorNodes.
+ * <p>
+ * The filter is lexed and parsed in a single pass over the characters of the filter. Values may be quoted with
+ * double or single quotes, in which case the quotes are removed and the quoted text is taken as is. A value path
+ * filter such as {@code emails[type eq "work" and value co "@example.com"]} is expanded into the expressions
+ * {@code emails.type eq work} and {@code emails.value co @example.com}, and the root of their sub-tree is marked with
+ * the URI of {@code emails} through {@link Node#setValuePath(String)}, since both have to match the same email.
+ * <p>
+ * Without a schema, attribute paths are kept as given instead of being resolved to attribute URIs, as for the value
+ * filters of PATCH paths, which are relative to the attribute of the path.
  */
-
 public class FilterTreeManager {
 
-    private StreamTokenizer input;
-    protected List<String> tokenList = null;
-    private String symbol;
-    private Node root;
-    private SCIMResourceTypeSchema schema;
+    private static final String[] OPERATORS = {
+            SCIMConstants.OperationalConstants.EQ.trim(), SCIMConstants.OperationalConstants.NE.trim(),
+            SCIMConstants.OperationalConstants.CO.trim(), SCIMConstants.OperationalConstants.SW.trim(),
+            SCIMConstants.OperationalConstants.EW.trim(), SCIMConstants.OperationalConstants.PR.trim(),
+            SCIMConstants.OperationalConstants.GT.trim(), SCIMConstants.OperationalConstants.GE.trim(),
+            SCIMConstants.OperationalConstants.LT.trim(), SCIMConstants.OperationalConstants.LE.trim()};
+    private static final String PRESENT = SCIMConstants.OperationalConstants.PR.trim();
+
+    private final CharSequence filter;
+    private final SCIMResourceTypeSchema schema;
+    // Position of the next character to be lexed.
+    private int position;
+    // Current token.
+    private TokenType tokenType;
+    private int tokenStart;
+    private int tokenEnd;
+    // Value of the current string token if it has escape sequences, which is then not the range of the filter.
+    private String decodedString;
 
     public FilterTreeManager(String filterString, SCIMResourceTypeSchema schema) throws IOException {
 
-        String encodedString = URLEncoder.encode(filterString, "UTF-8");
-        String modifiedEncodedString = encodedString.replaceAll("\\+", " ");
-        this.schema = schema;
-        input = new StreamTokenizer(new StringReader(modifiedEncodedString));
-        input.resetSyntax();
-        // Default settings in StreamTokenizer syntax initializer.
-        input.wordChars('a', 'z');
-        input.wordChars('A', 'Z');
-        // Specifies that all extended ASCII characters defined in HTML 4 standard, are word constituents.
-        input.wordChars(128 + 32, 255);
-        input.whitespaceChars(0, ' ');
-        input.commentChar('/');
-        input.quoteChar('"');
-        input.quoteChar('\'');
-
-        //Adding other string possible values
-        input.wordChars('@', '@');
-        input.wordChars(':', ':');
-        input.wordChars('_', '_');
-        input.wordChars('0', '9');
-        input.wordChars('-', '-');
-        input.wordChars('+', '+');
-        input.wordChars('.', '.');
-        input.wordChars('*', '*');
-        input.wordChars('/', '/');
-        input.wordChars('%', '%');
-
-        List<String> tempTokenList = new ArrayList<String>();
-        String concatenatedString = "";
-        String decodedValue;
-
-        while (input.nextToken() != StreamTokenizer.TT_EOF) {
-            if (input.ttype == StreamTokenizer.TT_WORD) {
-                decodedValue = URLDecoder.decode(input.sval, "UTF-8");
-                if (!(decodedValue.equalsIgnoreCase(SCIMConstants.OperationalConstants.AND)
-                        || decodedValue.equalsIgnoreCase(SCIMConstants.OperationalConstants.OR) ||
-                        decodedValue.equalsIgnoreCase(SCIMConstants.OperationalConstants.NOT))) {
-
-                    if (decodedValue.startsWith("(")) {
-                        tempTokenList.add("(");
-                        decodedValue = decodedValue.substring(1);
-                    }
-                    if (decodedValue.endsWith(")")) {
-                        decodedValue = decodedValue.substring(0, decodedValue.length() - 1);
-                        // Remove quotes if there are starting and ending quotes.
-                        decodedValue = removeStartingAndEndingQuotes(decodedValue);
-                        // Concatenate the string by adding spaces in between.
-                        concatenatedString += " " + decodedValue;
-
-                        concatenatedString = concatenatedString.trim();
-                        tempTokenList.add(concatenatedString);
-                        concatenatedString = StringUtils.EMPTY;
-                        tempTokenList.add(")");
-                    } else {
-                        // Remove quotes if there are starting and ending quotes.
-                        decodedValue = removeStartingAndEndingQuotes(decodedValue);
-                        // Concatenate the string by adding spaces in between.
-                        concatenatedString += " " + decodedValue;
-                    }
-                } else {
-                    concatenatedString = concatenatedString.trim();
-                    if (!concatenatedString.equals("")) {
-                        tempTokenList.add(concatenatedString);
-                        concatenatedString = "";
-                    }
-                    tempTokenList.add(decodedValue.toLowerCase(Locale.ENGLISH));
-                }
-            } else if (input.ttype == '\"' || input.ttype == '\'') {
-                concatenatedString += " " + input.sval;
-            }
-        }
-        //Add to the list, if the filter is a simple filter
-        if (!(concatenatedString.equals(""))) {
-            tempTokenList.add(concatenatedString);
-        }
+        this((CharSequence) filterString, schema);
+    }
 
-        tokenList = new ArrayList<String>();
-        Boolean stringsConcatenated = false;
+    public FilterTreeManager(CharSequence filter, SCIMResourceTypeSchema schema) {
 
-        for (int token = 0; token < tempTokenList.size(); token++) {
-            String updatedString = tempTokenList.get(token).trim();
-            String[] splitedToken = updatedString.split("\\s+");
-            if (stringsConcatenated) {
-                stringsConcatenated = false;
-                continue;
-            }
-            if (splitedToken.length == 2 && !splitedToken[1].equalsIgnoreCase(SCIMConstants.OperationalConstants.PR) &&
-                    (token + 1) < tempTokenList.size()) {
-                if (tempTokenList.get(token + 1).equalsIgnoreCase(SCIMConstants.OperationalConstants.AND) ||
-                        tempTokenList.get(token + 1).equalsIgnoreCase(SCIMConstants.OperationalConstants.OR) ||
-                        tempTokenList.get(token + 1).equalsIgnoreCase(SCIMConstants.OperationalConstants.NOT)) {
-                    updatedString += " " + tempTokenList.get(token + 1);
-                    stringsConcatenated = true;
-                }
-            }
-            tokenList.add(updatedString);
-        }
+        this.filter = filter;
+        this.schema = schema;
     }
 
     /*
@@ -158,207 +80,293 @@ public class FilterTreeManager {
      */
     public Node buildTree() throws BadRequestException {
 
-        expression();
+        position = 0;
+        nextToken();
+        Node root = filter(null);
+        if (tokenType != TokenType.END) {
+            throw invalidFilter("Unexpected '" + tokenText() + "' in the filter.");
+        }
         return root;
     }
 
-    /**
-     * We build the parser using the recursive descent parser technique.
-     *
-     * @throws BadRequestException
+    /*
+     * filter = term *("or" term)
      */
-    private void expression() throws BadRequestException {
+    private Node filter(String valuePath) throws BadRequestException {
 
-        term();
-        while (symbol.equals(String.valueOf(SCIMConstants.OperationalConstants.OR))) {
+        Node node = term(valuePath);
+        while (isKeyword(SCIMConstants.OperationalConstants.OR)) {
+            nextToken();
             OperationNode or = new OperationNode(SCIMConstants.OperationalConstants.OR);
-            or.setLeftNode(root);
-            term();
-            or.setRightNode(root);
-            root = or;
+            or.setLeftNode(node);
+            or.setRightNode(term(valuePath));
+            node = or;
         }
+        return node;
     }
 
     /*
-     * We build the parser using the recursive descent parser technique.
-     *
-     * @throws BadRequestException
+     * term = factor *("and" factor)
      */
-    private void term() throws BadRequestException {
+    private Node term(String valuePath) throws BadRequestException {
 
-        factor();
-        while (symbol.equals(String.valueOf(SCIMConstants.OperationalConstants.AND))) {
+        Node node = factor(valuePath);
+        while (isKeyword(SCIMConstants.OperationalConstants.AND)) {
+            nextToken();
             OperationNode and = new OperationNode(SCIMConstants.OperationalConstants.AND);
-            and.setLeftNode(root);
-            factor();
-            and.setRightNode(root);
-            root = and;
+            and.setLeftNode(node);
+            and.setRightNode(factor(valuePath));
+            node = and;
         }
+        return node;
     }
 
     /*
-     * We build the parser using the recursive descent parser technique.
-     *
-     * @throws BadRequestException
+     * factor = "not" factor / "(" filter ")" / attribute expression
      */
-    private void factor() throws BadRequestException {
+    private Node factor(String valuePath) throws BadRequestException {
 
-        symbol = nextSymbol();
-        if (symbol.equals(String.valueOf(SCIMConstants.OperationalConstants.NOT))) {
+        if (isKeyword(SCIMConstants.OperationalConstants.NOT)) {
+            nextToken();
             OperationNode not = new OperationNode(SCIMConstants.OperationalConstants.NOT);
-            factor();
-            not.setRightNode(root);
-            root = not;
-        } else if (symbol.equals(String.valueOf(SCIMConstants.OperationalConstants.LEFT))) {
-            expression();
-            symbol = nextSymbol(); // we don't care about ')'
-        } else {
-            if (!(symbol.equals(String.valueOf(SCIMConstants.OperationalConstants.RIGHT)))) {
-                ExpressionNode expressionNode = new ExpressionNode();
-                validateAndBuildFilterExpression(symbol, expressionNode);
-                root = expressionNode;
-                symbol = nextSymbol();
-            } else {
-            }
-
+            not.setRightNode(factor(valuePath));
+            return not;
         }
+        if (tokenType == TokenType.LEFT_PARENTHESIS) {
+            nextToken();
+            Node node = filter(valuePath);
+            expect(TokenType.RIGHT_PARENTHESIS, "Missing ')' in the filter.");
+            return node;
+        }
+        if (tokenType == TokenType.WORD) {
+            return attributeExpression(valuePath);
+        }
+        throw invalidFilter(tokenType == TokenType.END ? "Incomplete filter." :
+                "Unexpected '" + tokenText() + "' in the filter.");
     }
 
     /*
-     * Validate the simple filter and build a ExpressionNode
-     *
-     * @param filterString
-     * @param expressionNode
-     * @throws BadRequestException
+     * attribute expression = attribute path operator [value] / attribute path "[" filter "]"
      */
-    private void validateAndBuildFilterExpression(String filterString, ExpressionNode expressionNode)
-            throws BadRequestException {
-        //verify filter string. validation should be case insensitive
-        if (!(Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.EQ),
-                Pattern.CASE_INSENSITIVE).matcher(filterString).find() ||
-                Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.NE),
-                        Pattern.CASE_INSENSITIVE).matcher(filterString).find() ||
-                Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.CO),
-                        Pattern.CASE_INSENSITIVE).matcher(filterString).find() ||
-                Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.SW),
-                        Pattern.CASE_INSENSITIVE).matcher(filterString).find() ||
-                Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.EW),
-                        Pattern.CASE_INSENSITIVE).matcher(filterString).find() ||
-                Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.PR),
-                        Pattern.CASE_INSENSITIVE).matcher(filterString).find() ||
-                Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.GT),
-                        Pattern.CASE_INSENSITIVE).matcher(filterString).find() ||
-                Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.GE),
-                        Pattern.CASE_INSENSITIVE).matcher(filterString).find() ||
-                Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.LT),
-                        Pattern.CASE_INSENSITIVE).matcher(filterString).find() ||
-                Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.LE),
-                        Pattern.CASE_INSENSITIVE).matcher(filterString).find())) {
-            String message = "Given filter operator is not supported.";
-            throw new BadRequestException(message, ResponseCodeConstants.INVALID_FILTER);
-        }
+    private Node attributeExpression(String valuePath) throws BadRequestException {
 
-        String trimmedFilter = filterString.trim();
-        String[] filterParts = null;
-
-        if (Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.EQ),
-                Pattern.CASE_INSENSITIVE).matcher(filterString).find()) {
-            filterParts = trimmedFilter.split(" eq | EQ | eQ | Eq ");
-            setExpressionNodeValues(filterParts[0], SCIMConstants.OperationalConstants.EQ, filterParts[1],
-                    expressionNode);
-        } else if (Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.NE),
-                Pattern.CASE_INSENSITIVE).matcher(filterString).find()) {
-            filterParts = trimmedFilter.split(" ne | NE | nE | Ne ");
-            setExpressionNodeValues(filterParts[0], SCIMConstants.OperationalConstants.NE, filterParts[1],
-                    expressionNode);
-        } else if (Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.CO),
-                Pattern.CASE_INSENSITIVE).matcher(filterString).find()) {
-            filterParts = trimmedFilter.split(" co | CO | cO | Co ");
-            setExpressionNodeValues(filterParts[0], SCIMConstants.OperationalConstants.CO, filterParts[1],
-                    expressionNode);
-        } else if (Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.SW),
-                Pattern.CASE_INSENSITIVE).matcher(filterString).find()) {
-            filterParts = trimmedFilter.split(" sw | SW | sW | Sw ");
-            setExpressionNodeValues(filterParts[0], SCIMConstants.OperationalConstants.SW, filterParts[1],
-                    expressionNode);
-        } else if (Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.EW),
-                Pattern.CASE_INSENSITIVE).matcher(filterString).find()) {
-            filterParts = trimmedFilter.split(" ew | EW | eW | Ew ");
-            setExpressionNodeValues(filterParts[0], SCIMConstants.OperationalConstants.EW, filterParts[1],
-                    expressionNode);
-        } else if (Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.PR),
-                Pattern.CASE_INSENSITIVE).matcher(filterString).find()) {
-            //with filter PR, there should not be whitespace after.
-            filterParts = trimmedFilter.split(" pr| PR| pR| Pr");
-            setExpressionNodeValues(filterParts[0], SCIMConstants.OperationalConstants.PR, null, expressionNode);
-        } else if (Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.GT),
-                Pattern.CASE_INSENSITIVE).matcher(filterString).find()) {
-            filterParts = trimmedFilter.split(" gt | GT | gT | Gt ");
-            setExpressionNodeValues(filterParts[0], SCIMConstants.OperationalConstants.GT, filterParts[1],
-                    expressionNode);
-
-        } else if (Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.GE),
-                Pattern.CASE_INSENSITIVE).matcher(filterString).find()) {
-            filterParts = trimmedFilter.split(" ge | GE | gE | Ge ");
-            setExpressionNodeValues(filterParts[0], SCIMConstants.OperationalConstants.GE, filterParts[1],
-                    expressionNode);
-        } else if (Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.LT),
-                Pattern.CASE_INSENSITIVE).matcher(filterString).find()) {
-            filterParts = trimmedFilter.split(" lt | LT | lT | Lt ");
-            setExpressionNodeValues(filterParts[0], SCIMConstants.OperationalConstants.LT, filterParts[1],
-                    expressionNode);
-        } else if (Pattern.compile(Pattern.quote(SCIMConstants.OperationalConstants.LE),
-                Pattern.CASE_INSENSITIVE).matcher(filterString).find()) {
-            filterParts = trimmedFilter.split(" le | LE | lE | Le ");
-            setExpressionNodeValues(filterParts[0], SCIMConstants.OperationalConstants.LE, filterParts[1],
-                    expressionNode);
-        } else {
-            throw new BadRequestException(ResponseCodeConstants.INVALID_FILTER);
+        String attributePath = valuePath == null ? tokenText() : valuePath + "." + tokenText();
+        nextToken();
+        if (tokenType == TokenType.LEFT_BRACKET) {
+            if (valuePath != null) {
+                throw invalidFilter("Value path filters can not be nested.");
+            }
+            nextToken();
+            Node node = filter(attributePath);
+            expect(TokenType.RIGHT_BRACKET, "Missing ']' in the filter.");
+            node.setValuePath(getAttributeURI(attributePath));
+            return node;
+        }
+        String operation = tokenType == TokenType.WORD ? getOperator() : null;
+        if (operation == null) {
+            throw new BadRequestException("Given filter operator is not supported.",
+                    ResponseCodeConstants.INVALID_FILTER);
+        }
+        nextToken();
+        ExpressionNode expressionNode = new ExpressionNode();
+        expressionNode.setAttributeValue(getAttributeURI(attributePath));
+        expressionNode.setOperation(operation);
+        if (!PRESENT.equals(operation)) {
+            expressionNode.setValue(value());
         }
+        return expressionNode;
+    }
+
+    private String getAttributeURI(String attributePath) throws BadRequestException {
+
+        return schema == null ? attributePath : AttributeUtil.getAttributeURI(attributePath, schema);
     }
 
     /*
-     * create a expression node from the given values
-     *
-     * @param attributeValue
-     * @param operation
-     * @param value
-     * @param expressionNode
+     * A value runs up to the next logical operator, parenthesis or bracket. Its first word is always part of it, so
+     * that a logical operator can be compared against.
      */
-    private void setExpressionNodeValues(String attributeValue, String operation,
-                                         String value, ExpressionNode expressionNode) throws BadRequestException {
+    private String value() throws BadRequestException {
+
+        if (tokenType != TokenType.WORD && tokenType != TokenType.STRING) {
+            throw invalidFilter("Missing the value of a filter expression.");
+        }
+        String value = tokenText();
+        nextToken();
+        StringBuilder values = null;
+        while (tokenType == TokenType.STRING || (tokenType == TokenType.WORD &&
+                !isKeyword(SCIMConstants.OperationalConstants.AND) && !isKeyword(SCIMConstants.OperationalConstants.OR)
+                && !isKeyword(SCIMConstants.OperationalConstants.NOT))) {
+            if (values == null) {
+                values = new StringBuilder(value);
+            }
+            values.append(' ').append(tokenText());
+            nextToken();
+        }
+        return values == null ? value : values.toString();
+    }
+
+    private void expect(TokenType expectedTokenType, String message) throws BadRequestException {
+
+        if (tokenType != expectedTokenType) {
+            throw invalidFilter(message);
+        }
+        nextToken();
+    }
+
+    private String getOperator() {
+
+        for (String operator : OPERATORS) {
+            if (isToken(operator)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+
+    private boolean isKeyword(String keyword) {
+
+        return tokenType == TokenType.WORD && isToken(keyword);
+    }
+
+    private boolean isToken(String text) {
+
+        if (tokenEnd - tokenStart != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.toLowerCase(filter.charAt(tokenStart + i)) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String tokenText() {
 
-        expressionNode.setAttributeValue(AttributeUtil.getAttributeURI(attributeValue.trim(), schema));
-        expressionNode.setOperation(operation.trim());
-        if (value != null) {
-            expressionNode.setValue(value.trim());
+        if (decodedString != null) {
+            return decodedString;
         }
+        return filter.subSequence(tokenStart, tokenEnd).toString();
     }
 
     /*
-     * returns the first item in the list and rearrange the list
-     *
-     * @return
+     * Move to the next token. The text of words and strings is the range [tokenStart, tokenEnd) of the filter, which
+     * excludes the quotes of strings. Strings are json strings, so the escape sequences in them are decoded.
      */
-    public String nextSymbol() {
+    private void nextToken() throws BadRequestException {
 
-        if (tokenList.size() == 0) {
-            //no tokens are present in the list anymore/at all
-            return String.valueOf(-1);
+        int length = filter.length();
+        while (position < length && filter.charAt(position) <= ' ') {
+            position++;
+        }
+        tokenStart = position;
+        decodedString = null;
+        if (position == length) {
+            tokenType = TokenType.END;
+            tokenEnd = position;
+            return;
+        }
+        char c = filter.charAt(position);
+        if (c == '(' || c == ')' || c == '[' || c == ']') {
+            tokenType = c == '(' ? TokenType.LEFT_PARENTHESIS : c == ')' ? TokenType.RIGHT_PARENTHESIS :
+                    c == '[' ? TokenType.LEFT_BRACKET : TokenType.RIGHT_BRACKET;
+            tokenEnd = ++position;
+        } else if (c == '"' || c == '\'') {
+            tokenType = TokenType.STRING;
+            tokenStart = ++position;
+            StringBuilder decoded = null;
+            while (position < length && filter.charAt(position) != c) {
+                if (filter.charAt(position) == '\\') {
+                    if (decoded == null) {
+                        decoded = new StringBuilder().append(filter, tokenStart, position);
+                    }
+                    position = decodeEscape(position + 1, decoded);
+                } else {
+                    if (decoded != null) {
+                        decoded.append(filter.charAt(position));
+                    }
+                    position++;
+                }
+            }
+            if (position >= length) {
+                throw invalidFilter("Unterminated string in the filter.");
+            }
+            tokenEnd = position++;
+            if (decoded != null) {
+                decodedString = decoded.toString();
+            }
         } else {
-            String value = tokenList.get(0);
-            tokenList.remove(0);
-            return value;
+            tokenType = TokenType.WORD;
+            while (position < length && !isWordDelimiter(filter.charAt(position))) {
+                position++;
+            }
+            tokenEnd = position;
         }
     }
 
-    private String removeStartingAndEndingQuotes(String decodedValue) {
+    /*
+     * Decode the escape sequence following a backslash, and return the position after it.
+     */
+    private int decodeEscape(int escapeStart, StringBuilder decoded) throws BadRequestException {
 
-        if (decodedValue.startsWith("\"") && decodedValue.endsWith("\"")) {
-            decodedValue = decodedValue.replaceFirst("\"", "").replaceAll("\"$", "");
-        } else if (decodedValue.startsWith("'") && decodedValue.endsWith("'")) {
-            decodedValue = decodedValue.replaceFirst("'", "").replaceAll("'$", "");
+        if (escapeStart >= filter.length()) {
+            throw invalidFilter("Unterminated string in the filter.");
         }
-        return decodedValue;
+        char escaped = filter.charAt(escapeStart);
+        switch (escaped) {
+            case '"':
+            case '\'':
+            case '\\':
+            case '/':
+                decoded.append(escaped);
+                break;
+            case 'b':
+                decoded.append('\b');
+                break;
+            case 'f':
+                decoded.append('\f');
+                break;
+            case 'n':
+                decoded.append('\n');
+                break;
+            case 'r':
+                decoded.append('\r');
+                break;
+            case 't':
+                decoded.append('\t');
+                break;
+            case 'u':
+                if (escapeStart + 5 > filter.length()) {
+                    throw invalidFilter("Invalid unicode escape sequence in the filter.");
+                }
+                try {
+                    decoded.append((char) Integer.parseInt(
+                            filter.subSequence(escapeStart + 1, escapeStart + 5).toString(), 16));
+                } catch (NumberFormatException e) {
+                    throw invalidFilter("Invalid unicode escape sequence in the filter.");
+                }
+                return escapeStart + 5;
+            default:
+                throw invalidFilter("Invalid escape sequence '\\" + escaped + "' in the filter.");
+        }
+        return escapeStart + 1;
+    }
+
+    private static boolean isWordDelimiter(char c) {
+
+        return c <= ' ' || c == '(' || c == ')' || c == '[' || c == ']';
+    }
+
+    private static BadRequestException invalidFilter(String message) {
+
+        return new BadRequestException(message, ResponseCodeConstants.INVALID_FILTER);
+    }
+
+    /**
+     * Types of the tokens of a filter.
+     */
+    private enum TokenType {
+        WORD, STRING, LEFT_PARENTHESIS, RIGHT_PARENTHESIS, LEFT_BRACKET, RIGHT_BRACKET, END
     }
 }
@@ -22,6 +22,7 @@ public abstract class Node {
 
     private Node leftNode;
     private Node rightNode;
+    private String valuePath;
 
     public Node getRightNode() {
         return rightNode;
@@ -38,4 +39,47 @@ public abstract class Node {
     public void setLeftNode(Node leftNode) {
         this.leftNode = leftNode;
     }
+
+    /**
+     * Return the URI of the attribute whose values the filter rooted at this node applies to, if this node is the
+     * root of the filter of a value path such as {@code emails[type eq work and value co example.org]}. The
+     * expressions of that filter refer to the sub-attributes by their full URIs, and all of them have to match the
+     * same value of the attribute.
+     *
+     * @return URI of the attribute of the value path, or null if this node is not the root of a value path filter.
+     */
+    public String getValuePath() {
+        return valuePath;
+    }
+
+    public void setValuePath(String valuePath) {
+        this.valuePath = valuePath;
+    }
+
+    /**
+     * Return a deep copy of the tree rooted at this node. The nodes of the filter trees built by
+     * {@link FilterTreeManager} support this, other nodes only if their class overrides it.
+     *
+     * @return Copy of the tree.
+     * @throws UnsupportedOperationException If the node can not be copied.
+     */
+    public Node copy() {
+
+        throw new UnsupportedOperationException(getClass().getName() + " does not support copying.");
+    }
+
+    /*
+     * Copy the children and the value path of this node to the given copy of it.
+     */
+    protected <T extends Node> T copyChildren(T copy) {
+
+        copy.setValuePath(valuePath);
+        if (leftNode != null) {
+            copy.setLeftNode(leftNode.copy());
+        }
+        if (rightNode != null) {
+            copy.setRightNode(rightNode.copy());
+        }
+        return copy;
+    }
 }
@@ -34,4 +34,10 @@ public class OperationNode extends Node {
     public void setOperation(String operation) {
         this.operation = operation;
     }
+
+    @Override
+    public OperationNode copy() {
+
+        return copyChildren(new OperationNode(operation));
+    }
 }
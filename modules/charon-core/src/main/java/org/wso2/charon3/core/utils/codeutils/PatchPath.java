@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils.codeutils;
+
+import org.wso2.charon3.core.aParser.Parser;
+import org.wso2.charon3.core.aParser.ParserException;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.protocol.ResponseCodeConstants;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.utils.PatchOperationUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+
+/**
+ * The compiled form of the path of a PATCH operation, e.g. {@code name.familyName}, {@code members[value eq "1"]}
+ * or {@code emails[type eq "work"].value}.
+ * <p>
+ * A path is compiled once into the parts of the attribute it targets and the value filter, if any, so that the
+ * PATCH operations do not have to split and parse it again. The value filter is parsed by {@link FilterTreeManager}
+ * and, for a given schema, compiled by {@link FilterEvaluator} into a predicate over the values of the attribute.
+ * Whether the path is valid according to the SCIM PATCH PATH rule is decided while compiling, too. Compiled paths
+ * are immutable from the outside and are shared through {@link PatchPathCache}.
+ */
+public final class PatchPath {
+
+    private final String path;
+    private final boolean validSyntax;
+    private final String[] attributeParts;
+    private final boolean filtered;
+    private final Node filter;
+    // Attribute path followed by the value filter, e.g. emails[type eq "work"], without the sub attribute after it.
+    private final String valuePath;
+    private final Map<SCIMResourceTypeSchema, Predicate<ComplexAttribute>> valueFilters = new WeakHashMap<>();
+
+    private PatchPath(String path) {
+
+        this.path = path;
+        this.validSyntax = isValidSyntax(path);
+
+        int filterStart = path.indexOf('[');
+        this.filtered = filterStart >= 0;
+        if (filtered) {
+            int filterEnd = getFilterEnd(path, filterStart);
+            String attributePath = path.substring(0, filterStart);
+            String filterString = null;
+            if (filterEnd > filterStart) {
+                // The sub attribute after the filter, if any, belongs to the filtered values.
+                attributePath = attributePath + path.substring(filterEnd + 1);
+                filterString = path.substring(filterStart + 1, filterEnd);
+            }
+            this.attributeParts = getAttributeParts(attributePath);
+            this.filter = parseFilter(filterString);
+            this.valuePath = filter == null ? null : path.substring(0, filterEnd + 1);
+        } else {
+            this.attributeParts = getAttributeParts(path);
+            this.filter = null;
+            this.valuePath = null;
+        }
+    }
+
+    /**
+     * Compile the given path. Prefer {@link PatchPathCache#getPatchPath(String)}, which compiles each path once.
+     *
+     * @param path Path of a PATCH operation.
+     * @return Compiled path.
+     */
+    public static PatchPath compile(String path) {
+
+        return new PatchPath(path);
+    }
+
+    public String getPath() {
+
+        return path;
+    }
+
+    /**
+     * Return whether the path is valid according to the SCIM PATCH PATH rule.
+     *
+     * @return True if the path is valid.
+     */
+    public boolean isValidSyntax() {
+
+        return validSyntax;
+    }
+
+    /**
+     * Return the parts of the targeted attribute: the extension URI if the path has one, the attribute name and the
+     * sub attribute names. The sub attribute following a value filter is included.
+     *
+     * @return Parts of the targeted attribute.
+     */
+    public String[] getAttributeParts() {
+
+        return attributeParts.clone();
+    }
+
+    /**
+     * Return whether the path filters the values of the targeted attribute.
+     *
+     * @return True if the path has a value filter.
+     */
+    public boolean hasFilter() {
+
+        return filtered;
+    }
+
+    /**
+     * Return whether the value filter of the path is a single attribute expression, as returned by
+     * {@link #getFilter()}.
+     *
+     * @return True if the path has a value filter of a single attribute expression.
+     */
+    public boolean hasExpressionFilter() {
+
+        return filter instanceof ExpressionNode;
+    }
+
+    /**
+     * Return the value filter of the path, e.g. {@code type eq "work"}, with the quotes around the value removed.
+     * The attribute of the expression is the name of the sub attribute, as given in the path.
+     *
+     * @return Copy of the expression of the filter, or null if the path has no filter.
+     * @throws BadRequestException If the path has a value filter which is not a single attribute expression.
+     */
+    public ExpressionNode getFilter() throws BadRequestException {
+
+        if (filtered && !(filter instanceof ExpressionNode)) {
+            throw invalidFilter();
+        }
+        return filter == null ? null : (ExpressionNode) filter.copy();
+    }
+
+    /**
+     * Return the value filter of the path as a predicate over the values of the filtered attribute. Unlike
+     * {@link #getFilter()}, any filter is supported, e.g. {@code emails[type eq "work" and value co "@example.com"]},
+     * and the values are compared as defined for the attributes in the schema. The predicate is compiled once per
+     * schema.
+     *
+     * @param schema Schema of the resource type of the patched resource.
+     * @return Predicate which matches the values selected by the filter, or null if the path has no filter.
+     * @throws BadRequestException If the filter is invalid or does not fit the schema.
+     */
+    public Predicate<ComplexAttribute> getValueFilter(SCIMResourceTypeSchema schema) throws BadRequestException {
+
+        if (!filtered) {
+            return null;
+        }
+        if (filter == null) {
+            throw invalidFilter();
+        }
+        Predicate<ComplexAttribute> valueFilter;
+        synchronized (valueFilters) {
+            valueFilter = valueFilters.get(schema);
+        }
+        if (valueFilter == null) {
+            Node filterTree = new FilterTreeManager((CharSequence) valuePath, schema).buildTree();
+            valueFilter = FilterEvaluator.compileValueFilter(filterTree, schema);
+            synchronized (valueFilters) {
+                valueFilters.put(schema, valueFilter);
+            }
+        }
+        return valueFilter;
+    }
+
+    private static boolean isValidSyntax(String path) {
+
+        try {
+            Parser.parse(PatchOperationUtil.PATH_RULE_NAME, path);
+            return true;
+        } catch (ParserException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /*
+     * Index of the bracket closing the filter which opens at the given index, skipping brackets within quoted
+     * values, or -1 if the filter is not closed.
+     */
+    private static int getFilterEnd(String path, int filterStart) {
+
+        boolean quoted = false;
+        for (int i = filterStart + 1; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '"' && path.charAt(i - 1) != '\\') {
+                quoted = !quoted;
+            } else if (c == ']' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Parse the value filter of the path, keeping the attribute paths of its expressions as given. Returns null if
+     * the filter is not valid.
+     */
+    private static Node parseFilter(String filterString) {
+
+        if (filterString == null) {
+            return null;
+        }
+        try {
+            return new FilterTreeManager((CharSequence) filterString, null).buildTree();
+        } catch (BadRequestException e) {
+            return null;
+        }
+    }
+
+    private BadRequestException invalidFilter() {
+
+        return new BadRequestException("Invalid value filter in the path : " + path,
+                ResponseCodeConstants.INVALID_FILTER);
+    }
+
+    /*
+     * Split an attribute path into the extension URI, if any, the attribute name and the sub attribute names.
+     */
+    private static String[] getAttributeParts(String attributeURI) {
+
+        String[] attributeURIParts = attributeURI.split(":");
+        if (attributeURIParts.length == 0) {
+            return new String[]{attributeURI};
+        }
+        List<String> attributeParts = new ArrayList<>();
+        if (attributeURIParts.length > 1) {
+            attributeParts.add(String.join(":", Arrays.copyOf(attributeURIParts, attributeURIParts.length - 1)));
+        }
+        Collections.addAll(attributeParts, attributeURIParts[attributeURIParts.length - 1].split("\\."));
+        return attributeParts.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils.codeutils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, least recently used cache of the {@link PatchPath}s compiled from the paths of PATCH operations, keyed
+ * by the path string.
+ * <p>
+ * Compiled paths do not depend on the resource they are applied to, so paths such as
+ * {@code members[value eq "..."]} which recur across requests are only compiled once.
+ */
+public final class PatchPathCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final PatchPathCache INSTANCE = new PatchPathCache();
+
+    private final PatchPathMap patchPaths = new PatchPathMap();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile int maxSize = DEFAULT_MAX_SIZE;
+
+    private PatchPathCache() {
+
+    }
+
+    public static PatchPathCache getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Return the compiled form of the given path, compiling it only if it is not cached yet.
+     *
+     * @param path Path of a PATCH operation.
+     * @return Compiled path.
+     */
+    public PatchPath getPatchPath(String path) {
+
+        if (maxSize <= 0) {
+            misses.incrementAndGet();
+            return PatchPath.compile(path);
+        }
+        PatchPath patchPath;
+        synchronized (patchPaths) {
+            patchPath = patchPaths.get(path);
+        }
+        if (patchPath != null) {
+            hits.incrementAndGet();
+            return patchPath;
+        }
+        misses.incrementAndGet();
+        patchPath = PatchPath.compile(path);
+        synchronized (patchPaths) {
+            PatchPath existingPath = patchPaths.putIfAbsent(path, patchPath);
+            if (existingPath != null) {
+                patchPath = existingPath;
+            }
+        }
+        return patchPath;
+    }
+
+    public int getMaxSize() {
+
+        return maxSize;
+    }
+
+    /**
+     * Set the maximum number of cached paths.
+     *
+     * @param maxSize Maximum number of cached paths, or 0 to disable caching.
+     */
+    public void setMaxSize(int maxSize) {
+
+        this.maxSize = maxSize;
+        synchronized (patchPaths) {
+            patchPaths.maxSize = maxSize;
+            patchPaths.entrySet().removeIf(entry -> patchPaths.size() > Math.max(maxSize, 0));
+        }
+    }
+
+    /**
+     * Remove all the cached paths. The hit, miss and eviction counts are kept.
+     */
+    public void clear() {
+
+        synchronized (patchPaths) {
+            patchPaths.clear();
+        }
+    }
+
+    public int size() {
+
+        synchronized (patchPaths) {
+            return patchPaths.size();
+        }
+    }
+
+    public long getHitCount() {
+
+        return hits.get();
+    }
+
+    public long getMissCount() {
+
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+
+        return patchPaths.evictions.get();
+    }
+
+    /**
+     * Compiled paths in least recently used order, holding at most the maximum number of paths.
+     */
+    private static final class PatchPathMap extends LinkedHashMap<String, PatchPath> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final AtomicLong evictions = new AtomicLong();
+        private int maxSize = DEFAULT_MAX_SIZE;
+
+        private PatchPathMap() {
+
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PatchPath> eldest) {
+
+            if (size() > maxSize) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -29,6 +29,8 @@ import java.time.Instant;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 import static org.wso2.charon3.core.schema.SCIMDefinitions.DataType.BOOLEAN;
 import static org.wso2.charon3.core.schema.SCIMDefinitions.DataType.COMPLEX;
 import static org.wso2.charon3.core.schema.SCIMDefinitions.DataType.DATE_TIME;
@@ -181,4 +183,33 @@ public class DefaultAttributeFactoryTest {
         assertEquals(result.getValue(), "resolved-id", "Non-null value must be preserved.");
     }
 
+    /**
+     * The characteristics of a created attribute are read from the schema it references, and the attribute does
+     * not allocate containers for custom properties until one is added.
+     */
+    @Test
+    public void testCreateAttributeReferencesSchema() throws CharonException, BadRequestException {
+
+        SCIMAttributeSchema schema = buildSchema("value", STRING);
+        SimpleAttribute attribute = (SimpleAttribute) DefaultAttributeFactory.createAttribute(schema,
+                new SimpleAttribute("value", "resolved-id"));
+
+        assertSame(attribute.getAttributeSchema(), schema);
+        assertEquals(attribute.getURI(), schema.getURI());
+        assertEquals(attribute.getDescription(), "test attribute");
+        assertEquals(attribute.getMutability(), SCIMDefinitions.Mutability.READ_WRITE);
+        assertEquals(attribute.getMultiValued(), Boolean.FALSE);
+        assertTrue(attribute.getAttributeProperties().isEmpty());
+        assertNull(attribute.additionalAttributeProperties);
+        assertNull(attribute.additionalAttributeJSONProperties);
+        assertNull(attribute.additionalAttributeJSONArrays);
+
+        // A characteristic which is set explicitly takes precedence over the schema.
+        attribute.setReturned(SCIMDefinitions.Returned.NEVER);
+        attribute.addAttributeProperty("custom", "value");
+
+        assertEquals(attribute.getReturned(), SCIMDefinitions.Returned.NEVER);
+        assertEquals(schema.getReturned(), SCIMDefinitions.Returned.DEFAULT);
+        assertEquals(attribute.getAttributeProperty("custom"), "value");
+    }
 }
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.encoder;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.objects.bulk.BulkRequestContent;
+import org.wso2.charon3.core.objects.bulk.BulkRequestData;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+import org.wso2.charon3.core.utils.codeutils.SearchRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Test class for JSONDecoder.
+ */
+public class JSONDecoderTest {
+
+    private JSONDecoder jsonDecoder;
+    private JSONEncoder jsonEncoder;
+
+    @BeforeMethod
+    public void setUp() {
+
+        jsonDecoder = new JSONDecoder();
+        jsonEncoder = new JSONEncoder();
+    }
+
+    @DataProvider(name = "resourcePayloads")
+    public Object[][] resourcePayloads() {
+
+        return new Object[][]{
+                {SCIMSchemaDefinitions.SCIM_USER_SCHEMA,
+                        "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],\"userName\":\"bjensen\"," +
+                        "\"active\":true,\"unknown\":{\"a\":[1,{\"b\":null}]}," +
+                        "\"name\":{\"givenName\":\"Barbara\",\"familyName\":\"Jensen\",\"other\":1}," +
+                        "\"emails\":[{\"value\":\"bjensen@example.com\",\"type\":\"work\",\"primary\":true}," +
+                        "{\"value\":\"babs@jensen.org\"},{\"type\":\"home\"}]," +
+                        "\"x509Certificates\":[{\"value\":\"MIIDQzCCAqygAwIBAgICEAAwDQYJKoZIhvcNAQEFBQAw\"}]," +
+                        "\"phoneNumbers\":[\"555-555-8377\"]}"},
+                {SCIMSchemaDefinitions.SCIM_USER_SCHEMA,
+                        "{\"USERNAME\":\"bjensen\",\"urn:ietf:params:scim:schemas:core:2.0:User:nickName\":\"Babs\"," +
+                        "\"DisplayName\":\"Babs Jensen\"}"},
+                {SCIMSchemaDefinitions.SCIM_USER_SCHEMA,
+                        "{userName:bjensen; 'title':'Tour \\u0047uide', emails:[{value:'a@b.com',},],}"},
+                {SCIMSchemaDefinitions.SCIM_GROUP_SCHEMA,
+                        "{\"displayName\":\"Tour Guides\",\"members\":[" +
+                        "{\"value\":\"2819c223-7f76-453a-919d-413861904646\",\"display\":\"Babs Jensen\"}," +
+                        "{\"value\":\"902c246b-6245-4190-8e05-00816be7344a\",\"display\":\"Mandy Pepperidge\"}]}"},
+        };
+    }
+
+    @Test(dataProvider = "resourcePayloads")
+    public void testDecodeResourceMatchesJsonObjectDecoding(SCIMResourceTypeSchema schema, String payload)
+            throws Exception {
+
+        AbstractSCIMObject streamed = jsonDecoder.decodeResource(payload, schema, newResource(schema));
+        AbstractSCIMObject parsed = jsonDecoder.decodeResource(new JSONObject(payload), schema, newResource(schema));
+
+        JSONObject expected = new JSONObject(jsonEncoder.encodeSCIMObject(parsed));
+        JSONObject actual = new JSONObject(jsonEncoder.encodeSCIMObject(streamed));
+        Assert.assertTrue(actual.similar(expected), "Expected " + expected + " but decoded " + actual);
+    }
+
+    @Test
+    public void testDecodeResourceFromInputStream() throws Exception {
+
+        String payload = "{\"userName\":\"bjensen\",\"displayName\":\"Bärbel Jensen\"}";
+        User user = jsonDecoder.decodeResource(new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)),
+                SCIMSchemaDefinitions.SCIM_USER_SCHEMA, new User());
+
+        Assert.assertEquals(user.getUserName(), "bjensen");
+        Assert.assertEquals(user.getDisplayName(), "Bärbel Jensen");
+    }
+
+    @DataProvider(name = "invalidResourcePayloads")
+    public Object[][] invalidResourcePayloads() {
+
+        return new Object[][]{
+                {"{\"userName\":\"bjensen\""},
+                {"{\"userName\":\"bjensen\",\"userName\":\"babs\"}"},
+                {"{\"userName\":\"bjensen\",\"unknown\":{\"a\":1,\"a\":2}}"},
+                {"{\"userName\":{\"value\":\"bjensen\"}}"},
+                {"{\"emails\":{\"value\":\"bjensen@example.com\"}}"},
+                {"{\"name\":[\"Barbara\"]}"},
+                {"{\"userName\":\"bjen\nsen\"}"},
+                {"[\"bjensen\"]"},
+        };
+    }
+
+    @Test(dataProvider = "invalidResourcePayloads", expectedExceptions = BadRequestException.class)
+    public void testDecodeResourceWithInvalidPayload(String payload) throws Exception {
+
+        jsonDecoder.decodeResource(payload, SCIMSchemaDefinitions.SCIM_USER_SCHEMA, new User());
+    }
+
+    @Test
+    public void testDecodeRequest() throws Exception {
+
+        String payload = "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"],\"Operations\":[" +
+                "{\"op\":\"Add\",\"path\":\"emails\",\"value\":[{\"value\":\"babs@jensen.org\"}]}," +
+                "{\"op\":\"remove\",\"path\":\"nickName\"}," +
+                "{\"op\":\"replace\",\"value\":{\"displayName\":\"Babs\"},\"ignored\":[1,2]}]}";
+        List<PatchOperation> operations = jsonDecoder.decodeRequest(payload);
+
+        Assert.assertEquals(operations.size(), 3);
+        Assert.assertEquals(operations.get(0).getOperation(), SCIMConstants.OperationalConstants.ADD);
+        Assert.assertEquals(operations.get(0).getPath(), "emails");
+        Assert.assertEquals(operations.get(0).getValues().toString(), "[{\"value\":\"babs@jensen.org\"}]");
+        Assert.assertEquals(operations.get(1).getOperation(), SCIMConstants.OperationalConstants.REMOVE);
+        Assert.assertNull(operations.get(1).getValues());
+        Assert.assertEquals(operations.get(2).getExecutionOrder(), 3);
+        Assert.assertNull(operations.get(2).getPath());
+        Assert.assertEquals(((JSONObject) operations.get(2).getValues()).getString("displayName"), "Babs");
+
+        List<PatchOperation> decodedOperations = jsonDecoder.decodeRequest(new JSONObject(payload));
+        Assert.assertEquals(decodedOperations.size(), operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            Assert.assertEquals(decodedOperations.get(i).getOperation(), operations.get(i).getOperation());
+            Assert.assertEquals(decodedOperations.get(i).getPath(), operations.get(i).getPath());
+            Assert.assertEquals(decodedOperations.get(i).getExecutionOrder(), operations.get(i).getExecutionOrder());
+            Assert.assertEquals(String.valueOf(decodedOperations.get(i).getValues()),
+                    String.valueOf(operations.get(i).getValues()));
+        }
+    }
+
+    @DataProvider(name = "invalidPatchRequests")
+    public Object[][] invalidPatchRequests() {
+
+        return new Object[][]{
+                {"{\"operations\":[{\"op\":\"add\"}]}", "Invalid JSON schema."},
+                {"{\"schemas\":[]}", null},
+                {"{\"Operations\":{\"op\":\"add\"}}", null},
+                {"{\"Operations\":[{\"path\":\"nickName\"}]}", "Operation can not be null."},
+                {"{\"Operations\":[{\"op\":\"move\"}]}", "Unknown operation: move"},
+                {"{\"Operations\":[{\"op\":1}]}", null},
+                {"{\"Operations\":[{\"op\":\"add\"}", null},
+        };
+    }
+
+    @Test(dataProvider = "invalidPatchRequests")
+    public void testDecodeRequestWithInvalidPayload(String payload, String detail) {
+
+        try {
+            jsonDecoder.decodeRequest(payload);
+            Assert.fail("Expected a BadRequestException for " + payload);
+        } catch (BadRequestException e) {
+            if (detail != null) {
+                Assert.assertEquals(e.getDetail(), detail);
+            }
+        }
+    }
+
+    @Test(dataProvider = "invalidPatchRequests")
+    public void testDecodeRequestFromJsonObjectWithInvalidPayload(String payload, String detail) {
+
+        JSONObject patchRequest;
+        try {
+            patchRequest = new JSONObject(payload);
+        } catch (JSONException e) {
+            // Only applies to payloads which are valid json.
+            return;
+        }
+        try {
+            jsonDecoder.decodeRequest(patchRequest);
+            Assert.fail("Expected a BadRequestException for " + payload);
+        } catch (BadRequestException e) {
+            if (detail != null) {
+                Assert.assertEquals(e.getDetail(), detail);
+            }
+        }
+    }
+
+    @Test
+    public void testDecodeSearchRequestBody() throws Exception {
+
+        String payload = "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:SearchRequest\"]," +
+                "\"attributes\":[\"userName\",\"emails\"],\"unknown\":{\"filter\":\"ignored\"}," +
+                "\"filter\":\"userName eq bjensen\",\"startIndex\":1,\"count\":10,\"sortBy\":\"userName\"}";
+        SearchRequest searchRequest =
+                jsonDecoder.decodeSearchRequestBody(payload, SCIMSchemaDefinitions.SCIM_USER_SCHEMA);
+
+        Assert.assertEquals(searchRequest.getSchema(), "urn:ietf:params:scim:api:messages:2.0:SearchRequest");
+        Assert.assertEquals(searchRequest.getAttributes().size(), 2);
+        Assert.assertTrue(searchRequest.getExcludedAttributes().isEmpty());
+        Assert.assertNotNull(searchRequest.getFilter());
+        Assert.assertEquals(searchRequest.getStartIndexStr(), "1");
+        Assert.assertEquals(searchRequest.getCountStr(), "10");
+        Assert.assertEquals(searchRequest.getSortBy(), "userName");
+        Assert.assertNull(searchRequest.getSortOder());
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testDecodeSearchRequestBodyWithoutSchemas() throws Exception {
+
+        jsonDecoder.decodeSearchRequestBody("{\"filter\":\"userName eq bjensen\"}",
+                SCIMSchemaDefinitions.SCIM_USER_SCHEMA);
+    }
+
+    @Test
+    public void testDecodeBulkData() throws Exception {
+
+        String userData = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"], \"userName\":\"bjensen\"}";
+        String payload = "{\"failOnErrors\":\"2\",\"Operations\":[" +
+                "{\"method\":\"POST\",\"path\":\"/Users\",\"bulkId\":\"qwerty\",\"data\": " + userData + " }," +
+                "{\"method\":\"POST\",\"path\":\"/Groups\",\"bulkId\":\"ytrewq\",\"data\":{\"displayName\":\"G\"}}," +
+                "{\"method\":\"DELETE\",\"path\":\"/Users/b7c14771\",\"version\":\"W/\\\"3694e05e\\\"\"}]," +
+                "\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:BulkRequest\"]}";
+        BulkRequestData bulkRequestData = jsonDecoder.decodeBulkData(payload);
+
+        Assert.assertEquals(bulkRequestData.getSchemas().size(), 1);
+        Assert.assertEquals(bulkRequestData.getFailOnErrors(), 2);
+        Assert.assertEquals(bulkRequestData.getUserOperationRequests().size(), 2);
+        Assert.assertEquals(bulkRequestData.getGroupOperationRequests().size(), 1);
+
+        BulkRequestContent create = bulkRequestData.getUserOperationRequests().get(0);
+        Assert.assertEquals(create.getBulkID(), "qwerty");
+        Assert.assertTrue(create.getDecodedData().similar(new JSONObject(userData)));
+        User user = jsonDecoder.decodeResource(create.getDecodedData(), SCIMSchemaDefinitions.SCIM_USER_SCHEMA,
+                new User());
+        Assert.assertEquals(user.getUserName(), "bjensen");
+
+        BulkRequestContent delete = bulkRequestData.getUserOperationRequests().get(1);
+        Assert.assertEquals(delete.getMethod(), SCIMConstants.OperationalConstants.DELETE);
+        Assert.assertEquals(delete.getVersion(), "W/\"3694e05e\"");
+        Assert.assertNull(delete.getDecodedData());
+        Assert.assertEquals(delete.getData(), "");
+    }
+
+    @Test
+    public void testOpenBulkRequest() throws Exception {
+
+        String payload = "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:BulkRequest\"],\"failOnErrors\":1," +
+                "\"Operations\":[{\"method\":\"POST\",\"path\":\"/Users\",\"bulkId\":\"a\",\"data\":{}}," +
+                "{\"method\":\"GET\",\"path\":\"/Unknown/1\"}," +
+                "{\"method\":\"POST\",\"path\":\"/Groups\",\"bulkId\":\"b\",\"data\":{}}],\"extension\":{}}";
+        JSONBulkRequestReader requestReader = jsonDecoder.openBulkRequest(new StringReader(payload));
+        BulkRequestData firstWindow = new BulkRequestData();
+        BulkRequestData secondWindow = new BulkRequestData();
+
+        Assert.assertEquals(requestReader.getFailOnErrors(), 1);
+        Assert.assertEquals(requestReader.readOperations(firstWindow, 2), 2);
+        Assert.assertEquals(requestReader.readOperations(secondWindow, 2), 1);
+        Assert.assertEquals(requestReader.readOperations(new BulkRequestData(), 2), 0);
+        Assert.assertEquals(requestReader.getOperationCount(), 3);
+        Assert.assertEquals(firstWindow.getUserOperationRequests().get(0).getBulkID(), "a");
+        Assert.assertTrue(firstWindow.getGroupOperationRequests().isEmpty());
+        Assert.assertEquals(secondWindow.getGroupOperationRequests().get(0).getBulkID(), "b");
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testOpenBulkRequestWithSchemasAfterOperations() throws Exception {
+
+        // Operations can not be streamed before the request is known to be a bulk request.
+        jsonDecoder.openBulkRequest(new StringReader("{\"Operations\":[],\"schemas\":[]}"));
+    }
+
+    @DataProvider(name = "invalidBulkRequests")
+    public Object[][] invalidBulkRequests() {
+
+        return new Object[][]{
+                {"{\"Operations\":[]}"},
+                {"{\"schemas\":[]}"},
+                {"{\"schemas\":[],\"Operations\":[{\"method\":\"POST\",\"path\":\"/Users\",\"data\":{}}]}"},
+                {"{\"schemas\":[],\"Operations\":[{\"method\":\"POST\",\"path\":\"/Users\",\"bulkId\":\"a\"}," +
+                        "{\"method\":\"POST\",\"path\":\"/Groups\",\"bulkId\":\"a\"}]}"},
+                {"{\"schemas\":[],\"Operations\":[{\"method\":\"POST\",\"path\":\"/Users\",\"bulkId\":\"a\"," +
+                        "\"data\":{\"userName\":\"a\",\"userName\":\"b\"}}]}"},
+                {"{\"schemas\":[],\"Operations\":[\"DELETE /Users/1\"]}"},
+        };
+    }
+
+    @Test(dataProvider = "invalidBulkRequests", expectedExceptions = BadRequestException.class)
+    public void testDecodeBulkDataWithInvalidPayload(String payload) throws Exception {
+
+        jsonDecoder.decodeBulkData(payload);
+    }
+
+    private static AbstractSCIMObject newResource(SCIMResourceTypeSchema schema) {
+
+        return schema == SCIMSchemaDefinitions.SCIM_GROUP_SCHEMA ? new Group() : new User();
+    }
+}
@@ -22,10 +22,33 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import org.wso2.charon3.core.attributes.AbstractAttribute;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
 import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.InternalErrorException;
+import org.wso2.charon3.core.objects.ListedResource;
+import org.wso2.charon3.core.objects.Role;
+import org.wso2.charon3.core.objects.SCIMObject;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.objects.bulk.BulkResponseContent;
+import org.wso2.charon3.core.objects.bulk.BulkResponseData;
+import org.wso2.charon3.core.protocol.SCIMResponse;
+import org.wso2.charon3.core.schema.SCIMConstants;
 import org.wso2.charon3.core.schema.SCIMDefinitions;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+import org.wso2.charon3.core.utils.ProjectionPlan;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Test class for JSONEncoder.
@@ -93,4 +116,227 @@ public class JsonEncoderTest {
         Assert.assertFalse(attribute.getAttributeJSONArrays().containsKey("jsonArray2"));
         Assert.assertEquals(attribute.getAttributeJSONArray("jsonArray1"), testJsonArray);
     }
+
+    @Test
+    public void testStreamingEncodingMatchesDOMEncodingForUser() throws Exception {
+
+        User user = buildUser("bjensen", "Barbara \"Babs\" Jensen\u00e9\n");
+
+        Assert.assertEquals(encodeStreaming(user), jsonEncoder.encodeSCIMObject(user));
+    }
+
+    @Test
+    public void testStreamingEncodingMatchesDOMEncodingForListedResource() throws Exception {
+
+        ListedResource listedResource = new ListedResource();
+        listedResource.setSchema(SCIMConstants.LISTED_RESOURCE_CORE_SCHEMA_URI);
+        listedResource.setTotalResults(3);
+        listedResource.setStartIndex(1);
+        listedResource.setItemsPerPage(3);
+        for (int i = 0; i < 3; i++) {
+            listedResource.addResource(buildUser("user" + i, "User " + i));
+        }
+
+        Assert.assertEquals(encodeStreaming(listedResource), jsonEncoder.encodeSCIMObject(listedResource));
+    }
+
+    @Test
+    public void testStreamingEncodingMatchesDOMEncodingForEdgeCases() throws Exception {
+
+        Role role = new Role();
+        role.setSchemas();
+        role.setDisplayName("admin");
+        role.setPermissions(Arrays.asList("/permission/admin", "/permission/admin/login"));
+
+        // Date time values of multi valued attributes are dropped by the DOM encoder.
+        SimpleAttribute dateTimeValue = new SimpleAttribute("value", Instant.ofEpochSecond(1700000000L));
+        dateTimeValue.setType(SCIMDefinitions.DataType.DATE_TIME);
+        MultiValuedAttribute mixedValues = new MultiValuedAttribute("mixed");
+        mixedValues.setAttributeValue(dateTimeValue);
+        mixedValues.setAttributeValue(new SimpleAttribute("value", 12.5d));
+        mixedValues.setAttributeValue(new SimpleAttribute("value", null));
+        mixedValues.setAttributePrimitiveValue(Boolean.TRUE);
+        mixedValues.setAttributePrimitiveValue(42L);
+        mixedValues.setAttributePrimitiveValue(buildUser("nested", "Nested"));
+        role.setAttribute(mixedValues);
+        // Complex attributes without sub attributes are not emitted.
+        role.setAttribute(new ComplexAttribute("empty"));
+        role.setAttribute(new MultiValuedAttribute("emptyValues"));
+
+        Assert.assertEquals(encodeStreaming(role), jsonEncoder.encodeSCIMObject(role));
+    }
+
+    @Test
+    public void testStreamingEncodingToOutputStream() throws Exception {
+
+        User user = buildUser("k\u00e4the", "K\u00e4the \u6f22\u5b57");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        jsonEncoder.encodeSCIMObject(user, outputStream);
+
+        Assert.assertEquals(outputStream.toString(StandardCharsets.UTF_8), jsonEncoder.encodeSCIMObject(user));
+    }
+
+    @DataProvider(name = "projections")
+    public Object[][] projections() {
+
+        return new Object[][]{
+                {null, null},
+                {"userName", null},
+                {"USERNAME,Emails.Value,name.givenName", null},
+                {"emails,addresses.locality,meta.created", null},
+                {"name", "name.givenName"},
+                {null, "displayName,name.givenName,emails.type,meta"},
+                {null, "ID,NAME,addresses"},
+        };
+    }
+
+    @Test(dataProvider = "projections")
+    public void testProjectedEncodingMatchesPrunedEncoding(String attributes, String excludedAttributes)
+            throws Exception {
+
+        ProjectionPlan projectionPlan = new ProjectionPlan(attributes, excludedAttributes);
+        User user = buildUser("bjensen", "Barbara Jensen");
+        String unprojected = jsonEncoder.encodeSCIMObject(user);
+        User prunedUser = buildUser("bjensen", "Barbara Jensen");
+        projectionPlan.prune(prunedUser);
+
+        Assert.assertEquals(jsonEncoder.encodeSCIMObject(user, projectionPlan),
+                jsonEncoder.encodeSCIMObject(prunedUser));
+        // The encoded object is left untouched.
+        Assert.assertEquals(jsonEncoder.encodeSCIMObject(user), unprojected);
+    }
+
+    @Test
+    public void testProjectedEncodingOfListedResource() throws Exception {
+
+        ProjectionPlan projectionPlan = new ProjectionPlan("userName,emails.value", null);
+        ListedResource listedResource = new ListedResource();
+        listedResource.setSchema(SCIMConstants.LISTED_RESOURCE_CORE_SCHEMA_URI);
+        listedResource.setTotalResults(2);
+        listedResource.setStartIndex(1);
+        listedResource.setItemsPerPage(2);
+        ListedResource prunedListedResource = new ListedResource();
+        prunedListedResource.setSchema(SCIMConstants.LISTED_RESOURCE_CORE_SCHEMA_URI);
+        prunedListedResource.setTotalResults(2);
+        prunedListedResource.setStartIndex(1);
+        prunedListedResource.setItemsPerPage(2);
+        for (int i = 0; i < 2; i++) {
+            listedResource.addResource(buildUser("user" + i, "User " + i));
+            User prunedUser = buildUser("user" + i, "User " + i);
+            projectionPlan.prune(prunedUser);
+            prunedListedResource.addResource(prunedUser);
+        }
+
+        Assert.assertEquals(jsonEncoder.encodeSCIMObject(listedResource, projectionPlan),
+                jsonEncoder.encodeSCIMObject(prunedListedResource));
+    }
+
+    @Test
+    public void testResponseBodyWriterOfListedResource() throws Exception {
+
+        ListedResource listedResource = new ListedResource();
+        listedResource.setSchema(SCIMConstants.LISTED_RESOURCE_CORE_SCHEMA_URI);
+        listedResource.setTotalResults(1);
+        listedResource.addResource(buildUser("kim", "Kim Jensen"));
+        ProjectionPlan projectionPlan = new ProjectionPlan("userName", null);
+
+        SCIMResponse scimResponse = SCIMResponse.withBodyWriter(200,
+                jsonEncoder.getResponseBodyWriter(listedResource, projectionPlan), null);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        scimResponse.writeResponseBody(outputStream);
+
+        Assert.assertTrue(scimResponse.hasResponseBody());
+        Assert.assertEquals(outputStream.toString(StandardCharsets.UTF_8),
+                jsonEncoder.encodeSCIMObject(listedResource, projectionPlan));
+    }
+
+    @Test
+    public void testResponseBodyWriterRunsOnce() throws Exception {
+
+        AtomicInteger runs = new AtomicInteger();
+        SCIMResponse scimResponse = SCIMResponse.withBodyWriter(200, outputStream ->
+                outputStream.write(("{\"run\":" + runs.incrementAndGet() + "}").getBytes(StandardCharsets.UTF_8)),
+                null);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        scimResponse.writeResponseBody(outputStream);
+        SCIMResponse streamedResponse = scimResponse;
+
+        // A streamed body is not kept, so it can be neither written again nor returned.
+        Assert.assertThrows(IllegalStateException.class, () -> streamedResponse.writeResponseBody(outputStream));
+        Assert.assertThrows(IllegalStateException.class, streamedResponse::getResponseMessage);
+        Assert.assertEquals(runs.get(), 1);
+        Assert.assertEquals(outputStream.toString(StandardCharsets.UTF_8), "{\"run\":1}");
+        Assert.assertTrue(scimResponse.hasResponseBody());
+
+        scimResponse = SCIMResponse.withBodyWriter(200, stream -> stream.write(String.valueOf(runs.incrementAndGet())
+                .getBytes(StandardCharsets.UTF_8)), null);
+        Assert.assertEquals(scimResponse.getResponseMessage(), "2");
+        Assert.assertEquals(scimResponse.getResponseMessage(), "2");
+        outputStream.reset();
+        scimResponse.writeResponseBody(outputStream);
+        Assert.assertEquals(outputStream.toString(StandardCharsets.UTF_8), "2");
+        Assert.assertEquals(runs.get(), 2);
+    }
+
+    @Test
+    public void testResponseBodyWriterOfBulkResponse() throws Exception {
+
+        BulkResponseData bulkResponseData = new BulkResponseData();
+        bulkResponseData.setSchema(SCIMConstants.BULK_RESPONSE_URI);
+        for (int i = 0; i < 2; i++) {
+            BulkResponseContent responseContent = new BulkResponseContent();
+            responseContent.setBulkID("bulk" + i);
+            responseContent.setMethod(SCIMConstants.OperationalConstants.POST);
+            responseContent.setLocation("https://localhost:9443/scim2/Users/" + i);
+            responseContent.setScimResponse(new SCIMResponse(201, null, null));
+            bulkResponseData.addUserOperation(responseContent);
+        }
+        BulkResponseContent failedContent = new BulkResponseContent();
+        failedContent.setBulkID("bulk2");
+        failedContent.setMethod(SCIMConstants.OperationalConstants.POST);
+        failedContent.setScimResponse(new SCIMResponse(409, "{\"status\":\"409\"}", null));
+        bulkResponseData.addGroupOperation(failedContent);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        jsonEncoder.getResponseBodyWriter(bulkResponseData).writeTo(outputStream);
+        JSONObject encodedResponse = new JSONObject(outputStream.toString(StandardCharsets.UTF_8));
+
+        Assert.assertEquals(outputStream.toString(StandardCharsets.UTF_8),
+                jsonEncoder.encodeBulkResponseData(bulkResponseData));
+        JSONArray operations = encodedResponse.getJSONArray(SCIMConstants.OperationalConstants.OPERATIONS);
+        Assert.assertEquals(operations.length(), 3);
+        Assert.assertEquals(operations.getJSONObject(2).getString(SCIMConstants.OperationalConstants.BULK_ID),
+                "bulk2");
+        Assert.assertEquals(encodedResponse.getJSONArray(SCIMConstants.CommonSchemaConstants.SCHEMAS).getString(0),
+                SCIMConstants.BULK_RESPONSE_URI);
+    }
+
+    private String encodeStreaming(SCIMObject scimObject) throws CharonException {
+
+        StringWriter writer = new StringWriter();
+        jsonEncoder.encodeSCIMObject(scimObject, writer);
+        return writer.toString();
+    }
+
+    private User buildUser(String userName, String displayName)
+            throws BadRequestException, CharonException, InternalErrorException {
+
+        String userJson = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"]," +
+                "\"userName\":\"" + userName + "\",\"displayName\":" + JSONObject.quote(displayName) + "," +
+                "\"active\":true," +
+                "\"name\":{\"givenName\":\"Barbara\",\"familyName\":\"Jensen\"}," +
+                "\"emails\":[{\"value\":\"bjensen@example.com\",\"type\":\"work\",\"primary\":true}," +
+                "{\"value\":\"babs@jensen.org\",\"type\":\"home\"}]," +
+                "\"phoneNumbers\":[{\"value\":\"555-555-8377\",\"type\":\"work\"}]," +
+                "\"addresses\":[{\"streetAddress\":\"100 Universal City Plaza\",\"locality\":\"Hollywood\"," +
+                "\"postalCode\":\"91608\",\"primary\":true}]}";
+        User user = new JSONDecoder().decodeResource(userJson, SCIMSchemaDefinitions.SCIM_USER_SCHEMA, new User());
+        user.setId("2819c223-7f76-453a-919d-413861904646");
+        user.setCreatedInstant(Instant.ofEpochSecond(1700000000L, 123000000L));
+        user.setLastModifiedInstant(Instant.ofEpochSecond(1700003600L));
+        user.setLocation("https://example.com/v2/Users/2819c223-7f76-453a-919d-413861904646");
+        user.setResourceType(SCIMConstants.USER);
+        return user;
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.charon3.core.extensions;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.objects.plainobjects.MembershipDelta;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test class of CachingUserManager.
+ */
+public class CachingUserManagerTest {
+
+    private static final Map<String, Boolean> USER_NAME = Map.of("urn:ietf:params:scim:schemas:core:2.0:User:userName",
+            true);
+
+    private UserManager userManager;
+    private CachingUserManager cachingUserManager;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        userManager = mock(UserManager.class);
+        User user = new User();
+        user.setId("1");
+        user.setUserName("kim");
+        Mockito.when(userManager.getUser("1", USER_NAME)).thenReturn(user);
+        Mockito.when(userManager.getMe("kim", USER_NAME)).thenReturn(user);
+        cachingUserManager = new CachingUserManager(userManager, 10, 60000);
+    }
+
+    @Test
+    public void testUsersAreReadOnce() throws Exception {
+
+        Assert.assertEquals(cachingUserManager.getUser("1", USER_NAME).getUserName(), "kim");
+        Assert.assertEquals(cachingUserManager.getUser("1", USER_NAME).getUserName(), "kim");
+        cachingUserManager.getMe("kim", USER_NAME);
+        cachingUserManager.getMe("kim", USER_NAME);
+
+        verify(userManager, times(1)).getUser("1", USER_NAME);
+        verify(userManager, times(1)).getMe("kim", USER_NAME);
+        Assert.assertEquals(cachingUserManager.getUserCache().getHitCount(), 1);
+        Assert.assertEquals(cachingUserManager.getUserCache().getMissCount(), 1);
+    }
+
+    @Test
+    public void testWritesInvalidateCachedUsers() throws Exception {
+
+        cachingUserManager.getUser("1", USER_NAME);
+        cachingUserManager.getMe("kim", USER_NAME);
+        cachingUserManager.patchUser("1", null, null, USER_NAME);
+        cachingUserManager.getUser("1", USER_NAME);
+        cachingUserManager.getMe("kim", USER_NAME);
+        verify(userManager, times(2)).getUser("1", USER_NAME);
+        verify(userManager, times(2)).getMe("kim", USER_NAME);
+
+        // Membership changes only invalidate the members whose groups change.
+        MembershipDelta membershipDelta = new MembershipDelta();
+        membershipDelta.addMember("2", "kris");
+        cachingUserManager.patchGroup("10", membershipDelta);
+        cachingUserManager.getUser("1", USER_NAME);
+        verify(userManager, times(2)).getUser("1", USER_NAME);
+
+        cachingUserManager.deleteGroup("10");
+        cachingUserManager.getUser("1", USER_NAME);
+        verify(userManager, times(3)).getUser("1", USER_NAME);
+    }
+
+    @Test
+    public void testOperationsArePassedThrough() throws Exception {
+
+        Mockito.when(userManager.getUserSchemaCacheKey()).thenReturn("tenant");
+
+        Assert.assertEquals(cachingUserManager.getUserSchemaCacheKey(), "tenant");
+        cachingUserManager.patchGroup("10", membershipDeltaOf("1"), USER_NAME);
+        verify(userManager).patchGroup(anyString(), any(MembershipDelta.class), anyMap());
+    }
+
+    private MembershipDelta membershipDeltaOf(String memberId) {
+
+        MembershipDelta membershipDelta = new MembershipDelta();
+        membershipDelta.removeMember(memberId);
+        return membershipDelta;
+    }
+}
@@ -0,0 +1,462 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.protocol;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.encoder.JSONBulkRequestReader;
+import org.wso2.charon3.core.encoder.JSONBulkResponseWriter;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.encoder.JSONEncoder;
+import org.wso2.charon3.core.exceptions.PayloadTooLargeException;
+import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.objects.bulk.BulkRequestContent;
+import org.wso2.charon3.core.objects.bulk.BulkRequestData;
+import org.wso2.charon3.core.objects.bulk.BulkResponseContent;
+import org.wso2.charon3.core.objects.bulk.BulkResponseData;
+import org.wso2.charon3.core.protocol.endpoints.GroupResourceManager;
+import org.wso2.charon3.core.protocol.endpoints.UserResourceManager;
+import org.wso2.charon3.core.schema.SCIMConstants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for BulkRequestProcessor.
+ */
+public class BulkRequestProcessorTest {
+
+    private static final String USERS_LOCATION = "https://localhost:9443/scim2/Users/";
+
+    private BulkRequestProcessor bulkRequestProcessor;
+    private UserResourceManager userResourceManager;
+    private GroupResourceManager groupResourceManager;
+    private ExecutorService executorService;
+    private AtomicInteger runningOperations;
+    private AtomicInteger maxRunningOperations;
+    private List<String> executedOperations;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        runningOperations = new AtomicInteger();
+        maxRunningOperations = new AtomicInteger();
+        executedOperations = Collections.synchronizedList(new ArrayList<>());
+
+        userResourceManager = Mockito.mock(UserResourceManager.class);
+        groupResourceManager = Mockito.mock(GroupResourceManager.class);
+        bulkRequestProcessor = new BulkRequestProcessor();
+        bulkRequestProcessor.setUserResourceManager(userResourceManager);
+        bulkRequestProcessor.setGroupResourceManager(groupResourceManager);
+        bulkRequestProcessor.setUserManager(Mockito.mock(UserManager.class));
+
+        when(userResourceManager.create(any(JSONObject.class), any(UserManager.class), any(), any()))
+                .thenAnswer(invocation -> {
+                    String userName = ((JSONObject) invocation.getArgument(0)).getString("userName");
+                    if (userName.startsWith("invalid")) {
+                        return record("POST " + userName, new SCIMResponse(ResponseCodeConstants.CODE_BAD_REQUEST,
+                                "{}", new HashMap<>()));
+                    }
+                    Map<String, String> headers = new HashMap<>();
+                    headers.put(SCIMConstants.LOCATION_HEADER, USERS_LOCATION + "id-" + userName);
+                    return record("POST " + userName, new SCIMResponse(ResponseCodeConstants.CODE_CREATED, "{}",
+                            headers));
+                });
+        when(userResourceManager.updateWithPATCH(anyString(), any(JSONObject.class), any(UserManager.class), any(),
+                any())).thenAnswer(invocation -> record("PATCH " + invocation.getArgument(0),
+                        new SCIMResponse(ResponseCodeConstants.CODE_OK, "{}", new HashMap<>())));
+        when(userResourceManager.delete(anyString(), any(UserManager.class))).thenAnswer(invocation ->
+                record("DELETE " + invocation.getArgument(0),
+                        new SCIMResponse(ResponseCodeConstants.CODE_NO_CONTENT, null, new HashMap<>())));
+        when(groupResourceManager.create(any(JSONObject.class), any(UserManager.class), eq(null), eq(null)))
+                .thenAnswer(invocation -> record("POST " + invocation.getArgument(0),
+                        new SCIMResponse(ResponseCodeConstants.CODE_CREATED, "{}", new HashMap<>())));
+        // Batches fall back to the single operation stubs, as the default implementations do.
+        when(userResourceManager.createDecodedResources(anyList(), any(UserManager.class), any(), any()))
+                .thenAnswer(invocation -> {
+                    List<SCIMResponse> responses = new ArrayList<>();
+                    for (Object data : (List<?>) invocation.getArgument(0)) {
+                        responses.add(userResourceManager.create((JSONObject) data, invocation.getArgument(1),
+                                null, null));
+                    }
+                    return responses;
+                });
+        when(userResourceManager.deleteResources(anyList(), any(UserManager.class))).thenAnswer(invocation -> {
+            List<SCIMResponse> responses = new ArrayList<>();
+            for (Object id : (List<?>) invocation.getArgument(0)) {
+                responses.add(userResourceManager.delete((String) id, invocation.getArgument(1)));
+            }
+            return responses;
+        });
+        when(groupResourceManager.createDecodedResources(anyList(), any(UserManager.class), any(), any()))
+                .thenAnswer(invocation -> {
+                    List<SCIMResponse> responses = new ArrayList<>();
+                    for (Object data : (List<?>) invocation.getArgument(0)) {
+                        responses.add(groupResourceManager.create((JSONObject) data, invocation.getArgument(1),
+                                null, null));
+                    }
+                    return responses;
+                });
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+
+    @Test
+    public void testSequentialProcessingResolvesBulkIds() throws Exception {
+
+        BulkRequestData bulkRequestData = new BulkRequestData();
+        bulkRequestData.setUserOperationRequests(List.of(createUser("u1"), createUser("u2")));
+        bulkRequestData.setGroupOperationRequests(List.of(createGroup("g1", "u1", "u2")));
+
+        BulkResponseData bulkResponseData = bulkRequestProcessor.processBulkRequests(bulkRequestData);
+
+        Assert.assertEquals(getBulkIds(bulkResponseData.getUserOperationResponse()), List.of("u1", "u2"));
+        Assert.assertEquals(getBulkIds(bulkResponseData.getGroupOperationResponse()), List.of("g1"));
+        Assert.assertEquals(executedOperations.size(), 3);
+        Assert.assertEquals(executedOperations.get(0), "POST u1");
+        Assert.assertEquals(executedOperations.get(1), "POST u2");
+        Assert.assertTrue(executedOperations.get(2).contains("\"value\":\"id-u1\""));
+        Assert.assertTrue(executedOperations.get(2).contains("\"value\":\"id-u2\""));
+    }
+
+    @Test
+    public void testBulkIdsAreResolvedInDataAsGiven() throws Exception {
+
+        when(groupResourceManager.updateWithPATCH(anyString(), any(JSONObject.class), any(UserManager.class), any(),
+                any())).thenAnswer(invocation -> record("PATCH " + invocation.getArgument(1),
+                        new SCIMResponse(ResponseCodeConstants.CODE_OK, "{}", new HashMap<>())));
+        String data = "{\"Operations\":[{\"op\":\"add\",\"path\":\"members\",\"value\":[" +
+                "{\"value\" : \"bulkId:u1\"},{\"value\":\"bulkId:unknown\"}]}," +
+                "{\"op\":\"add\",\"value\":{\"members\":[{\"value\":\"bulkId:u1\"}]," +
+                "\"externalId\":\"bulkId:u1\"}}," +
+                "{\"op\":\"add\",\"path\":\"externalId\",\"value\":[{\"value\":\"bulkId:u1\"}]}]," +
+                "\"externalId\":\"bulkId:u1\",\"note\":\"\\\"value\\\":\\\"bulkId:u1\\\"\"}";
+        BulkRequestContent groupPatch = operation(SCIMConstants.OperationalConstants.PATCH, "/Groups/g1", data);
+        BulkRequestContent groupCreation = createGroup("g2");
+        BulkRequestData bulkRequestData = new BulkRequestData();
+        bulkRequestData.setUserOperationRequests(List.of(createUser("u1")));
+        bulkRequestData.setGroupOperationRequests(List.of(groupPatch, groupCreation));
+
+        bulkRequestProcessor.processBulkRequests(bulkRequestData);
+
+        // Only the values of members are resolved, and only for users created in the request.
+        JSONObject expected = new JSONObject(data);
+        JSONArray patchOperations = expected.getJSONArray(SCIMConstants.OperationalConstants.OPERATIONS);
+        patchOperations.getJSONObject(0).getJSONArray(SCIMConstants.OperationalConstants.VALUE).getJSONObject(0)
+                .put(SCIMConstants.OperationalConstants.VALUE, "id-u1");
+        patchOperations.getJSONObject(1).getJSONObject(SCIMConstants.OperationalConstants.VALUE)
+                .getJSONArray(SCIMConstants.GroupSchemaConstants.MEMBERS).getJSONObject(0)
+                .put(SCIMConstants.OperationalConstants.VALUE, "id-u1");
+        Assert.assertTrue(groupPatch.getDecodedData().similar(expected));
+        Assert.assertTrue(executedOperations.contains("PATCH " + groupPatch.getDecodedData()));
+        // The data is handed to the resource manager as it was decoded, without being encoded and parsed again.
+        verify(groupResourceManager).updateWithPATCH(eq("g1"), same(groupPatch.getDecodedData()),
+                any(UserManager.class), any(), any());
+        verify(groupResourceManager).create(same(groupCreation.getDecodedData()), any(UserManager.class), any(),
+                any());
+        verify(groupResourceManager, never()).create(anyString(), any(UserManager.class), any(), any());
+    }
+
+    @Test
+    public void testStreamedProcessingResolvesBulkIdsAcrossWindows() throws Exception {
+
+        bulkRequestProcessor.setMaxBufferedOperations(2);
+        String payload = "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:BulkRequest\"],\"Operations\":[" +
+                "{\"method\":\"POST\",\"path\":\"/Users\",\"bulkId\":\"u1\",\"data\":{\"userName\":\"u1\"}}," +
+                "{\"method\":\"POST\",\"path\":\"/Groups\",\"bulkId\":\"g1\"," +
+                "\"data\":{\"displayName\":\"g1\",\"members\":[{\"value\":\"bulkId:u1\"}]}}," +
+                "{\"method\":\"POST\",\"path\":\"/Groups\",\"bulkId\":\"g2\"," +
+                "\"data\":{\"displayName\":\"g2\",\"members\":[{\"value\":\"bulkId:u1\"}]}}]}";
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        JSONBulkRequestReader requestReader = new JSONDecoder().openBulkRequest(new StringReader(payload));
+        BulkRequestData firstWindow = bulkRequestProcessor.readFirstWindow(requestReader, 10);
+        // Only the first window is read before the operations run.
+        Assert.assertEquals(requestReader.getOperationCount(), 2);
+        Assert.assertTrue(executedOperations.isEmpty());
+        try (JSONBulkResponseWriter responseWriter = new JSONEncoder().openBulkResponse(outputStream)) {
+            bulkRequestProcessor.processBulkRequests(firstWindow, requestReader, responseWriter, 10);
+        }
+
+        JSONArray responses = new JSONObject(outputStream.toString(StandardCharsets.UTF_8))
+                .getJSONArray(SCIMConstants.OperationalConstants.OPERATIONS);
+        Assert.assertEquals(responses.length(), 3);
+        Assert.assertEquals(responses.getJSONObject(0).getString(SCIMConstants.OperationalConstants.BULK_ID), "u1");
+        Assert.assertEquals(responses.getJSONObject(1).getString(SCIMConstants.OperationalConstants.BULK_ID), "g1");
+        Assert.assertEquals(responses.getJSONObject(2).getString(SCIMConstants.OperationalConstants.BULK_ID), "g2");
+        // The second group is in a later window than the user it references.
+        Assert.assertTrue(executedOperations.get(2).contains("\"value\":\"id-u1\""), executedOperations.get(2));
+    }
+
+    @Test
+    public void testStreamedRequestsOverMaxOperationsInFirstWindowAreRejectedBeforeAnyOperationRuns()
+            throws Exception {
+
+        bulkRequestProcessor.setMaxBufferedOperations(5);
+        String payload = "{\"schemas\":[],\"Operations\":[" +
+                "{\"method\":\"DELETE\",\"path\":\"/Users/a\"},{\"method\":\"DELETE\",\"path\":\"/Users/b\"}," +
+                "{\"method\":\"DELETE\",\"path\":\"/Users/c\"}]}";
+        JSONBulkRequestReader requestReader = new JSONDecoder().openBulkRequest(new StringReader(payload));
+
+        Assert.assertThrows(PayloadTooLargeException.class,
+                () -> bulkRequestProcessor.readFirstWindow(requestReader, 1));
+
+        Assert.assertTrue(executedOperations.isEmpty());
+        // No more than one operation over the maximum is read.
+        Assert.assertEquals(requestReader.getOperationCount(), 2);
+    }
+
+    @Test
+    public void testStreamedRequestsOverMaxOperationsInLaterWindowEndAfterEarlierWindowsRan() throws Exception {
+
+        bulkRequestProcessor.setMaxBufferedOperations(1);
+        String payload = "{\"schemas\":[],\"Operations\":[" +
+                "{\"method\":\"DELETE\",\"path\":\"/Users/a\"},{\"method\":\"DELETE\",\"path\":\"/Users/b\"}," +
+                "{\"method\":\"DELETE\",\"path\":\"/Users/c\"}]}";
+        JSONBulkRequestReader requestReader = new JSONDecoder().openBulkRequest(new StringReader(payload));
+        BulkRequestData firstWindow = bulkRequestProcessor.readFirstWindow(requestReader, 2);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (JSONBulkResponseWriter responseWriter = new JSONEncoder().openBulkResponse(outputStream)) {
+            Assert.assertThrows(PayloadTooLargeException.class,
+                    () -> bulkRequestProcessor.processBulkRequests(firstWindow, requestReader, responseWriter, 2));
+        }
+
+        Assert.assertEquals(executedOperations.size(), 2);
+        Assert.assertEquals(requestReader.getOperationCount(), 3);
+        Assert.assertEquals(new JSONObject(outputStream.toString(StandardCharsets.UTF_8))
+                .getJSONArray(SCIMConstants.OperationalConstants.OPERATIONS).length(), 2);
+    }
+
+    @Test
+    public void testConcurrentProcessingKeepsDependenciesAndResponseOrder() throws Exception {
+
+        executorService = BulkRequestProcessor.newVirtualThreadExecutor();
+        bulkRequestProcessor.setExecutor(executorService);
+        bulkRequestProcessor.setMaxConcurrentOperations(4);
+
+        List<BulkRequestContent> userOperations = new ArrayList<>();
+        List<String> expectedUserBulkIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            userOperations.add(createUser("u" + i));
+            expectedUserBulkIds.add("u" + i);
+        }
+        userOperations.add(operation(SCIMConstants.OperationalConstants.PATCH, "/Users/existing", "{}"));
+        userOperations.add(operation(SCIMConstants.OperationalConstants.DELETE, "/Users/existing", null));
+        expectedUserBulkIds.add(null);
+        expectedUserBulkIds.add(null);
+        BulkRequestData bulkRequestData = new BulkRequestData();
+        bulkRequestData.setUserOperationRequests(userOperations);
+        bulkRequestData.setGroupOperationRequests(List.of(createGroup("g1", "u0", "u19")));
+
+        BulkResponseData bulkResponseData = bulkRequestProcessor.processBulkRequests(bulkRequestData);
+
+        Assert.assertEquals(getBulkIds(bulkResponseData.getUserOperationResponse()), expectedUserBulkIds);
+        Assert.assertEquals(getBulkIds(bulkResponseData.getGroupOperationResponse()), List.of("g1"));
+        Assert.assertTrue(maxRunningOperations.get() <= 4);
+        Assert.assertTrue(executedOperations.indexOf("PATCH existing") < executedOperations.indexOf("DELETE existing"));
+        String groupCreation = executedOperations.stream().filter(operation -> operation.startsWith("POST {"))
+                .findFirst().orElse("");
+        Assert.assertTrue(executedOperations.indexOf(groupCreation) > executedOperations.indexOf("POST u19"));
+        Assert.assertTrue(groupCreation.contains("\"value\":\"id-u0\""), groupCreation);
+        Assert.assertTrue(groupCreation.contains("\"value\":\"id-u19\""), groupCreation);
+    }
+
+    @Test
+    public void testConsecutiveCreationsAndDeletionsAreBatched() throws Exception {
+
+        BulkRequestData bulkRequestData = new BulkRequestData();
+        bulkRequestData.setUserOperationRequests(List.of(createUser("u1"), createUser("u2"), createUser("u3"),
+                operation(SCIMConstants.OperationalConstants.DELETE, "/Users/a", null),
+                operation(SCIMConstants.OperationalConstants.DELETE, "/Users/b", null),
+                operation(SCIMConstants.OperationalConstants.PATCH, "/Users/c", "{}")));
+
+        BulkResponseData bulkResponseData = bulkRequestProcessor.processBulkRequests(bulkRequestData);
+
+        Assert.assertEquals(getBulkIds(bulkResponseData.getUserOperationResponse()),
+                Arrays.asList("u1", "u2", "u3", null, null, null));
+        Assert.assertEquals(executedOperations, List.of("POST u1", "POST u2", "POST u3", "DELETE a", "DELETE b",
+                "PATCH c"));
+        verify(userResourceManager, times(1)).createDecodedResources(anyList(), any(UserManager.class), any(),
+                any());
+        verify(userResourceManager).deleteResources(eq(List.of("a", "b")), any(UserManager.class));
+        Assert.assertEquals(bulkResponseData.getUserOperationResponse().get(2).getLocation(),
+                USERS_LOCATION + "id-u3");
+    }
+
+    @Test
+    public void testBatchingCanBeDisabled() throws Exception {
+
+        bulkRequestProcessor.setMaxBatchSize(1);
+        BulkRequestData bulkRequestData = new BulkRequestData();
+        bulkRequestData.setUserOperationRequests(List.of(createUser("u1"), createUser("u2")));
+
+        bulkRequestProcessor.processBulkRequests(bulkRequestData);
+
+        Assert.assertEquals(executedOperations, List.of("POST u1", "POST u2"));
+        verify(userResourceManager, never()).createDecodedResources(anyList(), any(UserManager.class), any(),
+                any());
+    }
+
+    @Test
+    public void testFailOnErrorsStopsProcessing() throws Exception {
+
+        BulkRequestData bulkRequestData = new BulkRequestData();
+        bulkRequestData.setFailOnErrors(1);
+        bulkRequestData.setUserOperationRequests(List.of(createUser("u1"), createUser("invalid1"),
+                createUser("u2")));
+        bulkRequestData.setGroupOperationRequests(List.of(createGroup("g1", "u1")));
+        bulkRequestProcessor.setFailOnError(bulkRequestData.getFailOnErrors());
+
+        BulkResponseData bulkResponseData = bulkRequestProcessor.processBulkRequests(bulkRequestData);
+
+        Assert.assertEquals(getBulkIds(bulkResponseData.getUserOperationResponse()), List.of("u1", "invalid1"));
+        Assert.assertTrue(bulkResponseData.getGroupOperationResponse().isEmpty());
+        Assert.assertEquals(bulkRequestProcessor.getErrors(), 1);
+    }
+
+    @Test
+    public void testConcurrentProcessingDoesNotRunOperationsBeyondFailOnErrors() throws Exception {
+
+        executorService = Executors.newFixedThreadPool(4);
+        bulkRequestProcessor.setExecutor(executorService);
+        bulkRequestProcessor.setMaxConcurrentOperations(4);
+        bulkRequestProcessor.setFailOnError(1);
+        BulkRequestData bulkRequestData = new BulkRequestData();
+        bulkRequestData.setUserOperationRequests(List.of(createUser("invalid1"), createUser("invalid2"),
+                createUser("invalid3"), createUser("invalid4")));
+
+        BulkResponseData bulkResponseData = bulkRequestProcessor.processBulkRequests(bulkRequestData);
+
+        Assert.assertEquals(getBulkIds(bulkResponseData.getUserOperationResponse()), List.of("invalid1"));
+        Assert.assertEquals(executedOperations, List.of("POST invalid1"));
+        Assert.assertEquals(bulkRequestProcessor.getErrors(), 1);
+    }
+
+    @Test
+    public void testConcurrentProcessingRunsGroupsAfterAllUsers() throws Exception {
+
+        when(groupResourceManager.updateWithPATCH(anyString(), any(JSONObject.class), any(UserManager.class), any(),
+                any())).thenAnswer(invocation -> record("PATCH group " + invocation.getArgument(0),
+                        new SCIMResponse(ResponseCodeConstants.CODE_OK, "{}", new HashMap<>())));
+        executorService = BulkRequestProcessor.newVirtualThreadExecutor();
+        bulkRequestProcessor.setExecutor(executorService);
+        bulkRequestProcessor.setMaxBatchSize(1);
+        List<BulkRequestContent> userOperations = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            userOperations.add(operation(SCIMConstants.OperationalConstants.PATCH, "/Users/u" + i, "{}"));
+        }
+        BulkRequestData bulkRequestData = new BulkRequestData();
+        bulkRequestData.setUserOperationRequests(userOperations);
+        // The group refers to the users by their ids, not through bulkIds.
+        bulkRequestData.setGroupOperationRequests(List.of(
+                operation(SCIMConstants.OperationalConstants.PATCH, "/Groups/g1", "{}")));
+
+        bulkRequestProcessor.processBulkRequests(bulkRequestData);
+
+        Assert.assertEquals(executedOperations.size(), 11);
+        Assert.assertEquals(executedOperations.get(10), "PATCH group g1");
+    }
+
+    private SCIMResponse record(String operation, SCIMResponse response) throws InterruptedException {
+
+        int running = runningOperations.incrementAndGet();
+        maxRunningOperations.accumulateAndGet(running, Math::max);
+        try {
+            Thread.sleep(2);
+            executedOperations.add(operation);
+            return response;
+        } finally {
+            runningOperations.decrementAndGet();
+        }
+    }
+
+    private static BulkRequestContent createUser(String bulkId) {
+
+        BulkRequestContent content = operation(SCIMConstants.OperationalConstants.POST, SCIMConstants.USER_ENDPOINT,
+                "{\"userName\":\"" + bulkId + "\"}");
+        content.setBulkID(bulkId);
+        return content;
+    }
+
+    private static BulkRequestContent createGroup(String bulkId, String... memberBulkIds) {
+
+        StringBuilder members = new StringBuilder();
+        for (String memberBulkId : memberBulkIds) {
+            if (members.length() > 0) {
+                members.append(',');
+            }
+            members.append("{\"value\":\"bulkId:").append(memberBulkId).append("\"}");
+        }
+        BulkRequestContent content = operation(SCIMConstants.OperationalConstants.POST,
+                SCIMConstants.GROUP_ENDPOINT, "{\"displayName\":\"" + bulkId + "\",\"members\":[" + members + "]}");
+        content.setBulkID(bulkId);
+        return content;
+    }
+
+    private static BulkRequestContent operation(String method, String path, String data) {
+
+        BulkRequestContent content = new BulkRequestContent();
+        content.setMethod(method);
+        content.setPath(path);
+        content.setData(data);
+        return content;
+    }
+
+    private static List<String> getBulkIds(List<BulkResponseContent> responses) {
+
+        List<String> bulkIds = new ArrayList<>();
+        for (BulkResponseContent response : responses) {
+            bulkIds.add(response.getBulkID());
+        }
+        return bulkIds;
+    }
+}
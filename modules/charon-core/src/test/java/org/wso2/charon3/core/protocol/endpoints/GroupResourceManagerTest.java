@@ -18,7 +18,9 @@
 
 package org.wso2.charon3.core.protocol.endpoints;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.testng.Assert;
@@ -36,9 +38,12 @@ import org.wso2.charon3.core.exceptions.ForbiddenException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.exceptions.PreConditionFailedException;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.objects.Group;
 import org.wso2.charon3.core.objects.plainobjects.GroupsGetResponse;
+import org.wso2.charon3.core.objects.plainobjects.MembershipDelta;
+import org.wso2.charon3.core.objects.plainobjects.MultiValuedComplexType;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.protocol.SCIMResponse;
 import org.wso2.charon3.core.schema.SCIMConstants;
@@ -61,6 +66,7 @@ import java.util.Map;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.testng.Assert.assertFalse;
@@ -177,11 +183,14 @@ public class GroupResourceManagerTest {
     private MockedStatic<AbstractResourceManager> abstractResourceManager;
 
     @BeforeMethod
-    public void setUp() {
+    public void setUp() throws Exception {
 
         groupResourceManager = new GroupResourceManager();
         abstractResourceManager = Mockito.mockStatic(AbstractResourceManager.class);
         userManager = mock(UserManager.class);
+        // Like most user managers, fall back to patching groups with the operations.
+        Mockito.doCallRealMethod().when(userManager).patchGroup(anyString(), any(MembershipDelta.class), anyMap());
+        Mockito.doCallRealMethod().when(userManager).patchGroup(anyString(), any(MembershipDelta.class));
 
         abstractResourceManager.when(AbstractResourceManager::getEncoder).thenReturn(new JSONEncoder());
         abstractResourceManager.when(AbstractResourceManager::getDecoder).thenReturn(new JSONDecoder());
@@ -236,6 +245,11 @@ public class GroupResourceManagerTest {
         abstractResourceManager.when(() -> AbstractResourceManager.getResourceEndpointURL(SCIMConstants.USER_ENDPOINT))
                 .thenReturn(SCIM2_GROUP_ENDPOINT);
         Mockito.when(userManager.getGroup(id, requiredAttributes)).thenReturn(group);
+        // The entity tag is computed from the group as a plain GET returns it.
+        Map<String, Boolean> plainRequiredAttributes = ResourceManagerUtil.getOnlyRequiredAttributesURIs(
+                (SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), null, null);
+        ResourceManagerUtil.includeRolesUnlessExcluded(plainRequiredAttributes, null, null);
+        Mockito.when(userManager.getGroup(id, plainRequiredAttributes)).thenReturn(group);
         SCIMResponse scimResponse = groupResourceManager.get(id, userManager, attributes, excludeAttributes);
         JSONObject obj = new JSONObject(scimResponse.getResponseMessage());
         if (attributes != null) {
@@ -852,6 +866,132 @@ public class GroupResourceManagerTest {
         Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_NO_CONTENT);
     }
 
+    @Test
+    public void testUpdateWithPATCHWritesMembershipDelta() throws Exception {
+
+        SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
+        Group groupNew = new JSONDecoder().decodeResource(NEW_GROUP_SCIM_OBJECT_STRING_FOR_PATCH_UPDATE, schema,
+                new Group());
+        abstractResourceManager.when(()
+                -> AbstractResourceManager.getResourceEndpointURL(SCIMConstants.GROUP_ENDPOINT))
+                .thenReturn(SCIM2_GROUP_ENDPOINT);
+        ArgumentCaptor<MembershipDelta> membershipDelta = ArgumentCaptor.forClass(MembershipDelta.class);
+        Mockito.doReturn(groupNew).when(userManager)
+                .patchGroup(eq(GROUP_ID), membershipDelta.capture(), anyMap());
+
+        SCIMResponse scimResponse = groupResourceManager.updateWithPATCH(GROUP_ID, SCIM2_PATCH_REQUEST_STRING,
+                userManager, null, null);
+
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Assert.assertEquals(membershipDelta.getValue().getAddedMembers(),
+                Map.of("409ca90b-2ba6-4474-9a45-2cf7376e6e43", "kris"));
+        // The group name is not looked up when the user manager takes the delta.
+        Mockito.verify(userManager, Mockito.never()).getGroup(anyString(), anyMap());
+        Mockito.verify(userManager, Mockito.never()).patchGroup(anyString(), anyString(), anyMap(), anyMap());
+    }
+
+    @Test
+    public void testGetWithPageOfIteratedMembers() throws Exception {
+
+        SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
+        Group group = new JSONDecoder().decodeResource(NEW_GROUP_SCIM_OBJECT_STRING_FOR_PATCH_UPDATE, schema,
+                new Group());
+        group.deleteAttribute(SCIMConstants.GroupSchemaConstants.MEMBERS);
+        ArgumentCaptor<Map<String, Boolean>> requiredAttributes = ArgumentCaptor.forClass(Map.class);
+        Mockito.when(userManager.getGroup(eq(GROUP_ID), requiredAttributes.capture())).thenReturn(group);
+        Mockito.when(userManager.getGroupMembers(GROUP_ID, 2)).thenReturn(List.of(
+                new MultiValuedComplexType("User", false, "kim", "1", null),
+                new MultiValuedComplexType("User", false, "kris", "2", null),
+                new MultiValuedComplexType("User", false, "ann", "3", null)).iterator());
+
+        SCIMResponse scimResponse = groupResourceManager.get(GROUP_ID, userManager, null, null, 2, 2);
+
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Assert.assertEquals(new JSONObject(scimResponse.getResponseMessage())
+                .getJSONArray(SCIMConstants.GroupSchemaConstants.MEMBERS).length(), 2);
+        Assert.assertEquals(scimResponse.getHeaderParamMap().get(SCIMConstants.MEMBERS_NEXT_START_INDEX_HEADER), "4");
+        // Without a stored version, the entity tag would need all the members.
+        Assert.assertNull(scimResponse.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER));
+        // The members are not loaded along with the group.
+        assertFalse(requiredAttributes.getValue().keySet().stream()
+                .anyMatch(uri -> uri.startsWith(SCIMConstants.GroupSchemaConstants.MEMBERS_URI)));
+    }
+
+    @Test
+    public void testGetWithPageOfLoadedMembers() throws Exception {
+
+        SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
+        Group group = new JSONDecoder().decodeResource(NEW_GROUP_SCIM_OBJECT_STRING_FOR_PATCH_UPDATE, schema,
+                new Group());
+        Mockito.when(userManager.getGroup(eq(GROUP_ID), anyMap())).thenReturn(group);
+        Mockito.when(userManager.getGroupMembers(anyString(), Mockito.anyInt())).thenCallRealMethod();
+
+        SCIMResponse scimResponse = groupResourceManager.get(GROUP_ID, userManager, null, null, 2, 5);
+
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        JSONArray members = new JSONObject(scimResponse.getResponseMessage())
+                .getJSONArray(SCIMConstants.GroupSchemaConstants.MEMBERS);
+        Assert.assertEquals(members.length(), 1);
+        Assert.assertEquals(members.getJSONObject(0).getString(SCIMConstants.GroupSchemaConstants.VALUE),
+                "008bba85-451d-414b-87de-c03b5a112347");
+        Assert.assertNull(scimResponse.getHeaderParamMap().get(SCIMConstants.MEMBERS_NEXT_START_INDEX_HEADER));
+
+        Mockito.when(userManager.getGroupVersion(GROUP_ID)).thenReturn("3");
+        scimResponse = groupResourceManager.get(GROUP_ID, userManager, null, null, 2, 5);
+        Assert.assertEquals(scimResponse.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER), "\"3\"");
+    }
+
+    @Test
+    public void testGetGroupNotModified() throws Exception {
+
+        SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
+        Group group = new JSONDecoder().decodeResource(NEW_GROUP_SCIM_OBJECT_STRING_FOR_PATCH_UPDATE, schema,
+                new Group());
+        Mockito.when(userManager.getGroup(eq(GROUP_ID), anyMap())).thenReturn(group);
+
+        SCIMResponse scimResponse = groupResourceManager.get(GROUP_ID, userManager, null, null);
+        String eTag = scimResponse.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER);
+
+        scimResponse = groupResourceManager.get(GROUP_ID, userManager, null, null, "\"0\", " + eTag);
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_NOT_MODIFIED);
+        Assert.assertNull(scimResponse.getResponseMessage());
+        scimResponse = groupResourceManager.get(GROUP_ID, userManager, null, null, "\"0\"");
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Assert.assertEquals(scimResponse.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER), eTag);
+    }
+
+    @Test
+    public void testUpdateGroupPreconditionFailed() throws Exception {
+
+        abstractResourceManager.when(() -> AbstractResourceManager.encodeSCIMException(
+                any(PreConditionFailedException.class))).thenCallRealMethod();
+        Mockito.when(userManager.getGroupVersion(GROUP_ID)).thenReturn("W/\"3\"");
+
+        // A weak version never matches If-Match, which uses the strong comparison.
+        SCIMResponse scimResponse = groupResourceManager.updateWithPUT(GROUP_ID, NEW_GROUP_SCIM_OBJECT_STRING,
+                userManager, null, null, "W/\"3\"");
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+        scimResponse = groupResourceManager.updateWithPATCH(GROUP_ID, "not a patch request", userManager,
+                "\"2\"");
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+        Mockito.verify(userManager, Mockito.never()).getGroup(anyString(), anyMap());
+    }
+
+    @Test
+    public void testUpdateGroupWithPATCHPassesVersionToUserManager() throws Exception {
+
+        Group group = getNewGroup();
+        Mockito.when(userManager.getGroupVersion(GROUP_ID)).thenReturn("3");
+        Mockito.when(userManager.patchGroupWithVersion(eq(GROUP_ID), any(MembershipDelta.class), anyMap(),
+                eq("3"))).thenReturn(group);
+
+        SCIMResponse scimResponse = groupResourceManager.updateWithPATCH(GROUP_ID, SCIM2_PATCH_REQUEST_STRING,
+                userManager, null, null, "\"3\"");
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        // The user manager checks the version again together with the patch.
+        Mockito.verify(userManager, Mockito.never()).patchGroup(anyString(), any(MembershipDelta.class), anyMap());
+    }
+
     @DataProvider(name = "dataForListWithGET")
     public Object[][] dataToListWithGET() {
 
@@ -1474,11 +1474,13 @@ public class MeResourceManagerTest {
             throw new IllegalArgumentException("Operations list cannot be empty");
         }
         User newUser = mock(User.class);
-        mockedPatchOperationUtil.when(() -> PatchOperationUtil.doPatchAdd(any(), any(), any(), any(), any()))
+        MockedStatic<CopyUtil> mockedCopyUtil = Mockito.mockStatic(CopyUtil.class);
+        mockedCopyUtil.when(() -> CopyUtil.deepCopy(any())).thenReturn(newUser);
+        mockedPatchOperationUtil.when(() -> PatchOperationUtil.applyPatchAdd(any(), any(), any(), any()))
                 .thenReturn(newUser);
-        mockedPatchOperationUtil.when(() -> PatchOperationUtil.doPatchReplace(any(), any(), any(), any(), any()))
+        mockedPatchOperationUtil.when(() -> PatchOperationUtil.applyPatchReplace(any(), any(), any(), any()))
                 .thenReturn(newUser);
-        mockedPatchOperationUtil.when(() -> PatchOperationUtil.doPatchRemove(any(), any(), any(), any()))
+        mockedPatchOperationUtil.when(() -> PatchOperationUtil.applyPatchRemove(any(), any()))
                 .thenReturn(newUser);
 
         when(userManager.getMe(anyString(), any())).thenReturn(oldUser);
@@ -1491,6 +1493,7 @@ public class MeResourceManagerTest {
 
         mockedResourceManagerUtil.close();
         mockedPatchOperationUtil.close();
+        mockedCopyUtil.close();
     }
 
     private static String generateValidScimObjectString(List<Map<String, String>> operations) {
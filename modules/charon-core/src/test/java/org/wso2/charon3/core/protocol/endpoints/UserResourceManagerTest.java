@@ -19,6 +19,7 @@
 package org.wso2.charon3.core.protocol.endpoints;
 
 import org.json.JSONObject;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.testng.Assert;
@@ -36,8 +37,10 @@ import org.wso2.charon3.core.exceptions.ForbiddenException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.exceptions.NotFoundException;
 import org.wso2.charon3.core.exceptions.NotImplementedException;
+import org.wso2.charon3.core.exceptions.PreConditionFailedException;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.objects.plainobjects.ChangeSet;
 import org.wso2.charon3.core.objects.plainobjects.UsersGetResponse;
 import org.wso2.charon3.core.protocol.ResponseCodeConstants;
 import org.wso2.charon3.core.protocol.SCIMResponse;
@@ -53,10 +56,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 
@@ -383,11 +389,13 @@ public class UserResourceManagerTest {
     }
 
     @BeforeMethod
-    public void setUp() {
+    public void setUp() throws Exception {
 
         userResourceManager = new UserResourceManager();
         abstractResourceManager = Mockito.mockStatic(AbstractResourceManager.class);
         userManager = mock(UserManager.class);
+        // Like most user managers, fall back to replacing the whole user on PATCH.
+        Mockito.when(userManager.patchUser(any(), any(), any(), any())).thenCallRealMethod();
         abstractResourceManager.when(AbstractResourceManager::getEncoder).thenReturn(new JSONEncoder());
         abstractResourceManager.when(AbstractResourceManager::getDecoder).thenReturn(new JSONDecoder());
     }
@@ -430,6 +438,9 @@ public class UserResourceManagerTest {
         abstractResourceManager.when(() -> AbstractResourceManager.getResourceEndpointURL(SCIMConstants.USER_ENDPOINT))
                 .thenReturn(SCIM2_USER_ENDPOINT);
         Mockito.when(userManager.getUser(id, requiredAttributes)).thenReturn(user);
+        // The entity tag is computed from the user as a plain GET returns it.
+        Mockito.when(userManager.getUser(id, ResourceManagerUtil.getOnlyRequiredAttributesURIs(
+                (SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), null, null))).thenReturn(user);
         SCIMResponse scimResponse = userResourceManager.get(id, userManager, attributes, excludeAttributes);
         JSONObject obj = new JSONObject(scimResponse.getResponseMessage());
         Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_OK);
@@ -439,6 +450,30 @@ public class UserResourceManagerTest {
         Assert.assertEquals(returnedURI, expectedURI);
     }
 
+    @Test
+    public void testGetNotModified() throws Exception {
+
+        User user = getNewUser();
+        SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
+        Mockito.when(userManager.getUser(user.getId(), ResourceManagerUtil.getOnlyRequiredAttributesURIs(
+                (SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), null, null))).thenReturn(user);
+
+        SCIMResponse scimResponse = userResourceManager.get(user.getId(), userManager, null, null);
+        String eTag = scimResponse.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER);
+        Assert.assertNotNull(eTag);
+
+        scimResponse = userResourceManager.get(user.getId(), userManager, null, null, "W/" + eTag);
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_NOT_MODIFIED);
+        Assert.assertNull(scimResponse.getResponseMessage());
+        Assert.assertEquals(scimResponse.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER), eTag);
+
+        // A user store keeping versions answers the precondition without the user being loaded.
+        Mockito.when(userManager.getUserVersion(user.getId())).thenReturn("7");
+        scimResponse = userResourceManager.get(user.getId(), userManager, null, null, "\"7\"");
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_NOT_MODIFIED);
+        Mockito.verify(userManager, Mockito.times(2)).getUser(eq(user.getId()), anyMap());
+    }
+
     /*
      * Contains data to test NotFoundException thrown in 'get' method of 'UserResourceManager' class.
      * Format {resource id, attributes, excluded attributes}
@@ -575,6 +610,34 @@ public class UserResourceManagerTest {
         Assert.assertEquals(outputScimResponse.getResponseStatus(), ResponseCodeConstants.CODE_OK);
     }
 
+    @Test
+    public void testListWithCursor() throws Exception {
+
+        User user = new JSONDecoder().decodeResource(NEW_USER_SCIM_OBJECT_STRING,
+                SCIMResourceSchemaManager.getInstance().getUserResourceSchema(), new User());
+        abstractResourceManager.when(() -> AbstractResourceManager.encodeSCIMException(
+                any(AbstractCharonException.class))).thenCallRealMethod();
+        Mockito.when(userManager.listUsersWithCursor(any(), isNull(), eq(1), any(), any(), any(), anyMap()))
+                .thenReturn(new UsersGetResponse(2, List.of(user), user.getUserName()));
+        Mockito.when(userManager.listUsersWithCursor(any(), eq(user.getUserName()), eq(1), any(), any(), any(),
+                anyMap())).thenReturn(new UsersGetResponse(2, List.of(user), null));
+
+        JSONObject firstPage = new JSONObject(userResourceManager.listWithCursor(userManager, null, "", 1,
+                "userName", null, null, null, null).getResponseMessage());
+        String nextCursor = firstPage.getString(SCIMConstants.ListedResourceSchemaConstants.NEXT_CURSOR);
+        JSONObject lastPage = new JSONObject(userResourceManager.listWithCursor(userManager, null, nextCursor, 1,
+                "userName", null, null, null, null).getResponseMessage());
+        // A cursor can not be used with a different sorting.
+        SCIMResponse sortedDifferently = userResourceManager.listWithCursor(userManager, null, nextCursor, 1,
+                "name.familyName", null, null, null, null);
+
+        Assert.assertFalse(firstPage.has(SCIMConstants.ListedResourceSchemaConstants.START_INDEX));
+        Assert.assertNotEquals(nextCursor, user.getUserName());
+        Assert.assertEquals(lastPage.getJSONArray(SCIMConstants.ListedResourceSchemaConstants.RESOURCES).length(), 1);
+        Assert.assertFalse(lastPage.has(SCIMConstants.ListedResourceSchemaConstants.NEXT_CURSOR));
+        Assert.assertEquals(sortedDifferently.getResponseStatus(), ResponseCodeConstants.CODE_BAD_REQUEST);
+    }
+
     @DataProvider(name = "dataForTestCreateUserSuccess")
     public Object[][] dataToTestCreateUserSuccess() {
 
@@ -706,6 +769,31 @@ public class UserResourceManagerTest {
         Assert.assertEquals(scimResponse.getResponseStatus(), expectedScimResponseStatus);
     }
 
+    @Test
+    public void testCreateResources() throws BadRequestException, CharonException, ConflictException,
+            ForbiddenException, InternalErrorException {
+
+        User user = getNewUser();
+        abstractResourceManager.when(() -> AbstractResourceManager.getResourceEndpointURL(SCIMConstants.USER_ENDPOINT))
+                .thenReturn(SCIM2_USER_ENDPOINT);
+        abstractResourceManager.when(() -> AbstractResourceManager.encodeSCIMException(
+                any(AbstractCharonException.class))).thenCallRealMethod();
+        Mockito.when(userManager.createUsers(anyList(), anyMap())).thenCallRealMethod();
+        Mockito.when(userManager.createUser(any(User.class), anyMap())).thenReturn(user)
+                .thenThrow(new ConflictException("User already exists."));
+
+        List<SCIMResponse> scimResponses = userResourceManager.createResources(List.of(NEW_USER_SCIM_OBJECT_STRING,
+                "{\"userName\": ", NEW_USER_SCIM_OBJECT_STRING), userManager, null, null);
+
+        Assert.assertEquals(scimResponses.size(), 3);
+        Assert.assertEquals(scimResponses.get(0).getResponseStatus(), ResponseCodeConstants.CODE_CREATED);
+        Assert.assertEquals(scimResponses.get(0).getHeaderParamMap().get(SCIMConstants.LOCATION_HEADER),
+                SCIM2_USER_ENDPOINT + "/" + user.getId());
+        Assert.assertEquals(scimResponses.get(1).getResponseStatus(), ResponseCodeConstants.CODE_BAD_REQUEST);
+        Assert.assertEquals(scimResponses.get(2).getResponseStatus(), ResponseCodeConstants.CODE_CONFLICT);
+        Mockito.verify(userManager, Mockito.times(1)).createUsers(anyList(), anyMap());
+    }
+
     @DataProvider(name = "dataForTestDeleteUserSuccess")
     public Object[][] dataToTestDeleteUserSuccess()
             throws BadRequestException, CharonException, InternalErrorException {
@@ -850,6 +938,94 @@ public class UserResourceManagerTest {
         Assert.assertEquals(returnedURI, expectedURI);
     }
 
+    @Test
+    public void testUpdateWithPUTPreconditionFailed() throws Exception {
+
+        abstractResourceManager.when(() -> AbstractResourceManager.encodeSCIMException(
+                any(PreConditionFailedException.class))).thenCallRealMethod();
+        Mockito.when(userManager.getUserVersion(USER_ID)).thenReturn("8");
+
+        SCIMResponse scimResponse = userResourceManager.updateWithPUT(USER_ID, NEW_USER_SCIM_OBJECT_STRING_UPDATE,
+                userManager, null, null, "\"7\"");
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+
+        // Stale writes are rejected before the user is loaded or the payload is decoded.
+        scimResponse = userResourceManager.updateWithPATCH(USER_ID, "not a patch request", userManager, null, null,
+                "W/\"8\"");
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+        Mockito.verify(userManager, Mockito.never()).getUser(any(), anyMap());
+    }
+
+    @Test
+    public void testUpdateWithPUTPreconditionFailedInUserStore() throws Exception {
+
+        abstractResourceManager.when(() -> AbstractResourceManager.encodeSCIMException(
+                any(PreConditionFailedException.class))).thenCallRealMethod();
+        User userOld = getNewUser();
+        Mockito.when(userManager.getUserVersion(userOld.getId())).thenReturn("8");
+        Mockito.when(userManager.getUser(eq(userOld.getId()), anyMap())).thenReturn(userOld);
+        // The user was updated by another request after its version was checked.
+        Mockito.when(userManager.updateUserWithVersion(any(User.class), anyMap(), eq("8")))
+                .thenThrow(new PreConditionFailedException());
+
+        SCIMResponse scimResponse = userResourceManager.updateWithPUT(userOld.getId(),
+                NEW_USER_SCIM_OBJECT_STRING_UPDATE, userManager, null, null, "\"8\"");
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+        Mockito.verify(userManager, Mockito.never()).updateUser(any(User.class), anyMap());
+    }
+
+    @Test
+    public void testUpdateWithPUTMatchingComputedETag() throws Exception {
+
+        User userOld = getNewUser();
+        SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
+        Mockito.when(userManager.getUser(userOld.getId(), ResourceManagerUtil.getOnlyRequiredAttributesURIs(
+                (SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), null, null))).thenReturn(userOld);
+        Mockito.when(userManager.getUser(userOld.getId(), ResourceManagerUtil.getAllAttributeURIs(schema)))
+                .thenReturn(userOld);
+        Mockito.when(userManager.updateUser(any(User.class), anyMap())).thenAnswer(invocation ->
+                invocation.getArgument(0));
+        String eTag = userResourceManager.get(userOld.getId(), userManager, null, null).getHeaderParamMap()
+                .get(SCIMConstants.ETAG_HEADER);
+
+        SCIMResponse scimResponse = userResourceManager.updateWithPUT(userOld.getId(),
+                NEW_USER_SCIM_OBJECT_STRING_UPDATE, userManager, null, null, eTag);
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Assert.assertNotEquals(scimResponse.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER), eTag);
+    }
+
+    @Test
+    public void testUpdateWithPUTMatchingComputedETagOfProjectedGet() throws Exception {
+
+        abstractResourceManager.when(() -> AbstractResourceManager.encodeSCIMException(
+                any(PreConditionFailedException.class))).thenCallRealMethod();
+        AtomicReference<User> storedUser = new AtomicReference<>(getNewUser());
+        String id = storedUser.get().getId();
+        Mockito.when(userManager.getUser(eq(id), anyMap())).thenAnswer(invocation -> storedUser.get());
+        Mockito.when(userManager.updateUser(any(User.class), anyMap())).thenAnswer(invocation -> {
+            storedUser.set(invocation.getArgument(0));
+            return storedUser.get();
+        });
+        String plainETag = userResourceManager.get(id, userManager, null, null).getHeaderParamMap()
+                .get(SCIMConstants.ETAG_HEADER);
+        String eTag = userResourceManager.get(id, userManager, "userName", null).getHeaderParamMap()
+                .get(SCIMConstants.ETAG_HEADER);
+
+        // The entity tag identifies the version of the user, whatever attributes were returned.
+        Assert.assertEquals(eTag, plainETag);
+        SCIMResponse scimResponse = userResourceManager.updateWithPUT(id, NEW_USER_SCIM_OBJECT_STRING_UPDATE,
+                userManager, "userName", null, eTag);
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Assert.assertNotEquals(scimResponse.getHeaderParamMap().get(SCIMConstants.ETAG_HEADER), eTag);
+        // Each GET retrieves the user once, and the update reuses the user retrieved to check the entity tag.
+        Mockito.verify(userManager, Mockito.times(3)).getUser(eq(id), anyMap());
+
+        // The user has changed since the entity tag was returned.
+        scimResponse = userResourceManager.updateWithPUT(id, NEW_USER_SCIM_OBJECT_STRING_UPDATE, userManager,
+                "userName", null, eTag);
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_PRECONDITION_FAILED);
+    }
+
     @DataProvider(name = "dataForTestUpdateWithPUTProvidedUserManagerHandlerIsNull")
     public Object[][] dataToTestUpdateWithPUTProvidedUserManagerHandlerIsNull()
             throws BadRequestException, CharonException, InternalErrorException {
@@ -1130,6 +1306,54 @@ public class UserResourceManagerTest {
         Assert.assertEquals(returnedURI, expectedURI);
     }
 
+    @Test
+    public void testUpdateWithPATCHWritesChangeSet() throws Exception {
+
+        SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
+        User userOld = new JSONDecoder().decodeResource(NEW_USER_SCIM_OBJECT_STRING_FOR_PATCH, schema, new User());
+        abstractResourceManager.when(() -> AbstractResourceManager.getResourceEndpointURL(SCIMConstants.USER_ENDPOINT))
+                .thenReturn(SCIM2_USER_ENDPOINT);
+        Mockito.when(userManager.getUser(userOld.getId(), ResourceManagerUtil.getAllAttributeURIs(schema)))
+                .thenReturn(userOld);
+        ArgumentCaptor<ChangeSet> changeSet = ArgumentCaptor.forClass(ChangeSet.class);
+        Mockito.doAnswer(invocation -> invocation.getArgument(2)).when(userManager)
+                .patchUser(eq(userOld.getId()), changeSet.capture(), any(User.class), anyMap());
+
+        SCIMResponse scimResponse = userResourceManager.updateWithPATCH(userOld.getId(),
+                NEW_USER_SCIM_OBJECT_STRING_FOR_PATCH_UPDATE, userManager, null, null);
+
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Assert.assertEquals(changeSet.getValue().getAddedAttributes(),
+                Map.of("urn:ietf:params:scim:schemas:core:2.0:User:nickName", "shaggy"));
+        Assert.assertTrue(changeSet.getValue().getReplacedAttributes().isEmpty());
+        Assert.assertTrue(changeSet.getValue().getRemovedAttributes().isEmpty());
+        Mockito.verify(userManager, Mockito.never()).updateUser(any(User.class), anyMap());
+        Mockito.verify(userManager, Mockito.never()).updateUser(any(User.class), anyMap(), anyList());
+    }
+
+    @Test
+    public void testUpdateWithPATCHReplacingUserChecksVersion() throws Exception {
+
+        SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
+        User userOld = new JSONDecoder().decodeResource(NEW_USER_SCIM_OBJECT_STRING_FOR_PATCH, schema, new User());
+        abstractResourceManager.when(() -> AbstractResourceManager.getResourceEndpointURL(SCIMConstants.USER_ENDPOINT))
+                .thenReturn(SCIM2_USER_ENDPOINT);
+        Mockito.when(userManager.getUserVersion(userOld.getId())).thenReturn("8");
+        Mockito.when(userManager.getUser(userOld.getId(), ResourceManagerUtil.getAllAttributeURIs(schema)))
+                .thenReturn(userOld);
+        Mockito.when(userManager.patchUserWithVersion(any(), any(), any(), any(), any())).thenCallRealMethod();
+        Mockito.when(userManager.updateUserWithVersion(any(User.class), anyMap(), eq("8"))).thenAnswer(
+                invocation -> invocation.getArgument(0));
+
+        SCIMResponse scimResponse = userResourceManager.updateWithPATCH(userOld.getId(),
+                NEW_USER_SCIM_OBJECT_STRING_FOR_PATCH_UPDATE, userManager, null, null, "\"8\"");
+
+        // A user store which cannot apply a change set still checks the version together with the update.
+        Assert.assertEquals(scimResponse.getResponseStatus(), ResponseCodeConstants.CODE_OK);
+        Mockito.verify(userManager, Mockito.never()).updateUser(any(User.class), anyMap());
+        Mockito.verify(userManager, Mockito.never()).updateUser(any(User.class), anyMap(), anyList());
+    }
+
     @DataProvider(name = "dataForUpdateWithPATCHProvidedUserManagerHandlerIsNull")
     public Object[][] dataToUpdateWithPATCHInProvidedUserManagerHandlerIsNull()
             throws BadRequestException, CharonException, InternalErrorException {
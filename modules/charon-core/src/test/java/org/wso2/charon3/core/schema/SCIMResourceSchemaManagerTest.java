@@ -43,8 +43,10 @@ import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertThrows;
 import static org.testng.Assert.assertTrue;
 import static org.wso2.charon3.core.schema.SCIMConstants.AGENT_SCHEMA_URI;
 import static org.wso2.charon3.core.schema.SCIMConstants.CUSTOM_EXTENSION_SCHEMA_URI;
@@ -175,6 +177,93 @@ public class SCIMResourceSchemaManagerTest {
         verify(agentSchemaExtension).getURI();
     }
 
+    @Test
+    public void testGetUserResourceSchemaIsCachedPerCacheKey() throws BadRequestException, NotImplementedException,
+            CharonException {
+
+        UserManager userManager = mock(UserManager.class);
+        when(userManager.getUserSchemaCacheKey()).thenReturn("tenant-1");
+        when(userSchemaExtensionBuilder.getExtensionSchema()).thenReturn(userSchemaExtension);
+        when(systemSchemaExtensionBuilder.getExtensionSchema()).thenReturn(systemSchemaExtension);
+        when(userSchemaExtension.getURI()).thenReturn(ENTERPRISE_USER_SCHEMA_URI);
+        when(systemSchemaExtension.getURI()).thenReturn(SYSTEM_USER_SCHEMA_URI);
+
+        manager.invalidateUserResourceSchemas();
+        SCIMResourceTypeSchema first = manager.getUserResourceSchema(userManager);
+        SCIMResourceTypeSchema second = manager.getUserResourceSchema(userManager);
+
+        assertSame(second, first, "The composed schema should be reused for the same cache key.");
+        verify(userManager).getCustomUserSchemaExtension();
+        verify(systemSchemaExtensionBuilder).getExtensionSchema();
+
+        manager.invalidateUserResourceSchema("tenant-1");
+        SCIMResourceTypeSchema rebuilt = manager.getUserResourceSchema(userManager);
+
+        assertNotSame(rebuilt, first, "The composed schema should be rebuilt after invalidation.");
+        verify(userManager, times(2)).getCustomUserSchemaExtension();
+        verify(systemSchemaExtensionBuilder, times(2)).getExtensionSchema();
+        manager.invalidateUserResourceSchemas();
+    }
+
+    @Test
+    public void testInvalidateUserResourceSchemaKeepsOtherCacheKeys() throws BadRequestException,
+            NotImplementedException, CharonException {
+
+        UserManager tenant1UserManager = mock(UserManager.class);
+        when(tenant1UserManager.getUserSchemaCacheKey()).thenReturn("tenant-1");
+        UserManager tenant2UserManager = mock(UserManager.class);
+        when(tenant2UserManager.getUserSchemaCacheKey()).thenReturn("tenant-2");
+        when(userSchemaExtensionBuilder.getExtensionSchema()).thenReturn(userSchemaExtension);
+        when(systemSchemaExtensionBuilder.getExtensionSchema()).thenReturn(systemSchemaExtension);
+        when(userSchemaExtension.getURI()).thenReturn(ENTERPRISE_USER_SCHEMA_URI);
+        when(systemSchemaExtension.getURI()).thenReturn(SYSTEM_USER_SCHEMA_URI);
+
+        manager.invalidateUserResourceSchemas();
+        SCIMResourceTypeSchema tenant1Schema = manager.getUserResourceSchema(tenant1UserManager);
+        SCIMResourceTypeSchema tenant2Schema = manager.getUserResourceSchema(tenant2UserManager);
+
+        manager.invalidateUserResourceSchema("tenant-1");
+
+        assertNotSame(manager.getUserResourceSchema(tenant1UserManager), tenant1Schema,
+                "The invalidated schema should be rebuilt.");
+        assertSame(manager.getUserResourceSchema(tenant2UserManager), tenant2Schema,
+                "The schema of another cache key should be kept.");
+        verify(tenant1UserManager, times(2)).getCustomUserSchemaExtension();
+        verify(tenant2UserManager).getCustomUserSchemaExtension();
+        manager.invalidateUserResourceSchemas();
+    }
+
+    @Test
+    public void testGetUserResourceSchemaIsCachedPerExtensionSchemas() throws BadRequestException,
+            NotImplementedException, CharonException {
+
+        UserManager userManager = mock(UserManager.class);
+        AttributeSchema customSchemaExtension = mock(AttributeSchema.class);
+        when(userManager.getCustomUserSchemaExtension()).thenReturn(customSchemaExtension);
+        when(customSchemaExtension.getURI()).thenReturn(CUSTOM_EXTENSION_SCHEMA_URI);
+        when(userSchemaExtensionBuilder.getExtensionSchema()).thenReturn(userSchemaExtension);
+        when(systemSchemaExtensionBuilder.getExtensionSchema()).thenReturn(systemSchemaExtension);
+        when(userSchemaExtension.getURI()).thenReturn(ENTERPRISE_USER_SCHEMA_URI);
+        when(systemSchemaExtension.getURI()).thenReturn(SYSTEM_USER_SCHEMA_URI);
+
+        SCIMResourceTypeSchema first = manager.getUserResourceSchema(userManager);
+
+        assertSame(manager.getUserResourceSchema(userManager), first,
+                "The composed schema should be reused for the same extension schemas.");
+        assertThrows(UnsupportedOperationException.class,
+                () -> first.getAttributesList().add(SCIMSchemaDefinitions.ID));
+        assertThrows(UnsupportedOperationException.class, () -> first.getAttributesList().subList(0, 1).clear());
+        assertThrows(UnsupportedOperationException.class, () -> first.setSchemasList(AGENT_SCHEMA_URI));
+
+        AttributeSchema changedSchemaExtension = mock(AttributeSchema.class);
+        when(changedSchemaExtension.getURI()).thenReturn(CUSTOM_EXTENSION_SCHEMA_URI);
+        when(userManager.getCustomUserSchemaExtension()).thenReturn(changedSchemaExtension);
+
+        assertNotSame(manager.getUserResourceSchema(userManager), first,
+                "The schema should be composed again when an extension schema is replaced.");
+        verify(userManager, times(3)).getCustomUserSchemaExtension();
+    }
+
     @Test
     public void testIsExtensionSet() {
 
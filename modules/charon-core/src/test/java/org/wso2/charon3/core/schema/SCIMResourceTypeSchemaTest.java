@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.schema;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.utils.CopyUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Test class for the attribute index of SCIMResourceTypeSchema.
+ */
+public class SCIMResourceTypeSchemaTest {
+
+    private static final String USER_URI = "urn:ietf:params:scim:schemas:core:2.0:User:";
+
+    @DataProvider(name = "attributeNames")
+    public Object[][] attributeNames() {
+
+        return new Object[][]{
+                {"userName", USER_URI + "userName"},
+                {"USERNAME", USER_URI + "userName"},
+                {USER_URI + "userName", USER_URI + "userName"},
+                {USER_URI.toUpperCase() + "USERNAME", USER_URI + "userName"},
+                {"name.givenName", USER_URI + "name.givenName"},
+                {"Emails.Value", USER_URI + "emails.value"},
+                {USER_URI + "emails.value", USER_URI + "emails.value"},
+                {"id", "urn:ietf:params:scim:schemas:core:2.0:id"},
+                {"meta.lastModified", "urn:ietf:params:scim:schemas:core:2.0:meta.lastModified"},
+                {"givenName", null},
+                {"emails.unknown", null},
+                {"", null},
+                {null, null},
+        };
+    }
+
+    @Test(dataProvider = "attributeNames")
+    public void testGetAttributeSchema(String attributeName, String expectedURI) {
+
+        AttributeSchema attributeSchema = SCIMSchemaDefinitions.SCIM_USER_SCHEMA.getAttributeSchema(attributeName);
+
+        Assert.assertEquals(attributeSchema == null ? null : attributeSchema.getURI(), expectedURI, attributeName);
+    }
+
+    @Test
+    public void testFirstAttributeWinsOnDuplicateNames() {
+
+        AttributeSchema first = createAttributeSchema("urn:test:first:title", "title");
+        AttributeSchema second = createAttributeSchema("urn:test:second:title", "title");
+        SCIMResourceTypeSchema schema = SCIMResourceTypeSchema.createSCIMResourceSchema(
+                Collections.singletonList("urn:test"), first, second);
+
+        Assert.assertSame(schema.getAttributeSchema("title"), first);
+        Assert.assertSame(schema.getAttributeSchema("urn:test:second:title"), second);
+    }
+
+    @Test
+    public void testIndexIsRebuiltWithTheAttributeList() {
+
+        SCIMResourceTypeSchema schema = SCIMResourceTypeSchema.createSCIMResourceSchema(
+                Collections.singletonList("urn:test"), createAttributeSchema("urn:test:title", "title"));
+        AttributeSchema nickName = createAttributeSchema("urn:test:nickName", "nickName");
+
+        schema.setAttributeList(new ArrayList<>(Arrays.asList(nickName)));
+
+        Assert.assertNull(schema.getAttributeSchema("title"));
+        Assert.assertSame(schema.getAttributeSchema("nickName"), nickName);
+    }
+
+    @Test
+    public void testIndexOfCopiedSchemas() throws Exception {
+
+        SCIMResourceTypeSchema schema = SCIMSchemaDefinitions.SCIM_USER_SCHEMA;
+        SCIMResourceTypeSchema copy = (SCIMResourceTypeSchema) CopyUtil.deepCopy(schema);
+        SCIMResourceTypeSchema deserialized = (SCIMResourceTypeSchema) CopyUtil.serializationCopy(schema);
+
+        Assert.assertEquals(copy.getAttributeSchema("emails.value").getURI(), USER_URI + "emails.value");
+        Assert.assertEquals(deserialized.getAttributeSchema("emails.value").getURI(), USER_URI + "emails.value");
+        Assert.assertNotSame(copy.getAttributeSchema("emails.value"), schema.getAttributeSchema("emails.value"));
+    }
+
+    private static AttributeSchema createAttributeSchema(String uri, String name) {
+
+        return SCIMAttributeSchema.createSCIMAttributeSchema(uri, name, SCIMDefinitions.DataType.STRING, false, "",
+                false, false, SCIMDefinitions.Mutability.READ_WRITE, SCIMDefinitions.Returned.DEFAULT,
+                SCIMDefinitions.Uniqueness.NONE, null, null, null);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.objects.plainobjects.ChangeSet;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test class of ChangeSetUtil.
+ */
+public class ChangeSetUtilTest {
+
+    private static final String USER_URI = "urn:ietf:params:scim:schemas:core:2.0:User:";
+
+    private static final String OLD_USER_JSON = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"]," +
+            "\"id\":\"229d3f0d\",\"userName\":\"kim\",\"title\":\"Guide\"," +
+            "\"name\":{\"givenName\":\"Kim\",\"familyName\":\"Jensen\"}," +
+            "\"emails\":[{\"value\":\"kim@example.com\",\"type\":\"work\",\"primary\":true}," +
+            "{\"value\":\"kim@home.com\",\"type\":\"home\"}]," +
+            "\"meta\":{\"created\":\"2026-01-01T10:00:00Z\",\"lastModified\":\"2026-01-02T10:00:00Z\"," +
+            "\"resourceType\":\"User\"}}";
+
+    private static final String NEW_USER_JSON = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"]," +
+            "\"id\":\"229d3f0d\",\"userName\":\"kim\",\"nickName\":\"K\"," +
+            "\"name\":{\"givenName\":\"Kimberly\",\"familyName\":\"Jensen\"}," +
+            "\"emails\":[{\"value\":\"kim@example.com\",\"type\":\"work\",\"primary\":true," +
+            "\"display\":\"kim@example.com\"},{\"value\":\"kim@other.com\",\"type\":\"other\"}]," +
+            "\"meta\":{\"created\":\"2026-01-01T10:00:00Z\",\"lastModified\":\"2026-03-04T10:00:00Z\"," +
+            "\"resourceType\":\"User\"}}";
+
+    @Test
+    public void testChangeSetOfAllAttributes() throws Exception {
+
+        ChangeSet changeSet = ChangeSetUtil.getChangeSet(getUser(OLD_USER_JSON), getUser(NEW_USER_JSON), null);
+
+        Assert.assertEquals(changeSet.getAddedAttributes(), Map.of(USER_URI + "nickName", "K"));
+        Assert.assertEquals(changeSet.getReplacedAttributes(), Map.of(USER_URI + "name.givenName", "Kimberly"));
+        Assert.assertEquals(changeSet.getRemovedAttributes(), Set.of(USER_URI + "title"));
+        // The derived display sub attribute does not make the work email a different value.
+        Assert.assertEquals(changeSet.getAddedValues(),
+                Map.of(USER_URI + "emails", List.of(Map.of("value", "kim@other.com", "type", "other"))));
+        Assert.assertEquals(changeSet.getRemovedValues(),
+                Map.of(USER_URI + "emails", List.of(Map.of("value", "kim@home.com", "type", "home"))));
+    }
+
+    @Test
+    public void testChangeSetOfGivenAttributes() throws Exception {
+
+        ChangeSet changeSet = ChangeSetUtil.getChangeSet(getUser(OLD_USER_JSON), getUser(NEW_USER_JSON),
+                Set.of("title", "userName"));
+
+        Assert.assertEquals(changeSet.getRemovedAttributes(), Set.of(USER_URI + "title"));
+        Assert.assertTrue(changeSet.getAddedAttributes().isEmpty());
+        Assert.assertTrue(changeSet.getReplacedAttributes().isEmpty());
+        Assert.assertTrue(changeSet.getAddedValues().isEmpty());
+        Assert.assertTrue(changeSet.getRemovedValues().isEmpty());
+    }
+
+    @Test
+    public void testRemovedMultiValuedAttribute() throws Exception {
+
+        User newUser = getUser(OLD_USER_JSON);
+        newUser.deleteAttribute("emails");
+
+        ChangeSet changeSet = ChangeSetUtil.getChangeSet(getUser(OLD_USER_JSON), newUser, null);
+
+        Assert.assertEquals(changeSet.getRemovedAttributes(), Set.of(USER_URI + "emails"));
+        Assert.assertTrue(changeSet.getRemovedValues().isEmpty());
+        Assert.assertTrue(ChangeSetUtil.getChangeSet(newUser, newUser, null).isEmpty());
+    }
+
+    @Test
+    public void testRepeatedValuesAreMatchedOnce() throws Exception {
+
+        String oldUserJson = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],\"userName\":\"kim\"," +
+                "\"emails\":[{\"value\":\"kim@example.com\",\"type\":\"work\"}," +
+                "{\"value\":\"kim@example.com\",\"type\":\"work\"}]}";
+        String newUserJson = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],\"userName\":\"kim\"," +
+                "\"emails\":[{\"value\":\"kim@example.com\",\"type\":\"work\",\"display\":\"kim@example.com\"}," +
+                "{\"value\":\"kim@other.com\",\"type\":\"other\"}]}";
+
+        ChangeSet changeSet = ChangeSetUtil.getChangeSet(getUser(oldUserJson), getUser(newUserJson), null);
+
+        Assert.assertEquals(changeSet.getAddedValues(),
+                Map.of(USER_URI + "emails", List.of(Map.of("value", "kim@other.com", "type", "other"))));
+        Assert.assertEquals(changeSet.getRemovedValues(),
+                Map.of(USER_URI + "emails", List.of(Map.of("value", "kim@example.com", "type", "work"))));
+    }
+
+    private User getUser(String json) throws Exception {
+
+        return new JSONDecoder().decodeResource(json, SCIMSchemaDefinitions.SCIM_USER_SCHEMA, new User());
+    }
+}
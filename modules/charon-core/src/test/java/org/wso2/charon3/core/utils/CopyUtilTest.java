@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.encoder.JSONEncoder;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.Role;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Test class of CopyUtil and StructuralCopier.
+ */
+public class CopyUtilTest {
+
+    private static final String USER_JSON = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"]," +
+            "\"id\":\"229d3f0d-a07b-4052-bf4d-3071ecafed04\",\"userName\":\"kim\",\"active\":true," +
+            "\"name\":{\"givenName\":\"Kim\",\"familyName\":\"Jensen\"}," +
+            "\"emails\":[{\"value\":\"kim@example.com\",\"type\":\"work\",\"primary\":true}," +
+            "{\"value\":\"kim@home.com\",\"type\":\"home\"}]," +
+            "\"meta\":{\"created\":\"2026-01-01T10:00:00Z\",\"lastModified\":\"2026-01-02T10:00:00Z\"," +
+            "\"resourceType\":\"User\"}}";
+
+    private User getUser() throws Exception {
+
+        return new JSONDecoder().decodeResource(USER_JSON, SCIMSchemaDefinitions.SCIM_USER_SCHEMA, new User());
+    }
+
+    @Test
+    public void testDeepCopyOfUserMatchesSerializationCopy() throws Exception {
+
+        User user = getUser();
+        User structuralCopy = (User) CopyUtil.deepCopy(user);
+        User serializedCopy = (User) CopyUtil.serializationCopy(user);
+
+        JSONEncoder encoder = new JSONEncoder();
+        Assert.assertNotSame(structuralCopy, user);
+        Assert.assertEquals(structuralCopy.getClass(), User.class);
+        Assert.assertEquals(encoder.encodeSCIMObject(structuralCopy), encoder.encodeSCIMObject(serializedCopy));
+        Assert.assertEquals(structuralCopy.getSchemaList(), user.getSchemaList());
+        Assert.assertEquals(structuralCopy.getCreatedInstant(), user.getCreatedInstant());
+    }
+
+    @Test
+    public void testDeepCopyOfUserIsIndependent() throws Exception {
+
+        User user = getUser();
+        User copy = (User) CopyUtil.deepCopy(user);
+
+        SimpleAttribute originalUserName = (SimpleAttribute) user.getAttribute("userName");
+        SimpleAttribute copiedUserName = (SimpleAttribute) copy.getAttribute("userName");
+        Assert.assertNotSame(copiedUserName, originalUserName);
+        // Immutable leaves are shared between the original and the copy.
+        Assert.assertSame(copiedUserName.getValue(), originalUserName.getValue());
+        Assert.assertEquals(copiedUserName.getURI(), originalUserName.getURI());
+        Assert.assertEquals(copiedUserName.getMutability(), originalUserName.getMutability());
+
+        copiedUserName.setValue("bob");
+        ((ComplexAttribute) copy.getAttribute("name")).removeSubAttribute("givenName");
+        ((MultiValuedAttribute) copy.getAttribute("emails")).getAttributeValues().remove(0);
+        copy.setSchema("urn:ietf:params:scim:schemas:extension:enterprise:2.0:User");
+
+        Assert.assertEquals(originalUserName.getValue(), "kim");
+        Assert.assertTrue(((ComplexAttribute) user.getAttribute("name")).isSubAttributeExist("givenName"));
+        Assert.assertEquals(((MultiValuedAttribute) user.getAttribute("emails")).getAttributeValues().size(), 2);
+        Assert.assertEquals(user.getSchemaList().size(), 1);
+    }
+
+    @Test
+    public void testDeepCopyOfRolePermissions() throws Exception {
+
+        Role role = new Role();
+        role.setDisplayName("admin");
+        role.setPermissions(new ArrayList<>(Arrays.asList("/permission/admin", "/permission/view")));
+
+        Role copy = (Role) CopyUtil.deepCopy(role);
+        copy.getPermissions().clear();
+
+        Assert.assertEquals(role.getPermissions().size(), 2);
+        Assert.assertEquals(copy.getDisplayName(), "admin");
+    }
+
+    @Test
+    public void testDeepCopyOfGroup() throws Exception {
+
+        Group group = new Group();
+        group.setDisplayName("engineering");
+        group.setMember("a0c1", "kim");
+
+        Group copy = (Group) CopyUtil.deepCopy(group);
+        copy.setMember("b0c2", "bob");
+
+        Assert.assertEquals(group.getMembers().size(), 1);
+        Assert.assertEquals(copy.getMembers().size(), 2);
+    }
+
+    @Test
+    public void testDeepCopyOfResourceTypeSchema() throws Exception {
+
+        SCIMResourceTypeSchema schema = SCIMSchemaDefinitions.SCIM_USER_SCHEMA;
+        SCIMResourceTypeSchema copy = (SCIMResourceTypeSchema) CopyUtil.deepCopy(schema);
+
+        Assert.assertEquals(copy.getSchemasList(), schema.getSchemasList());
+        Assert.assertEquals(copy.getAttributesList().size(), schema.getAttributesList().size());
+        for (int i = 0; i < schema.getAttributesList().size(); i++) {
+            AttributeSchema original = schema.getAttributesList().get(i);
+            AttributeSchema copied = copy.getAttributesList().get(i);
+            Assert.assertNotSame(copied, original);
+            Assert.assertEquals(copied.getURI(), original.getURI());
+            Assert.assertEquals(copied.getReturned(), original.getReturned());
+        }
+
+        AttributeSchema copiedName = copy.getAttributesList().stream()
+                .filter(attributeSchema -> "name".equals(attributeSchema.getName())).findFirst().get();
+        int originalSubAttributeCount = SCIMSchemaDefinitions.SCIMUserSchemaDefinition.NAME
+                .getSubAttributeSchemas().size();
+        copiedName.removeSubAttribute("givenName");
+
+        Assert.assertEquals(copiedName.getSubAttributeSchemas().size(), originalSubAttributeCount - 1);
+        Assert.assertEquals(SCIMSchemaDefinitions.SCIMUserSchemaDefinition.NAME.getSubAttributeSchemas().size(),
+                originalSubAttributeCount);
+    }
+}
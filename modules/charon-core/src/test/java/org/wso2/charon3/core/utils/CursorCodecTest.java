@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+
+/**
+ * Test class of CursorCodec.
+ */
+public class CursorCodecTest {
+
+    @Test
+    public void testEncodeAndDecode() throws Exception {
+
+        String cursor = CursorCodec.encode("kim.jensen", "userName sw \"k\"", "userName", null);
+
+        Assert.assertFalse(cursor.contains("kim"));
+        Assert.assertEquals(CursorCodec.decode(cursor, "userName sw \"k\"", "userName", null), "kim.jensen");
+    }
+
+    @Test
+    public void testDecodeFirstPage() throws Exception {
+
+        Assert.assertNull(CursorCodec.decode(null, "userName"));
+        Assert.assertNull(CursorCodec.decode("", "userName"));
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testDecodeWithDifferentQuery() throws Exception {
+
+        String cursor = CursorCodec.encode("kim", "userName", null);
+        // Moving the value to the next parameter is a different query as well.
+        CursorCodec.decode(cursor, null, "userName");
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testDecodeMalformedCursor() throws Exception {
+
+        CursorCodec.decode("not a cursor!", "userName");
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Test class of ETagUtil.
+ */
+public class ETagUtilTest {
+
+    @Test
+    public void testFromVersion() {
+
+        Assert.assertEquals(ETagUtil.fromVersion("42"), "\"42\"");
+        Assert.assertEquals(ETagUtil.fromVersion("\"42\""), "\"42\"");
+        Assert.assertEquals(ETagUtil.fromVersion("W/\"42\""), "W/\"42\"");
+        Assert.assertNull(ETagUtil.fromVersion(null));
+    }
+
+    @Test
+    public void testFromBody() throws Exception {
+
+        String eTag = ETagUtil.fromBody("{\"id\":\"1\",\"userName\":\"kim\"}");
+
+        Assert.assertTrue(eTag.matches("\"[A-Za-z0-9_-]{22}\""));
+        Assert.assertEquals(ETagUtil.fromBody("{\"id\":\"1\",\"userName\":\"kim\"}"), eTag);
+        Assert.assertNotEquals(ETagUtil.fromBody("{\"id\":\"1\",\"userName\":\"kimberly\"}"), eTag);
+    }
+
+    @Test
+    public void testIsMatch() {
+
+        Assert.assertTrue(ETagUtil.isMatch("\"1\", \"2\"", "\"2\"", false));
+        Assert.assertTrue(ETagUtil.isMatch("*", "\"2\"", false));
+        Assert.assertTrue(ETagUtil.isMatch("\"a,b\"", "\"a,b\"", false));
+        Assert.assertFalse(ETagUtil.isMatch("\"1\"", "\"2\"", true));
+        Assert.assertFalse(ETagUtil.isMatch(null, "\"2\"", true));
+        Assert.assertFalse(ETagUtil.isMatch("\"2\"", null, true));
+    }
+
+    @Test
+    public void testIsMatchWithWeakEntityTags() {
+
+        // Weak entity tags only match under the weak comparison.
+        Assert.assertTrue(ETagUtil.isMatch("W/\"2\"", "\"2\"", true));
+        Assert.assertTrue(ETagUtil.isMatch("\"2\"", "W/\"2\"", true));
+        Assert.assertFalse(ETagUtil.isMatch("W/\"2\"", "\"2\"", false));
+        Assert.assertFalse(ETagUtil.isMatch("\"2\"", "W/\"2\"", false));
+    }
+}
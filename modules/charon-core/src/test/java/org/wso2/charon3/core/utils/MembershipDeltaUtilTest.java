@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.objects.plainobjects.MembershipDelta;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test class of MembershipDeltaUtil.
+ */
+public class MembershipDeltaUtilTest {
+
+    @Test
+    public void testMembershipDelta() throws Exception {
+
+        MembershipDelta membershipDelta = MembershipDeltaUtil.getMembershipDelta(getOperations(
+                "{\"op\":\"add\",\"value\":{\"members\":[{\"value\":\"1\",\"display\":\"kim\"}," +
+                        "{\"value\":\"2\",\"display\":\"kris\"},{\"value\":\"1\",\"display\":\"kim\"}]}}," +
+                "{\"op\":\"add\",\"path\":\"members\",\"value\":[{\"value\":\"3\",\"display\":\"ann\"}]}," +
+                "{\"op\":\"remove\",\"path\":\"members[value eq \\\"2\\\"]\"}," +
+                "{\"op\":\"remove\",\"path\":\"members[value eq \\\"4\\\"]\"}," +
+                "{\"op\":\"replace\",\"path\":\"displayName\",\"value\":\"sales\"}"));
+
+        // The last operation on the second member removes it.
+        Assert.assertEquals(membershipDelta.getAddedMembers(), Map.of("1", "kim", "3", "ann"));
+        Assert.assertEquals(membershipDelta.getRemovedMembers(), Set.of("2", "4"));
+        Assert.assertEquals(membershipDelta.getDisplayName(), "sales");
+    }
+
+    @Test
+    public void testOperationsNotExpressibleAsDelta() throws Exception {
+
+        Assert.assertNull(MembershipDeltaUtil.getMembershipDelta(getOperations(
+                "{\"op\":\"remove\",\"path\":\"members[display eq \\\"kim\\\"]\"}")));
+        Assert.assertNull(MembershipDeltaUtil.getMembershipDelta(getOperations(
+                "{\"op\":\"add\",\"path\":\"externalId\",\"value\":\"ext\"}")));
+    }
+
+    @Test
+    public void testLastOperationOnMemberWins() throws Exception {
+
+        // A member of the group which is added and then removed must not stay in the group.
+        MembershipDelta membershipDelta = MembershipDeltaUtil.getMembershipDelta(getOperations(
+                "{\"op\":\"add\",\"path\":\"members\",\"value\":[{\"value\":\"1\",\"display\":\"kim\"}]}," +
+                        "{\"op\":\"remove\",\"path\":\"members[value eq \\\"1\\\"]\"}"));
+        Assert.assertTrue(membershipDelta.getAddedMembers().isEmpty());
+        Assert.assertEquals(membershipDelta.getRemovedMembers(), Set.of("1"));
+
+        // A user which is not a member of the group and is removed and then added must end up in the group.
+        membershipDelta = MembershipDeltaUtil.getMembershipDelta(getOperations(
+                "{\"op\":\"remove\",\"path\":\"members[value eq \\\"1\\\"]\"}," +
+                        "{\"op\":\"add\",\"path\":\"members\",\"value\":[{\"value\":\"1\",\"display\":\"kim\"}]}"));
+        Assert.assertEquals(membershipDelta.getAddedMembers(), Map.of("1", "kim"));
+        Assert.assertTrue(membershipDelta.getRemovedMembers().isEmpty());
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testMemberWithoutValue() throws Exception {
+
+        MembershipDeltaUtil.getMembershipDelta(getOperations(
+                "{\"op\":\"add\",\"path\":\"members\",\"value\":[{\"display\":\"kim\"}]}"));
+    }
+
+    private List<PatchOperation> getOperations(String operations) throws Exception {
+
+        return new JSONDecoder().decodeRequest("{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"]," +
+                "\"Operations\":[" + operations + "]}");
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.encoder.JSONEncoder;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+import org.wso2.charon3.core.schema.ServerSideValidator;
+import org.wso2.charon3.core.utils.codeutils.PatchOperation;
+
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Test class for PatchWorkingCopy.
+ */
+public class PatchWorkingCopyTest {
+
+    private static final String USER = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"]," +
+            "\"id\":\"1819c223\",\"userName\":\"bjensen\",\"nickName\":\"Babs\",\"title\":\"Tour Guide\"," +
+            "\"name\":{\"givenName\":\"Barbara\",\"familyName\":\"Jensen\"}," +
+            "\"emails\":[{\"value\":\"bjensen@example.com\",\"type\":\"work\",\"primary\":true}," +
+            "{\"value\":\"babs@jensen.org\",\"type\":\"home\"}]," +
+            "\"meta\":{\"resourceType\":\"User\",\"created\":\"2026-01-01T00:00:00Z\"," +
+            "\"lastModified\":\"2026-01-01T00:00:00Z\"}}";
+
+    private final SCIMResourceTypeSchema schema = SCIMSchemaDefinitions.SCIM_USER_SCHEMA;
+
+    @DataProvider(name = "patchRequests")
+    public Object[][] patchRequests() {
+
+        return new Object[][]{
+                {"[{\"op\":\"replace\",\"path\":\"name.givenName\",\"value\":\"Babs\"}]", "name"},
+                {"[{\"op\":\"remove\",\"path\":\"emails[type eq \\\"home\\\"]\"}," +
+                        "{\"op\":\"add\",\"path\":\"emails\",\"value\":[{\"value\":\"b@example.org\"," +
+                        "\"type\":\"other\"}]}]", "emails"},
+                {"[{\"op\":\"add\",\"value\":{\"displayName\":\"Barbara\",\"title\":\"Guide\"}}," +
+                        "{\"op\":\"remove\",\"path\":\"nickName\"}," +
+                        "{\"op\":\"replace\",\"path\":\"name.familyName\",\"value\":\"Jensen-Smith\"}]",
+                        "displayName name nickName title"},
+                {"[{\"op\":\"replace\",\"value\":{\"nickName\":\"B\",\"userName\":\"babs\"}}]", "nickName userName"},
+        };
+    }
+
+    @Test(dataProvider = "patchRequests")
+    public void testWorkingCopyMatchesPerOperationPatching(String operations, String modifiedAttributes)
+            throws Exception {
+
+        List<PatchOperation> opList = decodeOperations(operations);
+
+        PatchWorkingCopy<User> patch = new PatchWorkingCopy<>(getUser(), getUser(), schema);
+        for (PatchOperation operation : opList) {
+            patch.apply(operation, new JSONDecoder());
+        }
+        patch.validate();
+
+        Assert.assertEquals(String.join(" ", new TreeSet<>(patch.getModifiedAttributes())), modifiedAttributes);
+        Assert.assertEquals(encode(patch.getWorkingCopy()), encode(patchPerOperation(opList)));
+        Assert.assertEquals(encode(patch.getOriginal()), encode(getUser()));
+    }
+
+    @Test
+    public void testValidationLeavesTheOriginalMetaUntouched() throws Exception {
+
+        PatchWorkingCopy<User> patch = new PatchWorkingCopy<>(getUser(), getUser(), schema);
+        for (PatchOperation operation : decodeOperations(
+                "[{\"op\":\"replace\",\"path\":\"nickName\",\"value\":\"B\"}]")) {
+            patch.apply(operation, new JSONDecoder());
+        }
+        patch.validate();
+
+        Assert.assertEquals(patch.getOriginal().getLastModified(), getUser().getLastModified());
+        Assert.assertNotEquals(patch.getWorkingCopy().getLastModified(), getUser().getLastModified());
+        Assert.assertNotSame(patch.getWorkingCopy().getAttribute(SCIMConstants.CommonSchemaConstants.META),
+                patch.getOriginal().getAttribute(SCIMConstants.CommonSchemaConstants.META));
+    }
+
+    @Test
+    public void testUnknownAttributesMarkTheWholeResourceModified() throws Exception {
+
+        PatchWorkingCopy<User> patch = new PatchWorkingCopy<>(getUser(), getUser(), schema);
+
+        patch.markModified("emails[type eq \"work\"].value");
+        Assert.assertEquals(patch.getModifiedAttributes().size(), 1);
+        Assert.assertTrue(patch.getModifiedAttributes().contains("EMAILS"));
+
+        patch.markModified("urn:ietf:params:scim:schemas:core:2.0:User:name.familyName");
+        Assert.assertEquals(patch.getModifiedAttributes().size(), 2);
+        Assert.assertTrue(patch.getModifiedAttributes().contains("name"));
+
+        patch.markModified("urn:ietf:params:scim:schemas:core:2.0:User:unknown");
+        Assert.assertNull(patch.getModifiedAttributes());
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testRemovingRequiredAttributeFailsValidation() throws Exception {
+
+        PatchWorkingCopy<User> patch = new PatchWorkingCopy<>(getUser(), getUser(), schema);
+        for (PatchOperation operation : decodeOperations("[{\"op\":\"remove\",\"path\":\"userName\"}]")) {
+            patch.apply(operation, new JSONDecoder());
+        }
+
+        patch.validate();
+    }
+
+    /*
+     * Patch a user the way resource managers did before working copies, copying and validating it after every
+     * operation.
+     */
+    private AbstractSCIMObject patchPerOperation(List<PatchOperation> opList) throws Exception {
+
+        User user = getUser();
+        User originalUser = (User) CopyUtil.deepCopy(user);
+        User copyOfUser = (User) CopyUtil.deepCopy(user);
+        for (PatchOperation operation : opList) {
+            switch (operation.getOperation()) {
+                case SCIMConstants.OperationalConstants.ADD:
+                    PatchOperationUtil.doPatchAdd(operation, new JSONDecoder(), user, copyOfUser, schema);
+                    break;
+                case SCIMConstants.OperationalConstants.REMOVE:
+                    PatchOperationUtil.doPatchRemove(operation, user, copyOfUser, schema);
+                    break;
+                default:
+                    PatchOperationUtil.doPatchReplace(operation, new JSONDecoder(), user, copyOfUser, schema);
+                    break;
+            }
+            copyOfUser = (User) CopyUtil.deepCopy(user);
+        }
+        return ServerSideValidator.validateUpdatedSCIMObject(originalUser, user, schema);
+    }
+
+    private List<PatchOperation> decodeOperations(String operations) throws Exception {
+
+        return new JSONDecoder().decodeRequest("{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"]," +
+                "\"Operations\":" + operations + "}");
+    }
+
+    private User getUser() throws Exception {
+
+        return new JSONDecoder().decodeResource(USER, schema, new User());
+    }
+
+    /*
+     * Encoded form of the given user, without the meta attribute which holds the time of the update.
+     */
+    private static String encode(AbstractSCIMObject user) throws Exception {
+
+        AbstractSCIMObject copy = (AbstractSCIMObject) CopyUtil.deepCopy(user);
+        copy.deleteAttribute(SCIMConstants.CommonSchemaConstants.META);
+        return new JSONEncoder().encodeSCIMObject(copy);
+    }
+}
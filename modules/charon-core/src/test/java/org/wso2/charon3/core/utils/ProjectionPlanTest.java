@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Test class for ProjectionPlan and ProjectionPlanCache.
+ */
+public class ProjectionPlanTest {
+
+    private static final String USER = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"]," +
+            "\"id\":\"1819c223\",\"userName\":\"bjensen\",\"password\":\"t1meMa$heen\",\"title\":\"Tour Guide\"," +
+            "\"name\":{\"givenName\":\"Barbara\",\"familyName\":\"Jensen\"}," +
+            "\"emails\":[{\"value\":\"bjensen@example.com\",\"type\":\"work\",\"primary\":true}," +
+            "{\"value\":\"babs@jensen.org\",\"type\":\"home\"}]}";
+
+    private final SCIMResourceTypeSchema schema = SCIMSchemaDefinitions.SCIM_USER_SCHEMA;
+
+    @DataProvider(name = "projections")
+    public Object[][] projections() {
+
+        return new Object[][]{
+                {null, null, "emails emails.primary emails.type emails.value id name name.familyName " +
+                        "name.givenName title userName"},
+                {"userName", null, "id userName"},
+                {"USERNAME,Emails.Value", null, "emails emails.value id userName"},
+                {"name.givenName,password", null, "id name name.givenName"},
+                {"emails", null, "emails emails.primary emails.type emails.value id"},
+                {null, "title,name.givenName,emails.type", "emails emails.primary emails.value id name " +
+                        "name.familyName userName"},
+                {null, "ID,NAME", "emails emails.primary emails.type emails.value id title userName"},
+        };
+    }
+
+    @Test(dataProvider = "projections")
+    public void testPrune(String attributes, String excludedAttributes, String expectedPaths) throws Exception {
+
+        User user = new JSONDecoder().decodeResource(USER, schema, new User());
+
+        new ProjectionPlan(attributes, excludedAttributes).prune(user);
+
+        Assert.assertEquals(String.join(" ", getPaths(user)), expectedPaths);
+    }
+
+    @Test
+    public void testPlanIsReusedAcrossObjects() throws Exception {
+
+        ProjectionPlan plan = new ProjectionPlan("userName,emails.value", null);
+        for (int i = 0; i < 3; i++) {
+            User user = new JSONDecoder().decodeResource(USER, schema, new User());
+            plan.prune(user);
+            Assert.assertEquals(String.join(" ", getPaths(user)), "emails emails.value id userName");
+        }
+    }
+
+    @Test
+    public void testRequiredAttributeURIs() throws Exception {
+
+        ProjectionPlan plan = new ProjectionPlan("userName,name.givenName", null);
+
+        Map<String, Boolean> attributeURIs = plan.getRequiredAttributeURIs(schema);
+
+        Assert.assertEquals(attributeURIs,
+                ResourceManagerUtil.computeRequiredAttributesURIs(schema, "userName,name.givenName", null));
+        Assert.assertTrue(attributeURIs.containsKey("urn:ietf:params:scim:schemas:core:2.0:User:userName"));
+        Assert.assertFalse(attributeURIs.containsKey("urn:ietf:params:scim:schemas:core:2.0:User:title"));
+        // Callers get their own copy, which they may modify.
+        attributeURIs.clear();
+        Assert.assertFalse(plan.getRequiredAttributeURIs(schema).isEmpty());
+    }
+
+    @Test
+    public void testCache() {
+
+        ProjectionPlanCache cache = ProjectionPlanCache.getInstance();
+        int maxSize = cache.getMaxSize();
+        try {
+            cache.clear();
+            ProjectionPlan plan = cache.getProjectionPlan("userName", null);
+
+            Assert.assertSame(cache.getProjectionPlan("userName", null), plan);
+            Assert.assertNotSame(cache.getProjectionPlan(null, "userName"), plan);
+            Assert.assertNotSame(cache.getProjectionPlan("username", null), plan);
+
+            long evictions = cache.getEvictionCount();
+            cache.setMaxSize(2);
+            cache.getProjectionPlan("title", null);
+            Assert.assertEquals(cache.size(), 2);
+            Assert.assertTrue(cache.getEvictionCount() > evictions);
+
+            cache.setMaxSize(0);
+            Assert.assertEquals(cache.size(), 0);
+            Assert.assertNotSame(cache.getProjectionPlan("userName", null), cache.getProjectionPlan("userName", null));
+        } finally {
+            cache.setMaxSize(maxSize);
+        }
+    }
+
+    /*
+     * Dotted paths of the attributes and sub attributes of the given user, in sorted order.
+     */
+    private static List<String> getPaths(User user) {
+
+        TreeSet<String> paths = new TreeSet<>();
+        for (Attribute attribute : user.getAttributeList().values()) {
+            paths.add(attribute.getName());
+            List<Attribute> values = attribute instanceof MultiValuedAttribute multiValuedAttribute ?
+                    multiValuedAttribute.getAttributeValues() : Collections.singletonList(attribute);
+            for (Attribute value : values) {
+                if (value instanceof ComplexAttribute complexAttribute) {
+                    for (String subAttributeName : complexAttribute.getSubAttributesList().keySet()) {
+                        paths.add(attribute.getName() + "." + subAttributeName);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(paths);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.charon3.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.objects.User;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test class of ResourceCache.
+ */
+public class ResourceCacheTest {
+
+    private static final Map<String, Boolean> USER_NAME = Map.of("urn:ietf:params:scim:schemas:core:2.0:User:userName",
+            true);
+    private static final Map<String, Boolean> EMAILS = Map.of("urn:ietf:params:scim:schemas:core:2.0:User:emails",
+            true);
+
+    @Test
+    public void testResourcesAreCachedByKeyAndAttributes() throws Exception {
+
+        ResourceCache<User> cache = new ResourceCache<>(10, 60000);
+        User user = getUser("1", "kim");
+        cache.put("1", USER_NAME, user, cache.getInvalidationCount());
+
+        User cachedUser = cache.get("1", USER_NAME);
+        Assert.assertEquals(cachedUser.getUserName(), "kim");
+        // The cached user is a copy, which is not affected by changes to the users put and taken.
+        Assert.assertNotSame(cachedUser, user);
+        cachedUser.setUserName("kris");
+        Assert.assertEquals(cache.get("1", USER_NAME).getUserName(), "kim");
+        Assert.assertNull(cache.get("1", EMAILS));
+        Assert.assertEquals(cache.getHitCount(), 2);
+        Assert.assertEquals(cache.getMissCount(), 1);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResourceIsEvicted() throws Exception {
+
+        ResourceCache<User> cache = new ResourceCache<>(2, 60000);
+        cache.put("1", USER_NAME, getUser("1", "kim"), 0);
+        cache.put("2", USER_NAME, getUser("2", "kris"), 0);
+        cache.get("1", USER_NAME);
+        cache.put("3", USER_NAME, getUser("3", "ann"), 0);
+
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertNotNull(cache.get("1", USER_NAME));
+        Assert.assertNull(cache.get("2", USER_NAME));
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+    }
+
+    @Test
+    public void testResourcesExpire() throws Exception {
+
+        AtomicLong time = new AtomicLong();
+        ResourceCache<User> cache = new ResourceCache<>(10, 1000, time::get);
+        cache.put("1", USER_NAME, getUser("1", "kim"), 0);
+
+        time.set(TimeUnit.MILLISECONDS.toNanos(1000));
+        Assert.assertNotNull(cache.get("1", USER_NAME));
+        time.set(TimeUnit.MILLISECONDS.toNanos(1001));
+        Assert.assertNull(cache.get("1", USER_NAME));
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+    }
+
+    @Test
+    public void testInvalidateAllKeysOfResource() throws Exception {
+
+        ResourceCache<User> cache = new ResourceCache<>(10, 60000);
+        cache.put("1", USER_NAME, getUser("1", "kim"), 0);
+        cache.put("kim", EMAILS, getUser("1", "kim"), 0);
+        cache.put("2", USER_NAME, getUser("2", "kris"), 0);
+        long invalidationCount = cache.getInvalidationCount();
+
+        cache.invalidate("1");
+
+        Assert.assertNull(cache.get("1", USER_NAME));
+        Assert.assertNull(cache.get("kim", EMAILS));
+        Assert.assertNotNull(cache.get("2", USER_NAME));
+        // A resource loaded before the invalidation may be stale, so it is not cached.
+        cache.put("1", USER_NAME, getUser("1", "kim"), invalidationCount);
+        Assert.assertNull(cache.get("1", USER_NAME));
+    }
+
+    private User getUser(String id, String userName) throws Exception {
+
+        User user = new User();
+        user.setId(id);
+        user.setUserName(userName);
+        return user;
+    }
+}
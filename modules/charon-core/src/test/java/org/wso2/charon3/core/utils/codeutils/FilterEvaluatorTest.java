@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils.codeutils;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMAttributeSchema;
+import org.wso2.charon3.core.schema.SCIMDefinitions;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+import org.wso2.charon3.core.utils.AttributeUtil;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test class for FilterEvaluator.
+ */
+public class FilterEvaluatorTest {
+
+    private static final String EXTENSION_URI = "urn:ietf:params:scim:schemas:extension:test:2.0:User";
+
+    private SCIMResourceTypeSchema schema;
+    private List<User> users;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+
+        schema = createSchemaWithExtension();
+        users = new ArrayList<>();
+        users.add(createUser("{\"userName\":\"bjensen\",\"active\":true,\"title\":\"Tour Guide\"," +
+                "\"name\":{\"givenName\":\"Barbara\",\"familyName\":\"Jensen\"}," +
+                "\"emails\":[{\"value\":\"bjensen@example.com\",\"type\":\"work\",\"primary\":true}," +
+                "{\"value\":\"babs@jensen.org\",\"type\":\"home\"}]," +
+                "\"" + EXTENSION_URI + "\":{\"employeeNumber\":\"E-701\",\"level\":7}}", "2011-05-13T04:42:34Z"));
+        users.add(createUser("{\"userName\":\"mpepperidge\",\"active\":false,\"nickName\":\"\"," +
+                "\"name\":{\"givenName\":\"Mandy\",\"familyName\":\"Pepperidge\"}," +
+                "\"emails\":[{\"value\":\"mandy@example.org\",\"type\":\"work\"}]," +
+                "\"phoneNumbers\":[{\"value\":\"555-555-8377\",\"type\":\"work\"}]," +
+                "\"" + EXTENSION_URI + "\":{\"employeeNumber\":\"e-702\",\"level\":3}}", "2012-05-13T04:42:34Z"));
+        users.add(createUser("{\"userName\":\"KJohnson\",\"displayName\":\"Kim Johnson\"}",
+                "2013-05-13T04:42:34Z"));
+    }
+
+    @DataProvider(name = "filters")
+    public Object[][] filters() {
+
+        return new Object[][]{
+                // String attributes which are not case exact.
+                {"userName eq BJENSEN", "bjensen"},
+                {"userName ne bjensen", "mpepperidge KJohnson"},
+                {"userName co EPP", "mpepperidge"},
+                {"userName sw kj", "KJohnson"},
+                {"userName ew SON", "KJohnson"},
+                {"userName gt kjohnson", "mpepperidge"},
+                {"userName ge kjohnson", "mpepperidge KJohnson"},
+                {"userName lt kjohnson", "bjensen"},
+                {"userName le kjohnson", "bjensen KJohnson"},
+                // A case exact attribute of an extension.
+                {EXTENSION_URI + ":employeeNumber eq E-701", "bjensen"},
+                {EXTENSION_URI + ":employeeNumber sw e-", "mpepperidge"},
+                // Integer, boolean and date time attributes.
+                {EXTENSION_URI + ":level gt 3", "bjensen"},
+                {EXTENSION_URI + ":level le 7", "bjensen mpepperidge"},
+                {"active eq true", "bjensen"},
+                {"active ne true", "mpepperidge KJohnson"},
+                {"meta.created gt 2011-05-13T04:42:34Z", "mpepperidge KJohnson"},
+                {"meta.created le 2012-05-13T04:42:34Z", "bjensen mpepperidge"},
+                // Complex and multi-valued attributes.
+                {"name.familyName eq jensen", "bjensen"},
+                {"emails.value ew .org", "bjensen mpepperidge"},
+                {"emails co jensen.org", "bjensen"},
+                {"emails.type eq home", "bjensen"},
+                {"emails.type ne home", "mpepperidge KJohnson"},
+                {"emails[type eq work and value co example.org]", "mpepperidge"},
+                // The expressions of a value path have to match the same email, unlike those of a plain filter.
+                {"emails[type eq work and value co jensen.org]", ""},
+                {"emails.type eq work and emails.value co jensen.org", "bjensen"},
+                {"emails[not (type eq work)]", "bjensen"},
+                // Presence.
+                {"emails pr", "bjensen mpepperidge"},
+                {"name pr", "bjensen mpepperidge"},
+                {"displayName pr", "KJohnson"},
+                {"nickName pr", ""},
+                {"phoneNumbers.value pr", "mpepperidge"},
+                // Logical operators.
+                {"not (emails pr)", "KJohnson"},
+                {"userName eq bjensen or userName eq kjohnson", "bjensen KJohnson"},
+                {"emails pr and not (active eq true)", "mpepperidge"},
+        };
+    }
+
+    @Test(dataProvider = "filters")
+    public void testFilter(String filter, String expectedUserNames) throws Exception {
+
+        Node filterTree = new FilterTreeManager(filter, schema).buildTree();
+
+        List<User> matchingUsers = FilterEvaluator.filter(users, filterTree, schema);
+
+        List<String> userNames = new ArrayList<>();
+        for (User user : matchingUsers) {
+            userNames.add(user.getUserName());
+        }
+        Assert.assertEquals(String.join(" ", userNames), expectedUserNames, filter);
+    }
+
+    @Test
+    public void testNullFilterMatchesEveryObject() throws Exception {
+
+        Assert.assertEquals(FilterEvaluator.filter(users, null, schema), users);
+    }
+
+    @DataProvider(name = "invalidFilters")
+    public Object[][] invalidFilters() {
+
+        return new Object[][]{
+                {"active gt true"},
+                {"active eq yes"},
+                {EXTENSION_URI + ":level eq seven"},
+                {"meta.created lt yesterday"},
+                {"name eq Barbara"},
+        };
+    }
+
+    @Test(dataProvider = "invalidFilters", expectedExceptions = BadRequestException.class)
+    public void testInvalidFilters(String filter) throws Exception {
+
+        FilterEvaluator.compile(new FilterTreeManager(filter, schema).buildTree(), schema);
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testUnknownAttribute() throws Exception {
+
+        ExpressionNode expressionNode = new ExpressionNode();
+        expressionNode.setAttributeValue("urn:ietf:params:scim:schemas:core:2.0:User:unknown");
+        expressionNode.setOperation("eq");
+        expressionNode.setValue("value");
+
+        FilterEvaluator.compile(expressionNode, schema);
+    }
+
+    @DataProvider(name = "sorts")
+    public Object[][] sorts() {
+
+        return new Object[][]{
+                {"userName", true, "bjensen KJohnson mpepperidge"},
+                {"userName", false, "mpepperidge KJohnson bjensen"},
+                {"emails", true, "bjensen mpepperidge KJohnson"},
+                {"emails.value", false, "mpepperidge bjensen KJohnson"},
+                {EXTENSION_URI + ":level", true, "mpepperidge bjensen KJohnson"},
+                {"meta.created", false, "KJohnson mpepperidge bjensen"},
+        };
+    }
+
+    @Test(dataProvider = "sorts")
+    public void testSort(String sortBy, boolean ascending, String expectedUserNames) throws Exception {
+
+        List<User> sortedUsers = new ArrayList<>(users);
+        sortedUsers.sort(FilterEvaluator.compileSort(AttributeUtil.getAttributeURI(sortBy, schema), ascending,
+                schema));
+
+        List<String> userNames = new ArrayList<>();
+        for (User user : sortedUsers) {
+            userNames.add(user.getUserName());
+        }
+        Assert.assertEquals(String.join(" ", userNames), expectedUserNames, sortBy);
+    }
+
+    private User createUser(String payload, String created) throws Exception {
+
+        User user = new JSONDecoder().decodeResource(payload, schema, new User());
+        user.setCreatedInstant(Instant.parse(created));
+        return user;
+    }
+
+    private static SCIMResourceTypeSchema createSchemaWithExtension() {
+
+        AttributeSchema employeeNumber = SCIMAttributeSchema.createSCIMAttributeSchema(
+                EXTENSION_URI + ":employeeNumber", "employeeNumber", SCIMDefinitions.DataType.STRING, false, "",
+                false, true, SCIMDefinitions.Mutability.READ_WRITE, SCIMDefinitions.Returned.DEFAULT,
+                SCIMDefinitions.Uniqueness.NONE, null, null, null);
+        AttributeSchema level = SCIMAttributeSchema.createSCIMAttributeSchema(EXTENSION_URI + ":level", "level",
+                SCIMDefinitions.DataType.INTEGER, false, "", false, false, SCIMDefinitions.Mutability.READ_WRITE,
+                SCIMDefinitions.Returned.DEFAULT, SCIMDefinitions.Uniqueness.NONE, null, null, null);
+        AttributeSchema extension = SCIMAttributeSchema.createSCIMAttributeSchema(EXTENSION_URI, EXTENSION_URI,
+                SCIMDefinitions.DataType.COMPLEX, false, "", false, false, SCIMDefinitions.Mutability.READ_WRITE,
+                SCIMDefinitions.Returned.DEFAULT, SCIMDefinitions.Uniqueness.NONE, null, null,
+                new ArrayList<>(Arrays.asList(employeeNumber, level)));
+
+        SCIMResourceTypeSchema userSchema = SCIMSchemaDefinitions.SCIM_USER_SCHEMA;
+        List<String> schemas = new ArrayList<>(userSchema.getSchemasList());
+        schemas.add(EXTENSION_URI);
+        List<AttributeSchema> attributeSchemas = new ArrayList<>(userSchema.getAttributesList());
+        attributeSchemas.add(extension);
+        return SCIMResourceTypeSchema.createSCIMResourceSchema(schemas,
+                attributeSchemas.toArray(new AttributeSchema[0]));
+    }
+}
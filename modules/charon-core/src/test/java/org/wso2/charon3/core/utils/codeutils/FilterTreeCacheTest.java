@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils.codeutils;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.extensions.UserManager;
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+
+/**
+ * Test class for FilterTreeCache.
+ */
+public class FilterTreeCacheTest {
+
+    private static final String FILTER = "userName eq \"kim\" and (emails co example.com or not (nickName pr))";
+
+    private FilterTreeCache filterTreeCache;
+    private SCIMResourceTypeSchema schema;
+
+    @BeforeMethod
+    public void setUp() {
+
+        filterTreeCache = FilterTreeCache.getInstance();
+        filterTreeCache.clear();
+        schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        filterTreeCache.setMaxSize(FilterTreeCache.DEFAULT_MAX_SIZE);
+        filterTreeCache.clear();
+    }
+
+    @Test
+    public void testRepeatedFilterIsServedFromCache() throws Exception {
+
+        long hits = filterTreeCache.getHitCount();
+        long misses = filterTreeCache.getMissCount();
+
+        Node filterTree = filterTreeCache.getFilterTree(FILTER, schema);
+        Node cachedFilterTree = filterTreeCache.getFilterTree(FILTER, schema);
+
+        Assert.assertEquals(filterTreeCache.getHitCount() - hits, 1);
+        Assert.assertEquals(filterTreeCache.getMissCount() - misses, 1);
+        Assert.assertEquals(describe(cachedFilterTree), describe(filterTree));
+        Assert.assertEquals(describe(filterTree),
+                describe(new FilterTreeManager(FILTER, schema).buildTree()));
+    }
+
+    @Test
+    public void testSchemasAreMatchedByIdentity() throws Exception {
+
+        filterTreeCache.getFilterTree(FILTER, schema);
+        SCIMResourceTypeSchema sameSchema = SCIMResourceTypeSchema.createSCIMResourceSchema(
+                schema.getSchemasList(), schema.getAttributesList().toArray(new AttributeSchema[0]));
+
+        filterTreeCache.getFilterTree(FILTER, schema);
+        Assert.assertEquals(filterTreeCache.size(), 1);
+        filterTreeCache.getFilterTree(FILTER, sameSchema);
+        Assert.assertEquals(filterTreeCache.size(), 2);
+    }
+
+    @Test
+    public void testCachedUserSchemasShareTheirTrees() throws Exception {
+
+        long hits = filterTreeCache.getHitCount();
+        UserManager userManager = Mockito.mock(UserManager.class);
+        SCIMResourceSchemaManager schemaManager = SCIMResourceSchemaManager.getInstance();
+
+        filterTreeCache.getFilterTree(FILTER, schemaManager.getUserResourceSchema(userManager));
+        filterTreeCache.getFilterTree(FILTER, schemaManager.getUserResourceSchema(userManager));
+
+        Assert.assertEquals(filterTreeCache.getHitCount() - hits, 1);
+        Assert.assertEquals(filterTreeCache.size(), 1);
+    }
+
+    @Test
+    public void testCallersGetTheirOwnCopyOfTheTree() throws Exception {
+
+        Node filterTree = filterTreeCache.getFilterTree(FILTER, schema);
+        ((ExpressionNode) filterTree.getLeftNode()).setValue("john");
+        ((OperationNode) filterTree).setOperation(SCIMConstants.OperationalConstants.OR);
+
+        Node cachedFilterTree = filterTreeCache.getFilterTree(FILTER, schema);
+
+        Assert.assertNotSame(cachedFilterTree, filterTree);
+        Assert.assertEquals(((ExpressionNode) cachedFilterTree.getLeftNode()).getValue(), "kim");
+        Assert.assertEquals(((OperationNode) cachedFilterTree).getOperation(),
+                SCIMConstants.OperationalConstants.AND);
+        Assert.assertEquals(describe(cachedFilterTree),
+                describe(new FilterTreeManager(FILTER, schema).buildTree()));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedTreesAreEvicted() throws Exception {
+
+        filterTreeCache.setMaxSize(2);
+        long evictions = filterTreeCache.getEvictionCount();
+
+        filterTreeCache.getFilterTree("userName eq a", schema);
+        filterTreeCache.getFilterTree("userName eq b", schema);
+        // Use the first filter again, so the second one is the least recently used.
+        filterTreeCache.getFilterTree("userName eq a", schema);
+        filterTreeCache.getFilterTree("userName eq c", schema);
+
+        Assert.assertEquals(filterTreeCache.size(), 2);
+        Assert.assertEquals(filterTreeCache.getEvictionCount() - evictions, 1);
+        long hits = filterTreeCache.getHitCount();
+        filterTreeCache.getFilterTree("userName eq a", schema);
+        Assert.assertEquals(filterTreeCache.getHitCount() - hits, 1);
+    }
+
+    @Test
+    public void testCachingCanBeDisabled() throws Exception {
+
+        filterTreeCache.setMaxSize(0);
+
+        Node filterTree = filterTreeCache.getFilterTree(FILTER, schema);
+
+        Assert.assertNotSame(filterTreeCache.getFilterTree(FILTER, schema), filterTree);
+        Assert.assertEquals(filterTreeCache.size(), 0);
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testInvalidFiltersAreRejected() throws Exception {
+
+        try {
+            filterTreeCache.getFilterTree("userName xx kim", schema);
+        } finally {
+            Assert.assertEquals(filterTreeCache.size(), 0);
+        }
+    }
+
+    private static String describe(Node node) {
+
+        if (node == null) {
+            return "";
+        }
+        if (node instanceof ExpressionNode expressionNode) {
+            return "(" + expressionNode.getAttributeValue() + " " + expressionNode.getOperation() + " " +
+                    expressionNode.getValue() + ")";
+        }
+        return "(" + describe(node.getLeftNode()) + " " + ((OperationNode) node).getOperation() + " " +
+                describe(node.getRightNode()) + ")";
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils.codeutils;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+
+/**
+ * Test class for FilterTreeManager. Filters which the previous parser handled are checked against
+ * {@link LegacyFilterTreeManager}.
+ */
+public class FilterTreeManagerTest {
+
+    private static final String USER_URI = "urn:ietf:params:scim:schemas:core:2.0:User:";
+
+    private SCIMResourceTypeSchema schema;
+
+    @BeforeClass
+    public void setUp() {
+
+        schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
+    }
+
+    @DataProvider(name = "filters")
+    public Object[][] filters() {
+
+        return new Object[][]{
+                {"userName eq kim"},
+                {"userName Eq \"kim\""},
+                {"userName EQ 'kim'"},
+                {"userName ne kim"},
+                {"userName sw ki and name.familyName co err"},
+                {"name.givenName eq John Smith"},
+                {"name.familyName co pr"},
+                {"userName eq prefix"},
+                {"emails co example.com or emails.value ew .org"},
+                {"emails.type eq work"},
+                {"emails pr"},
+                {"not (userName eq kim)"},
+                {"userName eq kim and not (emails pr)"},
+                {"(userName eq a or userName eq b) and title pr"},
+                {"(userName eq a) or (userName eq b)"},
+                {"not (userName eq a or userName eq b)"},
+                {"userName eq a or userName eq b and userName eq c"},
+                {"userName eq a and userName eq b or userName eq c and not (title pr)"},
+                {"meta.lastModified gt 2011-05-13T04:42:34Z"},
+                {"meta.created ge 2011-05-13T04:42:34Z and meta.created lt 2012-05-13T04:42:34Z"},
+                {"meta.lastModified le 2011-05-13T04:42:34Z"},
+                {"title eq and"},
+                {"title eq or or title eq not"},
+                {USER_URI + "userName eq kim"},
+                {"userName eq kim+1@example.com"},
+                {"userName eq 50%"},
+                {"displayName eq \"Kim\"  AND  title pr"},
+                {"  userName   eq   kim  "},
+                {"displayName eq Kim Berry and (nickName sw \"K\" or title pr)"},
+        };
+    }
+
+    @Test(dataProvider = "filters")
+    public void testSameTreeAsLegacyParser(String filter) throws Exception {
+
+        Node expected = new LegacyFilterTreeManager(filter, schema).buildTree();
+        Node actual = new FilterTreeManager(filter, schema).buildTree();
+
+        Assert.assertEquals(describe(actual), describe(expected), filter);
+    }
+
+    @DataProvider(name = "invalidFilters")
+    public Object[][] invalidFilters() {
+
+        return new Object[][]{
+                {"userName xx kim"},
+                {"unknownAttribute eq kim"},
+                {"userName eq kim and"},
+                {"userName eq kim or not"},
+        };
+    }
+
+    @Test(dataProvider = "invalidFilters")
+    public void testRejectedLikeLegacyParser(String filter) throws Exception {
+
+        Assert.assertThrows(BadRequestException.class,
+                () -> new LegacyFilterTreeManager(filter, schema).buildTree());
+        Assert.assertThrows(BadRequestException.class, () -> new FilterTreeManager(filter, schema).buildTree());
+    }
+
+    @DataProvider(name = "filtersBeyondLegacyParser")
+    public Object[][] filtersBeyondLegacyParser() {
+
+        return new Object[][]{
+                {"displayName eq \"Kim Berry\"", "(" + USER_URI + "displayName eq Kim Berry)"},
+                {"displayName eq \"a and (b)\"", "(" + USER_URI + "displayName eq a and (b))"},
+                {"displayName eq 'it''s'", "(" + USER_URI + "displayName eq it s)"},
+                {"displayName eq \"say \\\"hi\\\"\"", "(" + USER_URI + "displayName eq say \"hi\")"},
+                {"displayName eq \"a\\\\b\\/c \\u00e9\\t\"", "(" + USER_URI + "displayName eq a\\b/c \u00e9\t)"},
+                {"displayName eq \"\"", "(" + USER_URI + "displayName eq )"},
+                {"((userName eq a))", "(" + USER_URI + "userName eq a)"},
+                {"userName eq a and(title pr)", "((" + USER_URI + "userName eq a) and (" + USER_URI +
+                        "title pr null))"},
+                // The previous parser dropped a logical operator which followed a presence filter.
+                {"title pr or nickName sw K", "((" + USER_URI + "title pr null) or (" + USER_URI +
+                        "nickName sw K))"},
+                {"name.familyName ge prince", "(" + USER_URI + "name.familyName ge prince)"},
+                {"userName\teq\tkim", "(" + USER_URI + "userName eq kim)"},
+                {"emails[type eq \"work\" and value co \"@example.com\"]", "((" + USER_URI +
+                        "emails.type eq work) and (" + USER_URI + "emails.value co @example.com))"},
+                {"userName eq kim or emails[not (type eq work)]", "((" + USER_URI + "userName eq kim) or ( not (" +
+                        USER_URI + "emails.type eq work)))"},
+        };
+    }
+
+    @Test(dataProvider = "filtersBeyondLegacyParser")
+    public void testFiltersBeyondLegacyParser(String filter, String expectedTree) throws Exception {
+
+        Assert.assertEquals(describe(new FilterTreeManager(filter, schema).buildTree()), expectedTree);
+    }
+
+    @Test
+    public void testValuePathIsMarkedOnItsSubTree() throws Exception {
+
+        Node root = new FilterTreeManager("userName eq kim or emails[not (type eq work)]", schema).buildTree();
+
+        Assert.assertNull(root.getValuePath());
+        Assert.assertNull(root.getLeftNode().getValuePath());
+        Assert.assertEquals(root.getRightNode().getValuePath(), USER_URI + "emails");
+        Assert.assertNull(root.getRightNode().getRightNode().getValuePath());
+        Assert.assertEquals(root.copy().getRightNode().getValuePath(), USER_URI + "emails");
+    }
+
+    @DataProvider(name = "malformedFilters")
+    public Object[][] malformedFilters() {
+
+        return new Object[][]{
+                {""},
+                {"userName eq"},
+                {"userName eq kim)"},
+                {"(userName eq kim"},
+                {"userName eq \"kim"},
+                {"userName eq \"kim\\"},
+                {"userName eq \"k\\qim\""},
+                {"userName eq \"k\\u00\""},
+                {"emails[type eq work"},
+                {"emails[type eq work[value pr]]"},
+                {"userName pr kim"},
+                {"and userName eq kim"},
+        };
+    }
+
+    @Test(dataProvider = "malformedFilters", expectedExceptions = BadRequestException.class)
+    public void testMalformedFilters(String filter) throws Exception {
+
+        new FilterTreeManager(filter, schema).buildTree();
+    }
+
+    @Test
+    public void testParsingFromCharSequence() throws Exception {
+
+        StringBuilder filter = new StringBuilder("userName eq kim");
+        Assert.assertEquals(describe(new FilterTreeManager(filter, schema).buildTree()),
+                "(" + USER_URI + "userName eq kim)");
+    }
+
+    private static String describe(Node node) {
+
+        if (node == null) {
+            return "";
+        }
+        if (node instanceof ExpressionNode expressionNode) {
+            return "(" + expressionNode.getAttributeValue() + " " + expressionNode.getOperation() + " " +
+                    expressionNode.getValue() + ")";
+        }
+        return "(" + describe(node.getLeftNode()) + " " + ((OperationNode) node).getOperation() + " " +
+                describe(node.getRightNode()) + ")";
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.core.utils.codeutils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.schema.SCIMSchemaDefinitions;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Test class for PatchPath and PatchPathCache.
+ */
+public class PatchPathTest {
+
+    @AfterMethod
+    public void tearDown() {
+
+        PatchPathCache.getInstance().setMaxSize(PatchPathCache.DEFAULT_MAX_SIZE);
+        PatchPathCache.getInstance().clear();
+    }
+
+    @DataProvider(name = "attributePaths")
+    public Object[][] attributePaths() {
+
+        return new Object[][]{
+                {"nickName", new String[]{"nickName"}},
+                {"name.familyName", new String[]{"name", "familyName"}},
+                {"urn:ietf:params:scim:schemas:core:2.0:User:name.givenName",
+                        new String[]{"urn:ietf:params:scim:schemas:core:2.0:User", "name", "givenName"}},
+                {"emails[type eq \"work\"]", new String[]{"emails"}},
+                {"emails[type eq \"work\"].value", new String[]{"emails", "value"}},
+                {"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:manager.value",
+                        new String[]{"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User", "manager",
+                                "value"}}
+        };
+    }
+
+    @Test(dataProvider = "attributePaths")
+    public void testAttributeParts(String path, String[] expectedAttributeParts) {
+
+        PatchPath patchPath = PatchPath.compile(path);
+
+        Assert.assertEquals(patchPath.getAttributeParts(), expectedAttributeParts);
+        Assert.assertEquals(patchPath.hasFilter(), path.contains("["));
+        Assert.assertTrue(patchPath.isValidSyntax());
+    }
+
+    @Test
+    public void testFilter() throws Exception {
+
+        PatchPath patchPath = PatchPath.compile("members[display eq \"Team [A] leads\"].value");
+        ExpressionNode filter = patchPath.getFilter();
+
+        Assert.assertEquals(patchPath.getAttributeParts(), new String[]{"members", "value"});
+        Assert.assertEquals(filter.getAttributeValue(), "display");
+        Assert.assertEquals(filter.getOperation(), "eq");
+        Assert.assertEquals(filter.getValue(), "Team [A] leads");
+        // Each caller gets its own copy of the filter.
+        filter.setValue("Team B");
+        Assert.assertEquals(patchPath.getFilter().getValue(), "Team [A] leads");
+        Assert.assertNull(PatchPath.compile("name.familyName").getFilter());
+    }
+
+    @Test
+    public void testValueFilter() throws Exception {
+
+        PatchPath patchPath = PatchPath.compile("emails[type eq \"work\" and value co \"@example.com\"].value");
+        Predicate<ComplexAttribute> valueFilter = patchPath.getValueFilter(SCIMSchemaDefinitions.SCIM_USER_SCHEMA);
+
+        Assert.assertFalse(patchPath.hasExpressionFilter());
+        Assert.assertEquals(patchPath.getAttributeParts(), new String[]{"emails", "value"});
+        Assert.assertTrue(valueFilter.test(email("work", "kim@example.com")));
+        Assert.assertFalse(valueFilter.test(email("home", "kim@example.com")));
+        Assert.assertFalse(valueFilter.test(email("work", "kim@example.org")));
+        Assert.assertSame(patchPath.getValueFilter(SCIMSchemaDefinitions.SCIM_USER_SCHEMA), valueFilter);
+        Assert.assertNull(PatchPath.compile("nickName").getValueFilter(SCIMSchemaDefinitions.SCIM_USER_SCHEMA));
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testCompoundFilterIsNotAnExpression() throws Exception {
+
+        PatchPath.compile("emails[type eq \"work\" or primary eq true]").getFilter();
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testMalformedFilter() throws Exception {
+
+        PatchPath.compile("emails[type]").getFilter();
+    }
+
+    @Test
+    public void testInvalidSyntax() {
+
+        Assert.assertFalse(PatchPath.compile("emails[type eq \"work\"").isValidSyntax());
+        Assert.assertFalse(PatchPath.compile("name..familyName").isValidSyntax());
+    }
+
+    @Test
+    public void testRepeatedPathIsServedFromCache() {
+
+        PatchPathCache patchPathCache = PatchPathCache.getInstance();
+        patchPathCache.clear();
+        long hits = patchPathCache.getHitCount();
+
+        PatchPath patchPath = patchPathCache.getPatchPath("emails[type eq \"work\"].value");
+
+        Assert.assertSame(patchPathCache.getPatchPath("emails[type eq \"work\"].value"), patchPath);
+        Assert.assertEquals(patchPathCache.getHitCount() - hits, 1);
+
+        patchPathCache.setMaxSize(1);
+        patchPathCache.getPatchPath("nickName");
+        Assert.assertEquals(patchPathCache.size(), 1);
+        Assert.assertNotSame(patchPathCache.getPatchPath("emails[type eq \"work\"].value"), patchPath);
+    }
+
+    private static ComplexAttribute email(String type, String value) throws Exception {
+
+        Map<String, Attribute> subAttributes = new HashMap<>();
+        subAttributes.put("type", new SimpleAttribute("type", type));
+        subAttributes.put("value", new SimpleAttribute("value", value));
+        ComplexAttribute email = new ComplexAttribute("emails");
+        email.setSubAttributesList(subAttributes);
+        return email;
+    }
+}
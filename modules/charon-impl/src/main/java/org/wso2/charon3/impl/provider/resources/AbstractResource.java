@@ -28,6 +28,7 @@ import org.wso2.msf4j.Microservice;
 
 import java.util.Map;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 
 /**
@@ -113,8 +114,10 @@ public class AbstractResource implements Microservice {
                 responseBuilder.header(entry.getKey(), entry.getValue());
             }
         }
-        //set the payload of the response, if available.
-        if (scimResponse.getResponseMessage() != null) {
+        //set the payload of the response, if available. Bodies with a writer are written straight to the response.
+        if (scimResponse.getResponseBodyWriter() != null) {
+            responseBuilder.entity((StreamingOutput) scimResponse::writeResponseBody);
+        } else if (scimResponse.getResponseMessage() != null) {
             responseBuilder.entity(scimResponse.getResponseMessage());
         }
         return responseBuilder.build();
@@ -33,6 +33,7 @@ import org.wso2.charon3.core.exceptions.FormatNotSupportedException;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.protocol.SCIMResponse;
 import org.wso2.charon3.core.protocol.endpoints.GroupResourceManager;
+import org.wso2.charon3.core.schema.SCIMConstants;
 import org.wso2.charon3.impl.provider.util.SCIMProviderConstants;
 import org.wso2.charon3.utils.DefaultCharonManager;
 import org.wso2.msf4j.Microservice;
@@ -40,6 +41,7 @@ import org.wso2.msf4j.Microservice;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
@@ -85,6 +87,7 @@ public class GroupResource extends AbstractResource {
 
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Valid group is found"),
+            @ApiResponse(code = 304, message = "Valid group is not modified"),
             @ApiResponse(code = 404, message = "Valid group is not found")})
 
     public Response getGroup(@ApiParam(value = SCIMProviderConstants.ID_DESC, required = true)
@@ -92,7 +95,12 @@ public class GroupResource extends AbstractResource {
                              @ApiParam(value = SCIMProviderConstants.ATTRIBUTES_DESC, required = false)
                              @QueryParam(SCIMProviderConstants.ATTRIBUTES) String attribute,
                              @ApiParam(value = SCIMProviderConstants.EXCLUDED_ATTRIBUTES_DESC, required = false)
-                             @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes)
+                             @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes,
+                             @ApiParam(value = SCIMProviderConstants.MEMBERS_START_INDEX_DESC, required = false)
+                             @QueryParam(SCIMProviderConstants.MEMBERS_START_INDEX) Integer membersStartIndex,
+                             @ApiParam(value = SCIMProviderConstants.MEMBERS_COUNT_DESC, required = false)
+                             @QueryParam(SCIMProviderConstants.MEMBERS_COUNT) Integer membersCount,
+                             @HeaderParam(SCIMConstants.IF_NONE_MATCH_HEADER) String ifNoneMatch)
             throws FormatNotSupportedException, CharonException {
 
         try {
@@ -102,7 +110,15 @@ public class GroupResource extends AbstractResource {
             // create charon-SCIM group endpoint and hand-over the request.
             GroupResourceManager groupResourceManager = new GroupResourceManager();
 
-            SCIMResponse scimResponse = groupResourceManager.get(id, userManager, attribute, excludedAttributes);
+            SCIMResponse scimResponse;
+            if (membersStartIndex == null && membersCount == null) {
+                scimResponse = groupResourceManager.get(id, userManager, attribute, excludedAttributes, ifNoneMatch);
+            } else {
+                // return a page of the members of the group.
+                scimResponse = groupResourceManager.get(id, userManager, attribute, excludedAttributes,
+                        membersStartIndex == null ? 1 : membersStartIndex,
+                        membersCount == null ? Integer.MAX_VALUE : membersCount);
+            }
             // needs to check the code of the response and return 201 Ok or other error codes
             // appropriately.
             return buildResponse(scimResponse);
@@ -191,7 +207,8 @@ public class GroupResource extends AbstractResource {
 
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Group is updated"),
-            @ApiResponse(code = 404, message = "Valid group is not found")})
+            @ApiResponse(code = 404, message = "Valid group is not found"),
+            @ApiResponse(code = 412, message = "Group was changed since it was retrieved")})
 
     public Response updateGroup(@ApiParam(value = SCIMProviderConstants.ID_DESC, required = true)
                                @PathParam(SCIMProviderConstants.ID) String id,
@@ -199,6 +216,7 @@ public class GroupResource extends AbstractResource {
                                @QueryParam(SCIMProviderConstants.ATTRIBUTES) String attribute,
                                @ApiParam(value = SCIMProviderConstants.EXCLUDED_ATTRIBUTES_DESC, required = false)
                                @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes,
+                               @HeaderParam(SCIMConstants.IF_MATCH_HEADER) String ifMatch,
                                String resourceString) throws FormatNotSupportedException, CharonException {
 
         try {
@@ -209,7 +227,7 @@ public class GroupResource extends AbstractResource {
             GroupResourceManager groupResourceManager = new GroupResourceManager();
 
             SCIMResponse response = groupResourceManager.updateWithPUT(
-                    id, resourceString, userManager, attribute, excludedAttributes);
+                    id, resourceString, userManager, attribute, excludedAttributes, ifMatch);
 
             return buildResponse(response);
 
@@ -32,12 +32,14 @@ import org.wso2.charon3.core.exceptions.FormatNotSupportedException;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.protocol.SCIMResponse;
 import org.wso2.charon3.core.protocol.endpoints.UserResourceManager;
+import org.wso2.charon3.core.schema.SCIMConstants;
 import org.wso2.charon3.impl.provider.util.SCIMProviderConstants;
 import org.wso2.charon3.utils.DefaultCharonManager;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
@@ -77,6 +79,7 @@ public class UserResource extends AbstractResource {
 
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Valid user is found"),
+            @ApiResponse(code = 304, message = "Valid user is not modified"),
             @ApiResponse(code = 404, message = "Valid user is not found")})
 
     public Response getUser(@ApiParam(value = SCIMProviderConstants.ID_DESC, required = true)
@@ -84,7 +87,8 @@ public class UserResource extends AbstractResource {
                             @ApiParam(value = SCIMProviderConstants.ATTRIBUTES_DESC, required = false)
                             @QueryParam(SCIMProviderConstants.ATTRIBUTES) String attribute,
                             @ApiParam(value = SCIMProviderConstants.EXCLUDED_ATTRIBUTES_DESC, required = false)
-                            @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes)
+                            @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes,
+                            @HeaderParam(SCIMConstants.IF_NONE_MATCH_HEADER) String ifNoneMatch)
             throws FormatNotSupportedException, CharonException {
 
         try {
@@ -94,7 +98,8 @@ public class UserResource extends AbstractResource {
             // create charon-SCIM user endpoint and hand-over the request.
             UserResourceManager userResourceManager = new UserResourceManager();
 
-            SCIMResponse scimResponse = userResourceManager.get(id, userManager, attribute, excludedAttributes);
+            SCIMResponse scimResponse = userResourceManager.get(id, userManager, attribute, excludedAttributes,
+                    ifNoneMatch);
             // needs to check the code of the response and return 200 0k or other error codes
             // appropriately.
             return buildResponse(scimResponse);
@@ -191,7 +196,9 @@ public class UserResource extends AbstractResource {
                             @ApiParam(value = SCIMProviderConstants.START_INDEX_DESC, required = false)
                             @QueryParam(SCIMProviderConstants.START_INDEX) int startIndex,
                             @ApiParam(value = SCIMProviderConstants.COUNT_DESC, required = false)
-                            @QueryParam(SCIMProviderConstants.COUNT) int count,
+                            @QueryParam(SCIMProviderConstants.COUNT) Integer count,
+                            @ApiParam(value = SCIMProviderConstants.CURSOR_DESC, required = false)
+                            @QueryParam(SCIMProviderConstants.CURSOR) String cursor,
                             @ApiParam(value = SCIMProviderConstants.SORT_BY_DESC, required = false)
                             @QueryParam(SCIMProviderConstants.SORT_BY) String sortBy,
                             @ApiParam(value = SCIMProviderConstants.SORT_ORDER_DESC, required = false)
@@ -207,8 +214,15 @@ public class UserResource extends AbstractResource {
             // create charon-SCIM user resource manager and hand-over the request.
             UserResourceManager userResourceManager = new UserResourceManager();
 
-            SCIMResponse scimResponse = userResourceManager.listWithGET(userManager, filter, startIndex, count,
-                    sortBy, sortOrder, domainName, attribute, excludedAttributes);
+            SCIMResponse scimResponse;
+            if (cursor == null) {
+                scimResponse = userResourceManager.listWithGET(userManager, filter, startIndex,
+                        count == null ? 0 : count, sortBy, sortOrder, domainName, attribute, excludedAttributes);
+            } else {
+                // continue the listing where the page of the cursor ended.
+                scimResponse = userResourceManager.listWithCursor(userManager, filter, cursor, count, sortBy,
+                        sortOrder, domainName, attribute, excludedAttributes);
+            }
 
             return buildResponse(scimResponse);
 
@@ -259,7 +273,8 @@ public class UserResource extends AbstractResource {
 
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "User is updated"),
-            @ApiResponse(code = 404, message = "Valid user is not found")})
+            @ApiResponse(code = 404, message = "Valid user is not found"),
+            @ApiResponse(code = 412, message = "User was changed since it was retrieved")})
 
     public Response updateUser(@ApiParam(value = SCIMProviderConstants.ID_DESC, required = true)
                                @PathParam(SCIMProviderConstants.ID) String id,
@@ -267,6 +282,7 @@ public class UserResource extends AbstractResource {
                                @QueryParam(SCIMProviderConstants.ATTRIBUTES) String attribute,
                                @ApiParam(value = SCIMProviderConstants.EXCLUDED_ATTRIBUTES_DESC, required = false)
                                @QueryParam(SCIMProviderConstants.EXCLUDE_ATTRIBUTES) String excludedAttributes,
+                               @HeaderParam(SCIMConstants.IF_MATCH_HEADER) String ifMatch,
                                String resourceString) throws FormatNotSupportedException, CharonException {
 
         try {
@@ -277,7 +293,7 @@ public class UserResource extends AbstractResource {
             UserResourceManager userResourceManager = new UserResourceManager();
 
             SCIMResponse response = userResourceManager.updateWithPUT(
-                    id, resourceString, userManager, attribute, excludedAttributes);
+                    id, resourceString, userManager, attribute, excludedAttributes, ifMatch);
 
             return buildResponse(response);
 
@@ -34,6 +34,9 @@ public class SCIMProviderConstants {
     public static final String ACCEPT_HEADER = "Accept";
     public static final String ID = "id";
     public static final String DOMAIN = "domain";
+    public static final String MEMBERS_START_INDEX = "membersStartIndex";
+    public static final String MEMBERS_COUNT = "membersCount";
+    public static final String CURSOR = "cursor";
 
     public static final String RESOURCE_STRING = "RESOURCE_STRING";
     public static final String HTTP_VERB = "HTTP_VERB";
@@ -53,5 +56,10 @@ public class SCIMProviderConstants {
     public static final String SORT_ORDER_DESC = "The order in which the \"sortBy\" parameter is applied.";
     public static final String START_INDEX_DESC = "The 1-based index of the first query result";
     public static final String DOMAIN_DESC = "Domain of the provisioning user";
+    public static final String MEMBERS_START_INDEX_DESC = "The 1-based index of the first member of the group returned";
+    public static final String MEMBERS_COUNT_DESC = "Specifies the desired maximum number of members of the group " +
+            "returned";
+    public static final String CURSOR_DESC = "The nextCursor of the previous page, or empty for the first page, to " +
+            "page through the results with cursors instead of start indexes";
 
 }
@@ -0,0 +1,489 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.usermanager;
+
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.utils.AttributeUtil;
+import org.wso2.charon3.core.utils.CopyUtil;
+import org.wso2.charon3.core.utils.codeutils.ExpressionNode;
+import org.wso2.charon3.core.utils.codeutils.FilterEvaluator;
+import org.wso2.charon3.core.utils.codeutils.Node;
+import org.wso2.charon3.core.utils.codeutils.OperationNode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * An in memory store of SCIM resources of one resource type, with secondary indexes on attributes and on the last
+ * modified time of the resources.
+ * <p>
+ * Stored resources are snapshots which are never modified. A write replaces the snapshot of a resource, so that
+ * readers never lock and never see a partially applied write, and reads hand out copies of the snapshots, as the
+ * callers may modify what they receive. Writes are serialized.
+ * <p>
+ * Listing evaluates the filter on the resources selected by the indexes, when the filter allows it, and copies only
+ * the resources of the requested page.
+ *
+ * @param <T> Type of the stored resources.
+ */
+final class InMemoryResourceStore<T extends AbstractSCIMObject> {
+
+    private static final String LAST_MODIFIED_URI = SCIMConstants.CommonSchemaConstants.LAST_MODIFIED_URI;
+
+    // Resources by id. Listing without a sort order follows the order of the ids, which keeps paging stable.
+    private final ConcurrentSkipListMap<String, T> resources = new ConcurrentSkipListMap<>();
+    private final List<AttributeIndex> indexes;
+    private final ConcurrentSkipListMap<Instant, Set<String>> lastModifiedIndex = new ConcurrentSkipListMap<>();
+
+    InMemoryResourceStore(AttributeIndex... indexes) {
+
+        this.indexes = Arrays.asList(indexes);
+    }
+
+    /**
+     * Return a copy of the resource with the given id.
+     *
+     * @param id Id of the resource.
+     * @return Copy of the resource, or null if there is no resource with the id.
+     * @throws CharonException If the resource could not be copied.
+     */
+    T get(String id) throws CharonException {
+
+        T resource = resources.get(id);
+        return resource == null ? null : copy(resource);
+    }
+
+    boolean contains(String id) {
+
+        return resources.containsKey(id);
+    }
+
+    /**
+     * Return the ids of the resources whose indexed attribute has the given value.
+     *
+     * @param index Index of the attribute.
+     * @param value Value of the attribute.
+     * @return Ids of the matching resources.
+     */
+    Set<String> lookup(AttributeIndex index, String value) {
+
+        Set<String> ids = index.ids.get(index.key(value));
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    /**
+     * Store the given resource, replacing any stored resource with the same id. The store takes over the given
+     * resource, which must not be modified afterwards.
+     *
+     * @param resource Resource to store.
+     * @throws CharonException If the last modified time of the resource could not be read.
+     */
+    synchronized void put(T resource) throws CharonException {
+
+        // The values of the resource are indexed before it is stored and the values of the replaced resource are
+        // unindexed after it, so that a concurrent listing never misses the resource through the indexes.
+        T previous = resources.get(resource.getId());
+        index(resource);
+        resources.put(resource.getId(), resource);
+        if (previous != null) {
+            unindex(previous, resource);
+        }
+    }
+
+    /**
+     * Remove the resource with the given id.
+     *
+     * @param id Id of the resource.
+     * @return Whether there was a resource with the id.
+     * @throws CharonException If the last modified time of the resource could not be read.
+     */
+    synchronized boolean remove(String id) throws CharonException {
+
+        T previous = resources.remove(id);
+        if (previous == null) {
+            return false;
+        }
+        unindex(previous, null);
+        return true;
+    }
+
+    /**
+     * List the resources which match the given filter.
+     *
+     * @param filter     Root node of the filter tree, or null to list every resource.
+     * @param startIndex 1-based index of the first resource to return.
+     * @param count      Maximum number of resources to return, or null for no limit.
+     * @param sortBy     Attribute name or URI to sort by, or null to list the resources in the order of their ids.
+     * @param sortOrder  Sort order, which is ascending unless it is descending.
+     * @param schema     Schema of the resource type.
+     * @param resultList List which the copies of the resources of the requested page are added to.
+     * @return Total number of matching resources.
+     * @throws BadRequestException If the filter or the sort attribute is invalid.
+     * @throws CharonException     If a resource could not be copied.
+     */
+    int list(Node filter, int startIndex, Integer count, String sortBy, String sortOrder,
+             SCIMResourceTypeSchema schema, List<T> resultList) throws BadRequestException, CharonException {
+
+        Predicate<AbstractSCIMObject> predicate = FilterEvaluator.compile(filter, schema);
+        Collection<String> candidateIds = candidates(filter);
+        int first = Math.max(startIndex, 1) - 1;
+        long last = count == null ? Long.MAX_VALUE : (long) first + Math.max(count, 0);
+        boolean ascending = !SCIMConstants.OperationalConstants.DESCENDING.equalsIgnoreCase(sortOrder);
+        String sortAttributeURI = sortBy == null ? null : AttributeUtil.getAttributeURI(sortBy, schema);
+
+        if (sortAttributeURI != null && !LAST_MODIFIED_URI.equalsIgnoreCase(sortAttributeURI)) {
+            Comparator<AbstractSCIMObject> sortOrderComparator = FilterEvaluator.compileSort(sortAttributeURI,
+                    ascending, schema);
+            List<T> matches = new ArrayList<>();
+            for (Iterator<T> iterator = iterate(candidateIds); iterator.hasNext(); ) {
+                T resource = iterator.next();
+                if (predicate.test(resource)) {
+                    matches.add(resource);
+                }
+            }
+            matches.sort(sortOrderComparator);
+            for (int i = first; i < Math.min(last, matches.size()); i++) {
+                resultList.add(copy(matches.get(i)));
+            }
+            return matches.size();
+        }
+
+        // Resources are visited in the order to be listed, so only the resources of the page are collected.
+        Iterator<T> iterator = sortAttributeURI == null ? iterate(candidateIds) :
+                iterateByLastModified(candidateIds, ascending);
+        int total = 0;
+        while (iterator.hasNext()) {
+            T resource = iterator.next();
+            if (predicate.test(resource)) {
+                if (total >= first && total < last) {
+                    resultList.add(copy(resource));
+                }
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /*
+     * Return the ids of the resources which may match the given filter, using the indexes, or null if every resource
+     * has to be evaluated. The result is a superset of the matching resources, as the indexes are not updated
+     * atomically with the resources, but are extended before and trimmed after a resource is stored.
+     */
+    private Collection<String> candidates(Node filter) {
+
+        if (filter instanceof ExpressionNode expressionNode) {
+            return candidates(expressionNode);
+        }
+        if (!(filter instanceof OperationNode operationNode)) {
+            return null;
+        }
+        if (SCIMConstants.OperationalConstants.AND.equalsIgnoreCase(operationNode.getOperation())) {
+            Collection<String> left = candidates(filter.getLeftNode());
+            Collection<String> right = candidates(filter.getRightNode());
+            if (left == null || right == null) {
+                return left == null ? right : left;
+            }
+            return left.size() <= right.size() ? left : right;
+        }
+        if (SCIMConstants.OperationalConstants.OR.equalsIgnoreCase(operationNode.getOperation())) {
+            Collection<String> left = candidates(filter.getLeftNode());
+            Collection<String> right = candidates(filter.getRightNode());
+            if (left == null || right == null) {
+                return null;
+            }
+            Set<String> union = new HashSet<>(left);
+            union.addAll(right);
+            return union;
+        }
+        return null;
+    }
+
+    private Collection<String> candidates(ExpressionNode expressionNode) {
+
+        String attributeURI = expressionNode.getAttributeValue();
+        String operation = expressionNode.getOperation() == null ? null : expressionNode.getOperation().trim();
+        String value = expressionNode.getValue();
+        if (attributeURI == null || operation == null || value == null) {
+            return null;
+        }
+        if (LAST_MODIFIED_URI.equalsIgnoreCase(attributeURI)) {
+            return lastModifiedCandidates(operation, value);
+        }
+        if (!SCIMConstants.OperationalConstants.EQ.trim().equalsIgnoreCase(operation)) {
+            return null;
+        }
+        for (AttributeIndex index : indexes) {
+            if (index.isIndexOf(attributeURI)) {
+                return new ArrayList<>(lookup(index, value));
+            }
+        }
+        return null;
+    }
+
+    private Collection<String> lastModifiedCandidates(String operation, String value) {
+
+        Instant instant;
+        try {
+            instant = AttributeUtil.parseDateTime(value);
+        } catch (CharonException e) {
+            // The filter is rejected when it is compiled.
+            return null;
+        }
+        if (instant == null) {
+            return null;
+        }
+        NavigableMap<Instant, Set<String>> range;
+        if (SCIMConstants.OperationalConstants.EQ.trim().equalsIgnoreCase(operation)) {
+            range = lastModifiedIndex.subMap(instant, true, instant, true);
+        } else if (SCIMConstants.OperationalConstants.GT.trim().equalsIgnoreCase(operation)) {
+            range = lastModifiedIndex.tailMap(instant, false);
+        } else if (SCIMConstants.OperationalConstants.GE.trim().equalsIgnoreCase(operation)) {
+            range = lastModifiedIndex.tailMap(instant, true);
+        } else if (SCIMConstants.OperationalConstants.LT.trim().equalsIgnoreCase(operation)) {
+            range = lastModifiedIndex.headMap(instant, false);
+        } else if (SCIMConstants.OperationalConstants.LE.trim().equalsIgnoreCase(operation)) {
+            range = lastModifiedIndex.headMap(instant, true);
+        } else {
+            return null;
+        }
+        List<String> ids = new ArrayList<>();
+        for (Set<String> idsOfInstant : range.values()) {
+            ids.addAll(idsOfInstant);
+        }
+        return ids;
+    }
+
+    /*
+     * Iterate the resources with the given ids, in the order of their ids, or every resource if the ids are null.
+     */
+    private Iterator<T> iterate(Collection<String> ids) {
+
+        if (ids == null) {
+            return resources.values().iterator();
+        }
+        List<String> sortedIds = new ArrayList<>(new HashSet<>(ids));
+        Collections.sort(sortedIds);
+        return resolve(sortedIds.iterator());
+    }
+
+    /*
+     * Iterate the resources with the given ids, or every resource if the ids are null, in the order of their last
+     * modified time. Resources without a last modified time come last.
+     */
+    private Iterator<T> iterateByLastModified(Collection<String> ids, boolean ascending) {
+
+        Set<String> candidateIds = ids == null ? null : new HashSet<>(ids);
+        List<String> orderedIds = new ArrayList<>();
+        Set<String> visitedIds = new HashSet<>();
+        for (Set<String> idsOfInstant : (ascending ? lastModifiedIndex : lastModifiedIndex.descendingMap()).values()) {
+            List<String> sortedIds = new ArrayList<>(idsOfInstant);
+            Collections.sort(sortedIds);
+            for (String id : sortedIds) {
+                if ((candidateIds == null || candidateIds.contains(id)) && visitedIds.add(id)) {
+                    orderedIds.add(id);
+                }
+            }
+        }
+        for (String id : candidateIds == null ? resources.keySet() : new ArrayList<>(candidateIds)) {
+            if (!visitedIds.contains(id)) {
+                orderedIds.add(id);
+            }
+        }
+        return resolve(orderedIds.iterator());
+    }
+
+    /*
+     * Iterate the resources with the given ids, skipping the ids of removed resources.
+     */
+    private Iterator<T> resolve(Iterator<String> ids) {
+
+        List<T> resolved = new ArrayList<>();
+        while (ids.hasNext()) {
+            T resource = resources.get(ids.next());
+            if (resource != null) {
+                resolved.add(resource);
+            }
+        }
+        return resolved.iterator();
+    }
+
+    private void index(T resource) throws CharonException {
+
+        for (AttributeIndex index : indexes) {
+            for (String value : index.values(resource)) {
+                index.ids.computeIfAbsent(index.key(value), key -> ConcurrentHashMap.newKeySet()).add(resource.getId());
+            }
+        }
+        Instant lastModified = getLastModified(resource);
+        if (lastModified != null) {
+            lastModifiedIndex.computeIfAbsent(lastModified, key -> ConcurrentHashMap.newKeySet())
+                    .add(resource.getId());
+        }
+    }
+
+    /*
+     * Unindex the values of the resource, except those which the resource replacing it, if any, has as well.
+     */
+    private void unindex(T resource, T replacement) throws CharonException {
+
+        for (AttributeIndex index : indexes) {
+            Set<String> keptKeys = new HashSet<>();
+            if (replacement != null) {
+                for (String value : index.values(replacement)) {
+                    keptKeys.add(index.key(value));
+                }
+            }
+            for (String value : index.values(resource)) {
+                String key = index.key(value);
+                if (!keptKeys.contains(key)) {
+                    removeId(index.ids, key, resource.getId());
+                }
+            }
+        }
+        Instant lastModified = getLastModified(resource);
+        if (lastModified != null && (replacement == null || !lastModified.equals(getLastModified(replacement)))) {
+            removeId(lastModifiedIndex, lastModified, resource.getId());
+        }
+    }
+
+    private static <K> void removeId(Map<K, Set<String>> index, K key, String id) {
+
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Instant getLastModified(AbstractSCIMObject resource) throws CharonException {
+
+        Attribute meta = resource.getAttribute(SCIMConstants.CommonSchemaConstants.META);
+        if (meta instanceof ComplexAttribute complexAttribute && complexAttribute.getSubAttributesList()
+                .get(SCIMConstants.CommonSchemaConstants.LAST_MODIFIED) instanceof SimpleAttribute lastModified) {
+            return lastModified.getInstantValue();
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T copy(T resource) throws CharonException {
+
+        return (T) CopyUtil.deepCopy(resource);
+    }
+
+    /**
+     * An index from the values of a string attribute, or of a sub-attribute of a complex or multi-valued attribute,
+     * to the ids of the resources which have the value. Values of attributes which are not case exact are indexed
+     * case insensitively.
+     */
+    static final class AttributeIndex {
+
+        private final String[] names;
+        private final boolean caseExact;
+        private final Set<String> attributeURIs;
+        private final Map<String, Set<String>> ids = new ConcurrentHashMap<>();
+
+        /**
+         * @param names         Names of the attributes along the path to the indexed attribute.
+         * @param caseExact     Whether the indexed attribute is case exact.
+         * @param attributeURIs URIs of the attributes which filters on the indexed attribute refer to.
+         */
+        AttributeIndex(String[] names, boolean caseExact, String... attributeURIs) {
+
+            this.names = names.clone();
+            this.caseExact = caseExact;
+            this.attributeURIs = new HashSet<>();
+            for (String attributeURI : attributeURIs) {
+                this.attributeURIs.add(foldCase(attributeURI));
+            }
+        }
+
+        private boolean isIndexOf(String attributeURI) {
+
+            return attributeURIs.contains(foldCase(attributeURI));
+        }
+
+        private String key(String value) {
+
+            return caseExact ? value : foldCase(value);
+        }
+
+        private List<String> values(AbstractSCIMObject resource) {
+
+            List<String> values = new ArrayList<>();
+            collectValues(resource.getAttribute(names[0]), 0, values);
+            return values;
+        }
+
+        private void collectValues(Attribute attribute, int index, List<String> values) {
+
+            if (attribute instanceof SimpleAttribute simpleAttribute) {
+                if (index == names.length - 1 && simpleAttribute.getValue() != null) {
+                    values.add(String.valueOf(simpleAttribute.getValue()));
+                }
+            } else if (attribute instanceof ComplexAttribute complexAttribute) {
+                if (index < names.length - 1) {
+                    collectValues(complexAttribute.getSubAttributesList().get(names[index + 1]), index + 1, values);
+                }
+            } else if (attribute instanceof MultiValuedAttribute multiValuedAttribute) {
+                if (index == names.length - 1) {
+                    for (Object value : multiValuedAttribute.getAttributePrimitiveValues()) {
+                        values.add(String.valueOf(value));
+                    }
+                }
+                for (Attribute value : multiValuedAttribute.getAttributeValues()) {
+                    if (value instanceof ComplexAttribute complexValue && index < names.length - 1) {
+                        collectValues(complexValue.getSubAttributesList().get(names[index + 1]), index + 1, values);
+                    }
+                }
+            }
+        }
+
+        /*
+         * Fold the case of the given string the way String.equalsIgnoreCase compares characters.
+         */
+        private static String foldCase(String value) {
+
+            StringBuilder folded = new StringBuilder(value.length());
+            value.codePoints().forEach(codePoint ->
+                    folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint))));
+            return folded.toString();
+        }
+    }
+}
@@ -22,6 +22,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.wso2.charon3.core.attributes.Attribute;
+import org.wso2.charon3.core.attributes.ComplexAttribute;
+import org.wso2.charon3.core.attributes.MultiValuedAttribute;
+import org.wso2.charon3.core.attributes.SimpleAttribute;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.ConflictException;
@@ -31,95 +35,117 @@ import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.objects.Group;
 import org.wso2.charon3.core.objects.User;
 import org.wso2.charon3.core.objects.plainobjects.GroupsGetResponse;
+import org.wso2.charon3.core.objects.plainobjects.MultiValuedComplexType;
 import org.wso2.charon3.core.objects.plainobjects.UsersGetResponse;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.utils.CopyUtil;
 import org.wso2.charon3.core.utils.codeutils.Node;
 import org.wso2.charon3.core.utils.codeutils.SearchRequest;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 /**
  * This is a sample dynamic user store.
+ * <p>
+ * Users and groups are kept in {@link InMemoryResourceStore}s, which index users by userName, emails.value and
+ * externalId, groups by displayName, externalId and the ids of their members, and both by their last modified time.
+ * Listing supports filtering, sorting and paging.
  */
 public class InMemoryUserManager implements UserManager {
     private static final Logger logger = LoggerFactory.getLogger(InMemoryUserManager.class);
+
+    private final InMemoryResourceStore.AttributeIndex userNameIndex = new InMemoryResourceStore.AttributeIndex(
+            new String[]{SCIMConstants.UserSchemaConstants.USER_NAME}, false,
+            SCIMConstants.UserSchemaConstants.USER_NAME_URI);
+    private final InMemoryResourceStore.AttributeIndex membersIndex = new InMemoryResourceStore.AttributeIndex(
+            new String[]{SCIMConstants.GroupSchemaConstants.MEMBERS, SCIMConstants.GroupSchemaConstants.VALUE}, true,
+            SCIMConstants.GroupSchemaConstants.MEMBERS_URI, SCIMConstants.GroupSchemaConstants.VALUE_URI);
     //in memory user manager stores users
-    ConcurrentHashMap<String, User> inMemoryUserList = new ConcurrentHashMap<String, User>();
-    ConcurrentHashMap<String, Group> inMemoryGroupList = new ConcurrentHashMap<String, Group>();
+    private final InMemoryResourceStore<User> inMemoryUserList = new InMemoryResourceStore<>(userNameIndex,
+            new InMemoryResourceStore.AttributeIndex(new String[]{SCIMConstants.UserSchemaConstants.EMAILS,
+                    SCIMConstants.CommonSchemaConstants.VALUE}, false,
+                    SCIMConstants.UserSchemaConstants.EMAILS_URI, SCIMConstants.UserSchemaConstants.EMAILS_VALUE_URI),
+            new InMemoryResourceStore.AttributeIndex(new String[]{SCIMConstants.CommonSchemaConstants.EXTERNAL_ID},
+                    true, SCIMConstants.CommonSchemaConstants.EXTERNAL_ID_URI));
+    private final InMemoryResourceStore<Group> inMemoryGroupList = new InMemoryResourceStore<>(membersIndex,
+            new InMemoryResourceStore.AttributeIndex(new String[]{SCIMConstants.GroupSchemaConstants.DISPLAY_NAME},
+                    false, SCIMConstants.GroupSchemaConstants.DISPLAY_NAME_URI),
+            new InMemoryResourceStore.AttributeIndex(new String[]{SCIMConstants.CommonSchemaConstants.EXTERNAL_ID},
+                    true, SCIMConstants.CommonSchemaConstants.EXTERNAL_ID_URI));
 
 
     @Override
     public User createUser(User user, Map<String, Boolean> map)
             throws CharonException, ConflictException, BadRequestException {
-        if (inMemoryUserList.get(user.getId()) != null) {
-            throw new ConflictException("User with the id : " + user.getId() + "already exists");
-        } else {
-            inMemoryUserList.put(user.getId(), user);
-            return (User) CopyUtil.deepCopy(user);
+        synchronized (inMemoryUserList) {
+            if (inMemoryUserList.contains(user.getId())) {
+                throw new ConflictException("User with the id : " + user.getId() + "already exists");
+            }
+            checkUserNameIsUnique(user);
+            inMemoryUserList.put(user);
         }
+        return (User) CopyUtil.deepCopy(user);
     }
 
     @Override
     public User getUser(String id, Map<String, Boolean> map)
             throws CharonException, BadRequestException, NotFoundException {
-       if (inMemoryUserList.get(id) != null) {
-           return (User) CopyUtil.deepCopy(inMemoryUserList.get(id));
-       } else {
-           throw new NotFoundException("No user with the id : " + id);
-       }
+        User user = inMemoryUserList.get(id);
+        if (user != null) {
+            return user;
+        } else {
+            throw new NotFoundException("No user with the id : " + id);
+        }
     }
 
     @Override
     public void deleteUser(String id)
             throws NotFoundException, CharonException, NotImplementedException, BadRequestException {
-        if (inMemoryUserList.get(id) == null) {
+        if (!inMemoryUserList.remove(id)) {
             throw new NotFoundException("No user with the id : " + id);
-        } else {
-            inMemoryUserList.remove(id);
         }
     }
 
     @Override
-    public UsersGetResponse listUsersWithGET(Node rootNode, int startIndex, int count, String sortBy,
-                                         String sortOrder, String domainName, Map<String, Boolean> requiredAttributes)
+    public UsersGetResponse listUsersWithGET(Node rootNode, Integer startIndex, Integer count, String sortBy,
+                                             String sortOrder, String domainName,
+                                             Map<String, Boolean> requiredAttributes)
             throws CharonException, NotImplementedException, BadRequestException {
-        if (sortBy != null || sortOrder != null) {
-            throw new NotImplementedException("Sorting is not supported");
-        }  else if (startIndex != 1) {
-            throw new NotImplementedException("Pagination is not supported");
-        } else if (rootNode != null) {
-            throw new NotImplementedException("Filtering is not supported");
-        } else {
-            return listUsers(requiredAttributes);
-        }
+
+        List<User> userList = new ArrayList<>();
+        int totalUsers = inMemoryUserList.list(rootNode, startIndex == null ? 1 : startIndex, count, sortBy,
+                sortOrder, SCIMResourceSchemaManager.getInstance().getUserResourceSchema(), userList);
+        return new UsersGetResponse(totalUsers, userList);
     }
 
-    private UsersGetResponse listUsers(Map<String, Boolean> requiredAttributes) throws CharonException {
+    @Override
+    public UsersGetResponse listUsersWithGET(Node rootNode, int startIndex, int count, String sortBy,
+                                         String sortOrder, String domainName, Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
 
-        List<User> userList = new ArrayList<>();
-        for (Map.Entry<String, User> entry : inMemoryUserList.entrySet()) {
-            userList.add(entry.getValue());
-        }
-        return new UsersGetResponse(userList.size(), userList);
+        return listUsersWithGET(rootNode, Integer.valueOf(startIndex), Integer.valueOf(count), sortBy, sortOrder,
+                domainName, requiredAttributes);
     }
 
     @Override
     public UsersGetResponse listUsersWithPost(SearchRequest searchRequest, Map<String, Boolean> requiredAttributes)
             throws CharonException, NotImplementedException, BadRequestException {
 
-        return listUsersWithGET(searchRequest.getFilter(), searchRequest.getStartIndex(), searchRequest.getCount(),
-                searchRequest.getSortBy(), searchRequest.getSortOder(), searchRequest.getDomainName(),
-                requiredAttributes);
+        return listUsersWithGET(searchRequest.getFilter(), Integer.valueOf(searchRequest.getStartIndex()),
+                Integer.valueOf(searchRequest.getCount()), searchRequest.getSortBy(), searchRequest.getSortOder(),
+                searchRequest.getDomainName(), requiredAttributes);
     }
 
     @Override
     public User updateUser(User user, Map<String, Boolean> map)
-            throws NotImplementedException, CharonException, BadRequestException, NotFoundException {
-       if (user.getId() != null) {
-           inMemoryUserList.replace(user.getId(), user);
+            throws NotImplementedException, CharonException, BadRequestException, NotFoundException,
+            ConflictException {
+       if (user.getId() != null && replaceUser(user)) {
            return (User) CopyUtil.deepCopy(user);
        } else {
            throw new NotFoundException("No user with the id : " + user.getId());
@@ -128,15 +154,44 @@ public class InMemoryUserManager implements UserManager {
 
     public User updateUser(User user, Map<String, Boolean> requiredAttributes,
                            List<String> allSimpleMultiValuedAttributes)
-            throws CharonException, BadRequestException, NotFoundException {
+            throws CharonException, BadRequestException, NotFoundException, ConflictException {
 
         if (StringUtils.isEmpty(user.getId())) {
             throw new NotFoundException("No user found. User id is empty.");
         }
-        inMemoryUserList.replace(user.getId(), user);
+        if (!replaceUser(user)) {
+            throw new NotFoundException("No user with the id : " + user.getId());
+        }
         return (User) CopyUtil.deepCopy(user);
     }
 
+    private boolean replaceUser(User user) throws CharonException, ConflictException {
+
+        synchronized (inMemoryUserList) {
+            if (!inMemoryUserList.contains(user.getId())) {
+                return false;
+            }
+            checkUserNameIsUnique(user);
+            inMemoryUserList.put(user);
+            return true;
+        }
+    }
+
+    /*
+     * Check that no other user has the userName of the given user. Must be called holding the lock of the user list.
+     */
+    private void checkUserNameIsUnique(User user) throws CharonException, ConflictException {
+
+        if (user.getUserName() == null) {
+            return;
+        }
+        for (String id : inMemoryUserList.lookup(userNameIndex, user.getUserName())) {
+            if (!id.equals(user.getId())) {
+                throw new ConflictException("User with the userName : " + user.getUserName() + " already exists");
+            }
+        }
+    }
+
     @Override
     public User getMe(String s, Map<String, Boolean> map)
             throws CharonException, BadRequestException, NotFoundException {
@@ -164,15 +219,21 @@ public class InMemoryUserManager implements UserManager {
     @Override
     public Group createGroup(Group group, Map<String, Boolean> map)
             throws CharonException, ConflictException, NotImplementedException, BadRequestException {
-        inMemoryGroupList.put(group.getId(), group);
+        synchronized (inMemoryGroupList) {
+            if (inMemoryGroupList.contains(group.getId())) {
+                throw new ConflictException("Group with the id : " + group.getId() + " already exists");
+            }
+            inMemoryGroupList.put(group);
+        }
         return (Group) CopyUtil.deepCopy(group);
     }
 
     @Override
     public Group getGroup(String id, Map<String, Boolean> map)
             throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
-        if (inMemoryGroupList.get(id) != null) {
-            return (Group) CopyUtil.deepCopy(inMemoryGroupList.get(id));
+        Group group = inMemoryGroupList.get(id);
+        if (group != null) {
+            return group;
         } else {
             throw new NotFoundException("No user with the id : " + id);
         }
@@ -181,53 +242,94 @@ public class InMemoryUserManager implements UserManager {
     @Override
     public void deleteGroup(String id)
             throws NotFoundException, CharonException, NotImplementedException, BadRequestException {
-        if (inMemoryGroupList.get(id) == null) {
+        if (!inMemoryGroupList.remove(id)) {
             throw new NotFoundException("No user with the id : " + id);
-        } else {
-            inMemoryGroupList.remove(id);
         }
     }
 
+    @Override
+    public GroupsGetResponse listGroupsWithGET(Node rootNode, Integer startIndex, Integer count, String sortBy,
+                                               String sortOrder, String domainName,
+                                               Map<String, Boolean> requiredAttributes)
+            throws CharonException, NotImplementedException, BadRequestException {
+
+        List<Group> groupList = new ArrayList<>();
+        int totalGroups = inMemoryGroupList.list(rootNode, startIndex == null ? 1 : startIndex, count, sortBy,
+                sortOrder, SCIMResourceSchemaManager.getInstance().getGroupResourceSchema(), groupList);
+        return new GroupsGetResponse(totalGroups, groupList);
+    }
+
     @Override
     public GroupsGetResponse listGroupsWithGET(Node rootNode, int startIndex, int count, String sortBy,
                              String sortOrder, String domainName, Map<String, Boolean> requiredAttributes)
             throws CharonException, NotImplementedException, BadRequestException {
-        if (sortBy != null || sortOrder != null) {
-            throw new NotImplementedException("Sorting is not supported");
-        }  else if (startIndex != 1) {
-            throw new NotImplementedException("Pagination is not supported");
-        } else if (rootNode != null) {
-            throw new NotImplementedException("Filtering is not supported");
-        } else {
-            return listGroups(requiredAttributes);
-        }
-    }
 
-    private GroupsGetResponse listGroups(Map<String, Boolean> requiredAttributes) {
-        List<Group> groupList = new ArrayList<>();
-        for (Group group : inMemoryGroupList.values()) {
-            groupList.add(group);
-        }
-        return new GroupsGetResponse(groupList.size(), groupList);
+        return listGroupsWithGET(rootNode, Integer.valueOf(startIndex), Integer.valueOf(count), sortBy, sortOrder,
+                domainName, requiredAttributes);
     }
 
     @Override
-    public Group updateGroup(Group group, Group group1, Map<String, Boolean> map)
+    public Group updateGroup(Group oldGroup, Group newGroup, Map<String, Boolean> map)
             throws NotImplementedException, BadRequestException, CharonException, NotFoundException {
-        if (group.getId() != null) {
-            inMemoryGroupList.replace(group.getId(), group);
-            return (Group) CopyUtil.deepCopy(group);
-        } else {
-            throw new NotFoundException("No user with the id : " + group.getId());
+        String id = newGroup.getId();
+        synchronized (inMemoryGroupList) {
+            if (id == null || !inMemoryGroupList.contains(id)) {
+                throw new NotFoundException("No user with the id : " + id);
+            }
+            inMemoryGroupList.put(newGroup);
         }
+        return (Group) CopyUtil.deepCopy(newGroup);
     }
 
     @Override
     public GroupsGetResponse listGroupsWithPost(SearchRequest searchRequest, Map<String, Boolean> requiredAttributes)
             throws NotImplementedException, BadRequestException, CharonException {
 
-        return listGroupsWithGET(searchRequest.getFilter(), searchRequest.getStartIndex(),
-                searchRequest.getCount(), searchRequest.getSortBy(), searchRequest.getSortOder(),
+        return listGroupsWithGET(searchRequest.getFilter(), Integer.valueOf(searchRequest.getStartIndex()),
+                Integer.valueOf(searchRequest.getCount()), searchRequest.getSortBy(), searchRequest.getSortOder(),
                 searchRequest.getDomainName(), requiredAttributes);
     }
+
+    @Override
+    public Iterator<MultiValuedComplexType> getGroupMembers(String groupId, int startIndex)
+            throws CharonException, NotFoundException {
+
+        Group group = inMemoryGroupList.get(groupId);
+        if (group == null) {
+            throw new NotFoundException("No group with the id : " + groupId);
+        }
+        List<MultiValuedComplexType> members = new ArrayList<>();
+        if (group.getAttribute(SCIMConstants.GroupSchemaConstants.MEMBERS)
+                instanceof MultiValuedAttribute membersAttribute && membersAttribute.getAttributeValues() != null) {
+            List<Attribute> memberValues = membersAttribute.getAttributeValues();
+            for (int i = Math.max(startIndex - 1, 0); i < memberValues.size(); i++) {
+                ComplexAttribute member = (ComplexAttribute) memberValues.get(i);
+                members.add(new MultiValuedComplexType(
+                        getSubAttributeValue(member, SCIMConstants.CommonSchemaConstants.TYPE), false,
+                        getSubAttributeValue(member, SCIMConstants.CommonSchemaConstants.DISPLAY),
+                        getSubAttributeValue(member, SCIMConstants.CommonSchemaConstants.VALUE),
+                        getSubAttributeValue(member, SCIMConstants.CommonSchemaConstants.REF)));
+            }
+        }
+        return members.iterator();
+    }
+
+    private static String getSubAttributeValue(ComplexAttribute attribute, String subAttributeName)
+            throws CharonException {
+
+        Attribute subAttribute = attribute.getSubAttribute(subAttributeName);
+        return subAttribute instanceof SimpleAttribute simpleAttribute && simpleAttribute.getValue() != null ?
+                simpleAttribute.getStringValue() : null;
+    }
+
+    /**
+     * Return the ids of the groups which have the given user or group as a direct member.
+     *
+     * @param memberId Id of the member.
+     * @return Ids of the groups of the member.
+     */
+    public Set<String> getGroupIdsOfMember(String memberId) {
+
+        return inMemoryGroupList.lookup(membersIndex, memberId);
+    }
 }
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.usermanager;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMConstants;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.charon3.core.utils.codeutils.FilterTreeManager;
+import org.wso2.charon3.core.utils.codeutils.Node;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test class for InMemoryResourceStore.
+ */
+public class InMemoryResourceStoreTest {
+
+    private static final Instant BASE_TIME = Instant.parse("2026-01-01T00:00:00Z");
+
+    private SCIMResourceTypeSchema schema;
+    private InMemoryResourceStore.AttributeIndex userNameIndex;
+    private InMemoryResourceStore.AttributeIndex nickNameIndex;
+    private InMemoryResourceStore<User> store;
+
+    @BeforeMethod
+    public void setUp() {
+
+        schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
+        userNameIndex = new InMemoryResourceStore.AttributeIndex(
+                new String[]{SCIMConstants.UserSchemaConstants.USER_NAME}, false,
+                SCIMConstants.UserSchemaConstants.USER_NAME_URI);
+        nickNameIndex = new InMemoryResourceStore.AttributeIndex(
+                new String[]{SCIMConstants.UserSchemaConstants.NICK_NAME}, true,
+                SCIMConstants.UserSchemaConstants.NICK_NAME_URI);
+        store = new InMemoryResourceStore<>(userNameIndex, nickNameIndex);
+    }
+
+    @Test
+    public void testIndexesFollowReplacedAndRemovedResources() throws Exception {
+
+        store.put(user("1", "kim", "k", 1));
+        store.put(user("2", "lee", "k", 2));
+
+        store.put(user("1", "kimberly", "kb", 3));
+
+        Assert.assertTrue(store.lookup(userNameIndex, "kim").isEmpty());
+        Assert.assertEquals(store.lookup(userNameIndex, "kimberly"), Set.of("1"));
+        Assert.assertEquals(store.lookup(nickNameIndex, "k"), Set.of("2"));
+        Assert.assertEquals(list("userName eq kim"), List.of());
+        Assert.assertEquals(list("userName eq kimberly"), List.of("kimberly"));
+        Assert.assertEquals(list("meta.lastModified eq \"" + time(1) + "\""), List.of());
+        Assert.assertEquals(list("meta.lastModified eq \"" + time(3) + "\""), List.of("kimberly"));
+
+        Assert.assertTrue(store.remove("1"));
+        Assert.assertFalse(store.remove("1"));
+
+        Assert.assertTrue(store.lookup(userNameIndex, "kimberly").isEmpty());
+        Assert.assertNull(store.get("1"));
+        Assert.assertEquals(list("meta.lastModified ge \"" + time(0) + "\""), List.of("lee"));
+    }
+
+    @Test
+    public void testValuesKeptByTheReplacingResourceStayIndexed() throws Exception {
+
+        store.put(user("1", "kim", "k", 1));
+
+        store.put(user("1", "KIM", "kb", 1));
+
+        Assert.assertEquals(store.lookup(userNameIndex, "kim"), Set.of("1"));
+        Assert.assertTrue(store.lookup(nickNameIndex, "k").isEmpty());
+        Assert.assertEquals(store.lookup(nickNameIndex, "kb"), Set.of("1"));
+        Assert.assertEquals(list("userName eq kim"), List.of("KIM"));
+        Assert.assertEquals(list("meta.lastModified eq \"" + time(1) + "\""), List.of("KIM"));
+    }
+
+    @Test
+    public void testUserNamesAreLookedUpCaseInsensitively() throws Exception {
+
+        store.put(user("1", "Kim", "kim", 1));
+
+        Assert.assertEquals(store.lookup(userNameIndex, "KIM"), Set.of("1"));
+        Assert.assertEquals(list("userName eq kIM"), List.of("Kim"));
+        // The nickName index is case exact.
+        Assert.assertTrue(store.lookup(nickNameIndex, "KIM").isEmpty());
+    }
+
+    @Test
+    public void testAndFiltersAreNarrowedByEitherIndexedSide() throws Exception {
+
+        store.put(user("1", "kim", "k", 1));
+        store.put(user("2", "lee", "k", 2));
+        store.put(user("3", "kane", "x", 3));
+
+        Assert.assertEquals(list("nickName eq k and userName sw l"), List.of("lee"));
+        Assert.assertEquals(list("userName sw k and nickName eq k"), List.of("kim"));
+        Assert.assertEquals(list("userName eq KIM and nickName eq k"), List.of("kim"));
+        Assert.assertEquals(list("userName eq kim and nickName eq x"), List.of());
+    }
+
+    @Test
+    public void testOrFiltersWithAnUnindexedSideVisitEveryResource() throws Exception {
+
+        store.put(user("1", "kim", "k", 1));
+        store.put(user("2", "lee", "l", 2));
+        store.put(user("3", "kane", "x", 3));
+
+        Assert.assertEquals(list("userName eq kim or nickName eq l"), List.of("kim", "lee"));
+        Assert.assertEquals(list("userName eq kim or userName ew ne"), List.of("kim", "kane"));
+        Assert.assertEquals(list("(userName eq kim or userName eq lee) and nickName eq l"), List.of("lee"));
+    }
+
+    @Test
+    public void testLastModifiedRanges() throws Exception {
+
+        for (int i = 1; i <= 5; i++) {
+            store.put(user(String.valueOf(i), "user" + i, null, i));
+        }
+
+        Assert.assertEquals(list("meta.lastModified gt \"" + time(3) + "\""), List.of("user4", "user5"));
+        Assert.assertEquals(list("meta.lastModified ge \"" + time(3) + "\""), List.of("user3", "user4", "user5"));
+        Assert.assertEquals(list("meta.lastModified lt \"" + time(2) + "\""), List.of("user1"));
+        Assert.assertEquals(list("meta.lastModified le \"" + time(2) + "\""), List.of("user1", "user2"));
+        Assert.assertEquals(list("meta.lastModified ge \"" + time(2) + "\" and meta.lastModified lt \"" +
+                time(4) + "\""), List.of("user2", "user3"));
+    }
+
+    @Test
+    public void testDescendingSortWithPaging() throws Exception {
+
+        String[] userNames = {"carol", "alice", "erin", "bob", "dave"};
+        for (int i = 0; i < userNames.length; i++) {
+            store.put(user(String.valueOf(i), userNames[i], null, i));
+        }
+
+        List<User> page = new ArrayList<>();
+        int total = store.list(null, 2, 2, SCIMConstants.UserSchemaConstants.USER_NAME,
+                SCIMConstants.OperationalConstants.DESCENDING, schema, page);
+
+        Assert.assertEquals(total, 5);
+        Assert.assertEquals(userNames(page), List.of("dave", "carol"));
+
+        page.clear();
+        total = store.list(null, 4, 10, "meta.lastModified", SCIMConstants.OperationalConstants.DESCENDING,
+                schema, page);
+
+        Assert.assertEquals(total, 5);
+        Assert.assertEquals(userNames(page), List.of("alice", "carol"));
+
+        page.clear();
+        total = store.list(null, 6, 10, SCIMConstants.UserSchemaConstants.USER_NAME,
+                SCIMConstants.OperationalConstants.DESCENDING, schema, page);
+
+        Assert.assertEquals(total, 5);
+        Assert.assertTrue(page.isEmpty());
+    }
+
+    @Test
+    public void testReadsAreCopies() throws Exception {
+
+        store.put(user("1", "kim", "k", 1));
+
+        store.get("1").setUserName("lee");
+
+        Assert.assertEquals(store.get("1").getUserName(), "kim");
+        Assert.assertEquals(store.lookup(userNameIndex, "kim"), Set.of("1"));
+    }
+
+    private List<String> list(String filter) throws Exception {
+
+        Node filterTree = new FilterTreeManager(filter, schema).buildTree();
+        List<User> users = new ArrayList<>();
+        int total = store.list(filterTree, 1, null, null, null, schema, users);
+        Assert.assertEquals(total, users.size());
+        return userNames(users);
+    }
+
+    private static List<String> userNames(List<User> users) throws Exception {
+
+        List<String> userNames = new ArrayList<>();
+        for (User user : users) {
+            userNames.add(user.getUserName());
+        }
+        return userNames;
+    }
+
+    private static User user(String id, String userName, String nickName, int minutes) throws Exception {
+
+        User user = new User();
+        user.setId(id);
+        user.setUserName(userName);
+        if (nickName != null) {
+            user.replaceNickName(nickName);
+        }
+        user.setLastModifiedInstant(BASE_TIME.plusSeconds(60L * minutes));
+        return user;
+    }
+
+    private static String time(int minutes) {
+
+        return BASE_TIME.plusSeconds(60L * minutes).toString();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.charon3.utils.usermanager;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.charon3.core.exceptions.ConflictException;
+import org.wso2.charon3.core.exceptions.NotFoundException;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.objects.plainobjects.MultiValuedComplexType;
+
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * Test class for InMemoryUserManager.
+ */
+public class InMemoryUserManagerTest {
+
+    private InMemoryUserManager userManager;
+
+    @BeforeMethod
+    public void setUp() {
+
+        userManager = new InMemoryUserManager();
+    }
+
+    @Test
+    public void testCreateUserWithAnExistingUserNameFails() throws Exception {
+
+        userManager.createUser(user("1", "kim"), new HashMap<>());
+
+        Assert.assertThrows(ConflictException.class, () -> userManager.createUser(user("2", "KIM"), new HashMap<>()));
+    }
+
+    @Test
+    public void testUpdateUserToTheUserNameOfAnotherUserFails() throws Exception {
+
+        userManager.createUser(user("1", "kim"), new HashMap<>());
+        userManager.createUser(user("2", "lee"), new HashMap<>());
+
+        Assert.assertThrows(ConflictException.class, () -> userManager.updateUser(user("2", "Kim"), new HashMap<>()));
+        Assert.assertEquals(userManager.getUser("2", new HashMap<>()).getUserName(), "lee");
+    }
+
+    @Test
+    public void testUpdateUserKeepingItsUserName() throws Exception {
+
+        userManager.createUser(user("1", "kim"), new HashMap<>());
+
+        User updatedUser = user("1", "kim");
+        updatedUser.replaceNickName("k");
+        userManager.updateUser(updatedUser, new HashMap<>());
+
+        Assert.assertEquals(userManager.getUser("1", new HashMap<>()).getNickName(), "k");
+    }
+
+    @Test
+    public void testCreateGroupWithAnExistingIdFails() throws Exception {
+
+        userManager.createGroup(group("1", "admins"), new HashMap<>());
+
+        Assert.assertThrows(ConflictException.class,
+                () -> userManager.createGroup(group("1", "users"), new HashMap<>()));
+        Assert.assertEquals(userManager.getGroup("1", new HashMap<>()).getDisplayName(), "admins");
+    }
+
+    @Test
+    public void testGetGroupMembersFromStartIndex() throws Exception {
+
+        Group group = group("1", "admins");
+        group.setMember("u1", "kim", null, "User");
+        group.setMember("u2", "lee", null, "User");
+        group.setMember("u3", "ann", null, "User");
+        userManager.createGroup(group, new HashMap<>());
+
+        Iterator<MultiValuedComplexType> members = userManager.getGroupMembers("1", 2);
+
+        MultiValuedComplexType member = members.next();
+        Assert.assertEquals(member.getValue(), "u2");
+        Assert.assertEquals(member.getDisplay(), "lee");
+        Assert.assertEquals(member.getType(), "User");
+        Assert.assertEquals(members.next().getValue(), "u3");
+        Assert.assertFalse(members.hasNext());
+        Assert.assertFalse(userManager.getGroupMembers("1", 4).hasNext());
+        Assert.assertThrows(NotFoundException.class, () -> userManager.getGroupMembers("2", 1));
+    }
+
+    private static User user(String id, String userName) throws Exception {
+
+        User user = new User();
+        user.setId(id);
+        user.setUserName(userName);
+        return user;
+    }
+
+    private static Group group(String id, String displayName) throws Exception {
+
+        Group group = new Group();
+        group.setId(id);
+        group.setDisplayName(displayName);
+        return group;
+    }
+}